@@ -0,0 +1,181 @@
+package com.example.spring.boot.rest.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.spring.boot.rest.db.connector.DmDatabaseConnector;
+import com.example.spring.boot.rest.db.extractor.EmpConfigResultSetExtractor;
+import com.example.spring.boot.rest.types.EmpAddress;
+import com.example.spring.boot.rest.types.EmpConfigIdentifier;
+import com.example.spring.boot.rest.types.EmpDetails;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Compares the two hot employee queries run the way {@link DmDbServiceImpl}
+ * used to, building the SQL and its arguments per call for
+ * <code>JdbcTemplate.query(String, Object[], ...)</code>, with the compiled
+ * query objects it uses now, over a pooled in-memory H2 database in MySQL
+ * mode. The table and its indexes are those of <code>Dm.sql</code>, and both
+ * paths run every query with the same fetch size, so only the call path
+ * differs between them.
+ * <p>
+ * <code>queryCacheSize</code> is the number of parsed statements H2 keeps per
+ * connection, its equivalent of the MySQL <code>cachePrepStmts</code> cache;
+ * with <code>0</code> every execution is parsed and planned again. Compare the
+ * two paths at the same <code>queryCacheSize</code> only: the cache speeds up
+ * both of them.
+ *
+ * <pre>
+ * gradle jmh
+ * </pre>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DmDbServiceImplBenchmark {
+
+    @Param({ "10000" })
+    private int rows;
+
+    @Param({ "0", "8" })
+    private int queryCacheSize;
+
+    private HikariDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    // the compiled point lookup leaves the fetch size to the driver, as should the old one
+    private JdbcTemplate byIdJdbcTemplate;
+
+    private DmDbServiceImpl dmDbService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // logback.xml logs every statement at DEBUG, which would be all we measure
+        for (String name : new String[] { Logger.ROOT_LOGGER_NAME, JdbcTemplate.class.getName() }) {
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(name)).setLevel(ch.qos.logback.classic.Level.WARN);
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:dmdb;MODE=MySQL;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=" + this.queryCacheSize);
+        config.setUsername("sa");
+        config.setMaximumPoolSize(1);
+        this.dataSource = new HikariDataSource(config);
+
+        try (Connection connection = this.dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                // as recorded in Dm.sql
+                statement.execute("CREATE TABLE employee (ID int(11) NOT NULL AUTO_INCREMENT, "
+                        + "FirstName varchar(75), LastName varchar(75) NOT NULL, Address varchar(55), "
+                        + "City varchar(55), Email varchar(55) UNIQUE, Mobile int(20) UNIQUE, PRIMARY KEY (ID))");
+                statement.execute("CREATE INDEX employee_address ON employee (Address, ID)");
+            }
+            try (PreparedStatement insert = connection
+                    .prepareStatement("insert into employee values (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int id = 1; id <= this.rows; id++) {
+                    insert.setInt(1, id);
+                    insert.setString(2, "First" + id);
+                    insert.setString(3, "Last" + id);
+                    insert.setString(4, "Sec" + (id % 1000));
+                    insert.setString(5, "BNDA");
+                    insert.setString(6, "emp" + id + "@example.com");
+                    insert.setInt(7, 644681423 + id);
+                    insert.addBatch();
+                    if (id % 1000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        }
+
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.jdbcTemplate.setFetchSize(200);
+        this.byIdJdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.byIdJdbcTemplate.setFetchSize(0);
+
+        DmDatabaseConnector connector = new DmDatabaseConnector();
+        connector.setJdbcTemplate(this.jdbcTemplate);
+        connector.setDataSource(this.dataSource);
+        connector.setFetchSize(200);
+        this.dmDbService = new DmDbServiceImpl();
+        this.dmDbService.setDmDatabaseConnector(connector);
+        this.dmDbService.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.jdbcTemplate.execute("drop table employee");
+        this.dataSource.close();
+    }
+
+    @Benchmark
+    public List<EmpDetails> byIdJdbcTemplate() {
+        List<Integer> args = new ArrayList<Integer>();
+        args.add(this.randomId());
+        String query = DmDbServiceImpl.SELECT_EMPLOYEE + " where id = ?";
+        return this.byIdJdbcTemplate.query(query, args.toArray(), new EmpConfigResultSetExtractor());
+    }
+
+    @Benchmark
+    public EmpDetails byIdQueryObject() {
+        EmpConfigIdentifier id = new EmpConfigIdentifier();
+        id.setId(this.randomId());
+        return this.dmDbService.queryEmpConfigs(id);
+    }
+
+    @Benchmark
+    public List<EmpDetails> byAddressJdbcTemplate() {
+        List<String> args = new ArrayList<String>();
+        args.add(this.randomAddress());
+        String query = DmDbServiceImpl.SELECT_EMPLOYEE + " where address = ?";
+        return this.jdbcTemplate.query(query, args.toArray(), new EmpConfigResultSetExtractor());
+    }
+
+    @Benchmark
+    public List<EmpDetails> byAddressQueryObject() {
+        EmpAddress empAddr = new EmpAddress();
+        empAddr.setAddress(this.randomAddress());
+        return this.dmDbService.selectAllEmpAllData(empAddr);
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(this.rows) + 1;
+    }
+
+    private String randomAddress() {
+        return "Sec" + ThreadLocalRandom.current().nextInt(1000);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.example.spring.boot.rest.db.extractor;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.spring.boot.rest.types.EmpDetails;
+
+/**
+ * Compares mapping the employee table by column name, as
+ * {@link EmpConfigResultSetExtractor} used to, with the index based
+ * {@link EmpDetailsRowMapper}, over an in-memory H2 table.
+ *
+ * <pre>
+ * gradle jmh
+ * </pre>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EmpDetailsRowMapperBenchmark {
+
+    private static final String QUERY = "select " + EmpDetailsRowMapper.COLUMNS + " from employee";
+
+    @Param({ "100000" })
+    private int rows;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        this.connection = DriverManager.getConnection("jdbc:h2:mem:rowmapper;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("create table employee (ID int not null primary key, FirstName varchar(75), "
+                    + "LastName varchar(75) not null, Address varchar(55), City varchar(55), Email varchar(55), "
+                    + "Mobile varchar(20))");
+        }
+        try (PreparedStatement insert = this.connection
+                .prepareStatement("insert into employee values (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= this.rows; id++) {
+                insert.setInt(1, id);
+                insert.setString(2, "First" + id);
+                insert.setString(3, "Last" + id);
+                insert.setString(4, "Sec" + (id % 100));
+                insert.setString(5, "BNDA");
+                insert.setString(6, "emp" + id + "@example.com");
+                insert.setString(7, Integer.toString(644681423 + id));
+                insert.addBatch();
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("drop table employee");
+        }
+        this.connection.close();
+    }
+
+    @Benchmark
+    public List<EmpDetails> byColumnName() throws SQLException {
+        try (Statement statement = this.connection.createStatement(); ResultSet rs = statement.executeQuery(QUERY)) {
+            List<EmpDetails> empDetailList = new ArrayList<EmpDetails>();
+            while (rs.next()) {
+                EmpDetails empDetails = new EmpDetails();
+                empDetails.setId(rs.getInt("ID"));
+                empDetails.setFirstName(rs.getString("FirstName"));
+                empDetails.setLastName(rs.getString("LastName"));
+                empDetails.setAddress(rs.getString("Address"));
+                empDetails.setCity(rs.getString("City"));
+                empDetails.setEmail(rs.getString("Email"));
+                empDetails.setMobile(rs.getString("Mobile"));
+                empDetailList.add(empDetails);
+            }
+            return empDetailList;
+        }
+    }
+
+    @Benchmark
+    public List<EmpDetails> byColumnIndex() throws SQLException {
+        try (Statement statement = this.connection.createStatement(); ResultSet rs = statement.executeQuery(QUERY)) {
+            return new EmpConfigResultSetExtractor().extractData(rs);
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.example.spring.boot.rest.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures {@link DataEncryptor} encoding and decoding a value of
+ * <code>length</code> characters, e.g. a password or a whole header, with
+ * debug logging off.
+ *
+ * <pre>
+ * gradle jmh
+ * </pre>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataEncryptorBenchmark {
+
+    @Param({ "16", "1024" })
+    private int length;
+
+    private String data;
+
+    private String encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        this.data = StringUtils.repeat("p@ssw0rd", this.length / 8);
+        this.encoded = DataEncryptor.encode(this.data);
+    }
+
+    @Benchmark
+    public String encode() {
+        return DataEncryptor.encode(this.data);
+    }
+
+    @Benchmark
+    public String decode() {
+        return DataEncryptor.decode(this.encoded);
+    }
+
+}
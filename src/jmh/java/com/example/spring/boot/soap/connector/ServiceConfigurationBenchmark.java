@@ -0,0 +1,81 @@
+package com.example.spring.boot.soap.connector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * Measures {@link ServiceConfiguration#getStringGroup(String)}, which walks
+ * every property of the environment on each call, against a single
+ * {@link ServiceConfiguration#getString(String)} lookup. The environment holds
+ * the system properties and variables plus <code>properties</code>
+ * application properties, of which the group matches ten.
+ *
+ * <pre>
+ * gradle jmh
+ * </pre>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ServiceConfigurationBenchmark {
+
+    private static final String GROUP = "soapclient.def.mathscalculatorservice";
+
+    @Param({ "100", "1000" })
+    private int properties;
+
+    private ServiceConfiguration serviceConfig;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        Map<String, Object> source = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            source.put(GROUP + ".property" + i, "value" + i);
+        }
+        for (int i = source.size(); i < this.properties; i++) {
+            source.put("dm.property" + i, Integer.toString(i));
+        }
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addLast(new MapPropertySource("applicationConfig", source));
+        this.serviceConfig = new ServiceConfiguration(env);
+    }
+
+    @Benchmark
+    public ServiceConfigurationGroup getStringGroup() {
+        return this.serviceConfig.getStringGroup(GROUP);
+    }
+
+    @Benchmark
+    public String getString() {
+        return this.serviceConfig.getString(GROUP + ".property0");
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.example.spring.boot.soap.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.spring.boot.rest.types.EmpDetails;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.soap.xml.dm.SelectAllEmpAllDataResponse;
+
+/**
+ * Measures turning the employees found by the DAO into a response body: the
+ * SOAP <code>selectAllEmpAllDataResponse</code> through
+ * {@link SpringBootExternalSoapServiceResponseMapper} and JAXB, and the REST
+ * JSON array through Jackson, for <code>rows</code> employees.
+ * <code>soapMapping</code> is the mapping alone.
+ *
+ * <pre>
+ * gradle jmh
+ * </pre>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EmpDetailsMappingBenchmark {
+
+    @Param({ "1", "100", "10000" })
+    private int rows;
+
+    private List<EmpDetails> empDetailsList;
+
+    private Marshaller marshaller;
+
+    private ObjectMapper objectMapper;
+
+    private ByteArrayOutputStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JAXBException {
+        this.empDetailsList = new ArrayList<>(this.rows);
+        for (int id = 1; id <= this.rows; id++) {
+            EmpDetails empDetails = new EmpDetails();
+            empDetails.setId(id);
+            empDetails.setFirstName("First" + id);
+            empDetails.setLastName("Last" + id);
+            empDetails.setAddress("Sec" + (id % 100));
+            empDetails.setCity("BNDA");
+            empDetails.setEmail("emp" + id + "@example.com");
+            empDetails.setMobile(Integer.toString(644681423 + id));
+            this.empDetailsList.add(empDetails);
+        }
+        this.marshaller = JAXBContext.newInstance(SelectAllEmpAllDataResponse.class).createMarshaller();
+        this.objectMapper = new ObjectMapper();
+        this.out = new ByteArrayOutputStream(256 * this.rows);
+    }
+
+    @Benchmark
+    public SelectAllEmpAllDataResponse soapMapping() {
+        return SpringBootExternalSoapServiceResponseMapper.mapSelectAllEmpAllDataSoapResponse(this.empDetailsList);
+    }
+
+    @Benchmark
+    public int soapResponse() throws JAXBException {
+        this.out.reset();
+        this.marshaller.marshal(
+                SpringBootExternalSoapServiceResponseMapper.mapSelectAllEmpAllDataSoapResponse(this.empDetailsList),
+                this.out);
+        return this.out.size();
+    }
+
+    @Benchmark
+    public int restResponse() throws IOException {
+        this.out.reset();
+        this.objectMapper.writeValue(this.out, this.empDetailsList);
+        return this.out.size();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.example.spring.boot.soap.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sample.soap.xml.dm.EmpAddress;
+import com.sample.soap.xml.dm.EmpBatchRequest;
+import com.sample.soap.xml.dm.EmpConfigIdentifier;
+import com.sample.soap.xml.dm.EmpPageRequest;
+import com.sample.soap.xml.dm.QueryEmpConfigs;
+import com.sample.soap.xml.dm.QueryEmpConfigsBatch;
+import com.sample.soap.xml.dm.SelectAllEmpAllData;
+import com.sample.soap.xml.dm.SelectAllEmpAllDataPage;
+
+/**
+ * Measures {@link SpringBootExternalSoapServiceRequestMapper} turning each
+ * SOAP request of the DM service into its REST request; the batch request
+ * carries 100 ids.
+ *
+ * <pre>
+ * gradle jmh
+ * </pre>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SpringBootExternalSoapServiceRequestMapperBenchmark {
+
+    private QueryEmpConfigs queryEmpConfigs;
+
+    private QueryEmpConfigsBatch queryEmpConfigsBatch;
+
+    private SelectAllEmpAllData selectAllEmpAllData;
+
+    private SelectAllEmpAllDataPage selectAllEmpAllDataPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EmpConfigIdentifier empConfigIdentifier = new EmpConfigIdentifier();
+        empConfigIdentifier.setId(1);
+        this.queryEmpConfigs = new QueryEmpConfigs();
+        this.queryEmpConfigs.setArg0(empConfigIdentifier);
+
+        EmpBatchRequest empBatchRequest = new EmpBatchRequest();
+        for (int id = 1; id <= 100; id++) {
+            empBatchRequest.getIds().add(id);
+        }
+        this.queryEmpConfigsBatch = new QueryEmpConfigsBatch();
+        this.queryEmpConfigsBatch.setArg0(empBatchRequest);
+
+        EmpAddress empAddress = new EmpAddress();
+        empAddress.setAddress("Sec49");
+        this.selectAllEmpAllData = new SelectAllEmpAllData();
+        this.selectAllEmpAllData.setArg0(empAddress);
+
+        EmpPageRequest empPageRequest = new EmpPageRequest();
+        empPageRequest.setAddress("Sec49");
+        empPageRequest.setPageSize(50);
+        this.selectAllEmpAllDataPage = new SelectAllEmpAllDataPage();
+        this.selectAllEmpAllDataPage.setArg0(empPageRequest);
+    }
+
+    @Benchmark
+    public Object queryEmpConfigs() {
+        return SpringBootExternalSoapServiceRequestMapper.mapQueryEmpConfigsSoapRequest(this.queryEmpConfigs);
+    }
+
+    @Benchmark
+    public Object queryEmpConfigsBatch() {
+        return SpringBootExternalSoapServiceRequestMapper.mapQueryEmpConfigsBatchSoapRequest(this.queryEmpConfigsBatch);
+    }
+
+    @Benchmark
+    public Object selectAllEmpAllData() {
+        return SpringBootExternalSoapServiceRequestMapper.mapSelectAllEmpAllDataSoapRequest(this.selectAllEmpAllData);
+    }
+
+    @Benchmark
+    public Object selectAllEmpAllDataPage() {
+        return SpringBootExternalSoapServiceRequestMapper
+                .mapSelectAllEmpAllDataPageSoapRequest(this.selectAllEmpAllDataPage);
+    }
+
+}
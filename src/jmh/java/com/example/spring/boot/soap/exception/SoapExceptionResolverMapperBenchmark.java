@@ -0,0 +1,78 @@
+package com.example.spring.boot.soap.exception;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ws.server.EndpointExceptionResolver;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+
+/**
+ * Measures {@link SoapExceptionResolverMapper#findResolver(Exception)} with
+ * the resolvers the application registers, for an exception mapped exactly,
+ * one mapped through its superclass and one not mapped at all.
+ *
+ * <pre>
+ * gradle jmh
+ * </pre>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SoapExceptionResolverMapperBenchmark {
+
+    private SoapExceptionResolverMapper mapper;
+
+    private Exception frameworkError;
+
+    private Exception illegalState;
+
+    private Exception ioException;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EndpointExceptionResolver resolver = (messageContext, endpoint, ex) -> true;
+        this.mapper = new SoapExceptionResolverMapper();
+        this.mapper.registerResolver(FrameworkError.class, resolver);
+        this.mapper.registerResolver(RuntimeException.class, resolver);
+
+        this.frameworkError = new FrameworkError(ErrorCode.CS_1001.getValue());
+        this.illegalState = new IllegalStateException();
+        this.ioException = new IOException();
+    }
+
+    @Benchmark
+    public EndpointExceptionResolver exactMatch() {
+        return this.mapper.findResolver(this.frameworkError);
+    }
+
+    @Benchmark
+    public EndpointExceptionResolver superclassMatch() {
+        return this.mapper.findResolver(this.illegalState);
+    }
+
+    @Benchmark
+    public EndpointExceptionResolver noMatch() {
+        return this.mapper.findResolver(this.ioException);
+    }
+
+}
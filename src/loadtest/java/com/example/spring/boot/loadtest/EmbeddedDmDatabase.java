@@ -0,0 +1,138 @@
+package com.example.spring.boot.loadtest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory H2 database, in MySQL mode, standing in for the DM database. It is
+ * seeded from the MySQL session recorded in <code>Dm.sql</code>: the
+ * <code>CREATE TABLE</code> and <code>CREATE INDEX</code> statements are
+ * replayed and the rows printed by <code>select * from employee</code> are
+ * inserted.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class EmbeddedDmDatabase implements Closeable {
+
+    public static final String URL = "jdbc:h2:mem:dm;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    public static final String USERNAME = "sa";
+
+    public static final String PASSWORD = "sa";
+
+    private static final String PROMPT = "mysql> ";
+
+    private static final String CONTINUATION = "    -> ";
+
+    // keeps the in-memory database open until closed
+    private final Connection connection;
+
+    private int rows;
+
+    /**
+     * @param script
+     *            The class path resource of the recorded session.
+     */
+    public EmbeddedDmDatabase(String script) throws SQLException, IOException {
+        this.connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        InputStream in = EmbeddedDmDatabase.class.getClassLoader().getResourceAsStream(script);
+        if (in == null) {
+            throw new IOException("No " + script + " on the class path");
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            this.replay(reader);
+        }
+    }
+
+    public String getUrl() {
+        return URL;
+    }
+
+    /**
+     * @return The number of employees inserted.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+            this.connection.close();
+        } catch (SQLException e) {
+            throw new IOException("Could not shut the DM database down", e);
+        }
+    }
+
+    private void replay(BufferedReader reader) throws IOException, SQLException {
+        StringBuilder createTable = null;
+        boolean selectingEmployees = false;
+        List<String> columns = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(PROMPT)) {
+                String command = line.substring(PROMPT.length()).trim();
+                selectingEmployees = command.toLowerCase().startsWith("select * from employee");
+                if (command.toLowerCase().startsWith("create table")
+                        || command.toLowerCase().startsWith("create index")) {
+                    createTable = new StringBuilder(command);
+                }
+            } else if (createTable != null && line.startsWith(CONTINUATION)) {
+                createTable.append(' ').append(line.substring(CONTINUATION.length()).trim());
+            } else if (selectingEmployees && line.startsWith("|")) {
+                List<String> cells = cells(line);
+                if (columns == null) {
+                    columns = cells;
+                } else {
+                    this.insert(columns, cells);
+                }
+                continue;
+            }
+            if (createTable != null && createTable.toString().endsWith(";")) {
+                this.execute(createTable.substring(0, createTable.length() - 1));
+                createTable = null;
+            }
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private void insert(List<String> columns, List<String> values) throws SQLException {
+        String sql = "insert into employee (" + String.join(", ", columns) + ") values ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        try (PreparedStatement insert = this.connection.prepareStatement(sql)) {
+            for (int i = 0; i < values.size(); i++) {
+                insert.setString(i + 1, "NULL".equals(values.get(i)) ? null : values.get(i));
+            }
+            insert.executeUpdate();
+            this.rows++;
+        }
+    }
+
+    private static List<String> cells(String line) {
+        return new ArrayList<>(Arrays.stream(line.substring(1, line.lastIndexOf('|')).split("\\|"))
+                .map(String::trim).collect(Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,309 @@
+package com.example.spring.boot.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator: <code>concurrency</code> threads send the request of a
+ * scenario, each waiting for its answer, for a warm-up period whose timings
+ * are dropped and then for the measured period. Every measured call is timed,
+ * so the percentiles are exact rather than estimated from buckets.
+ * <p>
+ * Without a <code>rate</code> the load is closed-loop: each thread sends its
+ * next request as soon as it got an answer. A stall then lowers the send rate
+ * and shows as a single slow call instead of all the calls that would have
+ * waited behind it (coordinated omission), so the tail percentiles are
+ * optimistic. With a <code>rate</code> the load is open-loop: the requests are
+ * scheduled at fixed intervals, taken in turn by the threads, and each call
+ * is timed from the moment it was meant to be sent, so a thread that fell
+ * behind counts the time its next requests waited. The threads must be
+ * enough for the rate times the latency, else the latencies grow with the
+ * backlog.
+ * </p>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class LoadDriver {
+
+    private final int concurrency;
+
+    private final long warmupMillis;
+
+    private final long durationMillis;
+
+    private final double rate;
+
+    /**
+     * @param rate
+     *            The requests per second sent by all threads together, 0 for
+     *            closed-loop load.
+     */
+    public LoadDriver(int concurrency, long warmupMillis, long durationMillis, double rate) {
+        this.concurrency = concurrency;
+        this.warmupMillis = warmupMillis;
+        this.durationMillis = durationMillis;
+        this.rate = rate;
+    }
+
+    /**
+     * @return How the load is generated and what the latencies measure, for
+     *         the report.
+     */
+    public String describe() {
+        if (this.rate <= 0) {
+            return String.format("Closed loop, %d callers: the percentiles leave out the time requests would have"
+                    + " waited behind a slow one (coordinated omission), set loadtest.rate for open-loop load.",
+                    this.concurrency);
+        }
+        return String.format("Open loop at %.0f req/s over %d callers: latencies from the intended send time.",
+                this.rate, this.concurrency);
+    }
+
+    /**
+     * A request sent over and over: a POST of <code>body</code> to
+     * <code>url</code>.
+     */
+    public static class Scenario {
+
+        private final String name;
+
+        private final URL url;
+
+        private final String contentType;
+
+        private final byte[] body;
+
+        public Scenario(String name, String url, String contentType, String body) throws IOException {
+            this.name = name;
+            this.url = new URL(url);
+            this.contentType = contentType;
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+    }
+
+    /**
+     * The outcome of a scenario over the measured period.
+     */
+    public static class Result {
+
+        private final String scenario;
+
+        private final long[] latencies;
+
+        private final long errors;
+
+        private final long elapsedNanos;
+
+        Result(String scenario, long[] latencies, long errors, long elapsedNanos) {
+            this.scenario = scenario;
+            this.latencies = latencies;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            Arrays.sort(this.latencies);
+        }
+
+        public String getScenario() {
+            return this.scenario;
+        }
+
+        public long getRequests() {
+            return this.latencies.length + this.errors;
+        }
+
+        public long getErrors() {
+            return this.errors;
+        }
+
+        /**
+         * @return The successful calls per second.
+         */
+        public double getThroughput() {
+            return this.latencies.length / (this.elapsedNanos / 1e9);
+        }
+
+        /**
+         * @param percentile
+         *            e.g. <code>0.99</code>.
+         * @return The latency of the successful calls at the percentile, in
+         *         ms.
+         */
+        public double getLatency(double percentile) {
+            if (this.latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * this.latencies.length) - 1;
+            return this.latencies[Math.max(index, 0)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f", this.scenario, this.getRequests(),
+                    this.errors, this.getThroughput(), this.getLatency(0.5), this.getLatency(0.99),
+                    this.getLatency(0.999), this.getLatency(1));
+        }
+
+        public static String header() {
+            return String.format("%-28s %9s %7s %10s %9s %9s %9s %9s", "scenario", "requests", "errors", "req/s",
+                    "p50 ms", "p99 ms", "p999 ms", "max ms");
+        }
+
+    }
+
+    public Result run(Scenario scenario) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(this.warmupMillis);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(this.durationMillis);
+
+        List<Worker> workers = new ArrayList<>(this.concurrency);
+        CountDownLatch done = new CountDownLatch(this.concurrency);
+        // open loop: caller i sends the requests i, i + concurrency, ... of the schedule
+        long interval = (this.rate <= 0 ? 0 : (long) (1e9 / this.rate));
+        for (int i = 0; i < this.concurrency; i++) {
+            Worker worker = new Worker(scenario, start + i * interval, interval * this.concurrency, measureFrom, end,
+                    done);
+            workers.add(worker);
+            Thread thread = new Thread(worker, "load-" + scenario.getName() + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        int count = 0;
+        long errors = 0;
+        for (Worker worker : workers) {
+            count += worker.count;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[count];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        return new Result(scenario.getName(), latencies, errors, end - measureFrom);
+    }
+
+    private static class Worker implements Runnable {
+
+        private final Scenario scenario;
+
+        private final long firstSend;
+
+        // 0 for closed loop
+        private final long interval;
+
+        private final long measureFrom;
+
+        private final long end;
+
+        private final CountDownLatch done;
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private long errors;
+
+        private final byte[] buffer = new byte[8192];
+
+        Worker(Scenario scenario, long firstSend, long interval, long measureFrom, long end, CountDownLatch done) {
+            this.scenario = scenario;
+            this.firstSend = firstSend;
+            this.interval = interval;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long send = this.firstSend - this.interval;
+                while ((send = this.nextSend(send)) < this.end) {
+                    boolean ok = this.call();
+                    long latency = System.nanoTime() - send;
+                    if (send < this.measureFrom) {
+                        continue;
+                    }
+                    if (!ok) {
+                        this.errors++;
+                    } else {
+                        if (this.count == this.latencies.length) {
+                            this.latencies = Arrays.copyOf(this.latencies, this.count * 2);
+                        }
+                        this.latencies[this.count++] = latency;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                this.done.countDown();
+            }
+        }
+
+        /**
+         * Waits for the time the next request is meant to be sent.
+         *
+         * @return That time: now for closed loop, else the scheduled time,
+         *         which may be past if the answers came late.
+         */
+        private long nextSend(long previous) throws InterruptedException {
+            if (this.interval == 0) {
+                return System.nanoTime();
+            }
+            long send = previous + this.interval;
+            long wait = send - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            return send;
+        }
+
+        private boolean call() {
+            HttpURLConnection connection = null;
+            try {
+                connection = (HttpURLConnection) this.scenario.url.openConnection();
+                connection.setRequestMethod("POST");
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", this.scenario.contentType);
+                connection.setFixedLengthStreamingMode(this.scenario.body.length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(this.scenario.body);
+                }
+                int status = connection.getResponseCode();
+                // drain the body so that the connection is kept alive for the next call
+                try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                    if (in != null) {
+                        while (in.read(this.buffer) != -1) {
+                            // discard
+                        }
+                    }
+                }
+                return status < 400;
+            } catch (IOException e) {
+                if (connection != null) {
+                    connection.disconnect();
+                }
+                return false;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.example.spring.boot.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.spring.boot.rest.app.SpringBootExternalWebServiceApplication;
+
+/**
+ * Measures the throughput and latencies of the service end to end without any
+ * of its real backends: the application is started against an
+ * {@link EmbeddedDmDatabase} and {@link StubBackends}, then each scenario is
+ * run by a {@link LoadDriver} and reported. Run with
+ *
+ * <pre>
+ * gradle loadTest -Dloadtest.concurrency=32 -Dloadtest.duration=60000
+ * </pre>
+ *
+ * The system properties, with their defaults:
+ * <ul>
+ * <li><code>loadtest.port=6065</code> the port of the service;</li>
+ * <li><code>loadtest.concurrency=16</code> concurrent callers;</li>
+ * <li><code>loadtest.rate=0</code> requests per second sent by the callers
+ * together, open-loop and timed from their intended send time; 0 sends them
+ * back to back (closed-loop), whose tail percentiles are optimistic, see
+ * {@link LoadDriver};</li>
+ * <li><code>loadtest.warmup=10000</code> and <code>loadtest.duration=30000</code>
+ * ms per scenario;</li>
+ * <li><code>loadtest.restPort=6070</code>, <code>loadtest.restLatency=20</code>,
+ * <code>loadtest.soapPort=8090</code>, <code>loadtest.soapLatency=20</code>
+ * the stub backends and their answer delay in ms;</li>
+ * <li><code>loadtest.scenarios</code> a comma separated subset of the
+ * scenarios, all by default.</li>
+ * </ul>
+ * Program arguments are passed on to the application, e.g.
+ * <code>--dm.cache.employee.enabled=false</code>.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class LoadTest {
+
+    private static final String REST = "/api/externalDmCustomer/v1";
+
+    private static final String SOAP = "/ExternalDmService/";
+
+    private static final String SOAP_ENVELOPE = "<soapenv:Envelope "
+            + "xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:dm=\"http://dm.xml.soap.sample.com/\">"
+            + "<soapenv:Header/><soapenv:Body>%s</soapenv:Body></soapenv:Envelope>";
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.getInteger("loadtest.port", 6065);
+        int restPort = Integer.getInteger("loadtest.restPort", 6070);
+        int soapPort = Integer.getInteger("loadtest.soapPort", 8090);
+
+        Map<String, LoadDriver.Scenario> scenarios = scenarios("http://localhost:" + port);
+        String selected = System.getProperty("loadtest.scenarios");
+        if (selected != null) {
+            scenarios.keySet().retainAll(Arrays.asList(selected.split(",")));
+        }
+        LoadDriver driver = new LoadDriver(Integer.getInteger("loadtest.concurrency", 16),
+                Long.getLong("loadtest.warmup", 10000), Long.getLong("loadtest.duration", 30000),
+                Double.parseDouble(System.getProperty("loadtest.rate", "0")));
+
+        try (EmbeddedDmDatabase database = new EmbeddedDmDatabase("Dm.sql");
+                StubBackends backends = new StubBackends(restPort, Long.getLong("loadtest.restLatency", 20), soapPort,
+                        Long.getLong("loadtest.soapLatency", 20))) {
+            backends.start();
+
+            List<String> appArgs = new ArrayList<>(Arrays.asList("--server.port=" + port,
+                    "--datasource.dm.url=" + database.getUrl(), "--datasource.dm.driverClassName=org.h2.Driver",
+                    "--datasource.dm.username=" + EmbeddedDmDatabase.USERNAME,
+                    "--datasource.dm.password=" + EmbeddedDmDatabase.PASSWORD,
+                    "--multirest-service.url=http://localhost:" + restPort + "/multipleCustomer/v1/",
+                    "--soapclient.def.mathscalculatorservice.endpoint=http://localhost:" + soapPort
+                            + "/MathsCalculator/1.0.wsdl",
+                    "--logging.level.root=WARN", "--logging.level.org.apache.http=WARN",
+                    "--logging.level.org.springframework.jdbc.core.JdbcTemplate=WARN"));
+            appArgs.addAll(Arrays.asList(args));
+
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(
+                    SpringBootExternalWebServiceApplication.class).run(appArgs.toArray(new String[appArgs.size()]));
+            try {
+                List<LoadDriver.Result> results = new ArrayList<>();
+                for (LoadDriver.Scenario scenario : scenarios.values()) {
+                    System.out.println("Running " + scenario.getName() + " ...");
+                    results.add(driver.run(scenario));
+                }
+
+                System.out.println();
+                System.out.println(database.getRows() + " employees, backend calls: REST " + backends.getRestCalls()
+                        + ", SOAP " + backends.getSoapCalls());
+                System.out.println(driver.describe());
+                System.out.println(LoadDriver.Result.header());
+                results.forEach(System.out::println);
+            } finally {
+                app.close();
+            }
+        }
+    }
+
+    private static Map<String, LoadDriver.Scenario> scenarios(String baseUrl) throws Exception {
+        Map<String, LoadDriver.Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("rest.empConfig", new LoadDriver.Scenario("rest.empConfig", baseUrl + REST + "/empConfig",
+                "application/json", "{\"id\":1}"));
+        scenarios.put("rest.empConfigAddress", new LoadDriver.Scenario("rest.empConfigAddress",
+                baseUrl + REST + "/empConfigAddress", "application/json", "{\"address\":\"Sec49\"}"));
+        scenarios.put("soap.queryEmpConfigs", new LoadDriver.Scenario("soap.queryEmpConfigs", baseUrl + SOAP,
+                "text/xml", String.format(SOAP_ENVELOPE,
+                        "<dm:queryEmpConfigs><arg0><id>1</id></arg0></dm:queryEmpConfigs>")));
+        scenarios.put("soap.selectAllEmpAllData", new LoadDriver.Scenario("soap.selectAllEmpAllData",
+                baseUrl + SOAP, "text/xml", String.format(SOAP_ENVELOPE,
+                        "<dm:selectAllEmpAllData><arg0><address>Sec49</address></arg0></dm:selectAllEmpAllData>")));
+        return scenarios;
+    }
+
+}
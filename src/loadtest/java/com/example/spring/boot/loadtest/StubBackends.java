@@ -0,0 +1,152 @@
+package com.example.spring.boot.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stand-ins for the backends of the service, answering as recorded in
+ * <code>External Rest Service Call.txt</code> and
+ * <code>External Soap Service Call.txt</code>:
+ * <ul>
+ * <li>the customer REST service, <code>POST /multipleCustomer/v1/custDetails</code>
+ * and <code>GET /multipleCustomer/v1/welcome</code>;</li>
+ * <li>the calculator SOAP service, <code>POST /MathsCalculator/1.0.wsdl</code>,
+ * which returns the sum of <code>in0</code> and <code>in1</code>.</li>
+ * </ul>
+ * Each answer is held back for the configured latency to stand in for the
+ * remote work and network.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class StubBackends implements Closeable {
+
+    static final String CUSTOMER_DETAILS = "{\"id\":5,\"firstName\":\"Shraddha\",\"lastName\":\"G\","
+            + "\"address\":\"Sec49\",\"city\":\"NOIDA\"}";
+
+    static final String WELCOME = "Welcome to our World!";
+
+    private static final String SUM_RESPONSE = "<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+            + "<SOAP-ENV:Header/><SOAP-ENV:Body><ns3:sumResponse xmlns:ns3=\"http://arithmatic.ubh.uhc.com/calculation/\">"
+            + "<out>%d</out></ns3:sumResponse></SOAP-ENV:Body></SOAP-ENV:Envelope>";
+
+    private static final Pattern SUM_ARGUMENTS = Pattern.compile("<in0>(-?\\d+)</in0>\\s*<in1>(-?\\d+)</in1>");
+
+    private final HttpServer restServer;
+
+    private final HttpServer soapServer;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stub-backend");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long restLatency;
+
+    private final long soapLatency;
+
+    private final AtomicLong restCalls = new AtomicLong();
+
+    private final AtomicLong soapCalls = new AtomicLong();
+
+    /**
+     * @param restLatency
+     *            Delay of each REST answer, in ms.
+     * @param soapLatency
+     *            Delay of each SOAP answer, in ms.
+     */
+    public StubBackends(int restPort, long restLatency, int soapPort, long soapLatency) throws IOException {
+        this.restLatency = restLatency;
+        this.soapLatency = soapLatency;
+
+        this.restServer = HttpServer.create(new InetSocketAddress("localhost", restPort), 0);
+        this.restServer.createContext("/multipleCustomer/v1/custDetails",
+                exchange -> this.answer(exchange, this.restLatency, this.restCalls, "application/json;charset=UTF-8",
+                        request -> CUSTOMER_DETAILS));
+        this.restServer.createContext("/multipleCustomer/v1/welcome",
+                exchange -> this.answer(exchange, this.restLatency, this.restCalls, "application/json;charset=UTF-8",
+                        request -> WELCOME));
+        this.restServer.setExecutor(this.executor);
+
+        this.soapServer = HttpServer.create(new InetSocketAddress("localhost", soapPort), 0);
+        this.soapServer.createContext("/MathsCalculator/1.0.wsdl",
+                exchange -> this.answer(exchange, this.soapLatency, this.soapCalls, "text/xml;charset=utf-8",
+                        StubBackends::sum));
+        this.soapServer.setExecutor(this.executor);
+    }
+
+    public void start() {
+        this.restServer.start();
+        this.soapServer.start();
+    }
+
+    public long getRestCalls() {
+        return this.restCalls.get();
+    }
+
+    public long getSoapCalls() {
+        return this.soapCalls.get();
+    }
+
+    @Override
+    public void close() {
+        this.restServer.stop(0);
+        this.soapServer.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    private void answer(HttpExchange exchange, long latency, AtomicLong calls, String contentType,
+            UnaryOperator<String> response) throws IOException {
+        calls.incrementAndGet();
+        try {
+            String body = response.apply(read(exchange.getRequestBody()));
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String sum(String request) {
+        Matcher matcher = SUM_ARGUMENTS.matcher(request);
+        long sum = matcher.find() ? Long.parseLong(matcher.group(1)) + Long.parseLong(matcher.group(2)) : 0;
+        return String.format(SUM_RESPONSE, sum);
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            body.write(buffer, 0, n);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.example.spring.boot.rest.config;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 import javax.annotation.Resource;
 import javax.sql.DataSource;
 
@@ -8,22 +10,31 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
-import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.support.ResourceBundleMessageSource;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.ws.soap.SoapMessageFactory;
+import org.springframework.ws.soap.axiom.AxiomSoapMessageFactory;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+import org.springframework.ws.transport.http.MessageDispatcherServlet;
 
+import com.example.spring.boot.rest.db.connector.DmDataSourceMetrics;
 import com.example.spring.boot.rest.db.connector.DmDatabaseConnector;
+import com.example.spring.boot.rest.db.connector.DmReplicaRoutingDataSource;
 import com.example.spring.boot.soap.connector.ConnectorContants;
+import com.example.spring.boot.soap.connector.JaxbContextRegistry;
 import com.example.spring.boot.soap.connector.SoapClient;
 import com.example.spring.boot.soap.connector.SoapClientFactory;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 
 /**
  * @author mlahariya
@@ -52,10 +63,111 @@ public class PropertiesConfiguration {
         return obj;
     }
 
-    @Bean(name = { "dmDataSource" })
-    @ConfigurationProperties(prefix = "datasource.dm")
-    public DataSource dmDataSource() {
-        return DataSourceBuilder.create().build();
+    /**
+     * Message factory of the SOAP endpoints, picked by
+     * <code>dm.soap.messageFactory</code>. <code>saaj</code> holds every
+     * request and response as a DOM. <code>axiom</code> reads the request
+     * payload straight off the connection and writes streaming responses
+     * straight to it, at the price of the request payload being readable only
+     * once.
+     */
+    @Bean(name = MessageDispatcherServlet.DEFAULT_MESSAGE_FACTORY_BEAN_NAME)
+    public SoapMessageFactory messageFactory() {
+        if ("axiom".equalsIgnoreCase(env.getProperty("dm.soap.messageFactory", "saaj"))) {
+            AxiomSoapMessageFactory messageFactory = new AxiomSoapMessageFactory();
+            messageFactory.setPayloadCaching(false);
+            LOG.info("SOAP endpoints use the streaming AXIOM message factory.");
+            return messageFactory;
+        }
+        return new SaajSoapMessageFactory();
+    }
+
+    /**
+     * Connection pool of the DM database, sized under
+     * <code>datasource.dm.pool.*</code>. A caller waits at most
+     * <code>connectionTimeout</code> ms for a connection; a connection held for
+     * longer than <code>leakDetectionThreshold</code> ms is logged with the
+     * stack trace of its borrower. The pool reports its state and latencies to
+     * {@link DmDataSourceMetrics}.
+     */
+    @Primary
+    @Bean(name = { "dmDataSource" }, destroyMethod = "close")
+    public DataSource dmDataSource(DmDataSourceMetrics dmDataSourceMetrics) {
+        return newDmDataSource(env.getProperty("datasource.dm.pool.name", "dm"), "datasource.dm",
+                propInt("datasource.dm.pool.connectionTimeout", 3000), dmDataSourceMetrics);
+    }
+
+    /**
+     * Data source for the reads of the DAO, spreading them over the read
+     * replicas configured as <code>datasource.dm.replicas[n].url</code>, each
+     * with its own pool sized like the primary's. Credentials and driver not
+     * given for a replica are those of the primary. Without replicas every
+     * read goes to the primary. A replica pool waits only
+     * <code>datasource.dm.replica.connectionTimeout</code> ms for a
+     * connection, so that reads leave a replica which is down quickly.
+     */
+    @Bean(name = "dmReadDataSource", destroyMethod = "close")
+    public DmReplicaRoutingDataSource dmReadDataSource(@Qualifier("dmDataSource") DataSource primary,
+            DmDataSourceMetrics dmDataSourceMetrics) {
+        String poolName = env.getProperty("datasource.dm.pool.name", "dm");
+        DmReplicaRoutingDataSource readDataSource = new DmReplicaRoutingDataSource(poolName, primary,
+                DmReplicaRoutingDataSource.Routing.fromProperty(env.getProperty("datasource.dm.replica.routing")),
+                propInt("datasource.dm.replica.failureThreshold", 2));
+        for (int n = 0; env.containsProperty("datasource.dm.replicas[" + n + "].url"); n++) {
+            readDataSource.addReplica(poolName + "-replica-" + n,
+                    newDmDataSource(poolName + "-replica-" + n, "datasource.dm.replicas[" + n + "]",
+                            propInt("datasource.dm.replica.connectionTimeout", 500), dmDataSourceMetrics));
+        }
+        readDataSource.startHealthCheck(propInt("datasource.dm.replica.healthCheckInterval", 5000),
+                propInt("datasource.dm.replica.healthCheckTimeout", 2));
+        LOG.info("DM reads routed {} over {} replicas.", env.getProperty("datasource.dm.replica.routing",
+                "roundRobin"), readDataSource.getReplicas().size());
+        return readDataSource;
+    }
+
+    /**
+     * @param prefix
+     *            The prefix of the <code>url</code>, <code>username</code>,
+     *            <code>password</code> and <code>driverClassName</code> of the
+     *            database, each falling back to <code>datasource.dm.*</code>.
+     * @param connectionTimeout
+     *            The time, in milliseconds, a caller waits for a connection.
+     */
+    private HikariDataSource newDmDataSource(String poolName, String prefix, int connectionTimeout,
+            DmDataSourceMetrics dmDataSourceMetrics) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(env.getProperty(prefix + ".driverClassName",
+                env.getProperty("datasource.dm.driverClassName")));
+        config.setJdbcUrl(env.getProperty(prefix + ".url"));
+        config.setUsername(env.getProperty(prefix + ".username", env.getProperty("datasource.dm.username")));
+        config.setPassword(env.getProperty(prefix + ".password", env.getProperty("datasource.dm.password")));
+
+        config.setMinimumIdle(propInt("datasource.dm.pool.minimumIdle", 5));
+        config.setMaximumPoolSize(propInt("datasource.dm.pool.maximumPoolSize", 20));
+        config.setConnectionTimeout(connectionTimeout);
+        config.setIdleTimeout(propInt("datasource.dm.pool.idleTimeout", 600000));
+        config.setMaxLifetime(propInt("datasource.dm.pool.maxLifetime", 1800000));
+        config.setLeakDetectionThreshold(propInt("datasource.dm.pool.leakDetectionThreshold", 60000));
+        // start even if the database is down, as the dmDao check only logs
+        config.setInitializationFailFast(false);
+
+        int statementCacheSize = propInt("datasource.dm.pool.statementCacheSize", 250);
+        if (statementCacheSize > 0 && StringUtils.startsWith(config.getJdbcUrl(), "jdbc:mysql:")) {
+            // client side cache of the parsed statements of each connection
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", statementCacheSize);
+            config.addDataSourceProperty("prepStmtCacheSqlLimit",
+                    propInt("datasource.dm.pool.statementCacheSqlLimit", 2048));
+            // prepare once per connection on the server, so the query plan is reused too
+            config.addDataSourceProperty("useServerPrepStmts",
+                    env.getProperty("datasource.dm.pool.serverPrepStmts", "true"));
+        }
+
+        config.setMetricsTrackerFactory(dmDataSourceMetrics);
+        LOG.info("DM connection pool {} sized {}..{} with a connection timeout of {} ms.", config.getPoolName(),
+                config.getMinimumIdle(), config.getMaximumPoolSize(), config.getConnectionTimeout());
+        return new HikariDataSource(config);
     }
 
     @Bean(name = "dmJdbcTemplate")
@@ -66,11 +178,43 @@ public class PropertiesConfiguration {
         return jdbcTemplate;
     }
 
+    @Bean(name = "dmReadJdbcTemplate")
+    public JdbcOperations dmReadJdbcTemplate(@Qualifier("dmReadDataSource") DataSource ds) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(ds);
+        jdbcTemplate.setFetchSize(propInt("Default.fetchSize", 200));
+        return jdbcTemplate;
+    }
+
+    /**
+     * Template of the streamed address query only, so the other queries keep
+     * reading their results in one go. Its fetch size is
+     * <code>Default.streamFetchSize</code>; on MySQL it defaults to
+     * <code>Integer.MIN_VALUE</code>, which makes Connector/J hand the rows
+     * over one at a time as they arrive instead of buffering the whole result,
+     * without a server side cursor and whatever the connection URL says.
+     */
+    @Bean(name = "dmStreamJdbcTemplate")
+    public JdbcOperations dmStreamJdbcTemplate(@Qualifier("dmReadDataSource") DataSource ds) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(ds);
+        boolean mysql = StringUtils.startsWith(env.getProperty("datasource.dm.url"), "jdbc:mysql:");
+        jdbcTemplate.setFetchSize(propInt("Default.streamFetchSize",
+                mysql ? Integer.MIN_VALUE : propInt("Default.fetchSize", 200)));
+        return jdbcTemplate;
+    }
+
     @Bean(name = "dmDao")
     @Autowired
-    public DmDatabaseConnector dmDao(@Qualifier("dmJdbcTemplate") JdbcOperations jop) {
+    public DmDatabaseConnector dmDao(@Qualifier("dmJdbcTemplate") JdbcOperations jop,
+            @Qualifier("dmDataSource") DataSource ds, @Qualifier("dmReadJdbcTemplate") JdbcOperations readJop,
+            @Qualifier("dmReadDataSource") DataSource readDs,
+            @Qualifier("dmStreamJdbcTemplate") JdbcOperations streamJop) {
         DmDatabaseConnector obj = new DmDatabaseConnector();
         obj.setJdbcTemplate(jop);
+        obj.setDataSource(ds);
+        obj.setReadJdbcTemplate(readJop);
+        obj.setStreamJdbcTemplate(streamJop);
+        obj.setReadDataSource(readDs);
+        obj.setFetchSize(propInt("Default.fetchSize", 200));
         try {
             obj.getJdbcTemplate().execute("select 1 from dual");
             LOG.info("DmDatabaseConnector Database sucessfully connected. ");
@@ -80,6 +224,61 @@ public class PropertiesConfiguration {
         return obj;
     }
 
+    /**
+     * Bounded executor on which the handlers run their database and
+     * downstream calls concurrently. When the queue is full the calling thread
+     * runs the task itself, which throttles callers instead of failing them.
+     */
+    @Bean(name = "dmTaskExecutor")
+    public ThreadPoolTaskExecutor dmTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dm-async-");
+        executor.setCorePoolSize(propInt("dm.async.corePoolSize", 20));
+        executor.setMaxPoolSize(propInt("dm.async.maxPoolSize", 50));
+        executor.setQueueCapacity(propInt("dm.async.queueCapacity", 200));
+        executor.setKeepAliveSeconds(propInt("dm.async.keepAliveSeconds", 60));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Executor of the legs of the <code>DeferredResult</code> endpoints. Unlike
+     * the <code>dmTaskExecutor</code> it never runs a leg on the calling
+     * thread, which is a container thread there: when it is full the leg is
+     * rejected and the request fails at once with CUSTOMER-1021.
+     */
+    @Bean(name = "dmDeferredExecutor")
+    public ThreadPoolTaskExecutor dmDeferredExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dm-deferred-");
+        executor.setCorePoolSize(propInt("dm.deferred.corePoolSize", 20));
+        executor.setMaxPoolSize(propInt("dm.deferred.maxPoolSize", 50));
+        executor.setQueueCapacity(propInt("dm.deferred.queueCapacity", 200));
+        executor.setKeepAliveSeconds(propInt("dm.deferred.keepAliveSeconds", 60));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Executor on which Spring MVC writes streamed responses, so a slow client
+     * does not hold a container thread. Kept apart from the
+     * <code>dmTaskExecutor</code> because a stream waits on the legs queued
+     * there.
+     */
+    @Bean(name = "dmStreamExecutor")
+    public ThreadPoolTaskExecutor dmStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dm-stream-");
+        executor.setCorePoolSize(propInt("dm.stream.corePoolSize", 10));
+        executor.setMaxPoolSize(propInt("dm.stream.maxPoolSize", 20));
+        executor.setQueueCapacity(propInt("dm.stream.queueCapacity", 50));
+        executor.setKeepAliveSeconds(propInt("dm.stream.keepAliveSeconds", 60));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
     @Bean(name = "mcDataClient")
     public SoapClient mcDataClient() {
 
@@ -90,17 +289,16 @@ public class PropertiesConfiguration {
     /**
      * org.springframework.oxm.jaxb.Jaxb2Marshaller
      * 
-     * if we have multiple packages then use below
-     * marshaller.setPackagesToScan("com.uhc.ubh.arithmatic.calculation"
-     * ,"com.uhc.ubh.arithmatic.addition");
+     * The shared marshaller of the calculator package, built on the JAXB
+     * context the {@link JaxbContextRegistry} created at startup. If we have
+     * multiple packages then use a colon separated context path, e.g.
+     * "com.uhc.ubh.arithmatic.calculation:com.uhc.ubh.arithmatic.addition".
      * 
      */
 
     @Bean(name = "mathsCalculatorServiceClientMarshaller")
-    public Jaxb2Marshaller imsDataServiceClientMarshaller() {
-        Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
-        marshaller.setPackagesToScan("com.uhc.ubh.arithmatic.calculation");
-        return marshaller;
+    public Jaxb2Marshaller imsDataServiceClientMarshaller(JaxbContextRegistry jaxbContextRegistry) {
+        return jaxbContextRegistry.getMarshaller("com.uhc.ubh.arithmatic.calculation");
     }
 
     protected Integer propInt(String property, int defaultVal) {
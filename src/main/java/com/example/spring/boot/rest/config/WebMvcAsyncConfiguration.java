@@ -0,0 +1,30 @@
+package com.example.spring.boot.rest.config;
+
+import javax.annotation.Resource;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+/**
+ * Runs the asynchronous parts of Spring MVC request handling, such as writing
+ * a <code>StreamingResponseBody</code>, on the bounded
+ * <code>dmStreamExecutor</code> instead of a new thread per request.
+ * 
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@Configuration
+public class WebMvcAsyncConfiguration extends WebMvcConfigurerAdapter {
+
+    @Resource(name = "dmStreamExecutor")
+    private AsyncTaskExecutor dmStreamExecutor;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(this.dmStreamExecutor);
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.example.spring.boot.rest.connector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Resource;
+
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import com.example.spring.boot.rest.util.AdaptiveTimeout;
+import com.example.spring.boot.rest.util.Bulkhead;
+import com.example.spring.boot.rest.util.CircuitBreaker;
+import com.example.spring.boot.rest.util.Hedger;
+import com.example.spring.boot.rest.util.LoadBalancer;
+import com.example.spring.boot.rest.util.RegisteredClient;
+import com.example.spring.boot.soap.connector.SoapClient;
+import com.example.spring.boot.soap.connector.SoapClientFactory;
+import com.example.spring.boot.soap.connector.SoapClientResilience;
+import com.example.spring.boot.soap.connector.SoapResponseCache;
+
+/**
+ * Publishes the connection pool statistics of every live REST and SOAP client,
+ * the circuit breaker, bulkhead, hedging and load balancing statistics of the
+ * REST clients, and the response cache, circuit breaker, retry, timeout,
+ * hedging and load balancing statistics of the SOAP clients, to the actuator
+ * <code>/metrics</code> endpoint, e.g.
+ * 
+ * <pre>
+ * restclient.myClient.pool.leased=3
+ * restclient.myClient.pool.available=5
+ * restclient.myClient.pool.pending=0
+ * restclient.myClient.pool.max=80
+ * restclient.multirest.breaker.state=0
+ * restclient.multirest.breaker.failureRate=12.5
+ * restclient.multirest.breaker.transitions.open=2
+ * restclient.multirest.bulkhead.available=18
+ * restclient.multirest.hedge.issued=37
+ * restclient.multirest.hedge.won=21
+ * restclient.multirest.loadBalancer.available=2
+ * restclient.multirest.endpoints.0.outstanding=4
+ * restclient.multirest.endpoints.0.latency=22.5
+ * restclient.multirest.endpoints.1.ejected=0
+ * soapclient.mathscalculatorservice.pool.leased=1
+ * soapclient.mathscalculatorservice.cache.sum.hitCount=5310
+ * soapclient.mathscalculatorservice.breaker.state=0
+ * soapclient.mathscalculatorservice.retry.retries=4
+ * soapclient.mathscalculatorservice.timeout.current=120
+ * soapclient.mathscalculatorservice.hedge.delay=35
+ * </pre>
+ * 
+ * The breaker state is the ordinal of {@link CircuitBreaker.State}: 0 closed,
+ * 1 open, 2 half open. Its rates are -1 until enough calls are recorded. A
+ * hedge is won when it answers before the first request. The endpoints are
+ * numbered in the order they are configured in; their latency is the peak
+ * EWMA in milliseconds.
+ * 
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@Component
+public class ClientPoolMetrics implements PublicMetrics {
+
+    @Resource(name = "factory.restClient")
+    private RestClientFactory restClientFactory;
+
+    @Resource(name = "factory.soapClient")
+    private SoapClientFactory soapClientFactory;
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        this.addPoolMetrics(metrics, "restclient.", this.restClientFactory.getClients());
+        this.addPoolMetrics(metrics, "soapclient.", this.soapClientFactory.getClients());
+        for (RegisteredClient<RestClient> registered : this.restClientFactory.getClients().values()) {
+            String name = "restclient." + registered.getId() + ".";
+            this.addBreakerMetrics(metrics, name + "breaker.", registered.getClient().getCircuitBreaker());
+            this.addBulkheadMetrics(metrics, name + "bulkhead.", registered.getClient().getBulkhead());
+            this.addHedgeMetrics(metrics, name + "hedge.", registered.getClient().getHedger());
+            this.addLoadBalancerMetrics(metrics, name, registered.getClient().getLoadBalancer());
+        }
+        for (RegisteredClient<SoapClient> registered : this.soapClientFactory.getClients().values()) {
+            this.addCacheMetrics(metrics, "soapclient." + registered.getId() + ".cache.",
+                    registered.getClient().getResponseCache());
+            this.addResilienceMetrics(metrics, "soapclient." + registered.getId() + ".",
+                    registered.getClient().getResilience());
+            this.addHedgeMetrics(metrics, "soapclient." + registered.getId() + ".hedge.",
+                    registered.getClient().getHedger());
+            this.addLoadBalancerMetrics(metrics, "soapclient." + registered.getId() + ".",
+                    registered.getClient().getLoadBalancer());
+        }
+        return metrics;
+    }
+
+    private void addPoolMetrics(List<Metric<?>> metrics, String prefix,
+            Map<String, ? extends RegisteredClient<?>> clients) {
+        for (RegisteredClient<?> registered : clients.values()) {
+            PoolStats stats = registered.getPoolStats();
+            if (stats != null) {
+                String name = prefix + registered.getId() + ".pool.";
+                metrics.add(new Metric<Integer>(name + "leased", stats.getLeased()));
+                metrics.add(new Metric<Integer>(name + "available", stats.getAvailable()));
+                metrics.add(new Metric<Integer>(name + "pending", stats.getPending()));
+                metrics.add(new Metric<Integer>(name + "max", stats.getMax()));
+            }
+        }
+    }
+
+    private void addBreakerMetrics(List<Metric<?>> metrics, String prefix, CircuitBreaker breaker) {
+        if (breaker != null) {
+            metrics.add(new Metric<Integer>(prefix + "state", breaker.getState().ordinal()));
+            metrics.add(new Metric<Float>(prefix + "failureRate", breaker.getFailureRate()));
+            metrics.add(new Metric<Float>(prefix + "slowCallRate", breaker.getSlowCallRate()));
+            metrics.add(new Metric<Integer>(prefix + "bufferedCalls", breaker.getBufferedCalls()));
+            metrics.add(new Metric<Long>(prefix + "notPermittedCalls", breaker.getNotPermittedCalls()));
+            metrics.add(new Metric<Long>(prefix + "transitions.open",
+                    breaker.getTransitions(CircuitBreaker.State.OPEN)));
+            metrics.add(new Metric<Long>(prefix + "transitions.halfOpen",
+                    breaker.getTransitions(CircuitBreaker.State.HALF_OPEN)));
+            metrics.add(new Metric<Long>(prefix + "transitions.closed",
+                    breaker.getTransitions(CircuitBreaker.State.CLOSED)));
+        }
+    }
+
+    private void addResilienceMetrics(List<Metric<?>> metrics, String prefix, SoapClientResilience resilience) {
+        if (resilience != null) {
+            this.addBreakerMetrics(metrics, prefix + "breaker.", resilience.getCircuitBreaker());
+            metrics.add(new Metric<Long>(prefix + "retry.retries", resilience.getRetries()));
+            metrics.add(new Metric<Long>(prefix + "retry.budgetExhausted",
+                    resilience.getRetryBudget().getExhausted()));
+            AdaptiveTimeout timeout = resilience.getAdaptiveTimeout();
+            if (timeout != null) {
+                metrics.add(new Metric<Integer>(prefix + "timeout.current", timeout.getTimeout()));
+            }
+        }
+    }
+
+    private void addBulkheadMetrics(List<Metric<?>> metrics, String prefix, Bulkhead bulkhead) {
+        if (bulkhead != null) {
+            metrics.add(new Metric<Integer>(prefix + "available", bulkhead.getAvailable()));
+            metrics.add(new Metric<Integer>(prefix + "max", bulkhead.getMaxConcurrentCalls()));
+            metrics.add(new Metric<Long>(prefix + "rejectedCalls", bulkhead.getRejectedCalls()));
+        }
+    }
+
+    private void addHedgeMetrics(List<Metric<?>> metrics, String prefix, Hedger hedger) {
+        if (hedger != null) {
+            metrics.add(new Metric<Long>(prefix + "calls", hedger.getCalls()));
+            metrics.add(new Metric<Long>(prefix + "issued", hedger.getIssued()));
+            metrics.add(new Metric<Long>(prefix + "won", hedger.getWon()));
+            metrics.add(new Metric<Long>(prefix + "capped", hedger.getCapped()));
+            metrics.add(new Metric<Integer>(prefix + "delay", hedger.getDelay()));
+        }
+    }
+
+    private void addLoadBalancerMetrics(List<Metric<?>> metrics, String prefix, LoadBalancer loadBalancer) {
+        if (loadBalancer != null) {
+            metrics.add(new Metric<Integer>(prefix + "loadBalancer.available", loadBalancer.getAvailable()));
+            List<LoadBalancer.Endpoint> endpoints = loadBalancer.getEndpoints();
+            for (int n = 0; n < endpoints.size(); n++) {
+                LoadBalancer.Endpoint endpoint = endpoints.get(n);
+                String name = prefix + "endpoints." + n + ".";
+                metrics.add(new Metric<Integer>(name + "ejected", endpoint.isEjected() ? 1 : 0));
+                metrics.add(new Metric<Integer>(name + "outstanding", endpoint.getOutstanding()));
+                metrics.add(new Metric<Double>(name + "latency", endpoint.getLatencyMillis()));
+                metrics.add(new Metric<Long>(name + "calls", endpoint.getCalls()));
+                metrics.add(new Metric<Long>(name + "failures", endpoint.getFailures()));
+                metrics.add(new Metric<Long>(name + "ejections", endpoint.getEjections()));
+            }
+        }
+    }
+
+    private void addCacheMetrics(List<Metric<?>> metrics, String prefix, SoapResponseCache responseCache) {
+        if (responseCache != null) {
+            Map<String, Long> sizes = responseCache.getSizes();
+            responseCache.getStats().forEach((operation, stats) -> {
+                String name = prefix + operation + ".";
+                metrics.add(new Metric<Long>(name + "size", sizes.get(operation)));
+                metrics.add(new Metric<Long>(name + "hitCount", stats.hitCount()));
+                metrics.add(new Metric<Long>(name + "missCount", stats.missCount()));
+                metrics.add(new Metric<Double>(name + "hitRate", stats.hitRate()));
+                metrics.add(new Metric<Long>(name + "loadExceptionCount", stats.loadExceptionCount()));
+            });
+        }
+    }
+
+}
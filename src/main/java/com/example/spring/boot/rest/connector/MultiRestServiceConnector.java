@@ -1,5 +1,9 @@
 package com.example.spring.boot.rest.connector;
 
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +19,18 @@ import com.example.spring.boot.rest.exception.ErrorCode;
 import com.example.spring.boot.rest.exception.FrameworkError;
 
 /**
+ * Calls the customer REST service through the <code>multirest</code> client of
+ * the {@link RestClientFactory}, configured under
+ * <code>restclient.def.multirest.*</code>. Its circuit breaker and bulkhead
+ * make the calls fail fast with {@link ErrorCode#CS_1019} or
+ * {@link ErrorCode#CS_1020} instead of holding the request threads while the
+ * service is down or slow. The idempotent {@link #greetingTime()} is hedged
+ * when the client has <code>hedge</code> properties. The requests are spread
+ * over the base URIs of <code>restclient.def.multirest.endpoints</code>, by
+ * default <code>multirest-service.url</code>; the URI of each operation is
+ * resolved once per base URI and the requests are made with it, so no URL
+ * string is expanded or parsed per call.
+ * 
  * @author mlahariya
  * @version 1.0, Jan 2017
  */
@@ -24,6 +40,17 @@ public class MultiRestServiceConnector {
 
     private static final Logger LOG = LoggerFactory.getLogger(MultiRestServiceConnector.class);
 
+    public static final String CLIENT_ID = "multirest";
+
+    private static final String WELCOME_PATH = "welcome";
+
+    private static final String CUST_DETAILS_PATH = "custDetails";
+
+    // the URIs of the operations, by base URI of the service
+    private final ConcurrentMap<URI, URI> welcomeUris = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<URI, URI> custDetailsUris = new ConcurrentHashMap<>();
+
     @Autowired
     private RestClientFactory restClientFactory;
 
@@ -32,13 +59,17 @@ public class MultiRestServiceConnector {
      */
     public String greetingTime() {
 
+        RestClient client = restClientFactory.getClient(CLIENT_ID);
         try {
-            String response = restClientFactory.getClient().getForObject(
-                    "http://localhost:6070/multipleCustomer/v1/welcome", String.class);
+            String response = client.hedged(attempt -> client.guarded(() -> client.balanced(
+                    endpoint -> client.getForObject(this.welcomeUris.computeIfAbsent(endpoint,
+                            base -> base.resolve(WELCOME_PATH)), String.class))));
 
             System.out.println("response of get type request " + response);
 
             return response;
+        } catch (FrameworkError e) {
+            throw e;
         } catch (Exception e) {
             throw new FrameworkError(ErrorCode.CS_1013.getValue());
         }
@@ -58,10 +89,12 @@ public class MultiRestServiceConnector {
         HttpHeaders headers = this.setHttpHeaders();
 
         HttpEntity<CustomerConfigIdentifier> entity = new HttpEntity<CustomerConfigIdentifier>(restRequest, headers);
+        RestClient client = restClientFactory.getClient(CLIENT_ID);
         try {
 
-            customerDetails = restClientFactory.getClient().postForEntity(
-                    "http://localhost:6070/multipleCustomer/v1/custDetails", entity, CustomerDetails.class);
+            customerDetails = client.guarded(() -> client.balanced(endpoint -> client.postForEntity(
+                    this.custDetailsUris.computeIfAbsent(endpoint, base -> base.resolve(CUST_DETAILS_PATH)), entity,
+                    CustomerDetails.class)));
 
             System.out.println("External rest web service request ........................");
 
@@ -74,6 +107,9 @@ public class MultiRestServiceConnector {
 
             System.out.println("External rest web service response ........................");
 
+        } catch (FrameworkError e) {
+            LOG.error("While processing of getCustConfiguration request the call was rejected " + e);
+            throw e;
         } catch (RestClientException e) {
             e.printStackTrace();
             System.out.println(e);
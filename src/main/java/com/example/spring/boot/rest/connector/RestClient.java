@@ -1,17 +1,36 @@
 package com.example.spring.boot.rest.connector;
 
+import java.net.URI;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import com.example.spring.boot.rest.util.Bulkhead;
+import com.example.spring.boot.rest.util.CircuitBreaker;
+import com.example.spring.boot.rest.util.Hedger;
+import com.example.spring.boot.rest.util.LoadBalancer;
+
 /**
  * A simple wrapper around Spring's RestTemplate to allow for easy creation to
  * get your client. Use of this class does not guarantee the availability of
  * timeout functionality.
+ * <p>
+ * Clients created by the {@link RestClientFactory} with <code>breaker</code>
+ * properties carry a {@link CircuitBreaker} and a {@link Bulkhead}; wrap the
+ * calls to the service in {@link #guarded(Supplier)} to go through them.
+ * Clients with <code>hedge</code> properties carry a {@link Hedger}; wrap the
+ * idempotent calls in {@link #hedged(IntFunction)} to hedge them. Clients
+ * with <code>endpoints</code> carry a {@link LoadBalancer}; make the requests
+ * in {@link #balanced(Function)} to spread them over the endpoints.
+ * </p>
  * 
  * @author mlahariya
  * @version 1.0, Jan 2017
@@ -20,6 +39,14 @@ import org.springframework.web.client.RestTemplate;
 @Component
 public class RestClient extends RestTemplate {
 
+    private CircuitBreaker circuitBreaker;
+
+    private Bulkhead bulkhead;
+
+    private Hedger hedger;
+
+    private LoadBalancer loadBalancer;
+
     public RestClient() {
         super();
     }
@@ -42,4 +69,118 @@ public class RestClient extends RestTemplate {
         super(messageConverters);
         setInterceptors(interceptors);
     }
+
+    /**
+     * Runs the call through the circuit breaker and the bulkhead of the
+     * client, or just runs it if the client has neither.
+     * 
+     * @throws com.example.spring.boot.rest.exception.FrameworkError
+     *             If the breaker is open or the bulkhead full.
+     */
+    public <T> T guarded(Supplier<T> call) {
+        if (this.circuitBreaker == null) {
+            return this.bulkhead == null ? call.get() : this.bulkhead.execute(call);
+        }
+        long permission = this.circuitBreaker.acquirePermission();
+        if (this.bulkhead != null) {
+            try {
+                this.bulkhead.acquire();
+            } catch (RuntimeException e) {
+                this.circuitBreaker.releasePermission(permission);
+                throw e;
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            this.circuitBreaker.onResult(permission, System.nanoTime() - start, false);
+            return result;
+        } catch (RuntimeException | Error e) {
+            this.circuitBreaker.onResult(permission, System.nanoTime() - start, true);
+            throw e;
+        } finally {
+            if (this.bulkhead != null) {
+                this.bulkhead.release();
+            }
+        }
+    }
+
+    /**
+     * Runs an idempotent call through the hedger of the client, or just runs
+     * it if the client has none. Each attempt should go through
+     * {@link #guarded(Supplier)} on its own.
+     * 
+     * @param call
+     *            Makes the request; given 0 for the first request and 1 for
+     *            the hedge.
+     */
+    public <T> T hedged(IntFunction<T> call) {
+        return this.hedger == null ? call.apply(0) : this.hedger.execute(call);
+    }
+
+    /**
+     * Makes the request to the endpoint picked by the load balancer of the
+     * client. Client errors (4xx) are answers of the endpoint; any other
+     * exception counts against it. A hedge made in here is picked like any
+     * other request, so it mostly goes to another endpoint than the slow
+     * request it hedges, which is still in flight.
+     * 
+     * @param call
+     *            Makes the request to the base URI it is given.
+     * @throws IllegalStateException
+     *             If the client has no <code>endpoints</code>.
+     */
+    public <T> T balanced(Function<URI, T> call) {
+        if (this.loadBalancer == null) {
+            throw new IllegalStateException("The REST client has no endpoints to balance over");
+        }
+        return this.loadBalancer.execute(call, e -> !(e instanceof HttpClientErrorException));
+    }
+
+    /**
+     * @return The circuit breaker, or <code>null</code> if the client has
+     *         none.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * @return The bulkhead, or <code>null</code> if the client has none.
+     */
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public void setBulkhead(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * @return The hedger, or <code>null</code> if the client does not hedge.
+     */
+    public Hedger getHedger() {
+        return hedger;
+    }
+
+    public void setHedger(Hedger hedger) {
+        this.hedger = hedger;
+    }
+
+    /**
+     * @return The load balancer, or <code>null</code> if the client has no
+     *         endpoints.
+     */
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    public void setLoadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
 }
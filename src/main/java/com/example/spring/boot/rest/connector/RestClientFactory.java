@@ -1,23 +1,39 @@
 package com.example.spring.boot.rest.connector;
 
+import java.io.Closeable;
+import java.net.URI;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.http.client.BufferingClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 
+import com.example.spring.boot.rest.util.Bulkhead;
+import com.example.spring.boot.rest.util.CircuitBreaker;
+import com.example.spring.boot.rest.util.ClientRegistry;
+import com.example.spring.boot.rest.util.Hedger;
+import com.example.spring.boot.rest.util.LoadBalancer;
+import com.example.spring.boot.rest.util.RegisteredClient;
 import com.example.spring.boot.soap.connector.ServiceConfiguration;
 import com.example.spring.boot.soap.connector.ServiceConfigurationGroup;
 
@@ -46,9 +62,86 @@ import com.example.spring.boot.soap.connector.ServiceConfigurationGroup;
  * restclient.def.myClient2.buffered=false  
  * restclient.def.myClient2.readTimeout=500
  * restclient.def.myClient2.connectTimeout=500
+ * # Client 3, pooled transport
+ * restclient.def.myClient3.connectRequestTimeout=500
+ * restclient.def.myClient3.pool.maxTotalConnections=80
+ * restclient.def.myClient3.pool.maxRouteConnections=20
+ * restclient.def.myClient3.pool.idleTimeout=30000
+ * restclient.def.myClient3.pool.keepAlive=30000
+ * restclient.def.myClient3.pool.validateAfterInactivity=2000
+ * # Client 4, failure isolation
+ * restclient.def.myClient4.breaker.windowSize=20
+ * restclient.def.myClient4.breaker.minimumCalls=10
+ * restclient.def.myClient4.breaker.failureRateThreshold=50
+ * restclient.def.myClient4.breaker.slowCallDuration=2000
+ * restclient.def.myClient4.breaker.slowCallRateThreshold=80
+ * restclient.def.myClient4.breaker.openDuration=10000
+ * restclient.def.myClient4.breaker.halfOpenCalls=3
+ * restclient.def.myClient4.breaker.maxConcurrentCalls=20
+ * restclient.def.myClient4.breaker.maxWait=0
+ * # Client 5, hedged requests
+ * restclient.def.myClient5.hedge.enabled=true
+ * restclient.def.myClient5.hedge.percentile=95
+ * restclient.def.myClient5.hedge.minDelay=10
+ * restclient.def.myClient5.hedge.maxDelay=1000
+ * restclient.def.myClient5.hedge.maxRatePercent=10
+ * restclient.def.myClient5.hedge.interval=10000
+ * restclient.def.myClient5.hedge.minSamples=100
+ * restclient.def.myClient5.hedge.maxConcurrentCalls=20
+ * # Client 6, client-side load balancing
+ * restclient.def.myClient6.endpoints=http://host1:6070/service/v1/,http://host2:6070/service/v1/
+ * restclient.def.myClient6.loadBalancer.policy=peakEwma
+ * restclient.def.myClient6.loadBalancer.windowSize=20
+ * restclient.def.myClient6.loadBalancer.minimumCalls=5
+ * restclient.def.myClient6.loadBalancer.failureRateThreshold=50
+ * restclient.def.myClient6.loadBalancer.ejectionTime=30000
+ * restclient.def.myClient6.loadBalancer.maxEjectionPercent=50
+ * restclient.def.myClient6.loadBalancer.decayTime=10000
  * </pre>
  * 
  * </p>
+ * <p>
+ * A client without any <code>pool</code> properties uses a plain
+ * {@link SimpleClientHttpRequestFactory}, opening a new connection per request.
+ * As soon as one <code>pool</code> property is present (
+ * <code>pool.enabled=true</code> is enough to take all defaults) the client is
+ * backed by an Apache HttpClient with a {@link PoolingHttpClientConnectionManager}
+ * so connections are reused across requests and routes.
+ * </p>
+ * <p>
+ * As soon as one <code>breaker</code> property is present (
+ * <code>breaker.enabled=true</code> takes all defaults,
+ * <code>breaker.enabled=false</code> turns it off) the client gets a
+ * {@link CircuitBreaker} and, unless <code>maxConcurrentCalls</code> is 0, a
+ * {@link Bulkhead}, used by {@link RestClient#guarded(java.util.function.Supplier)}.
+ * </p>
+ * <p>
+ * Likewise <code>hedge</code> properties give the client a {@link Hedger},
+ * used by {@link RestClient#hedged(java.util.function.IntFunction)} for the
+ * idempotent calls only.
+ * </p>
+ * <p>
+ * A client with <code>endpoints</code>, a comma separated list of base URIs,
+ * gets a {@link LoadBalancer} over them, used by
+ * {@link RestClient#balanced(java.util.function.Function)}; a missing trailing
+ * <code>/</code> is added so that paths resolve below each base URI. The
+ * list may refer to other properties, e.g.
+ * <code>endpoints=${multirest-service.url}</code>.
+ * </p>
+ * <p>
+ * The breaker of a client with <code>endpoints</code> guards the balanced
+ * calls, so it must only open once ejecting the failing endpoints no longer
+ * helps: its <code>failureRateThreshold</code> defaults to 80 % rather than
+ * 50 %, above the share of the calls of the endpoints the balancer may eject
+ * (by default half of them), and the balancer judges an endpoint on its last
+ * 5 calls, before the breaker has seen its 10. A lower threshold is logged as
+ * a warning, see {@link LoadBalancer#checkBreaker(CircuitBreaker)}.
+ * </p>
+ * <p>
+ * Clients are kept in a {@link ClientRegistry}: concurrent first lookups of the
+ * same ID build a single client, and the connection pools of clients that are
+ * refreshed, removed, or left over at context shutdown are closed.
+ * </p>
  * 
  * @author mlahariya
  * @version 1.0, Jan 2017
@@ -62,11 +155,76 @@ public class RestClientFactory {
     public static final String CONFIG_PREFIX = "restclient.def.";
     public static final String KEY_CONNECT_TIMEOUT = "connectTimeout";
     public static final String KEY_READ_TIMEOUT = "readTimeout";
+    public static final String KEY_CONNECT_REQUEST_TIMEOUT = "connectRequestTimeout";
     public static final String KEY_BUFFERED = "buffered";
+    public static final String KEY_POOL = "pool";
+    public static final String KEY_POOL_MAX_TOTAL_CONNECTIONS = "maxTotalConnections";
+    public static final String KEY_POOL_MAX_ROUTE_CONNECTIONS = "maxRouteConnections";
+    public static final String KEY_POOL_IDLE_TIMEOUT = "idleTimeout";
+    public static final String KEY_POOL_KEEP_ALIVE = "keepAlive";
+    public static final String KEY_POOL_VALIDATE_AFTER_INACTIVITY = "validateAfterInactivity";
+    public static final String KEY_BREAKER = "breaker";
+    public static final String KEY_BREAKER_ENABLED = "enabled";
+    public static final String KEY_BREAKER_WINDOW_SIZE = "windowSize";
+    public static final String KEY_BREAKER_MINIMUM_CALLS = "minimumCalls";
+    public static final String KEY_BREAKER_FAILURE_RATE_THRESHOLD = "failureRateThreshold";
+    public static final String KEY_BREAKER_SLOW_CALL_DURATION = "slowCallDuration";
+    public static final String KEY_BREAKER_SLOW_CALL_RATE_THRESHOLD = "slowCallRateThreshold";
+    public static final String KEY_BREAKER_OPEN_DURATION = "openDuration";
+    public static final String KEY_BREAKER_HALF_OPEN_CALLS = "halfOpenCalls";
+    public static final String KEY_BREAKER_MAX_CONCURRENT_CALLS = "maxConcurrentCalls";
+    public static final String KEY_BREAKER_MAX_WAIT = "maxWait";
+    public static final String KEY_ENDPOINTS = "endpoints";
+    public static final String KEY_LOAD_BALANCER = "loadBalancer";
+    public static final String KEY_LOAD_BALANCER_POLICY = "policy";
+    public static final String KEY_LOAD_BALANCER_WINDOW_SIZE = "windowSize";
+    public static final String KEY_LOAD_BALANCER_MINIMUM_CALLS = "minimumCalls";
+    public static final String KEY_LOAD_BALANCER_FAILURE_RATE_THRESHOLD = "failureRateThreshold";
+    public static final String KEY_LOAD_BALANCER_EJECTION_TIME = "ejectionTime";
+    public static final String KEY_LOAD_BALANCER_MAX_EJECTION_PERCENT = "maxEjectionPercent";
+    public static final String KEY_LOAD_BALANCER_DECAY_TIME = "decayTime";
+    public static final String KEY_HEDGE = "hedge";
+    public static final String KEY_HEDGE_ENABLED = "enabled";
+    public static final String KEY_HEDGE_PERCENTILE = "percentile";
+    public static final String KEY_HEDGE_MIN_DELAY = "minDelay";
+    public static final String KEY_HEDGE_MAX_DELAY = "maxDelay";
+    public static final String KEY_HEDGE_MAX_RATE_PERCENT = "maxRatePercent";
+    public static final String KEY_HEDGE_INTERVAL = "interval";
+    public static final String KEY_HEDGE_MIN_SAMPLES = "minSamples";
+    public static final String KEY_HEDGE_MAX_CONCURRENT_CALLS = "maxConcurrentCalls";
 
     public static final int DEFAULT_CONNECT_TIMEOUT = 1000;
+    public static final int DEFAULT_CONNECT_REQUEST_TIMEOUT = 1000;
     public static final int DEFAULT_READ_TIMEOUT = 10000;
     public static final boolean DEFAULT_BUFFERED = true;
+    public static final int DEFAULT_POOL_MAX_TOTAL_CONNECTIONS = 80;
+    public static final int DEFAULT_POOL_MAX_ROUTE_CONNECTIONS = 20;
+    public static final int DEFAULT_POOL_IDLE_TIMEOUT = 30000;
+    public static final int DEFAULT_POOL_KEEP_ALIVE = 30000;
+    public static final int DEFAULT_POOL_VALIDATE_AFTER_INACTIVITY = 2000;
+    public static final int DEFAULT_BREAKER_WINDOW_SIZE = 20;
+    public static final int DEFAULT_BREAKER_MINIMUM_CALLS = 10;
+    public static final int DEFAULT_BREAKER_FAILURE_RATE_THRESHOLD = 50;
+    public static final int DEFAULT_BALANCED_BREAKER_FAILURE_RATE_THRESHOLD = 80;
+    public static final int DEFAULT_BREAKER_SLOW_CALL_DURATION = 2000;
+    public static final int DEFAULT_BREAKER_SLOW_CALL_RATE_THRESHOLD = 80;
+    public static final int DEFAULT_BREAKER_OPEN_DURATION = 10000;
+    public static final int DEFAULT_BREAKER_HALF_OPEN_CALLS = 3;
+    public static final int DEFAULT_BREAKER_MAX_CONCURRENT_CALLS = DEFAULT_POOL_MAX_ROUTE_CONNECTIONS;
+    public static final int DEFAULT_BREAKER_MAX_WAIT = 0;
+    public static final int DEFAULT_LOAD_BALANCER_WINDOW_SIZE = 20;
+    public static final int DEFAULT_LOAD_BALANCER_MINIMUM_CALLS = 5;
+    public static final int DEFAULT_LOAD_BALANCER_FAILURE_RATE_THRESHOLD = 50;
+    public static final int DEFAULT_LOAD_BALANCER_EJECTION_TIME = 30000;
+    public static final int DEFAULT_LOAD_BALANCER_MAX_EJECTION_PERCENT = 50;
+    public static final int DEFAULT_LOAD_BALANCER_DECAY_TIME = 10000;
+    public static final double DEFAULT_HEDGE_PERCENTILE = 95;
+    public static final int DEFAULT_HEDGE_MIN_DELAY = 10;
+    public static final int DEFAULT_HEDGE_MAX_DELAY = 1000;
+    public static final int DEFAULT_HEDGE_MAX_RATE_PERCENT = 10;
+    public static final int DEFAULT_HEDGE_INTERVAL = 10000;
+    public static final int DEFAULT_HEDGE_MIN_SAMPLES = 100;
+    public static final int DEFAULT_HEDGE_MAX_CONCURRENT_CALLS = DEFAULT_POOL_MAX_ROUTE_CONNECTIONS;
 
     @Autowired
     private RestClient restClient;
@@ -77,7 +235,7 @@ public class RestClientFactory {
     @Resource
     private ApplicationContext appContext;
 
-    private Map<String, RestClient> clientMap = new HashMap<>();
+    private final ClientRegistry<RestClient> clientRegistry = new ClientRegistry<>();
 
     public RestClient getClient() {
         return restClient;
@@ -111,10 +269,47 @@ public class RestClientFactory {
      * @return The new or
      */
     public RestClient getClient(String id, String prefix) {
-        if (!this.clientMap.containsKey(id)) {
-            this.clientMap.put(id, this.createClient(id, prefix));
-        }
-        return this.clientMap.get(id);
+        return this.clientRegistry.get(id, key -> this.createClient(key, prefix));
+    }
+
+    /**
+     * Recreates a REST client from the current property values and closes the
+     * connection pool of the client it replaces.
+     * 
+     * @param id
+     *            The ID of the client to recreate.
+     * @param prefix
+     *            The prefix of the client properties. If <code>null</code>,
+     *            defaults to {@link #CONFIG_PREFIX}
+     * @return The new client.
+     */
+    public RestClient refreshClient(String id, String prefix) {
+        return this.clientRegistry.replace(this.createClient(id, prefix));
+    }
+
+    /**
+     * Removes a REST client and closes its connection pool.
+     * 
+     * @param id
+     *            The ID of the client to remove.
+     * @return <code>true</code> if the client existed.
+     */
+    public boolean removeClient(String id) {
+        return this.clientRegistry.remove(id);
+    }
+
+    /**
+     * @return The live clients created by this factory, by ID, with their
+     *         connection pool statistics.
+     */
+    public Map<String, RegisteredClient<RestClient>> getClients() {
+        return this.clientRegistry.getClients();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        LOG.info("Closing {} REST client(s).", this.clientRegistry.getClients().size());
+        this.clientRegistry.closeAll();
     }
 
     /**
@@ -126,21 +321,251 @@ public class RestClientFactory {
      * @param prefix
      *            The prefix of the client properties. If <code>null</code>,
      *            defaults to {@link #CONFIG_PREFIX}
-     * @return A new REST client.
+     * @return A new REST client, registered with the transport resources it
+     *         owns.
      */
-    protected RestClient createClient(String id, String prefix) {
+    protected RegisteredClient<RestClient> createClient(String id, String prefix) {
         prefix = (StringUtils.isBlank(prefix) ? CONFIG_PREFIX : prefix);
         ServiceConfigurationGroup propGrp = serviceConfig.getStringGroup(prefix + id + ".");
         int connTimeout = ServiceConfiguration.extractInteger(propGrp, KEY_CONNECT_TIMEOUT, DEFAULT_CONNECT_TIMEOUT);
         int readTimeout = ServiceConfiguration.extractInteger(propGrp, KEY_READ_TIMEOUT, DEFAULT_READ_TIMEOUT);
         boolean useBuffered = (propGrp == null ? DEFAULT_BUFFERED : propGrp.getBoolean(KEY_BUFFERED, DEFAULT_BUFFERED));
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(connTimeout);
-        factory.setReadTimeout(readTimeout);
+        ServiceConfigurationGroup poolGrp = (propGrp == null ? null : propGrp.breakOut(KEY_POOL));
+        ClientHttpRequestFactory factory;
+        PoolingHttpClientConnectionManager connectionManager = null;
+        Closeable transport = null;
+        if (poolGrp != null) {
+            int connRequestTimeout = ServiceConfiguration.extractInteger(propGrp, KEY_CONNECT_REQUEST_TIMEOUT,
+                    DEFAULT_CONNECT_REQUEST_TIMEOUT);
+            connectionManager = this.createConnectionManager(poolGrp);
+            HttpComponentsClientHttpRequestFactory pooledFactory = this.createPooledRequestFactory(poolGrp,
+                    connectionManager, connTimeout, connRequestTimeout, readTimeout);
+            transport = (Closeable) pooledFactory.getHttpClient();
+            factory = pooledFactory;
+        } else {
+            SimpleClientHttpRequestFactory simpleFactory = new SimpleClientHttpRequestFactory();
+            simpleFactory.setConnectTimeout(connTimeout);
+            simpleFactory.setReadTimeout(readTimeout);
+            factory = simpleFactory;
+        }
         RestClient newClient = new RestClient(useBuffered ? new BufferingClientHttpRequestFactory(factory) : factory);
         this.initializeClient(newClient, propGrp);
-        LOG.info("New REST client initialized: ");
-        return newClient;
+        List<URI> endpoints = this.getEndpoints(propGrp);
+        ServiceConfigurationGroup breakerGrp = (propGrp == null ? null : propGrp.breakOut(KEY_BREAKER));
+        if (breakerGrp != null && breakerGrp.getBoolean(KEY_BREAKER_ENABLED, true)) {
+            newClient.setCircuitBreaker(this.createCircuitBreaker(id, breakerGrp, !endpoints.isEmpty()));
+            newClient.setBulkhead(this.createBulkhead(id, breakerGrp));
+        }
+        if (!endpoints.isEmpty()) {
+            newClient.setLoadBalancer(this.createLoadBalancer(id, endpoints, propGrp.breakOut(KEY_LOAD_BALANCER)));
+            if (newClient.getCircuitBreaker() != null) {
+                newClient.getLoadBalancer().checkBreaker(newClient.getCircuitBreaker());
+            }
+        }
+        ServiceConfigurationGroup hedgeGrp = (propGrp == null ? null : propGrp.breakOut(KEY_HEDGE));
+        if (hedgeGrp != null && hedgeGrp.getBoolean(KEY_HEDGE_ENABLED, true)) {
+            newClient.setHedger(this.createHedger(id, hedgeGrp));
+        }
+        LOG.info("New REST client initialized: {} (pooled={}, breaker={}, hedged={}, endpoints={})", id,
+                poolGrp != null, newClient.getCircuitBreaker() != null, newClient.getHedger() != null, endpoints);
+        return new RegisteredClient<>(id, newClient, connectionManager, transport);
+    }
+
+    /**
+     * Override this to change the circuit breaker of clients with
+     * <code>breaker</code> properties.
+     * 
+     * @param id
+     *            The ID of the client.
+     * @param breakerGrp
+     *            The <code>breaker</code> properties group of the client.
+     * @param balanced
+     *            <code>true</code> if the client has <code>endpoints</code>,
+     *            whose breaker opens at a higher failure rate by default.
+     * @return A new circuit breaker.
+     */
+    protected CircuitBreaker createCircuitBreaker(String id, ServiceConfigurationGroup breakerGrp,
+            boolean balanced) {
+        return new CircuitBreaker(id,
+                ServiceConfiguration.extractInteger(breakerGrp, KEY_BREAKER_WINDOW_SIZE, DEFAULT_BREAKER_WINDOW_SIZE),
+                ServiceConfiguration.extractInteger(breakerGrp, KEY_BREAKER_MINIMUM_CALLS,
+                        DEFAULT_BREAKER_MINIMUM_CALLS),
+                ServiceConfiguration.extractInteger(breakerGrp, KEY_BREAKER_FAILURE_RATE_THRESHOLD,
+                        balanced ? DEFAULT_BALANCED_BREAKER_FAILURE_RATE_THRESHOLD
+                                : DEFAULT_BREAKER_FAILURE_RATE_THRESHOLD),
+                ServiceConfiguration.extractInteger(breakerGrp, KEY_BREAKER_SLOW_CALL_DURATION,
+                        DEFAULT_BREAKER_SLOW_CALL_DURATION),
+                ServiceConfiguration.extractInteger(breakerGrp, KEY_BREAKER_SLOW_CALL_RATE_THRESHOLD,
+                        DEFAULT_BREAKER_SLOW_CALL_RATE_THRESHOLD),
+                ServiceConfiguration.extractInteger(breakerGrp, KEY_BREAKER_OPEN_DURATION,
+                        DEFAULT_BREAKER_OPEN_DURATION),
+                ServiceConfiguration.extractInteger(breakerGrp, KEY_BREAKER_HALF_OPEN_CALLS,
+                        DEFAULT_BREAKER_HALF_OPEN_CALLS));
+    }
+
+    /**
+     * Override this to change the bulkhead of clients with
+     * <code>breaker</code> properties.
+     * 
+     * @param id
+     *            The ID of the client.
+     * @param breakerGrp
+     *            The <code>breaker</code> properties group of the client.
+     * @return A new bulkhead, or <code>null</code> for unbounded concurrent
+     *         calls.
+     */
+    protected Bulkhead createBulkhead(String id, ServiceConfigurationGroup breakerGrp) {
+        int maxConcurrentCalls = ServiceConfiguration.extractInteger(breakerGrp, KEY_BREAKER_MAX_CONCURRENT_CALLS,
+                DEFAULT_BREAKER_MAX_CONCURRENT_CALLS);
+        return maxConcurrentCalls <= 0 ? null : new Bulkhead(id, maxConcurrentCalls,
+                ServiceConfiguration.extractInteger(breakerGrp, KEY_BREAKER_MAX_WAIT, DEFAULT_BREAKER_MAX_WAIT));
+    }
+
+    /**
+     * Parses the <code>endpoints</code> of a client, after resolving the
+     * placeholders in them.
+     * 
+     * @param propGrp
+     *            The properties group of the client.
+     * @return The base URIs, each ending with <code>/</code>; empty if the
+     *         client has none.
+     */
+    protected List<URI> getEndpoints(ServiceConfigurationGroup propGrp) {
+        List<URI> endpoints = new ArrayList<>();
+        String value = (propGrp == null ? null : propGrp.getString(KEY_ENDPOINTS));
+        if (StringUtils.isNotBlank(value)) {
+            for (String endpoint : this.appContext.getEnvironment().resolveRequiredPlaceholders(value).split(",")) {
+                if (StringUtils.isNotBlank(endpoint)) {
+                    endpoints.add(URI.create(StringUtils.appendIfMissing(endpoint.trim(), "/")));
+                }
+            }
+        }
+        return endpoints;
+    }
+
+    /**
+     * Override this to change the load balancing of clients with
+     * <code>endpoints</code>.
+     * 
+     * @param id
+     *            The ID of the client.
+     * @param endpoints
+     *            The base URIs of the service.
+     * @param balancerGrp
+     *            The <code>loadBalancer</code> properties group of the client,
+     *            <code>null</code> for the defaults.
+     * @return A new load balancer.
+     */
+    protected LoadBalancer createLoadBalancer(String id, List<URI> endpoints, ServiceConfigurationGroup balancerGrp) {
+        return new LoadBalancer(id, endpoints,
+                LoadBalancer.Policy.fromProperty(
+                        ServiceConfiguration.extractString(balancerGrp, KEY_LOAD_BALANCER_POLICY, null)),
+                ServiceConfiguration.extractInteger(balancerGrp, KEY_LOAD_BALANCER_WINDOW_SIZE,
+                        DEFAULT_LOAD_BALANCER_WINDOW_SIZE),
+                ServiceConfiguration.extractInteger(balancerGrp, KEY_LOAD_BALANCER_MINIMUM_CALLS,
+                        DEFAULT_LOAD_BALANCER_MINIMUM_CALLS),
+                ServiceConfiguration.extractInteger(balancerGrp, KEY_LOAD_BALANCER_FAILURE_RATE_THRESHOLD,
+                        DEFAULT_LOAD_BALANCER_FAILURE_RATE_THRESHOLD),
+                ServiceConfiguration.extractInteger(balancerGrp, KEY_LOAD_BALANCER_EJECTION_TIME,
+                        DEFAULT_LOAD_BALANCER_EJECTION_TIME),
+                ServiceConfiguration.extractInteger(balancerGrp, KEY_LOAD_BALANCER_MAX_EJECTION_PERCENT,
+                        DEFAULT_LOAD_BALANCER_MAX_EJECTION_PERCENT),
+                ServiceConfiguration.extractInteger(balancerGrp, KEY_LOAD_BALANCER_DECAY_TIME,
+                        DEFAULT_LOAD_BALANCER_DECAY_TIME));
+    }
+
+    /**
+     * Override this to change the hedging of clients with <code>hedge</code>
+     * properties.
+     * 
+     * @param id
+     *            The ID of the client.
+     * @param hedgeGrp
+     *            The <code>hedge</code> properties group of the client.
+     * @return A new hedger.
+     */
+    protected Hedger createHedger(String id, ServiceConfigurationGroup hedgeGrp) {
+        return new Hedger(id, hedgeGrp.getDouble(KEY_HEDGE_PERCENTILE, DEFAULT_HEDGE_PERCENTILE),
+                ServiceConfiguration.extractInteger(hedgeGrp, KEY_HEDGE_MIN_DELAY, DEFAULT_HEDGE_MIN_DELAY),
+                ServiceConfiguration.extractInteger(hedgeGrp, KEY_HEDGE_MAX_DELAY, DEFAULT_HEDGE_MAX_DELAY),
+                ServiceConfiguration.extractInteger(hedgeGrp, KEY_HEDGE_INTERVAL, DEFAULT_HEDGE_INTERVAL),
+                ServiceConfiguration.extractInteger(hedgeGrp, KEY_HEDGE_MIN_SAMPLES, DEFAULT_HEDGE_MIN_SAMPLES),
+                ServiceConfiguration.extractInteger(hedgeGrp, KEY_HEDGE_MAX_RATE_PERCENT,
+                        DEFAULT_HEDGE_MAX_RATE_PERCENT),
+                ServiceConfiguration.extractInteger(hedgeGrp, KEY_HEDGE_MAX_CONCURRENT_CALLS,
+                        DEFAULT_HEDGE_MAX_CONCURRENT_CALLS));
+    }
+
+    /**
+     * Override this to change the connection pool settings of pooled clients.
+     * 
+     * @param poolGrp
+     *            The <code>pool</code> properties group of the client.
+     * @return A new connection manager.
+     */
+    protected PoolingHttpClientConnectionManager createConnectionManager(ServiceConfigurationGroup poolGrp) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(ServiceConfiguration.extractInteger(poolGrp, KEY_POOL_MAX_TOTAL_CONNECTIONS,
+                DEFAULT_POOL_MAX_TOTAL_CONNECTIONS));
+        connectionManager.setDefaultMaxPerRoute(ServiceConfiguration.extractInteger(poolGrp,
+                KEY_POOL_MAX_ROUTE_CONNECTIONS, DEFAULT_POOL_MAX_ROUTE_CONNECTIONS));
+        connectionManager.setValidateAfterInactivity(ServiceConfiguration.extractInteger(poolGrp,
+                KEY_POOL_VALIDATE_AFTER_INACTIVITY, DEFAULT_POOL_VALIDATE_AFTER_INACTIVITY));
+        return connectionManager;
+    }
+
+    /**
+     * Override this to change how the pooled transport of a client is built.
+     * By default an Apache HttpClient is created on top of a
+     * {@link PoolingHttpClientConnectionManager}, with a background thread
+     * evicting expired and idle connections.
+     * 
+     * @param poolGrp
+     *            The <code>pool</code> properties group of the client.
+     * @param connectionManager
+     *            The connection pool of the client.
+     * @param connTimeout
+     *            The connect timeout in milliseconds.
+     * @param connRequestTimeout
+     *            The maximum time in milliseconds to wait for a connection
+     *            from the pool.
+     * @param readTimeout
+     *            The socket read timeout in milliseconds.
+     * @return A request factory backed by the connection pool.
+     */
+    protected HttpComponentsClientHttpRequestFactory createPooledRequestFactory(ServiceConfigurationGroup poolGrp,
+            PoolingHttpClientConnectionManager connectionManager, int connTimeout, int connRequestTimeout,
+            int readTimeout) {
+        int idleTimeout = ServiceConfiguration.extractInteger(poolGrp, KEY_POOL_IDLE_TIMEOUT,
+                DEFAULT_POOL_IDLE_TIMEOUT);
+        int keepAlive = ServiceConfiguration.extractInteger(poolGrp, KEY_POOL_KEEP_ALIVE, DEFAULT_POOL_KEEP_ALIVE);
+
+        HttpClient httpClient = HttpClientBuilder.create().setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(this.createKeepAliveStrategy(keepAlive)).evictExpiredConnections()
+                .evictIdleConnections((long) idleTimeout, TimeUnit.MILLISECONDS).build();
+
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setConnectTimeout(connTimeout);
+        factory.setConnectionRequestTimeout(connRequestTimeout);
+        factory.setReadTimeout(readTimeout);
+        return factory;
+    }
+
+    /**
+     * Honours the <code>Keep-Alive</code> header sent by the server and falls
+     * back to the configured duration when the server does not send one. A
+     * non-positive default keeps connections alive until they are evicted as
+     * idle.
+     * 
+     * @param defaultKeepAlive
+     *            The keep-alive duration in milliseconds.
+     * @return The keep-alive strategy.
+     */
+    protected ConnectionKeepAliveStrategy createKeepAliveStrategy(final long defaultKeepAlive) {
+        return (response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return (keepAlive > 0 ? keepAlive : (defaultKeepAlive > 0 ? defaultKeepAlive : -1));
+        };
     }
 
     /**
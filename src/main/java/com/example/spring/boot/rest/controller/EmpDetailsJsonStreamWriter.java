@@ -0,0 +1,70 @@
+package com.example.spring.boot.rest.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import com.example.spring.boot.rest.types.EmpDetails;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes employees as a JSON array straight to the response stream, one at a
+ * time as they are handed over. Nothing is written before the first employee,
+ * so a request failing before that can still be answered with an error
+ * response.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class EmpDetailsJsonStreamWriter implements Consumer<EmpDetails> {
+
+    private final JsonGenerator generator;
+
+    private final ObjectWriter writer;
+
+    private boolean started;
+
+    public EmpDetailsJsonStreamWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.writer = objectMapper.writerFor(EmpDetails.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * @throws UncheckedIOException
+     *             If the employee could not be written, usually because the
+     *             client went away.
+     */
+    @Override
+    public void accept(EmpDetails empDetails) {
+        try {
+            if (!this.started) {
+                this.generator.writeStartArray();
+                this.started = true;
+            }
+            this.writer.writeValue(this.generator, empDetails);
+        } catch (IOException ioEx) {
+            throw new UncheckedIOException(ioEx);
+        }
+    }
+
+    /**
+     * Closes the array, writing an empty one if no employee was handed over,
+     * and flushes the stream. Only to be called once all employees have been
+     * written successfully.
+     */
+    public void finish() throws IOException {
+        if (!this.started) {
+            this.generator.writeStartArray();
+            this.started = true;
+        }
+        this.generator.writeEndArray();
+        this.generator.close();
+    }
+
+}
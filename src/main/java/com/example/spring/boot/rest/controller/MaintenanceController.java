@@ -42,6 +42,11 @@ import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
+import com.example.spring.boot.rest.dao.CachingDmDbService;
+import com.example.spring.boot.rest.util.RegisteredClient;
+import com.example.spring.boot.soap.connector.SoapClient;
+import com.example.spring.boot.soap.connector.SoapClientFactory;
+
 /**
  * @author mlahariya
  * @version 1.0, Jan 2017
@@ -62,6 +67,14 @@ public class MaintenanceController {
     @Autowired
     private WebApplicationContext webApplicationContext;
 
+    @Autowired
+    @Qualifier("CachingDmDbService")
+    private CachingDmDbService cachingDmDbService;
+
+    @Autowired
+    @Qualifier("factory.soapClient")
+    private SoapClientFactory soapClientFactory;
+
     @SuppressWarnings("rawtypes")
     private Class[] restControllers = { SpringBootExternalRestServiceController.class };
 
@@ -226,6 +239,47 @@ public class MaintenanceController {
         return result;
     }
 
+    /**
+     * Drops an employee, and the addresses listing it, from the employee cache
+     * after its row was changed outside this service. If the employee moved,
+     * pass the new address so it is dropped as well.
+     */
+    @RequestMapping(method = RequestMethod.DELETE, value = "/maintenance/cache/employee/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void invalidateEmployee(@PathVariable("id") int id,
+            @RequestParam(value = "address", required = false) String newAddress) {
+        LOG.info("Invalidating cached employee {}", id);
+        cachingDmDbService.invalidate(id, newAddress);
+    }
+
+    @RequestMapping(method = RequestMethod.DELETE, value = "/maintenance/cache/address/{address}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void invalidateAddress(@PathVariable("address") String address) {
+        LOG.info("Invalidating cached address {}", address);
+        cachingDmDbService.invalidateAddress(address);
+    }
+
+    @RequestMapping(method = RequestMethod.DELETE, value = "/maintenance/cache/employee")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void invalidateAllEmployees() {
+        LOG.info("Invalidating all cached employees");
+        cachingDmDbService.invalidateAll();
+    }
+
+    /**
+     * Drops the cached responses of a SOAP client, e.g. after the service
+     * behind it was redeployed.
+     */
+    @RequestMapping(method = RequestMethod.DELETE, value = "/maintenance/cache/soapclient/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void invalidateSoapResponses(@PathVariable("id") String id) {
+        RegisteredClient<SoapClient> registered = soapClientFactory.getClients().get(id);
+        if (registered != null && registered.getClient().getResponseCache() != null) {
+            LOG.info("Invalidating cached responses of SOAP client {}", id);
+            registered.getClient().getResponseCache().invalidateAll();
+        }
+    }
+
     private QName convertJavaToXMLType(Class<?> type) {
         QName nm = new QName("");
         String classname = type.toString();
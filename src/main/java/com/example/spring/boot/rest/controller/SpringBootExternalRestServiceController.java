@@ -1,6 +1,8 @@
 package com.example.spring.boot.rest.controller;
 
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,11 +17,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.spring.boot.rest.handler.AsyncLegExecutor;
 import com.example.spring.boot.rest.service.DmServiceInterface;
 import com.example.spring.boot.rest.types.EmpAddress;
+import com.example.spring.boot.rest.types.EmpBatchRequest;
 import com.example.spring.boot.rest.types.EmpConfigIdentifier;
+import com.example.spring.boot.rest.types.EmpConfigResult;
 import com.example.spring.boot.rest.types.EmpDetails;
+import com.example.spring.boot.rest.types.EmpDetailsPage;
+import com.example.spring.boot.rest.types.EmpPageRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * @author mlahariya
@@ -34,6 +44,9 @@ public class SpringBootExternalRestServiceController {
     @Qualifier("DmServiceImpl")
     private DmServiceInterface dmService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private static final Logger LOG = LoggerFactory.getLogger(SpringBootExternalRestServiceController.class);
 
     @Lazy(false)
@@ -67,4 +80,128 @@ public class SpringBootExternalRestServiceController {
         return new ResponseEntity<List<EmpDetails>>(response, HttpStatus.OK);
     }
 
+    /**
+     * Batch variant of {@link #getEmpConfiguration(EmpConfigIdentifier)}.
+     * Returns one result per requested id, in request order; ids which do not
+     * exist are marked as not found.
+     */
+    @Lazy(false)
+    @RequestMapping(method = RequestMethod.POST, value = "/empConfigs", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public ResponseEntity<List<EmpConfigResult>> getEmpConfigurations(@RequestBody EmpBatchRequest batchRequest) {
+
+        if (LOG.isDebugEnabled())
+            LOG.debug("Received Request for getEmpConfigurations {} ", batchRequest);
+
+        List<EmpConfigResult> response = dmService.queryEmpConfigsBatch(batchRequest);
+
+        if (LOG.isDebugEnabled())
+            LOG.debug("Returning Response for getEmpConfigurations");
+
+        return new ResponseEntity<List<EmpConfigResult>>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getEmpConfiguration(EmpConfigIdentifier)}.
+     * The container thread is released as soon as the lookup has been started
+     * and the response is written when the lookup completes.
+     */
+    @Lazy(false)
+    @RequestMapping(method = RequestMethod.POST, value = "/empConfig/async", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public DeferredResult<ResponseEntity<EmpDetails>> getEmpConfigurationAsync(@RequestBody EmpConfigIdentifier id) {
+
+        if (LOG.isDebugEnabled())
+            LOG.debug("Received Request for getEmpConfigurationAsync {} ", id);
+
+        return toDeferredResult("getEmpConfigurationAsync", dmService.queryEmpConfigsAsync(id));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getAllEmpByAddress(EmpAddress)}.
+     */
+    @Lazy(false)
+    @RequestMapping(method = RequestMethod.POST, value = "/empConfigAddress/async", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public DeferredResult<ResponseEntity<List<EmpDetails>>> getAllEmpByAddressAsync(@RequestBody EmpAddress empAddr) {
+
+        if (LOG.isDebugEnabled())
+            LOG.debug("Received Request for getAllEmpByAddressAsync {} ", empAddr);
+
+        return toDeferredResult("getAllEmpByAddressAsync", dmService.selectAllEmpAllDataAsync(empAddr));
+    }
+
+    /**
+     * Streaming variant of {@link #getAllEmpByAddress(EmpAddress)} for large
+     * addresses. The employees are written to the response while they are
+     * read from the database, so neither the employees nor the JSON document
+     * are ever held in memory as a whole.
+     */
+    @Lazy(false)
+    @RequestMapping(method = RequestMethod.POST, value = "/empConfigAddress/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public ResponseEntity<StreamingResponseBody> streamAllEmpByAddress(@RequestBody EmpAddress empAddr) {
+
+        if (LOG.isDebugEnabled())
+            LOG.debug("Received Request for streamAllEmpByAddress {} ", empAddr);
+
+        StreamingResponseBody responseBody = out -> {
+            EmpDetailsJsonStreamWriter writer = new EmpDetailsJsonStreamWriter(objectMapper, out);
+            try {
+                int rowCount = dmService.streamAllEmpAllData(empAddr, writer);
+                writer.finish();
+
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Streamed {} employees for streamAllEmpByAddress", rowCount);
+            } catch (UncheckedIOException ioEx) {
+                throw ioEx.getCause();
+            }
+        };
+        return new ResponseEntity<StreamingResponseBody>(responseBody, HttpStatus.OK);
+    }
+
+    /**
+     * Paged variant of {@link #getAllEmpByAddress(EmpAddress)}. The
+     * continuation token of a page is passed in the request for the next
+     * page, and is absent from the last page.
+     */
+    @Lazy(false)
+    @RequestMapping(method = RequestMethod.POST, value = "/empConfigAddress/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public ResponseEntity<EmpDetailsPage> getEmpPageByAddress(@RequestBody EmpPageRequest pageRequest) {
+
+        if (LOG.isDebugEnabled())
+            LOG.debug("Received Request for getEmpPageByAddress {} ", pageRequest);
+
+        EmpDetailsPage response = dmService.selectAllEmpAllDataPage(pageRequest);
+        if (LOG.isDebugEnabled())
+            LOG.debug("Returning Response for getEmpPageByAddress");
+
+        return new ResponseEntity<EmpDetailsPage>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Completes a {@link DeferredResult} from the future service response. A
+     * failed future is passed on as the exception thrown by the service, so it
+     * is rendered by the exception handler exactly as on the blocking
+     * endpoints.
+     */
+    private <T> DeferredResult<ResponseEntity<T>> toDeferredResult(String operation, CompletableFuture<T> future) {
+
+        DeferredResult<ResponseEntity<T>> deferredResult = new DeferredResult<ResponseEntity<T>>();
+        deferredResult.onTimeout(() -> deferredResult.setErrorResult(AsyncLegExecutor.timeoutError(operation, null)));
+
+        future.whenComplete((response, ex) -> {
+            if (ex != null) {
+                deferredResult.setErrorResult(AsyncLegExecutor.unwrap(ex));
+            } else {
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Returning Response for {}", operation);
+
+                deferredResult.setResult(new ResponseEntity<T>(response, HttpStatus.OK));
+            }
+        });
+        return deferredResult;
+    }
+
 }
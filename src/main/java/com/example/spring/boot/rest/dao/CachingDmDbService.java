@@ -0,0 +1,352 @@
+package com.example.spring.boot.rest.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import com.example.spring.boot.rest.types.EmpAddress;
+import com.example.spring.boot.rest.types.EmpConfigIdentifier;
+import com.example.spring.boot.rest.types.EmpDetails;
+import com.example.spring.boot.soap.connector.ServiceConfiguration;
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Read-through cache in front of {@link CoalescingDmDbService}, which runs
+ * the lookups missing the cache on {@link DmDbServiceImpl}. Employees looked up
+ * by id are kept in a bounded in-process cache which evicts by size and by
+ * age, so hot ids are served without a database round trip.
+ * <p>
+ * Address lookups are served from a second cache which only holds the ids of
+ * the employees living at an address. The employees themselves are put in the
+ * id cache, so both lookups share the same {@link EmpDetails} instances. If
+ * one of the indexed employees has since left the id cache, the address is
+ * read from the database again.
+ * <p>
+ * Batch lookups take the cached employees from the id cache and read only the
+ * missing ids from the database, which are then cached as well.
+ *
+ * <pre>
+ * dm.cache.employee.enabled=true
+ * dm.cache.employee.maximumSize=10000
+ * dm.cache.employee.expireAfterWrite=300000
+ * dm.cache.address.enabled=true
+ * dm.cache.address.maximumSize=1000
+ * dm.cache.address.expireAfterWrite=300000
+ * </pre>
+ *
+ * Streamed and paged address lookups always go to the database, as they are
+ * meant for addresses too large to hold in memory.
+ * <p>
+ * The address cache is only used together with the employee cache. Lookups
+ * which fail, including ids and addresses which do not exist, are not cached.
+ * <p>
+ * A miss is read through the {@link CoalescingDmDbService} rather than by a
+ * cache loader: a loader would make concurrent misses of a key wait for the
+ * loading one without a bound, whereas the coalescing layer makes them wait at
+ * most <code>dm.coalesce.maxWait</code> ms, so a hung query does not hold
+ * every request for the same id or address.
+ * The cached {@link EmpDetails} instances are shared between callers and must
+ * be treated as read-only.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@Primary
+@Repository("CachingDmDbService")
+public class CachingDmDbService implements DmDbService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingDmDbService.class);
+
+    public static final String CONFIG_PREFIX = "dm.cache.employee.";
+    public static final String ADDRESS_CONFIG_PREFIX = "dm.cache.address.";
+    public static final String KEY_ENABLED = "enabled";
+    public static final String KEY_MAXIMUM_SIZE = "maximumSize";
+    public static final String KEY_EXPIRE_AFTER_WRITE = "expireAfterWrite";
+
+    public static final boolean DEFAULT_ENABLED = true;
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+    public static final long DEFAULT_EXPIRE_AFTER_WRITE = 300000;
+    public static final long DEFAULT_ADDRESS_MAXIMUM_SIZE = 1000;
+
+    @Autowired
+    @Qualifier("CoalescingDmDbService")
+    private DmDbService dmDbService;
+
+    @Resource
+    private ServiceConfiguration serviceConfig;
+
+    private Cache<Integer, EmpDetails> employeeCache;
+
+    private Cache<String, List<Integer>> addressIndex;
+
+    // loads are made outside of the caches, so their statistics are kept here
+    private final AbstractCache.StatsCounter employeeLoads = new AbstractCache.SimpleStatsCounter();
+
+    private final AbstractCache.StatsCounter addressLoads = new AbstractCache.SimpleStatsCounter();
+
+    @PostConstruct
+    public void init() {
+        if (!this.serviceConfig.getBoolean(CONFIG_PREFIX + KEY_ENABLED, DEFAULT_ENABLED)) {
+            LOG.info("Employee cache is disabled.");
+            return;
+        }
+        long maximumSize = this.serviceConfig.getLong(CONFIG_PREFIX + KEY_MAXIMUM_SIZE, DEFAULT_MAXIMUM_SIZE);
+        long expireAfterWrite = this.serviceConfig.getLong(CONFIG_PREFIX + KEY_EXPIRE_AFTER_WRITE,
+                DEFAULT_EXPIRE_AFTER_WRITE);
+        this.employeeCache = CacheBuilder.newBuilder().maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite, TimeUnit.MILLISECONDS).recordStats().build();
+        LOG.info("Employee cache enabled with maximumSize {} and expireAfterWrite {} ms.", maximumSize,
+                expireAfterWrite);
+
+        if (!this.serviceConfig.getBoolean(ADDRESS_CONFIG_PREFIX + KEY_ENABLED, DEFAULT_ENABLED)) {
+            LOG.info("Address index cache is disabled.");
+            return;
+        }
+        long addressMaximumSize = this.serviceConfig.getLong(ADDRESS_CONFIG_PREFIX + KEY_MAXIMUM_SIZE,
+                DEFAULT_ADDRESS_MAXIMUM_SIZE);
+        long addressExpireAfterWrite = this.serviceConfig.getLong(ADDRESS_CONFIG_PREFIX + KEY_EXPIRE_AFTER_WRITE,
+                DEFAULT_EXPIRE_AFTER_WRITE);
+        this.addressIndex = CacheBuilder.newBuilder().maximumSize(addressMaximumSize)
+                .expireAfterWrite(addressExpireAfterWrite, TimeUnit.MILLISECONDS).recordStats().build();
+        LOG.info("Address index cache enabled with maximumSize {} and expireAfterWrite {} ms.",
+                addressMaximumSize, addressExpireAfterWrite);
+    }
+
+    public DmDbService getDmDbService() {
+        return dmDbService;
+    }
+
+    public void setDmDbService(DmDbService dmDbService) {
+        this.dmDbService = dmDbService;
+    }
+
+    public boolean isEnabled() {
+        return this.employeeCache != null;
+    }
+
+    @Override
+    public EmpDetails queryEmpConfigs(EmpConfigIdentifier id) {
+        if (this.employeeCache == null) {
+            return this.dmDbService.queryEmpConfigs(id);
+        }
+        return get(this.employeeCache, this.employeeLoads, id.getId(), () -> this.dmDbService.queryEmpConfigs(id));
+    }
+
+    @Override
+    public List<EmpDetails> selectAllEmpAllData(EmpAddress empAddr) {
+        if (this.addressIndex == null || empAddr.getAddress() == null) {
+            return this.dmDbService.selectAllEmpAllData(empAddr);
+        }
+        String address = empAddr.getAddress();
+        List<EmpDetails> empDetailsList = this.resolve(this.getAddress(address));
+        if (empDetailsList == null) {
+            LOG.debug("Employees of address {} left the employee cache, reloading.", address);
+            this.addressIndex.invalidate(address);
+            empDetailsList = this.resolve(this.getAddress(address));
+        }
+        if (empDetailsList == null) {
+            // evicted again right away, the cache is too small for the address
+            this.addressIndex.invalidate(address);
+            return this.dmDbService.selectAllEmpAllData(empAddr);
+        }
+        return empDetailsList;
+    }
+
+    @Override
+    public Map<Integer, EmpDetails> queryEmpConfigsBatch(Collection<Integer> ids) {
+        if (this.employeeCache == null) {
+            return this.dmDbService.queryEmpConfigsBatch(ids);
+        }
+        Map<Integer, EmpDetails> empDetailsMap = new HashMap<Integer, EmpDetails>(
+                this.employeeCache.getAllPresent(ids));
+        List<Integer> missingIds = new ArrayList<Integer>();
+        for (Integer id : ids) {
+            if (!empDetailsMap.containsKey(id)) {
+                missingIds.add(id);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            LOG.debug("{} of {} employees are not cached, reading them.", missingIds.size(), ids.size());
+            Map<Integer, EmpDetails> loaded = this.dmDbService.queryEmpConfigsBatch(missingIds);
+            this.employeeCache.putAll(loaded);
+            empDetailsMap.putAll(loaded);
+        }
+        return empDetailsMap;
+    }
+
+    @Override
+    public int streamAllEmpAllData(EmpAddress empAddr, Consumer<EmpDetails> consumer) {
+        return this.dmDbService.streamAllEmpAllData(empAddr, consumer);
+    }
+
+    @Override
+    public List<EmpDetails> selectAllEmpAllDataPage(EmpAddress empAddr, int afterId, int limit) {
+        return this.dmDbService.selectAllEmpAllDataPage(empAddr, afterId, limit);
+    }
+
+    /**
+     * Drops the cached employee and the cached addresses which list it, so
+     * the next lookups read them from the database again. Other addresses stay
+     * cached.
+     *
+     * @param id
+     *            The employee id.
+     * @param newAddresses
+     *            Addresses the employee has been moved to, if any.
+     */
+    public void invalidate(int id, String... newAddresses) {
+        if (this.employeeCache != null) {
+            this.employeeCache.invalidate(id);
+        }
+        if (this.addressIndex != null) {
+            List<String> affected = new ArrayList<String>();
+            this.addressIndex.asMap().forEach((address, ids) -> {
+                if (ids.contains(id)) {
+                    affected.add(address);
+                }
+            });
+            for (String newAddress : newAddresses) {
+                if (newAddress != null) {
+                    affected.add(newAddress);
+                }
+            }
+            LOG.debug("Invalidating employee {} and addresses {}", id, affected);
+            this.addressIndex.invalidateAll(affected);
+        }
+    }
+
+    /**
+     * Drops the cached address, e.g. after an employee was added to it.
+     *
+     * @param address
+     *            The address.
+     */
+    public void invalidateAddress(String address) {
+        if (this.addressIndex != null && address != null) {
+            this.addressIndex.invalidate(address);
+        }
+    }
+
+    /**
+     * Drops all cached employees and addresses.
+     */
+    public void invalidateAll() {
+        if (this.addressIndex != null) {
+            this.addressIndex.invalidateAll();
+        }
+        if (this.employeeCache != null) {
+            this.employeeCache.invalidateAll();
+        }
+    }
+
+    /**
+     * @return The cache statistics, or <code>null</code> if the cache is
+     *         disabled.
+     */
+    public CacheStats getStats() {
+        return (this.employeeCache == null ? null : this.employeeCache.stats().plus(this.employeeLoads.snapshot()));
+    }
+
+    /**
+     * @return The approximate number of cached employees.
+     */
+    public long getSize() {
+        return (this.employeeCache == null ? 0 : this.employeeCache.size());
+    }
+
+    /**
+     * @return The address cache statistics, or <code>null</code> if the
+     *         address cache is disabled.
+     */
+    public CacheStats getAddressStats() {
+        return (this.addressIndex == null ? null : this.addressIndex.stats().plus(this.addressLoads.snapshot()));
+    }
+
+    /**
+     * @return The approximate number of cached addresses.
+     */
+    public long getAddressSize() {
+        return (this.addressIndex == null ? 0 : this.addressIndex.size());
+    }
+
+    /**
+     * Reads the employees of the address and puts them in the id cache.
+     *
+     * @return The ids of the employees, in database order.
+     */
+    private List<Integer> loadAddress(String address) {
+        EmpAddress empAddr = new EmpAddress();
+        empAddr.setAddress(address);
+        List<EmpDetails> empDetailsList = this.dmDbService.selectAllEmpAllData(empAddr);
+        ImmutableList.Builder<Integer> ids = ImmutableList.builder();
+        for (EmpDetails empDetails : empDetailsList) {
+            this.employeeCache.put(empDetails.getId(), empDetails);
+            ids.add(empDetails.getId());
+        }
+        return ids.build();
+    }
+
+    /**
+     * @return The cached employees of the ids, or <code>null</code> if any of
+     *         them is no longer in the id cache.
+     */
+    private List<EmpDetails> resolve(List<Integer> ids) {
+        List<EmpDetails> empDetailsList = new ArrayList<EmpDetails>(ids.size());
+        for (Integer id : ids) {
+            EmpDetails empDetails = this.employeeCache.getIfPresent(id);
+            if (empDetails == null) {
+                return null;
+            }
+            empDetailsList.add(empDetails);
+        }
+        return empDetailsList;
+    }
+
+    private List<Integer> getAddress(String address) {
+        return get(this.addressIndex, this.addressLoads, address, () -> this.loadAddress(address));
+    }
+
+    /**
+     * @return The cached value of the key, or the value loaded and then
+     *         cached if there is none.
+     */
+    private static <K, V> V get(Cache<K, V> cache, AbstractCache.StatsCounter loads, K key, Supplier<V> loader) {
+        V value = cache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        long start = System.nanoTime();
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            loads.recordLoadException(System.nanoTime() - start);
+            throw e;
+        }
+        loads.recordLoadSuccess(System.nanoTime() - start);
+        if (value != null) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.spring.boot.rest.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import com.example.spring.boot.rest.types.EmpAddress;
+import com.example.spring.boot.rest.types.EmpConfigIdentifier;
+import com.example.spring.boot.rest.types.EmpDetails;
+import com.example.spring.boot.rest.util.SingleFlight;
+import com.example.spring.boot.soap.connector.ServiceConfiguration;
+
+/**
+ * Coalesces concurrent identical lookups in front of {@link DmDbServiceImpl}:
+ * while the query for an employee id or an address is running, further
+ * lookups of the same id or address wait for it and share its result instead
+ * of sending the same query again. This keeps a burst of requests for a hot
+ * employee, e.g. right after it expired from the {@link CachingDmDbService},
+ * to a single query.
+ *
+ * <pre>
+ * dm.coalesce.enabled=true
+ * dm.coalesce.maxWait=5000
+ * </pre>
+ *
+ * A lookup waits at most <code>maxWait</code> ms for the identical one
+ * already running and then fails with
+ * {@link com.example.spring.boot.rest.exception.ErrorCode#CS_1015}, so a
+ * query that hangs does not hold every request for the same id or address.
+ * This also holds with the cache on: the {@link CachingDmDbService} sends its
+ * concurrent misses of a key here instead of having them wait for one another
+ * in a cache loader.
+ *
+ * The shared results are the same instances for all waiters, so they must be
+ * treated as read-only like the cached ones; each waiter gets an error of its
+ * own, caused by the one of the query. Batch, streamed and paged lookups are
+ * passed through unchanged.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@Repository("CoalescingDmDbService")
+public class CoalescingDmDbService implements DmDbService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CoalescingDmDbService.class);
+
+    public static final String CONFIG_PREFIX = "dm.coalesce.";
+    public static final String KEY_ENABLED = "enabled";
+    public static final String KEY_MAX_WAIT = "maxWait";
+
+    public static final boolean DEFAULT_ENABLED = true;
+    public static final int DEFAULT_MAX_WAIT = 5000;
+
+    @Autowired
+    @Qualifier("DmDbServiceImpl")
+    private DmDbService dmDbService;
+
+    @Resource
+    private ServiceConfiguration serviceConfig;
+
+    private SingleFlight<Integer, EmpDetails> employeeCalls;
+
+    private SingleFlight<String, List<EmpDetails>> addressCalls;
+
+    @PostConstruct
+    public void init() {
+        if (!this.serviceConfig.getBoolean(CONFIG_PREFIX + KEY_ENABLED, DEFAULT_ENABLED)) {
+            LOG.info("Coalescing of employee lookups is disabled.");
+            return;
+        }
+        int maxWait = this.serviceConfig.getInteger(CONFIG_PREFIX + KEY_MAX_WAIT, DEFAULT_MAX_WAIT);
+        this.employeeCalls = new SingleFlight<>("employee lookup", maxWait);
+        this.addressCalls = new SingleFlight<>("address lookup", maxWait);
+        LOG.info("Coalescing of employee lookups is enabled, waiting at most {} ms.", maxWait);
+    }
+
+    public DmDbService getDmDbService() {
+        return dmDbService;
+    }
+
+    public void setDmDbService(DmDbService dmDbService) {
+        this.dmDbService = dmDbService;
+    }
+
+    @Override
+    public EmpDetails queryEmpConfigs(EmpConfigIdentifier id) {
+        if (this.employeeCalls == null) {
+            return this.dmDbService.queryEmpConfigs(id);
+        }
+        return this.employeeCalls.execute(id.getId(), () -> this.dmDbService.queryEmpConfigs(id));
+    }
+
+    @Override
+    public List<EmpDetails> selectAllEmpAllData(EmpAddress empAddr) {
+        if (this.addressCalls == null || empAddr.getAddress() == null) {
+            return this.dmDbService.selectAllEmpAllData(empAddr);
+        }
+        return this.addressCalls.execute(empAddr.getAddress(), () -> this.dmDbService.selectAllEmpAllData(empAddr));
+    }
+
+    @Override
+    public Map<Integer, EmpDetails> queryEmpConfigsBatch(Collection<Integer> ids) {
+        return this.dmDbService.queryEmpConfigsBatch(ids);
+    }
+
+    @Override
+    public int streamAllEmpAllData(EmpAddress empAddr, Consumer<EmpDetails> consumer) {
+        return this.dmDbService.streamAllEmpAllData(empAddr, consumer);
+    }
+
+    @Override
+    public List<EmpDetails> selectAllEmpAllDataPage(EmpAddress empAddr, int afterId, int limit) {
+        return this.dmDbService.selectAllEmpAllDataPage(empAddr, afterId, limit);
+    }
+
+    /**
+     * @return The coalesced id lookups, or <code>null</code> if coalescing is
+     *         disabled.
+     */
+    public SingleFlight<Integer, EmpDetails> getEmployeeCalls() {
+        return this.employeeCalls;
+    }
+
+    /**
+     * @return The coalesced address lookups, or <code>null</code> if
+     *         coalescing is disabled.
+     */
+    public SingleFlight<String, List<EmpDetails>> getAddressCalls() {
+        return this.addressCalls;
+    }
+
+}
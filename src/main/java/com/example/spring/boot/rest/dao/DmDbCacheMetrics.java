@@ -0,0 +1,87 @@
+package com.example.spring.boot.rest.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Resource;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import com.example.spring.boot.rest.util.SingleFlight;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Publishes the statistics of the employee cache and of the coalesced lookups
+ * behind it to the actuator
+ * <code>/metrics</code> endpoint, e.g.
+ *
+ * <pre>
+ * dm.cache.employee.size=120
+ * dm.cache.employee.hitCount=5310
+ * dm.cache.employee.missCount=120
+ * dm.cache.employee.hitRate=0.977
+ * dm.cache.employee.evictionCount=0
+ * dm.cache.address.size=3
+ * dm.cache.address.hitCount=870
+ * dm.coalesce.employee.executed=118
+ * dm.coalesce.employee.shared=2
+ * dm.coalesce.employee.timedOut=0
+ * </pre>
+ *
+ * <code>shared</code> counts the lookups which waited for an identical one
+ * already running instead of querying the database themselves,
+ * <code>timedOut</code> those of them which gave up waiting. Nothing is
+ * published for a cache or coalescing which is disabled.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@Component
+public class DmDbCacheMetrics implements PublicMetrics {
+
+    @Resource(name = "CachingDmDbService")
+    private CachingDmDbService cachingDmDbService;
+
+    @Resource(name = "CoalescingDmDbService")
+    private CoalescingDmDbService coalescingDmDbService;
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        this.addCacheMetrics(metrics, CachingDmDbService.CONFIG_PREFIX, this.cachingDmDbService.getStats(),
+                this.cachingDmDbService.getSize());
+        this.addCacheMetrics(metrics, CachingDmDbService.ADDRESS_CONFIG_PREFIX,
+                this.cachingDmDbService.getAddressStats(), this.cachingDmDbService.getAddressSize());
+        this.addCoalescingMetrics(metrics, CoalescingDmDbService.CONFIG_PREFIX + "employee.",
+                this.coalescingDmDbService.getEmployeeCalls());
+        this.addCoalescingMetrics(metrics, CoalescingDmDbService.CONFIG_PREFIX + "address.",
+                this.coalescingDmDbService.getAddressCalls());
+        return metrics;
+    }
+
+    private void addCacheMetrics(List<Metric<?>> metrics, String name, CacheStats stats, long size) {
+        if (stats != null) {
+            metrics.add(new Metric<Long>(name + "size", size));
+            metrics.add(new Metric<Long>(name + "hitCount", stats.hitCount()));
+            metrics.add(new Metric<Long>(name + "missCount", stats.missCount()));
+            metrics.add(new Metric<Double>(name + "hitRate", stats.hitRate()));
+            metrics.add(new Metric<Long>(name + "loadExceptionCount", stats.loadExceptionCount()));
+            metrics.add(new Metric<Double>(name + "averageLoadMillis", stats.averageLoadPenalty() / 1000000d));
+            metrics.add(new Metric<Long>(name + "evictionCount", stats.evictionCount()));
+        }
+    }
+
+    private void addCoalescingMetrics(List<Metric<?>> metrics, String name, SingleFlight<?, ?> calls) {
+        if (calls != null) {
+            metrics.add(new Metric<Long>(name + "executed", calls.getExecuted()));
+            metrics.add(new Metric<Long>(name + "shared", calls.getShared()));
+            metrics.add(new Metric<Long>(name + "timedOut", calls.getTimedOut()));
+            metrics.add(new Metric<Integer>(name + "inFlight", calls.getInFlight()));
+        }
+    }
+
+}
@@ -1,6 +1,9 @@
 package com.example.spring.boot.rest.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import com.example.spring.boot.rest.types.EmpAddress;
 import com.example.spring.boot.rest.types.EmpConfigIdentifier;
@@ -17,4 +20,33 @@ public interface DmDbService {
 
     public List<EmpDetails> selectAllEmpAllData(EmpAddress empAddr);
 
+    /**
+     * Batch variant of {@link #queryEmpConfigs(EmpConfigIdentifier)}: looks up
+     * all ids with as few queries as possible. Ids which do not exist are
+     * left out of the result instead of failing the lookup.
+     * 
+     * @return The employees found, by id.
+     */
+    public Map<Integer, EmpDetails> queryEmpConfigsBatch(Collection<Integer> ids);
+
+    /**
+     * Streaming variant of {@link #selectAllEmpAllData(EmpAddress)}: hands
+     * every employee to the consumer while the rows are read, without
+     * collecting them.
+     * 
+     * @return The number of employees streamed.
+     */
+    public int streamAllEmpAllData(EmpAddress empAddr, Consumer<EmpDetails> consumer);
+
+    /**
+     * Keyset paged variant of {@link #selectAllEmpAllData(EmpAddress)}: the
+     * employees with an id greater than <code>afterId</code>, in id order. The
+     * <code>employee_address</code> index on <code>(Address, ID)</code>, see
+     * <code>Dm.sql</code>, lets the database read only the rows of the page
+     * instead of sorting every employee at the address.
+     * 
+     * @return Up to <code>limit</code> employees, empty past the last page.
+     */
+    public List<EmpDetails> selectAllEmpAllDataPage(EmpAddress empAddr, int afterId, int limit);
+
 }
@@ -1,15 +1,28 @@
 package com.example.spring.boot.rest.dao;
 
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Repository;
 
 import com.example.spring.boot.rest.db.connector.DmDatabaseConnector;
-import com.example.spring.boot.rest.db.extractor.EmpConfigResultSetExtractor;
+import com.example.spring.boot.rest.db.extractor.EmpDetailsRowCallbackHandler;
+import com.example.spring.boot.rest.db.extractor.EmpDetailsRowMapper;
+import com.example.spring.boot.rest.db.query.EmpDetailsQuery;
 import com.example.spring.boot.rest.exception.ErrorCode;
 import com.example.spring.boot.rest.exception.FrameworkError;
 import com.example.spring.boot.rest.types.EmpAddress;
@@ -17,6 +30,14 @@ import com.example.spring.boot.rest.types.EmpConfigIdentifier;
 import com.example.spring.boot.rest.types.EmpDetails;
 
 /**
+ * Runs the employee queries as {@link EmpDetailsQuery} objects which are
+ * compiled once at startup. Each query always sends the same statement text,
+ * so together with the prepared statement cache of the driver every query is
+ * prepared once per connection rather than once per call.
+ * <p>
+ * The DAO only reads, so all its queries run on the read data source of the
+ * connector and are spread over the read replicas when there are any.
+ *
  * @author mlahariya
  * @version 1.0, Jan 2017
  */
@@ -26,9 +47,47 @@ public class DmDbServiceImpl implements DmDbService {
 
     private static final Logger LOG = LoggerFactory.getLogger(DmDbServiceImpl.class);
 
+    static final String SELECT_EMPLOYEE = "select " + EmpDetailsRowMapper.COLUMNS + " from employee";
+
+    static final String SELECT_EMPLOYEE_BY_ID = SELECT_EMPLOYEE + " where id = ?";
+
+    static final String SELECT_EMPLOYEE_BY_ADDRESS = SELECT_EMPLOYEE + " where address = ?";
+
+    static final String SELECT_EMPLOYEE_PAGE_BY_ADDRESS = SELECT_EMPLOYEE
+            + " where address = ? and ID > ? order by ID limit ?";
+
+    /**
+     * The number of placeholders of the batch lookup queries. A chunk of ids
+     * is padded up to the next size by repeating its last id, so only these
+     * few query strings are ever prepared and statement caches stay small.
+     */
+    static final int[] BATCH_SIZES = { 1, 10, 25, 50, 100 };
+
     @Autowired
     private DmDatabaseConnector dmDatabaseConnector;
 
+    private EmpDetailsQuery employeeById;
+
+    private EmpDetailsQuery employeesByAddress;
+
+    private EmpDetailsQuery employeePageByAddress;
+
+    private final Map<Integer, EmpDetailsQuery> employeesByIds = new HashMap<Integer, EmpDetailsQuery>();
+
+    @PostConstruct
+    public void init() {
+        int fetchSize = dmDatabaseConnector.getFetchSize();
+        this.employeeById = this.newQuery(0, SELECT_EMPLOYEE_BY_ID, Types.INTEGER);
+        this.employeesByAddress = this.newQuery(fetchSize, SELECT_EMPLOYEE_BY_ADDRESS, Types.VARCHAR);
+        this.employeePageByAddress = this.newQuery(fetchSize, SELECT_EMPLOYEE_PAGE_BY_ADDRESS, Types.VARCHAR,
+                Types.INTEGER, Types.INTEGER);
+        for (int batchSize : BATCH_SIZES) {
+            int[] types = new int[batchSize];
+            Arrays.fill(types, Types.INTEGER);
+            this.employeesByIds.put(batchSize, this.newQuery(0, selectEmployeesByIds(batchSize), types));
+        }
+    }
+
     public DmDatabaseConnector getDmDatabaseConnector() {
         return dmDatabaseConnector;
     }
@@ -40,15 +99,10 @@ public class DmDbServiceImpl implements DmDbService {
     public EmpDetails queryEmpConfigs(EmpConfigIdentifier id) {
 
         List<EmpDetails> configList = new ArrayList<EmpDetails>();
-        List<Integer> args = new ArrayList<Integer>();
-        args.add(id.getId());
-
-        String query = "select * from employee where id = ?";
 
         try {
-            configList = dmDatabaseConnector.getJdbcTemplate().query(query, args.toArray(),
-                    new EmpConfigResultSetExtractor());
-            LOG.debug(" Query for queryEmpConfigs : " + query);
+            configList = employeeById.execute(id.getId());
+            LOG.debug(" Query for queryEmpConfigs : " + SELECT_EMPLOYEE_BY_ID);
         } catch (Exception e) {
             LOG.error("Exception while getting emp configurations  ", e);
         }
@@ -68,15 +122,10 @@ public class DmDbServiceImpl implements DmDbService {
     public List<EmpDetails> selectAllEmpAllData(EmpAddress empAddr) {
 
         List<EmpDetails> configList = new ArrayList<EmpDetails>();
-        List<String> args = new ArrayList<String>();
-        args.add(empAddr.getAddress());
-
-        String query = "select * from employee where address = ?";
 
         try {
-            configList = dmDatabaseConnector.getJdbcTemplate().query(query, args.toArray(),
-                    new EmpConfigResultSetExtractor());
-            LOG.debug(" Query for selectAllEmpAllData : " + query);
+            configList = employeesByAddress.execute(empAddr.getAddress());
+            LOG.debug(" Query for selectAllEmpAllData : " + SELECT_EMPLOYEE_BY_ADDRESS);
         } catch (Exception e) {
             LOG.error("Exception while getting emp configurations  ", e);
         }
@@ -93,4 +142,93 @@ public class DmDbServiceImpl implements DmDbService {
         }
     }
 
+    @Override
+    public Map<Integer, EmpDetails> queryEmpConfigsBatch(Collection<Integer> ids) {
+
+        List<Integer> distinctIds = new ArrayList<Integer>(new LinkedHashSet<Integer>(ids));
+        Map<Integer, EmpDetails> empDetailsMap = new HashMap<Integer, EmpDetails>();
+        int chunkSize = BATCH_SIZES[BATCH_SIZES.length - 1];
+
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            List<Integer> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            int batchSize = batchSize(chunk.size());
+
+            List<Integer> args = new ArrayList<Integer>(chunk);
+            args.addAll(Collections.nCopies(batchSize - chunk.size(), chunk.get(chunk.size() - 1)));
+
+            try {
+                EmpDetailsQuery query = employeesByIds.get(batchSize);
+                List<EmpDetails> configList = query.execute(args.toArray());
+                LOG.debug(" Query for queryEmpConfigsBatch : " + query.getSql());
+                for (EmpDetails empDetails : configList) {
+                    empDetailsMap.put(empDetails.getId(), empDetails);
+                }
+            } catch (DataAccessException e) {
+                LOG.error("Exception while getting emp configurations batch  ", e);
+                // reporting the ids as not found would be wrong
+                throw new FrameworkError(ErrorCode.CS_1001.getValue(), e);
+            }
+        }
+        return empDetailsMap;
+    }
+
+    @Override
+    public int streamAllEmpAllData(EmpAddress empAddr, Consumer<EmpDetails> consumer) {
+
+        EmpDetailsRowCallbackHandler handler = new EmpDetailsRowCallbackHandler(consumer);
+
+        try {
+            // same statement text as selectAllEmpAllData, so it shares its cached statement;
+            // the stream template alone fetches the rows one at a time
+            dmDatabaseConnector.getStreamJdbcTemplate().query(SELECT_EMPLOYEE_BY_ADDRESS,
+                    new Object[] { empAddr.getAddress() }, handler);
+            LOG.debug(" Query for streamAllEmpAllData : " + SELECT_EMPLOYEE_BY_ADDRESS);
+        } catch (DataAccessException e) {
+            LOG.error("Exception while streaming emp configurations  ", e);
+            if (handler.getRowCount() > 0) {
+                // part of the employees are already out, the caller has to fail
+                throw e;
+            }
+        }
+
+        if (handler.getRowCount() == 0) {
+            throw new FrameworkError(ErrorCode.CS_1002.getValue());
+        }
+        return handler.getRowCount();
+    }
+
+    @Override
+    public List<EmpDetails> selectAllEmpAllDataPage(EmpAddress empAddr, int afterId, int limit) {
+
+        try {
+            List<EmpDetails> configList = employeePageByAddress.execute(empAddr.getAddress(), afterId, limit);
+            LOG.debug(" Query for selectAllEmpAllDataPage : " + SELECT_EMPLOYEE_PAGE_BY_ADDRESS);
+            return configList;
+        } catch (DataAccessException e) {
+            LOG.error("Exception while getting emp configurations page  ", e);
+            // an empty page would end the client's paging early
+            throw new FrameworkError(ErrorCode.CS_1002.getValue(), e);
+        }
+    }
+
+    private EmpDetailsQuery newQuery(int fetchSize, String sql, int... types) {
+        return new EmpDetailsQuery(dmDatabaseConnector.getReadDataSource(), fetchSize, sql, types);
+    }
+
+    /**
+     * @return The smallest of {@link #BATCH_SIZES} holding the ids.
+     */
+    static int batchSize(int idCount) {
+        for (int batchSize : BATCH_SIZES) {
+            if (batchSize >= idCount) {
+                return batchSize;
+            }
+        }
+        return BATCH_SIZES[BATCH_SIZES.length - 1];
+    }
+
+    static String selectEmployeesByIds(int batchSize) {
+        return SELECT_EMPLOYEE + " where id in (" + String.join(", ", Collections.nCopies(batchSize, "?")) + ")";
+    }
+
 }
@@ -0,0 +1,98 @@
+package com.example.spring.boot.rest.db.connector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import com.example.spring.boot.rest.util.LatencyHistogram;
+import com.zaxxer.hikari.metrics.MetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Tracks the database connection pools and publishes their state to the
+ * actuator <code>/metrics</code> endpoint, e.g.
+ *
+ * <pre>
+ * datasource.dm.pool.active=4
+ * datasource.dm.pool.idle=6
+ * datasource.dm.pool.total=10
+ * datasource.dm.pool.pending=0
+ * datasource.dm.pool.timeouts=0
+ * datasource.dm.acquire.count=5310
+ * datasource.dm.acquire.p99=2.0
+ * datasource.dm.acquire.le.5=5302
+ * datasource.dm.usage.p99=25.0
+ * </pre>
+ *
+ * Latencies are in milliseconds. The <code>acquire.le.&lt;bound&gt;</code>
+ * entries count the connections handed out within at most each bound of
+ * {@link LatencyHistogram#BOUNDS}; <code>acquire.le.inf</code> counts all of
+ * them.
+ * <p>
+ * A growing <code>pending</code> count or acquire tail shows the pool is too
+ * small long before requests start to time out.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@Component
+public class DmDataSourceMetrics implements PublicMetrics, MetricsTrackerFactory {
+
+    private final Map<String, DmPoolMetricsTracker> trackers = new ConcurrentHashMap<>();
+
+    @Override
+    public MetricsTracker create(String poolName, PoolStats poolStats) {
+        DmPoolMetricsTracker tracker = new DmPoolMetricsTracker(poolName, poolStats);
+        this.trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    public DmPoolMetricsTracker getTracker(String poolName) {
+        return this.trackers.get(poolName);
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        for (DmPoolMetricsTracker tracker : this.trackers.values()) {
+            String name = "datasource." + tracker.getPoolName() + ".";
+            PoolStats stats = tracker.getPoolStats();
+            metrics.add(new Metric<Integer>(name + "pool.active", stats.getActiveConnections()));
+            metrics.add(new Metric<Integer>(name + "pool.idle", stats.getIdleConnections()));
+            metrics.add(new Metric<Integer>(name + "pool.total", stats.getTotalConnections()));
+            metrics.add(new Metric<Integer>(name + "pool.pending", stats.getPendingThreads()));
+            metrics.add(new Metric<Long>(name + "pool.timeouts", tracker.getTimeouts()));
+            this.addLatencyMetrics(metrics, name + "acquire.", tracker.getAcquire());
+            this.addBucketMetrics(metrics, name + "acquire.le.", tracker.getAcquire());
+            this.addLatencyMetrics(metrics, name + "usage.", tracker.getUsage());
+        }
+        return metrics;
+    }
+
+    private void addLatencyMetrics(List<Metric<?>> metrics, String name, LatencyHistogram histogram) {
+        metrics.add(new Metric<Long>(name + "count", histogram.getCount()));
+        metrics.add(new Metric<Double>(name + "mean", histogram.getMeanMillis()));
+        metrics.add(new Metric<Double>(name + "p50", histogram.getPercentileMillis(50)));
+        metrics.add(new Metric<Double>(name + "p99", histogram.getPercentileMillis(99)));
+        metrics.add(new Metric<Double>(name + "max", histogram.getMaxMillis()));
+    }
+
+    private void addBucketMetrics(List<Metric<?>> metrics, String name, LatencyHistogram histogram) {
+        long[] counts = histogram.getBucketCounts();
+        long cumulative = 0;
+        for (int i = 0; i < LatencyHistogram.BOUNDS.length; i++) {
+            cumulative += counts[i];
+            metrics.add(new Metric<Long>(name + LatencyHistogram.BOUNDS[i], cumulative));
+        }
+        metrics.add(new Metric<Long>(name + "inf", cumulative + counts[LatencyHistogram.BOUNDS.length]));
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.example.spring.boot.rest.db.connector;
 
+import javax.sql.DataSource;
+
 import org.springframework.jdbc.core.JdbcOperations;
 
 /**
@@ -11,6 +13,16 @@ public class DmDatabaseConnector {
 
     private JdbcOperations jdbcTemplate;
 
+    private DataSource dataSource;
+
+    private JdbcOperations readJdbcTemplate;
+
+    private DataSource readDataSource;
+
+    private JdbcOperations streamJdbcTemplate;
+
+    private int fetchSize;
+
     public JdbcOperations getJdbcTemplate() {
         return jdbcTemplate;
     }
@@ -19,4 +31,60 @@ public class DmDatabaseConnector {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    /**
+     * @return The data source the query objects of the DAO are compiled
+     *         against.
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return The template for reads, which may be served by a replica; the
+     *         primary's when none is set.
+     */
+    public JdbcOperations getReadJdbcTemplate() {
+        return readJdbcTemplate != null ? readJdbcTemplate : jdbcTemplate;
+    }
+
+    public void setReadJdbcTemplate(JdbcOperations readJdbcTemplate) {
+        this.readJdbcTemplate = readJdbcTemplate;
+    }
+
+    /**
+     * @return The data source for reads, which may be served by a replica; the
+     *         primary's when none is set.
+     */
+    public DataSource getReadDataSource() {
+        return readDataSource != null ? readDataSource : dataSource;
+    }
+
+    public void setReadDataSource(DataSource readDataSource) {
+        this.readDataSource = readDataSource;
+    }
+
+    /**
+     * @return The template for reads whose rows are handed on one at a time;
+     *         the read template when none is set.
+     */
+    public JdbcOperations getStreamJdbcTemplate() {
+        return streamJdbcTemplate != null ? streamJdbcTemplate : getReadJdbcTemplate();
+    }
+
+    public void setStreamJdbcTemplate(JdbcOperations streamJdbcTemplate) {
+        this.streamJdbcTemplate = streamJdbcTemplate;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
 }
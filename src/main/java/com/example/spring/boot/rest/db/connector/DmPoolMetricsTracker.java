@@ -0,0 +1,69 @@
+package com.example.spring.boot.rest.db.connector;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.spring.boot.rest.util.LatencyHistogram;
+import com.zaxxer.hikari.metrics.MetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Receives the connection events of one Hikari pool: how long callers waited
+ * for a connection, how long they held it and how often they gave up waiting.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class DmPoolMetricsTracker extends MetricsTracker {
+
+    private final String poolName;
+
+    private final PoolStats poolStats;
+
+    private final LatencyHistogram acquire = new LatencyHistogram();
+
+    private final LatencyHistogram usage = new LatencyHistogram();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    public DmPoolMetricsTracker(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        this.acquire.recordNanos(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        this.usage.recordMillis(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        this.timeouts.increment();
+    }
+
+    public String getPoolName() {
+        return this.poolName;
+    }
+
+    public PoolStats getPoolStats() {
+        return this.poolStats;
+    }
+
+    public LatencyHistogram getAcquire() {
+        return this.acquire;
+    }
+
+    public LatencyHistogram getUsage() {
+        return this.usage;
+    }
+
+    public long getTimeouts() {
+        return this.timeouts.sum();
+    }
+
+}
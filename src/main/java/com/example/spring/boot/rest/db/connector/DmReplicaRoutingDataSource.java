@@ -0,0 +1,353 @@
+package com.example.spring.boot.rest.db.connector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Hands out the connections for reads from a set of read replicas, falling
+ * back to the primary when no replica is healthy or none is configured.
+ * <p>
+ * A replica is picked either in turn (<code>roundRobin</code>) or as the one
+ * with the fewest connections currently borrowed through this data source
+ * (<code>leastLoaded</code>). A replica is ejected after
+ * <code>failureThreshold</code> consecutive failures, counting both failed
+ * connection requests and failed health checks; the health check validates
+ * every replica in the background, so an ejected replica is taken back on its
+ * first successful check.
+ * <p>
+ * Only connection-level errors count as failures: an SQLState of class 08, a
+ * pool timeout caused by failures to connect, or a connection that is not
+ * valid. A pool timeout without such a cause only means that all connections
+ * of the replica pool are in use; the read moves on to the next replica or
+ * the primary, but the replica is not ejected for it, nor by a health check
+ * that cannot borrow a connection from the busy pool either.
+ * <p>
+ * Until it is ejected, a replica that is down costs every read routed to it
+ * the connection timeout of its pool before the read moves on to the next
+ * replica or the primary. Replica pools are therefore built with a short
+ * timeout of their own, <code>datasource.dm.replica.connectionTimeout</code>.
+ * <p>
+ * Publishes per replica to <code>/metrics</code>, e.g.
+ *
+ * <pre>
+ * datasource.dm-replica-0.replica.healthy=1
+ * datasource.dm-replica-0.replica.inFlight=3
+ * datasource.dm-replica-0.replica.ejections=0
+ * datasource.dm.replicas.healthy=2
+ * datasource.dm.replicas.primaryFallbacks=0
+ * </pre>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class DmReplicaRoutingDataSource extends AbstractDataSource implements PublicMetrics, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DmReplicaRoutingDataSource.class);
+
+    public enum Routing {
+        ROUND_ROBIN, LEAST_LOADED;
+
+        /**
+         * @param value
+         *            <code>roundRobin</code> or <code>leastLoaded</code>, blank
+         *            for the default <code>roundRobin</code>.
+         */
+        public static Routing fromProperty(String value) {
+            if (StringUtils.isBlank(value) || "roundRobin".equalsIgnoreCase(value.trim())) {
+                return ROUND_ROBIN;
+            }
+            if ("leastLoaded".equalsIgnoreCase(value.trim())) {
+                return LEAST_LOADED;
+            }
+            throw new IllegalArgumentException("Unknown replica routing " + value
+                    + ", expected roundRobin or leastLoaded");
+        }
+    }
+
+    private final String name;
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final Routing routing;
+
+    private final int failureThreshold;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    private ScheduledExecutorService healthChecker;
+
+    /**
+     * @param name
+     *            The pool name of the primary, prefixing the metrics.
+     * @param failureThreshold
+     *            The number of consecutive failures after which a replica is
+     *            ejected.
+     */
+    public DmReplicaRoutingDataSource(String name, DataSource primary, Routing routing, int failureThreshold) {
+        this.name = name;
+        this.primary = primary;
+        this.routing = routing;
+        this.failureThreshold = Math.max(1, failureThreshold);
+    }
+
+    public void addReplica(String replicaName, DataSource dataSource) {
+        this.replicas.add(new Replica(replicaName, dataSource));
+    }
+
+    /**
+     * Starts validating the replicas every <code>interval</code> ms, giving a
+     * replica <code>timeout</code> seconds to answer.
+     */
+    public void startHealthCheck(long interval, int timeout) {
+        if (this.replicas.isEmpty() || interval <= 0) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(this.name + "-replica-check-");
+        threadFactory.setDaemon(true);
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.healthChecker.scheduleWithFixedDelay(() -> this.checkReplicas(timeout), interval, interval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        for (Replica replica : this.candidates()) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.succeeded();
+                return replica.track(connection);
+            } catch (SQLException e) {
+                replica.failedOrBusy(e);
+            }
+        }
+        if (!this.replicas.isEmpty()) {
+            this.primaryFallbacks.increment();
+        }
+        return this.primary.getConnection();
+    }
+
+    /**
+     * Not supported: the credentials of the primary and of every replica are
+     * those of its pool.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The credentials of the replicas are configured per pool");
+    }
+
+    /**
+     * @return The healthy replicas in the order they should be tried.
+     */
+    List<Replica> candidates() {
+        int size = this.replicas.size();
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        int start = Math.floorMod(this.next.getAndIncrement(), size);
+        List<Replica> candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = this.replicas.get((start + i) % size);
+            if (replica.healthy) {
+                candidates.add(replica);
+            }
+        }
+        if (this.routing == Routing.LEAST_LOADED) {
+            // stable, so replicas with equal load are still taken in turn
+            candidates.sort(Comparator.comparingInt(replica -> replica.inFlight.get()));
+        }
+        return candidates;
+    }
+
+    /**
+     * Validates every replica once, ejecting or taking it back.
+     */
+    void checkReplicas(int timeout) {
+        for (Replica replica : this.replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(timeout)) {
+                    replica.succeeded();
+                } else {
+                    replica.failed(null);
+                }
+            } catch (SQLException e) {
+                replica.failedOrBusy(e);
+            } catch (RuntimeException e) {
+                replica.failed(e);
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the exception tells that the replica
+     *         cannot be connected to, <code>false</code> if its pool is only
+     *         busy or the statement failed.
+     */
+    static boolean isConnectionFailure(SQLException e) {
+        if (e instanceof SQLTransientConnectionException && e.getCause() != null) {
+            // a pool timeout with the last failure to connect as its cause
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && StringUtils.startsWith(((SQLException) cause).getSQLState(), "08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Replica> getReplicas() {
+        return Collections.unmodifiableList(this.replicas);
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        int healthy = 0;
+        for (Replica replica : this.replicas) {
+            String prefix = "datasource." + replica.name + ".replica.";
+            metrics.add(new Metric<Integer>(prefix + "healthy", replica.healthy ? 1 : 0));
+            metrics.add(new Metric<Integer>(prefix + "inFlight", replica.inFlight.get()));
+            metrics.add(new Metric<Long>(prefix + "ejections", replica.ejections.sum()));
+            healthy += replica.healthy ? 1 : 0;
+        }
+        if (!this.replicas.isEmpty()) {
+            metrics.add(new Metric<Integer>("datasource." + this.name + ".replicas.healthy", healthy));
+            metrics.add(new Metric<Long>("datasource." + this.name + ".replicas.primaryFallbacks",
+                    this.primaryFallbacks.sum()));
+        }
+        return metrics;
+    }
+
+    /**
+     * Stops the health check and closes the replica pools; the primary is
+     * left to its own bean.
+     */
+    @Override
+    public void close() {
+        if (this.healthChecker != null) {
+            this.healthChecker.shutdownNow();
+        }
+        for (Replica replica : this.replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                try {
+                    ((Closeable) replica.dataSource).close();
+                } catch (IOException e) {
+                    LOG.warn("Error while closing replica {}.", replica.name, e);
+                }
+            }
+        }
+    }
+
+    public class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private final LongAdder ejections = new LongAdder();
+
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public boolean isHealthy() {
+            return this.healthy;
+        }
+
+        public int getInFlight() {
+            return this.inFlight.get();
+        }
+
+        void succeeded() {
+            this.failures.set(0);
+            if (!this.healthy) {
+                this.healthy = true;
+                LOG.info("Replica {} is healthy again and takes reads.", this.name);
+            }
+        }
+
+        void failedOrBusy(SQLException e) {
+            if (isConnectionFailure(e)) {
+                this.failed(e);
+            } else {
+                LOG.debug("Replica {} did not hand out a connection: {}", this.name, e.toString());
+            }
+        }
+
+        void failed(Exception e) {
+            int failed = this.failures.incrementAndGet();
+            if (this.healthy && failed >= DmReplicaRoutingDataSource.this.failureThreshold) {
+                this.healthy = false;
+                this.ejections.increment();
+                LOG.warn("Replica {} ejected after {} consecutive failures.", this.name, failed, e);
+            } else if (this.healthy) {
+                LOG.warn("Replica {} failed: {}", this.name, e == null ? "connection is not valid" : e.toString());
+            }
+        }
+
+        /**
+         * Counts the connection as in flight on this replica until it is
+         * closed.
+         */
+        Connection track(Connection connection) {
+            this.inFlight.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                            this.inFlight.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+
+    }
+
+}
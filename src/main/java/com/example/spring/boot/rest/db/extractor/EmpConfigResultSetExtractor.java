@@ -20,18 +20,11 @@ public class EmpConfigResultSetExtractor implements ResultSetExtractor<List<EmpD
     public List<EmpDetails> extractData(ResultSet rs) throws SQLException, DataAccessException {
 
         List<EmpDetails> empDetailList = new ArrayList<EmpDetails>();
+        EmpDetailsRowMapper rowMapper = new EmpDetailsRowMapper();
 
+        int rowNum = 0;
         while (rs.next()) {
-
-            EmpDetails empDetails = new EmpDetails();
-            empDetails.setId(rs.getInt("ID"));
-            empDetails.setFirstName(rs.getString("FirstName"));
-            empDetails.setLastName(rs.getString("LastName"));
-            empDetails.setAddress(rs.getString("Address"));
-            empDetails.setCity(rs.getString("City"));
-            empDetails.setEmail(rs.getString("Email"));
-            empDetails.setMobile(rs.getString("Mobile"));
-            empDetailList.add(empDetails);
+            empDetailList.add(rowMapper.mapRow(rs, rowNum++));
         }
 
         return empDetailList;
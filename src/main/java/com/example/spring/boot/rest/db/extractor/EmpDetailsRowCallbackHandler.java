@@ -0,0 +1,46 @@
+package com.example.spring.boot.rest.db.extractor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.example.spring.boot.rest.types.EmpDetails;
+
+/**
+ * Hands every employee row to a consumer as soon as it is read, instead of
+ * collecting the rows like {@link EmpConfigResultSetExtractor}. Together with
+ * the fetch size of the JDBC template this keeps memory constant however many
+ * rows the query returns.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class EmpDetailsRowCallbackHandler implements RowCallbackHandler {
+
+    private final Consumer<EmpDetails> consumer;
+
+    private final EmpDetailsRowMapper rowMapper = new EmpDetailsRowMapper();
+
+    private int rowCount;
+
+    public EmpDetailsRowCallbackHandler(Consumer<EmpDetails> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        this.consumer.accept(this.rowMapper.mapRow(rs, this.rowCount));
+        this.rowCount++;
+    }
+
+    /**
+     * @return The number of rows handed to the consumer so far.
+     */
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+}
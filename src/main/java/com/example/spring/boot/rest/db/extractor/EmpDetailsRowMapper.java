@@ -0,0 +1,89 @@
+package com.example.spring.boot.rest.db.extractor;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import com.example.spring.boot.rest.types.EmpDetails;
+
+/**
+ * Maps employee rows by column index. The indices are looked up by name in the
+ * metadata once per result set and reused for every row, which saves the
+ * driver a name lookup per column and row.
+ * <p>
+ * An instance remembers the indices of the last result set it mapped, so it
+ * must not be shared between threads. Use a new instance per query.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class EmpDetailsRowMapper implements RowMapper<EmpDetails> {
+
+    /**
+     * The employee columns, in the order {@link #mapRow(ResultSet, int)}
+     * expects them when the result set has no usable metadata.
+     */
+    public static final String COLUMNS = "ID, FirstName, LastName, Address, City, Email, Mobile";
+
+    private static final String[] COLUMN_NAMES = { "ID", "FirstName", "LastName", "Address", "City", "Email",
+            "Mobile" };
+
+    private ResultSet resultSet;
+
+    private int id;
+    private int firstName;
+    private int lastName;
+    private int address;
+    private int city;
+    private int email;
+    private int mobile;
+
+    @Override
+    public EmpDetails mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (rs != this.resultSet) {
+            this.resolveColumns(rs);
+        }
+        EmpDetails empDetails = new EmpDetails();
+        empDetails.setId(rs.getInt(this.id));
+        empDetails.setFirstName(rs.getString(this.firstName));
+        empDetails.setLastName(rs.getString(this.lastName));
+        empDetails.setAddress(rs.getString(this.address));
+        empDetails.setCity(rs.getString(this.city));
+        empDetails.setEmail(rs.getString(this.email));
+        empDetails.setMobile(rs.getString(this.mobile));
+        return empDetails;
+    }
+
+    private void resolveColumns(ResultSet rs) throws SQLException {
+        int[] indices = { 1, 2, 3, 4, 5, 6, 7 };
+        ResultSetMetaData metaData = rs.getMetaData();
+        if (metaData != null) {
+            int columnCount = metaData.getColumnCount();
+            for (int c = 0; c < COLUMN_NAMES.length; c++) {
+                indices[c] = 0;
+                for (int index = 1; index <= columnCount; index++) {
+                    if (COLUMN_NAMES[c].equalsIgnoreCase(JdbcUtils.lookupColumnName(metaData, index))) {
+                        indices[c] = index;
+                        break;
+                    }
+                }
+                if (indices[c] == 0) {
+                    throw new SQLException("Column " + COLUMN_NAMES[c] + " not found in employee result set");
+                }
+            }
+        }
+        this.id = indices[0];
+        this.firstName = indices[1];
+        this.lastName = indices[2];
+        this.address = indices[3];
+        this.city = indices[4];
+        this.email = indices[5];
+        this.mobile = indices[6];
+        this.resultSet = rs;
+    }
+
+}
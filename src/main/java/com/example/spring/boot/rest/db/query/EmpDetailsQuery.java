@@ -0,0 +1,52 @@
+package com.example.spring.boot.rest.db.query;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.object.SqlQuery;
+
+import com.example.spring.boot.rest.db.extractor.EmpDetailsRowMapper;
+import com.example.spring.boot.rest.types.EmpDetails;
+
+/**
+ * A compiled, reusable query for employee rows. The SQL and its parameter
+ * types are fixed when the query is built, so every execution sends the same
+ * statement text and the driver can serve it from its prepared statement
+ * cache instead of preparing it again. Instances are thread-safe.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class EmpDetailsQuery extends SqlQuery<EmpDetails> {
+
+    /**
+     * @param dataSource
+     *            The DM database.
+     * @param fetchSize
+     *            The number of rows to fetch per round trip, <code>0</code>
+     *            for the driver default.
+     * @param sql
+     *            The query, selecting {@link EmpDetailsRowMapper#COLUMNS}.
+     * @param types
+     *            The {@link java.sql.Types} of the query parameters.
+     */
+    public EmpDetailsQuery(DataSource dataSource, int fetchSize, String sql, int... types) {
+        super(dataSource, sql);
+        for (int type : types) {
+            declareParameter(new SqlParameter(type));
+        }
+        setFetchSize(fetchSize);
+        compile();
+    }
+
+    @Override
+    protected RowMapper<EmpDetails> newRowMapper(Object[] parameters, Map<?, ?> context) {
+        // the row mapper caches the column indices of its result set
+        return new EmpDetailsRowMapper();
+    }
+
+}
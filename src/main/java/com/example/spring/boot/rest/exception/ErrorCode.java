@@ -20,7 +20,14 @@ public enum ErrorCode implements java.io.Serializable {
     CS_1011("CUSTOMER-1011"),
     CS_1012("CUSTOMER-1012"),
     CS_1013("CUSTOMER-1013"),
-    CS_1014("CUSTOMER-1014");
+    CS_1014("CUSTOMER-1014"),
+    CS_1015("CUSTOMER-1015"),
+    CS_1016("CUSTOMER-1016"),
+    CS_1017("CUSTOMER-1017"),
+    CS_1018("CUSTOMER-1018"),
+    CS_1019("CUSTOMER-1019"),
+    CS_1020("CUSTOMER-1020"),
+    CS_1021("CUSTOMER-1021");
             
     private String property = null;
 
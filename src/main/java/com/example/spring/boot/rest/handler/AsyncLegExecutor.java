@@ -0,0 +1,237 @@
+package com.example.spring.boot.rest.handler;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+import com.example.spring.boot.soap.connector.ServiceConfiguration;
+
+/**
+ * Runs the independent I/O legs of a handler (database query, downstream REST
+ * and SOAP calls) concurrently on the bounded <code>dmTaskExecutor</code>, each
+ * leg with its own timeout. Handlers combine the returned futures and either
+ * hand the combined future to an asynchronous caller or block on it through
+ * {@link #await(CompletableFuture)}.
+ *
+ * <pre>
+ * dm.async.enabled=true
+ * dm.async.timeout=15000
+ * dm.async.leg.empDb.timeout=5000
+ * </pre>
+ *
+ * With <code>dm.async.enabled=false</code> every leg runs on the calling thread
+ * in submission order, which is the sequential behaviour handlers had before.
+ * A leg which does not complete within its timeout fails with
+ * {@link ErrorCode#CS_1015}.
+ * <p>
+ * The legs of a request answered through a <code>DeferredResult</code> run on
+ * the <code>dmDeferredExecutor</code> instead. It never runs a leg on the
+ * calling thread, which is a container thread there; a leg it rejects fails
+ * at once with {@link ErrorCode#CS_1021}.
+ * </p>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@Component
+public class AsyncLegExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncLegExecutor.class);
+
+    public static final String CONFIG_PREFIX = "dm.async.";
+    public static final String KEY_ENABLED = "enabled";
+    public static final String KEY_TIMEOUT = "timeout";
+    public static final String KEY_LEG = "leg.";
+
+    public static final boolean DEFAULT_ENABLED = true;
+    public static final int DEFAULT_TIMEOUT = 15000;
+
+    @Resource(name = "dmTaskExecutor")
+    private Executor dmTaskExecutor;
+
+    @Resource(name = "dmDeferredExecutor")
+    private Executor dmDeferredExecutor;
+
+    @Resource
+    private ServiceConfiguration serviceConfig;
+
+    private boolean enabled = DEFAULT_ENABLED;
+
+    private int defaultTimeout = DEFAULT_TIMEOUT;
+
+    private final Map<String, Integer> legTimeouts = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService timeoutScheduler;
+
+    @PostConstruct
+    public void init() {
+        this.enabled = this.serviceConfig.getBoolean(CONFIG_PREFIX + KEY_ENABLED, DEFAULT_ENABLED);
+        this.defaultTimeout = this.serviceConfig.getInteger(CONFIG_PREFIX + KEY_TIMEOUT, DEFAULT_TIMEOUT);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("dm-async-timeout-");
+        threadFactory.setDaemon(true);
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        LOG.info("Handler legs run {} with a default timeout of {} ms.", this.enabled ? "concurrently"
+                : "sequentially", this.defaultTimeout);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        this.timeoutScheduler.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Starts a leg. In concurrent mode the leg is queued on the executor and
+     * the returned future fails with {@link ErrorCode#CS_1015} if the leg has
+     * not completed within its timeout; the leg itself is left to finish in
+     * the background and its result is discarded.
+     *
+     * @param leg
+     *            The leg name, used to look up its timeout.
+     * @param task
+     *            The leg to run.
+     * @return The future result of the leg.
+     */
+    public <T> CompletableFuture<T> submit(String leg, Supplier<T> task) {
+        return this.submit(leg, task, false);
+    }
+
+    /**
+     * Starts a leg, on the <code>dmDeferredExecutor</code> if the request is
+     * answered through a <code>DeferredResult</code>.
+     *
+     * @param leg
+     *            The leg name, used to look up its timeout.
+     * @param task
+     *            The leg to run.
+     * @param deferred
+     *            Whether the caller is a container thread that must not run
+     *            the leg itself.
+     * @return The future result of the leg, failed with
+     *         {@link ErrorCode#CS_1021} if the executor rejected it.
+     */
+    public <T> CompletableFuture<T> submit(String leg, Supplier<T> task, boolean deferred) {
+        if (!this.enabled) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+            return result;
+        }
+        if (!deferred) {
+            return this.withTimeout(leg, CompletableFuture.supplyAsync(task, this.dmTaskExecutor));
+        }
+        try {
+            return this.withTimeout(leg, CompletableFuture.supplyAsync(task, this.dmDeferredExecutor));
+        } catch (RejectedExecutionException reEx) {
+            LOG.warn("Leg {} rejected, the deferred executor is full.", leg);
+            CompletableFuture<T> result = new CompletableFuture<>();
+            result.completeExceptionally(new FrameworkError(ErrorCode.CS_1021.getValue(), new Object[] { leg },
+                    null, reEx));
+            return result;
+        }
+    }
+
+    /**
+     * Waits for a (combined) leg future and returns its result, rethrowing the
+     * exception of a failed leg as it was thrown by the leg.
+     *
+     * @param future
+     *            The future to wait for.
+     * @return The result of the future.
+     */
+    public <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException iEx) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw timeoutError("request", iEx);
+        } catch (ExecutionException exEx) {
+            throw unwrap(exEx.getCause());
+        }
+    }
+
+    /**
+     * Converts the failure of a leg future back to the exception thrown by the
+     * leg.
+     *
+     * @param thrown
+     *            The failure, possibly wrapped by the future.
+     * @return The runtime exception to rethrow.
+     */
+    public static RuntimeException unwrap(Throwable thrown) {
+        Throwable cause = thrown;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof CancellationException) {
+            return timeoutError("request", cause);
+        } else if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return timeoutError("request", cause);
+    }
+
+    /**
+     * @param leg
+     *            The leg, or the whole request, which ran out of time.
+     * @param cause
+     *            The underlying failure, may be <code>null</code>.
+     * @return The {@link ErrorCode#CS_1015} error for the leg.
+     */
+    public static FrameworkError timeoutError(String leg, Throwable cause) {
+        return new FrameworkError(ErrorCode.CS_1015.getValue(), new Object[] { leg }, null, cause);
+    }
+
+    private <T> CompletableFuture<T> withTimeout(String leg, CompletableFuture<T> future) {
+        int timeout = this.getTimeout(leg);
+        if (timeout <= 0) {
+            return future;
+        }
+        ScheduledFuture<?> timer = this.timeoutScheduler.schedule(() -> {
+            if (future.completeExceptionally(timeoutError(leg, null))) {
+                LOG.warn("Leg {} timed out after {} ms.", leg, timeout);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+        future.whenComplete((result, ex) -> timer.cancel(false));
+        return future;
+    }
+
+    private int getTimeout(String leg) {
+        return this.legTimeouts.computeIfAbsent(leg,
+                key -> this.serviceConfig.getInteger(CONFIG_PREFIX + KEY_LEG + key + "." + KEY_TIMEOUT,
+                        this.defaultTimeout));
+    }
+
+}
@@ -1,6 +1,12 @@
 package com.example.spring.boot.rest.handler;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +18,14 @@ import com.example.multiple.spring.rest.types.CustomerConfigIdentifier;
 import com.example.multiple.spring.rest.types.CustomerDetails;
 import com.example.spring.boot.rest.connector.MultiRestServiceConnector;
 import com.example.spring.boot.rest.dao.DmDbService;
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
 import com.example.spring.boot.rest.types.EmpAddress;
 import com.example.spring.boot.rest.types.EmpDetails;
+import com.example.spring.boot.rest.types.EmpDetailsPage;
+import com.example.spring.boot.rest.types.EmpPageRequest;
+import com.example.spring.boot.rest.util.ContinuationToken;
+import com.example.spring.boot.soap.connector.ServiceConfiguration;
 
 /**
  * @author mlahariya
@@ -25,12 +37,38 @@ public class SelectAllDmCustomerHandler {
 
     private final static Logger LOG = LoggerFactory.getLogger(SelectAllDmCustomerHandler.class);
 
+    static final String LEG_EMP_DB = "empDb";
+    static final String LEG_CUSTOMER_DETAILS = "customerDetails";
+    static final String LEG_GREETING = "greeting";
+
+    public static final String KEY_PAGE_DEFAULT_SIZE = "dm.page.defaultSize";
+    public static final String KEY_PAGE_MAX_SIZE = "dm.page.maxSize";
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int DEFAULT_PAGE_MAX_SIZE = 500;
+
     @Autowired
     private DmDbService mathsDbService;
 
     @Autowired
     private MultiRestServiceConnector multiRestServiceConnector;
 
+    @Autowired
+    private AsyncLegExecutor asyncLegExecutor;
+
+    @Resource
+    private ServiceConfiguration serviceConfig;
+
+    private int defaultPageSize = DEFAULT_PAGE_SIZE;
+
+    private int maxPageSize = DEFAULT_PAGE_MAX_SIZE;
+
+    @PostConstruct
+    public void init() {
+        this.defaultPageSize = this.serviceConfig.getInteger(KEY_PAGE_DEFAULT_SIZE, DEFAULT_PAGE_SIZE);
+        this.maxPageSize = this.serviceConfig.getInteger(KEY_PAGE_MAX_SIZE, DEFAULT_PAGE_MAX_SIZE);
+    }
+
     public DmDbService getMathsDbService() {
         return mathsDbService;
     }
@@ -40,29 +78,139 @@ public class SelectAllDmCustomerHandler {
     }
 
     public List<EmpDetails> selectAllEmpAllData(EmpAddress empAddr) {
+        return asyncLegExecutor.await(this.startSelectAllEmpAllData(empAddr, false));
+    }
 
-        List<EmpDetails> empDetailsList = null;
+    /**
+     * Starts the employee query and both calls to the external rest service at
+     * once and combines them when all three have completed. If several legs
+     * fail, the failure of the employee query wins over the post call, which
+     * wins over the get call, as when they ran one after another. All three
+     * run on the executor of the <code>DeferredResult</code> requests, never
+     * on the calling thread.
+     * 
+     * @param empAddr
+     * @return The employees living at the address.
+     */
+    public CompletableFuture<List<EmpDetails>> selectAllEmpAllDataAsync(EmpAddress empAddr) {
+        return this.startSelectAllEmpAllData(empAddr, true);
+    }
+
+    private CompletableFuture<List<EmpDetails>> startSelectAllEmpAllData(EmpAddress empAddr, boolean deferred) {
+
+        CompletableFuture<List<EmpDetails>> empDetailsList = asyncLegExecutor.submit(LEG_EMP_DB,
+                () -> empAddr.getAddress() != null ? getMathsDbService().selectAllEmpAllData(empAddr) : null,
+                deferred);
+
+        return this.withDownstreamCalls(empDetailsList, deferred);
+    }
+
+    /**
+     * Paged variant of {@link #selectAllEmpAllData(EmpAddress)}. Pages are
+     * read by keyset, <code>ID &gt; ?</code>, so every page costs the same
+     * however deep into the address it is. The page size defaults to
+     * <code>dm.page.defaultSize</code> and is capped at
+     * <code>dm.page.maxSize</code>.
+     * 
+     * @param pageRequest
+     * @return The page, with the token for the next page unless it is the
+     *         last one.
+     */
+    public EmpDetailsPage selectAllEmpAllDataPage(EmpPageRequest pageRequest) {
+
+        int pageSize = pageRequest.getPageSize() > 0 ? Math.min(pageRequest.getPageSize(), this.maxPageSize)
+                : this.defaultPageSize;
+        int afterId = ContinuationToken.decode(pageRequest.getContinuationToken());
+
+        EmpAddress empAddr = new EmpAddress();
+        empAddr.setAddress(pageRequest.getAddress());
+
+        CompletableFuture<List<EmpDetails>> empDetailsList = asyncLegExecutor.submit(LEG_EMP_DB, () -> {
+            // one extra row tells whether there is a next page
+            List<EmpDetails> rows = getMathsDbService().selectAllEmpAllDataPage(empAddr, afterId, pageSize + 1);
+            if (afterId == 0 && rows.isEmpty()) {
+                throw new FrameworkError(ErrorCode.CS_1002.getValue());
+            }
+            return rows;
+        });
+
+        List<EmpDetails> rows = asyncLegExecutor.await(this.withDownstreamCalls(empDetailsList, false));
+
+        EmpDetailsPage page = new EmpDetailsPage();
+        if (rows.size() > pageSize) {
+            page.setEmpDetails(new ArrayList<EmpDetails>(rows.subList(0, pageSize)));
+            page.setContinuationToken(ContinuationToken.encode(rows.get(pageSize - 1).getId()));
+        } else {
+            page.setEmpDetails(rows);
+        }
+        return page;
+    }
 
-        if (empAddr.getAddress() != null) {
-            empDetailsList = getMathsDbService().selectAllEmpAllData(empAddr);
+    /**
+     * Streaming variant of {@link #selectAllEmpAllData(EmpAddress)}. The calls
+     * to the external rest service run concurrently and must have succeeded
+     * before the employee query starts, so a failure can still be reported
+     * before any part of the response has been written. They are not awaited
+     * while the rows stream: the streaming result set pins its connection and
+     * server-side cursor until the last row is read, so the query only runs
+     * once nothing else is left to wait for.
+     * 
+     * @param empAddr
+     * @param consumer
+     *            Receives the employees living at the address, one at a time.
+     * @return The number of employees streamed.
+     */
+    public int streamAllEmpAllData(EmpAddress empAddr, Consumer<EmpDetails> consumer) {
+
+        CompletableFuture<Void> responses = this.submitCustomerDetails(false).thenAcceptBoth(this.submitGreeting(false),
+                (postResponse, getResponse) -> {
+                    System.out.println("External SpringBootRestServiceDemo " + postResponse);
+                    System.out.println("External SpringBootRestServiceDemo " + getResponse);
+                });
+        asyncLegExecutor.await(responses);
+
+        if (empAddr.getAddress() == null) {
+            return 0;
         }
+        return getMathsDbService().streamAllEmpAllData(empAddr, consumer);
+    }
 
-        LOG.info("External SpringBootRestServiceDemo calling for Post method ...... ");
+    /**
+     * Makes both calls to the external rest service alongside the employee
+     * query and completes with the employee result once all three are done.
+     */
+    private <T> CompletableFuture<T> withDownstreamCalls(CompletableFuture<T> empDbResult, boolean deferred) {
 
-        CustomerConfigIdentifier id = new CustomerConfigIdentifier();
-        id.setId(5);
+        CompletableFuture<ResponseEntity<CustomerDetails>> response = this.submitCustomerDetails(deferred);
 
-        ResponseEntity<CustomerDetails> response = multiRestServiceConnector.getCustConfiguration(id);
+        CompletableFuture<String> getResponse = this.submitGreeting(deferred);
 
-        System.out.println("External SpringBootRestServiceDemo " + response);
+        return empDbResult.thenCombine(response, (result, postResponse) -> {
+            System.out.println("External SpringBootRestServiceDemo " + postResponse);
+            return result;
+        }).thenCombine(getResponse, (result, greeting) -> {
+            System.out.println("External SpringBootRestServiceDemo " + greeting);
+            return result;
+        });
+    }
+
+    private CompletableFuture<ResponseEntity<CustomerDetails>> submitCustomerDetails(boolean deferred) {
+        return asyncLegExecutor.submit(LEG_CUSTOMER_DETAILS, () -> {
+            LOG.info("External SpringBootRestServiceDemo calling for Post method ...... ");
 
-        LOG.info("External SpringBootRestServiceDemo calling for Get method ...... ");
+            CustomerConfigIdentifier id = new CustomerConfigIdentifier();
+            id.setId(5);
 
-        String getResponse = multiRestServiceConnector.greetingTime();
+            return multiRestServiceConnector.getCustConfiguration(id);
+        }, deferred);
+    }
 
-        System.out.println("External SpringBootRestServiceDemo " + getResponse);
+    private CompletableFuture<String> submitGreeting(boolean deferred) {
+        return asyncLegExecutor.submit(LEG_GREETING, () -> {
+            LOG.info("External SpringBootRestServiceDemo calling for Get method ...... ");
 
-        return empDetailsList;
+            return multiRestServiceConnector.greetingTime();
+        }, deferred);
     }
 
 }
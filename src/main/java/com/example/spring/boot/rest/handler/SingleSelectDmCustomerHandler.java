@@ -1,13 +1,26 @@
 package com.example.spring.boot.rest.handler;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+import com.example.spring.boot.rest.types.EmpBatchRequest;
 import com.example.spring.boot.rest.types.EmpConfigIdentifier;
+import com.example.spring.boot.rest.types.EmpConfigResult;
 import com.example.spring.boot.rest.types.EmpDetails;
 import com.example.spring.boot.soap.connector.MathsCalculatorServiceConnector;
+import com.example.spring.boot.soap.connector.ServiceConfiguration;
 import com.uhc.ubh.arithmatic.calculation.Sum;
 import com.uhc.ubh.arithmatic.calculation.SumResponse;
 
@@ -21,12 +34,32 @@ public class SingleSelectDmCustomerHandler {
 
     private final static Logger LOG = LoggerFactory.getLogger(SingleSelectDmCustomerHandler.class);
 
+    static final String LEG_EMP_DB = "empDb";
+    static final String LEG_MATHS_SUM = "mathsSum";
+
+    public static final String KEY_BATCH_MAX_SIZE = "dm.batch.maxSize";
+
+    public static final int DEFAULT_BATCH_MAX_SIZE = 500;
+
     @Autowired
     private com.example.spring.boot.rest.dao.DmDbService mathsDbService;
 
     @Autowired
     private MathsCalculatorServiceConnector mathsCalculatorServiceConnector;
 
+    @Autowired
+    private AsyncLegExecutor asyncLegExecutor;
+
+    @Resource
+    private ServiceConfiguration serviceConfig;
+
+    private int maxBatchSize = DEFAULT_BATCH_MAX_SIZE;
+
+    @PostConstruct
+    public void init() {
+        this.maxBatchSize = this.serviceConfig.getInteger(KEY_BATCH_MAX_SIZE, DEFAULT_BATCH_MAX_SIZE);
+    }
+
     public com.example.spring.boot.rest.dao.DmDbService getMathsDbService() {
         return mathsDbService;
     }
@@ -36,24 +69,80 @@ public class SingleSelectDmCustomerHandler {
     }
 
     public EmpDetails queryEmpConfigs(EmpConfigIdentifier id) {
+        return asyncLegExecutor.await(this.startQueryEmpConfigs(id, false));
+    }
 
-        EmpDetails empDetails = null;
+    /**
+     * Starts the employee lookup and the call to the external soap service at
+     * once and combines them when both have completed. A failed employee
+     * lookup wins over a failed soap call. Both run on the executor of the
+     * <code>DeferredResult</code> requests, never on the calling thread.
+     * 
+     * @param id
+     * @return The employee details.
+     */
+    public CompletableFuture<EmpDetails> queryEmpConfigsAsync(EmpConfigIdentifier id) {
+        return this.startQueryEmpConfigs(id, true);
+    }
+
+    private CompletableFuture<EmpDetails> startQueryEmpConfigs(EmpConfigIdentifier id, boolean deferred) {
+
+        CompletableFuture<EmpDetails> empDetails = asyncLegExecutor.submit(LEG_EMP_DB,
+                () -> id != null ? getMathsDbService().queryEmpConfigs(id) : null, deferred);
+
+        return this.withMathsSum(empDetails, deferred);
+    }
+
+    /**
+     * Batch variant of {@link #queryEmpConfigs(EmpConfigIdentifier)}. All ids
+     * are read with a few <code>IN</code> queries in a single leg, and the
+     * external soap service is called once for the whole batch. Batches are
+     * limited to <code>dm.batch.maxSize</code> ids.
+     * 
+     * @param batchRequest
+     * @return One result per requested id, in request order.
+     */
+    public List<EmpConfigResult> queryEmpConfigsBatch(EmpBatchRequest batchRequest) {
+
+        List<Integer> ids = batchRequest.getIds();
+        if (ids.size() > this.maxBatchSize) {
+            throw new FrameworkError(ErrorCode.CS_1018.getValue(), new Object[] { this.maxBatchSize });
+        }
+
+        CompletableFuture<Map<Integer, EmpDetails>> empDetailsMap = asyncLegExecutor.submit(LEG_EMP_DB,
+                () -> getMathsDbService().queryEmpConfigsBatch(ids));
+
+        Map<Integer, EmpDetails> found = asyncLegExecutor.await(this.withMathsSum(empDetailsMap, false));
 
-        if (id != null) {
-            empDetails = getMathsDbService().queryEmpConfigs(id);
+        List<EmpConfigResult> results = new ArrayList<EmpConfigResult>(ids.size());
+        for (Integer id : ids) {
+            results.add(new EmpConfigResult(id, found.get(id)));
         }
+        return results;
+    }
+
+    /**
+     * Calls the external soap service alongside the employee lookup and
+     * completes with the employee result once both are done.
+     */
+    private <T> CompletableFuture<T> withMathsSum(CompletableFuture<T> empDbResult, boolean deferred) {
+
+        CompletableFuture<SumResponse> sumResponse = asyncLegExecutor.submit(LEG_MATHS_SUM, () -> {
+            LOG.info("External SpringBootSoapServiceDemo calling ...... ");
 
-        LOG.info("External SpringBootSoapServiceDemo calling ...... ");
+            Sum request = new Sum();
+            request.setIn0(1);
+            request.setIn1(4);
+            return mathsCalculatorServiceConnector.sum(request);
+        }, deferred);
 
-        Sum request = new Sum();
-        request.setIn0(1);
-        request.setIn1(4);
-        SumResponse sumResponse = mathsCalculatorServiceConnector.sum(request);
-        System.out.println("sumResponse of SpringBootSoapServiceDemo " + sumResponse);
+        return empDbResult.thenCombine(sumResponse, (details, sum) -> {
+            System.out.println("sumResponse of SpringBootSoapServiceDemo " + sum);
 
-        LOG.info("printing response of external SpringBootSoapServiceDemo ...... " + sumResponse.getOut());
+            LOG.info("printing response of external SpringBootSoapServiceDemo ...... " + sum.getOut());
 
-        return empDetails;
+            return details;
+        });
     }
 
 }
@@ -1,6 +1,8 @@
 package com.example.spring.boot.rest.service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,8 +11,12 @@ import org.springframework.stereotype.Component;
 import com.example.spring.boot.rest.handler.SelectAllDmCustomerHandler;
 import com.example.spring.boot.rest.handler.SingleSelectDmCustomerHandler;
 import com.example.spring.boot.rest.types.EmpAddress;
+import com.example.spring.boot.rest.types.EmpBatchRequest;
 import com.example.spring.boot.rest.types.EmpConfigIdentifier;
+import com.example.spring.boot.rest.types.EmpConfigResult;
 import com.example.spring.boot.rest.types.EmpDetails;
+import com.example.spring.boot.rest.types.EmpDetailsPage;
+import com.example.spring.boot.rest.types.EmpPageRequest;
 
 /**
  * @author mlahariya
@@ -46,4 +52,45 @@ public class DmServiceImpl implements DmServiceInterface {
         return selectAllDmCustomerHandler.selectAllEmpAllData(empAddr);
     }
 
+    @Override
+    public List<EmpConfigResult> queryEmpConfigsBatch(EmpBatchRequest batchRequest) {
+
+        LOG.debug("MyServiceImpl::queryEmpConfigsBatch  ids : " + batchRequest.getIds());
+        return singleSelectDmCustomerHandler.queryEmpConfigsBatch(batchRequest);
+    }
+
+    @Override
+    public CompletableFuture<EmpDetails> queryEmpConfigsAsync(EmpConfigIdentifier id) {
+
+        if (id != null) {
+            LOG.debug("MyServiceImpl::queryEmpConfigsAsync  id : " + id.getId());
+        }
+        return singleSelectDmCustomerHandler.queryEmpConfigsAsync(id);
+    }
+
+    @Override
+    public CompletableFuture<List<EmpDetails>> selectAllEmpAllDataAsync(EmpAddress empAddr) {
+
+        if (empAddr.getAddress() != null) {
+            LOG.debug("MyServiceImpl::selectAllEmpAllDataAsync  address of your sector : " + empAddr.getAddress());
+        }
+        return selectAllDmCustomerHandler.selectAllEmpAllDataAsync(empAddr);
+    }
+
+    @Override
+    public int streamAllEmpAllData(EmpAddress empAddr, Consumer<EmpDetails> consumer) {
+
+        if (empAddr.getAddress() != null) {
+            LOG.debug("MyServiceImpl::streamAllEmpAllData  address of your sector : " + empAddr.getAddress());
+        }
+        return selectAllDmCustomerHandler.streamAllEmpAllData(empAddr, consumer);
+    }
+
+    @Override
+    public EmpDetailsPage selectAllEmpAllDataPage(EmpPageRequest pageRequest) {
+
+        LOG.debug("MyServiceImpl::selectAllEmpAllDataPage  page of your sector : " + pageRequest);
+        return selectAllDmCustomerHandler.selectAllEmpAllDataPage(pageRequest);
+    }
+
 }
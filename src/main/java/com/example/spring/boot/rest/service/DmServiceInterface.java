@@ -1,10 +1,16 @@
 package com.example.spring.boot.rest.service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import com.example.spring.boot.rest.types.EmpAddress;
+import com.example.spring.boot.rest.types.EmpBatchRequest;
 import com.example.spring.boot.rest.types.EmpConfigIdentifier;
+import com.example.spring.boot.rest.types.EmpConfigResult;
 import com.example.spring.boot.rest.types.EmpDetails;
+import com.example.spring.boot.rest.types.EmpDetailsPage;
+import com.example.spring.boot.rest.types.EmpPageRequest;
 
 /**
  * @author mlahariya
@@ -52,4 +58,52 @@ public abstract interface DmServiceInterface {
      */
     public List<EmpDetails> selectAllEmpAllData(EmpAddress empAddr);
 
+    /**
+     * Batch variant of {@link #queryEmpConfigs(EmpConfigIdentifier)}. An id
+     * which does not exist is reported as not found in its result rather
+     * than failing the whole batch.
+     * 
+     * @param EmpBatchRequest
+     * @return One EmpConfigResult per requested id, in request order.
+     */
+    public List<EmpConfigResult> queryEmpConfigsBatch(EmpBatchRequest batchRequest);
+
+    /**
+     * Non-blocking variant of {@link #queryEmpConfigs(EmpConfigIdentifier)}.
+     * Invalid input is rejected before the returned future is created; any
+     * other failure completes the future exceptionally.
+     * 
+     * @param EmpConfigIdentifier
+     * @return The future EmpDetails
+     */
+    public CompletableFuture<EmpDetails> queryEmpConfigsAsync(EmpConfigIdentifier id);
+
+    /**
+     * Non-blocking variant of {@link #selectAllEmpAllData(EmpAddress)}.
+     * 
+     * @param EmpAddress
+     * @return The future List<EmpDetails>
+     */
+    public CompletableFuture<List<EmpDetails>> selectAllEmpAllDataAsync(EmpAddress empAddr);
+
+    /**
+     * Streaming variant of {@link #selectAllEmpAllData(EmpAddress)} for large
+     * addresses: the employees are handed to the consumer while they are read
+     * from the database and are never collected in memory.
+     * 
+     * @param EmpAddress
+     * @param consumer
+     * @return The number of employees streamed.
+     */
+    public int streamAllEmpAllData(EmpAddress empAddr, Consumer<EmpDetails> consumer);
+
+    /**
+     * Paged variant of {@link #selectAllEmpAllData(EmpAddress)} for large
+     * addresses. Pass the continuation token of a page to get the next one.
+     * 
+     * @param EmpPageRequest
+     * @return EmpDetailsPage
+     */
+    public EmpDetailsPage selectAllEmpAllDataPage(EmpPageRequest pageRequest);
+
 }
@@ -0,0 +1,30 @@
+package com.example.spring.boot.rest.types;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Asks for several employees by id at once.
+ * 
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class EmpBatchRequest {
+
+    private List<Integer> ids = new ArrayList<Integer>();
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public String toString() {
+        return "EmpBatchRequest [ids=" + ids + "]";
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.example.spring.boot.rest.types;
+
+/**
+ * The outcome of the lookup of one id of an {@link EmpBatchRequest}. An id
+ * which does not exist is reported with <code>found=false</code> and no
+ * employee details, instead of failing the whole batch.
+ * 
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class EmpConfigResult {
+
+    private int id;
+    private boolean found;
+    private EmpDetails empDetails;
+
+    public EmpConfigResult() {
+    }
+
+    public EmpConfigResult(int id, EmpDetails empDetails) {
+        this.id = id;
+        this.found = empDetails != null;
+        this.empDetails = empDetails;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public EmpDetails getEmpDetails() {
+        return empDetails;
+    }
+
+    public void setEmpDetails(EmpDetails empDetails) {
+        this.empDetails = empDetails;
+    }
+
+}
@@ -1,10 +1,22 @@
 package com.example.spring.boot.rest.types;
 
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlType;
+
 /**
+ * The employee of both the REST and the SOAP service. Jackson writes it as it
+ * is; JAXB binds it to the <code>empDetails</code> type of the DM SOAP service
+ * through the annotations below, so the DAO results go out on either path
+ * without being copied into another model first.
+ *
  * @author mlahariya
  * @version 1.0, Jan 2017
  */
 
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "empDetails", namespace = "http://dm.xml.soap.sample.com/", propOrder = { "address", "city", "email",
+        "firstName", "id", "lastName", "mobile" })
 public class EmpDetails {
 
     private int id;
@@ -0,0 +1,35 @@
+package com.example.spring.boot.rest.types;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of employees. The continuation token is <code>null</code> on the
+ * last page.
+ * 
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class EmpDetailsPage {
+
+    private List<EmpDetails> empDetails = new ArrayList<EmpDetails>();
+    private String continuationToken;
+
+    public List<EmpDetails> getEmpDetails() {
+        return empDetails;
+    }
+
+    public void setEmpDetails(List<EmpDetails> empDetails) {
+        this.empDetails = empDetails;
+    }
+
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
+}
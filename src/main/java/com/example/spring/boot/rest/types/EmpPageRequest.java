@@ -0,0 +1,48 @@
+package com.example.spring.boot.rest.types;
+
+/**
+ * Asks for one page of the employees living at an address. The first page is
+ * requested without a continuation token; every further page with the token
+ * returned with the previous page.
+ * 
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class EmpPageRequest {
+
+    private String address;
+    private int pageSize;
+    private String continuationToken;
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
+    @Override
+    public String toString() {
+        return "EmpPageRequest [address=" + address + ", pageSize=" + pageSize + ", continuationToken="
+                + continuationToken + "]";
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.example.spring.boot.rest.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A read timeout that follows the latency of the calls it guards. The
+ * durations of the calls are collected in a {@link LatencyHistogram}; every
+ * <code>interval</code> milliseconds, if at least <code>minSamples</code>
+ * calls were made, the timeout becomes their <code>percentile</code> latency
+ * times <code>multiplier</code>, kept between <code>min</code> and
+ * <code>max</code>, and a new histogram is started. Until then the timeout is
+ * <code>max</code>.
+ * <p>
+ * Calls that time out are recorded at the timeout, so when more of them than
+ * the percentile allows do, the timeout grows towards <code>max</code> again.
+ * </p>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class AdaptiveTimeout {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveTimeout.class);
+
+    private final String name;
+
+    private final double percentile;
+
+    private final double multiplier;
+
+    private final int min;
+
+    private final int max;
+
+    private final long intervalNanos;
+
+    private final int minSamples;
+
+    private volatile LatencyHistogram histogram = new LatencyHistogram();
+
+    private volatile int timeout;
+
+    private volatile long intervalStart = System.nanoTime();
+
+    /**
+     * @param name
+     *            The guarded service, for the logs.
+     * @param percentile
+     *            The latency percentile, between 0 and 100.
+     * @param multiplier
+     *            The factor applied to that latency.
+     * @param min
+     *            The lowest timeout, in milliseconds.
+     * @param max
+     *            The highest timeout, in milliseconds, used until enough
+     *            calls were made.
+     * @param interval
+     *            The time, in milliseconds, between two adjustments.
+     * @param minSamples
+     *            The number of calls needed for an adjustment.
+     */
+    public AdaptiveTimeout(String name, double percentile, double multiplier, int min, int max, long interval,
+            int minSamples) {
+        this.name = name;
+        this.percentile = percentile;
+        this.multiplier = multiplier;
+        this.min = Math.min(min, max);
+        this.max = max;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(interval);
+        this.minSamples = minSamples;
+        this.timeout = max;
+    }
+
+    /**
+     * @return The current timeout, in milliseconds.
+     */
+    public int getTimeout() {
+        return this.timeout;
+    }
+
+    /**
+     * Records the duration of a call that got an answer or timed out.
+     */
+    public void record(long nanos) {
+        this.histogram.recordNanos(nanos);
+        if (System.nanoTime() - this.intervalStart >= this.intervalNanos) {
+            this.adjust();
+        }
+    }
+
+    /**
+     * @return The calls recorded since the last adjustment.
+     */
+    public LatencyHistogram getHistogram() {
+        return this.histogram;
+    }
+
+    private synchronized void adjust() {
+        long now = System.nanoTime();
+        if (now - this.intervalStart < this.intervalNanos) {
+            // adjusted by another thread meanwhile
+            return;
+        }
+        LatencyHistogram last = this.histogram;
+        if (last.getCount() < this.minSamples) {
+            // too few calls to judge, keep collecting
+            return;
+        }
+        this.histogram = new LatencyHistogram();
+        this.intervalStart = now;
+        int adjusted = (int) Math.max(this.min,
+                Math.min(this.max, Math.ceil(last.getPercentileMillis(this.percentile) * this.multiplier)));
+        if (adjusted != this.timeout) {
+            LOG.info("Read timeout of {} goes from {} to {} ms (p{} {} ms over {} calls).", this.name, this.timeout,
+                    adjusted, this.percentile, last.getPercentileMillis(this.percentile), last.getCount());
+            this.timeout = adjusted;
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.example.spring.boot.rest.util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+
+/**
+ * Bounds the number of concurrent calls to a downstream service, so that a
+ * slow service holds at most <code>maxConcurrentCalls</code> request threads.
+ * A call beyond the bound waits up to <code>maxWait</code> milliseconds for
+ * another one to finish, then fails with {@link ErrorCode#CS_1020}.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class Bulkhead {
+
+    private final String name;
+
+    private final int maxConcurrentCalls;
+
+    private final long maxWait;
+
+    private final Semaphore permits;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrentCalls, long maxWait) {
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        this.acquire();
+        try {
+            return call.get();
+        } finally {
+            this.release();
+        }
+    }
+
+    /**
+     * Takes a place for a call, waiting up to <code>maxWait</code> for one.
+     *
+     * @throws FrameworkError
+     *             {@link ErrorCode#CS_1020} if no place became free in time.
+     */
+    public void acquire() {
+        boolean acquired;
+        try {
+            acquired = (this.maxWait <= 0 ? this.permits.tryAcquire()
+                    : this.permits.tryAcquire(this.maxWait, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            this.rejected.increment();
+            throw new FrameworkError(ErrorCode.CS_1020.getValue(), new Object[] { this.name, this.maxConcurrentCalls });
+        }
+    }
+
+    public void release() {
+        this.permits.release();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return this.maxConcurrentCalls;
+    }
+
+    /**
+     * @return The number of calls that can start without waiting.
+     */
+    public int getAvailable() {
+        return this.permits.availablePermits();
+    }
+
+    /**
+     * @return The number of calls rejected because the bound was reached.
+     */
+    public long getRejectedCalls() {
+        return this.rejected.sum();
+    }
+
+}
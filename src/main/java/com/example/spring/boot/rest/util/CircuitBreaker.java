@@ -0,0 +1,289 @@
+package com.example.spring.boot.rest.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+
+/**
+ * Stops calling a downstream service that keeps failing or answering slowly.
+ * The outcomes of the last <code>windowSize</code> calls are kept; once at
+ * least <code>minimumCalls</code> of them are known and either the share of
+ * failed calls reaches <code>failureRateThreshold</code> or the share of calls
+ * slower than <code>slowCallDuration</code> reaches
+ * <code>slowCallRateThreshold</code>, the breaker opens and every call fails
+ * at once with {@link ErrorCode#CS_1019}. After <code>openDuration</code> it
+ * lets <code>halfOpenCalls</code> probe calls through: if they are within the
+ * thresholds it closes again, otherwise it opens for another period.
+ * <p>
+ * A call fails when it throws. Every state change is logged and counted, see
+ * {@link #getTransitions(State)}.
+ * </p>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class CircuitBreaker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+
+    private final int minimumCalls;
+
+    private final int failureRateThreshold;
+
+    private final long slowCallNanos;
+
+    private final int slowCallRateThreshold;
+
+    private final long openNanos;
+
+    private final int halfOpenCalls;
+
+    // outcomes of the last calls, a ring buffer of windowSize entries
+    private final Outcome[] window;
+
+    private int next;
+
+    private int recorded;
+
+    private int failures;
+
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+
+    private long openedAt;
+
+    private int halfOpenPermits;
+
+    // counts the transitions, so that calls let through before one are not recorded after it
+    private long epoch;
+
+    private final LongAdder[] transitions = { new LongAdder(), new LongAdder(), new LongAdder() };
+
+    private final LongAdder notPermitted = new LongAdder();
+
+    private enum Outcome {
+        SUCCESS, FAILURE, SLOW, SLOW_FAILURE
+    }
+
+    /**
+     * @param name
+     *            The downstream service, for the error message and the logs.
+     * @param windowSize
+     *            The number of last calls the rates are computed over.
+     * @param minimumCalls
+     *            The number of calls needed before the rates are evaluated.
+     * @param failureRateThreshold
+     *            The percentage of failed calls that opens the breaker.
+     * @param slowCallDuration
+     *            The duration, in milliseconds, from which a call is slow.
+     * @param slowCallRateThreshold
+     *            The percentage of slow calls that opens the breaker.
+     * @param openDuration
+     *            The time, in milliseconds, the breaker stays open.
+     * @param halfOpenCalls
+     *            The number of probe calls let through once that time is
+     *            over.
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+            long slowCallDuration, int slowCallRateThreshold, long openDuration, int halfOpenCalls) {
+        this.name = name;
+        this.window = new Outcome[Math.max(windowSize, 1)];
+        this.minimumCalls = Math.max(Math.min(minimumCalls, this.window.length), 1);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallDuration);
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDuration);
+        this.halfOpenCalls = Math.max(Math.min(halfOpenCalls, this.window.length), 1);
+    }
+
+    /**
+     * Runs the call if the breaker lets it through and records its outcome.
+     *
+     * @throws FrameworkError
+     *             {@link ErrorCode#CS_1019} if the breaker is open.
+     */
+    public <T> T execute(Supplier<T> call) {
+        long permission = this.acquirePermission();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            this.onResult(permission, System.nanoTime() - start, false);
+            return result;
+        } catch (RuntimeException | Error e) {
+            this.onResult(permission, System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Lets a call through or rejects it.
+     *
+     * @return The permission, to pass on with the outcome of the call.
+     * @throws FrameworkError
+     *             {@link ErrorCode#CS_1019} if the breaker is open.
+     */
+    public synchronized long acquirePermission() {
+        if (this.state == State.OPEN && System.nanoTime() - this.openedAt >= this.openNanos) {
+            this.transitionTo(State.HALF_OPEN);
+        }
+        if (this.state == State.CLOSED) {
+            return this.epoch;
+        }
+        if (this.state == State.HALF_OPEN && this.halfOpenPermits > 0) {
+            this.halfOpenPermits--;
+            return this.epoch;
+        }
+        this.notPermitted.increment();
+        throw new FrameworkError(ErrorCode.CS_1019.getValue(), new Object[] { this.name });
+    }
+
+    /**
+     * Gives back a permission whose call was not made.
+     */
+    public synchronized void releasePermission(long permission) {
+        if (permission == this.epoch && this.state == State.HALF_OPEN) {
+            this.halfOpenPermits++;
+        }
+    }
+
+    /**
+     * Records the outcome of a call that was let through.
+     *
+     * @param permission
+     *            The permission of the call.
+     * @param nanos
+     *            The duration of the call.
+     * @param failed
+     *            <code>true</code> if the call threw.
+     */
+    public synchronized void onResult(long permission, long nanos, boolean failed) {
+        if (permission != this.epoch) {
+            // let through in an earlier state, which was judged without it
+            return;
+        }
+        boolean slow = nanos >= this.slowCallNanos;
+        this.record(failed ? (slow ? Outcome.SLOW_FAILURE : Outcome.FAILURE)
+                : (slow ? Outcome.SLOW : Outcome.SUCCESS));
+
+        if (this.state == State.HALF_OPEN) {
+            if (this.recorded >= this.halfOpenCalls) {
+                this.transitionTo(this.isOverThreshold() ? State.OPEN : State.CLOSED);
+            }
+        } else if (this.recorded >= this.minimumCalls && this.isOverThreshold()) {
+            this.transitionTo(State.OPEN);
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return The percentage of failed calls that opens the breaker.
+     */
+    public int getFailureRateThreshold() {
+        return this.failureRateThreshold;
+    }
+
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    /**
+     * @return The percentage of failed calls in the window, or
+     *         <code>-1</code> before <code>minimumCalls</code> are recorded.
+     */
+    public synchronized float getFailureRate() {
+        return this.recorded < this.minimumCalls ? -1 : this.failures * 100f / this.recorded;
+    }
+
+    /**
+     * @return The percentage of slow calls in the window, or <code>-1</code>
+     *         before <code>minimumCalls</code> are recorded.
+     */
+    public synchronized float getSlowCallRate() {
+        return this.recorded < this.minimumCalls ? -1 : this.slowCalls * 100f / this.recorded;
+    }
+
+    /**
+     * @return The number of calls in the window.
+     */
+    public synchronized int getBufferedCalls() {
+        return this.recorded;
+    }
+
+    /**
+     * @return The number of calls rejected because the breaker was open.
+     */
+    public long getNotPermittedCalls() {
+        return this.notPermitted.sum();
+    }
+
+    /**
+     * @return The number of times the breaker went into the state.
+     */
+    public long getTransitions(State to) {
+        return this.transitions[to.ordinal()].sum();
+    }
+
+    private boolean isOverThreshold() {
+        return this.failures * 100 >= this.failureRateThreshold * this.recorded
+                || this.slowCalls * 100 >= this.slowCallRateThreshold * this.recorded;
+    }
+
+    private void record(Outcome outcome) {
+        Outcome evicted = this.window[this.next];
+        if (evicted != null) {
+            this.count(evicted, -1);
+        } else {
+            this.recorded++;
+        }
+        this.window[this.next] = outcome;
+        this.count(outcome, 1);
+        this.next = (this.next + 1) % this.window.length;
+    }
+
+    private void count(Outcome outcome, int delta) {
+        if (outcome == Outcome.FAILURE || outcome == Outcome.SLOW_FAILURE) {
+            this.failures += delta;
+        }
+        if (outcome == Outcome.SLOW || outcome == Outcome.SLOW_FAILURE) {
+            this.slowCalls += delta;
+        }
+    }
+
+    private void transitionTo(State to) {
+        LOG.warn("Circuit breaker {} goes from {} to {} (failure rate {}%, slow call rate {}%, {} calls).", this.name,
+                this.state, to, this.recorded == 0 ? 0 : this.failures * 100 / this.recorded,
+                this.recorded == 0 ? 0 : this.slowCalls * 100 / this.recorded, this.recorded);
+        this.state = to;
+        this.epoch++;
+        this.transitions[to.ordinal()].increment();
+        if (to == State.OPEN) {
+            this.openedAt = System.nanoTime();
+        } else if (to == State.HALF_OPEN) {
+            this.halfOpenPermits = this.halfOpenCalls;
+        }
+        Arrays.fill(this.window, null);
+        this.next = 0;
+        this.recorded = 0;
+        this.failures = 0;
+        this.slowCalls = 0;
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.example.spring.boot.rest.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread-safe store of the clients created by a client factory. Lookups of
+ * existing clients do not lock; the first lookup of a client ID creates the
+ * client exactly once, even when several threads ask for it at the same time,
+ * so no duplicate connection pools are ever built. Clients that are removed or
+ * replaced have their transport closed.
+ *
+ * @param <T>
+ *            The client type.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class ClientRegistry<T> {
+
+    private static Logger LOG = LoggerFactory.getLogger(ClientRegistry.class);
+
+    private final ConcurrentMap<String, RegisteredClient<T>> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the client registered under the ID, creating and registering it
+     * first if needed. Concurrent callers for the same ID wait for the single
+     * creation in progress instead of creating their own client.
+     *
+     * @param id
+     *            The client ID.
+     * @param creator
+     *            Creates the registration for the ID. Must not access this
+     *            registry.
+     * @return The registered client.
+     */
+    public T get(String id, Function<String, RegisteredClient<T>> creator) {
+        RegisteredClient<T> registered = this.clients.get(id);
+        if (registered == null) {
+            registered = this.clients.computeIfAbsent(id, creator);
+        }
+        return registered.getClient();
+    }
+
+    /**
+     * Registers a client under the ID, closing the client it replaces if any.
+     *
+     * @param registered
+     *            The new registration.
+     * @return The new client.
+     */
+    public T replace(RegisteredClient<T> registered) {
+        RegisteredClient<T> previous = this.clients.put(registered.getId(), registered);
+        if (previous != null && previous != registered) {
+            LOG.info("Client {} replaced, closing previous instance.", registered.getId());
+            previous.close();
+        }
+        return registered.getClient();
+    }
+
+    /**
+     * Removes and closes the client registered under the ID.
+     *
+     * @param id
+     *            The client ID.
+     * @return <code>true</code> if a client was registered under the ID.
+     */
+    public boolean remove(String id) {
+        RegisteredClient<T> previous = this.clients.remove(id);
+        if (previous != null) {
+            previous.close();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean contains(String id) {
+        return this.clients.containsKey(id);
+    }
+
+    /**
+     * @return A snapshot of the live clients by ID.
+     */
+    public Map<String, RegisteredClient<T>> getClients() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.clients));
+    }
+
+    /**
+     * @return A snapshot of the connection pool totals by client ID. Clients
+     *         without a pooled transport are left out.
+     */
+    public Map<String, PoolStats> getPoolStats() {
+        Map<String, PoolStats> stats = new LinkedHashMap<>();
+        this.getClients().forEach((id, registered) -> {
+            PoolStats poolStats = registered.getPoolStats();
+            if (poolStats != null) {
+                stats.put(id, poolStats);
+            }
+        });
+        return stats;
+    }
+
+    /**
+     * Removes and closes all registered clients.
+     */
+    public void closeAll() {
+        for (String id : this.clients.keySet()) {
+            this.remove(id);
+        }
+    }
+
+}
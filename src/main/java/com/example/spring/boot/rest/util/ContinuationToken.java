@@ -0,0 +1,55 @@
+package com.example.spring.boot.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+
+/**
+ * Encodes the position of a keyset paged query, the id of the last employee
+ * returned, as an opaque token for the client to send back with the request
+ * for the next page.
+ * 
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class ContinuationToken {
+
+    private static final String VERSION = "1:";
+
+    public static String encode(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((VERSION + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param token
+     *            The token, may be <code>null</code> or empty for the first
+     *            page.
+     * @return The id after which the page starts, <code>0</code> for the
+     *         first page.
+     * @throws FrameworkError
+     *             {@link ErrorCode#CS_1017} if the token was not created by
+     *             {@link #encode(int)}.
+     */
+    public static int decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            if (value.startsWith(VERSION)) {
+                int lastId = Integer.parseInt(value.substring(VERSION.length()));
+                if (lastId >= 0) {
+                    return lastId;
+                }
+            }
+        } catch (IllegalArgumentException iaEx) {
+            // not Base64 or not a number, NumberFormatException included
+        }
+        throw new FrameworkError(ErrorCode.CS_1017.getValue());
+    }
+
+}
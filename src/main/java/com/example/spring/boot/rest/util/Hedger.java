@@ -0,0 +1,201 @@
+package com.example.spring.boot.rest.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import com.example.spring.boot.rest.exception.ServiceException;
+
+/**
+ * Sends a second, hedged request when the first one is slower than usual and
+ * takes whichever answers first. Only for idempotent calls: both requests
+ * may reach the service.
+ * <p>
+ * The hedge is sent once the first request has run for the
+ * <code>percentile</code> latency of the recent calls, as learnt by an
+ * {@link AdaptiveTimeout} between <code>minDelay</code> and
+ * <code>maxDelay</code>, and only while the hedges stay below
+ * <code>maxRatePercent</code> % of the calls, counted by a
+ * {@link RetryBudget}. A failure of the first request before the delay is
+ * not hedged; after it, the call fails only if both requests do.
+ * <p>
+ * The attempt that loses is left to finish, not interrupted: an interrupt
+ * does not stop a blocking read, but it makes the HTTP client abort the
+ * request, which the circuit breaker, the load balancer and the retries would
+ * then take for a failure of the service. Its outcome is recorded like that of
+ * any request, only not returned.
+ * </p>
+ * <p>
+ * Both requests run on a pool of at most <code>maxConcurrentCalls</code>
+ * threads, which losing attempts hold until they finish; when it is full the
+ * call runs on the caller thread, unhedged.
+ * </p>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class Hedger {
+
+    private final String name;
+
+    private final AdaptiveTimeout delay;
+
+    private final RetryBudget budget;
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder issued = new LongAdder();
+
+    private final LongAdder won = new LongAdder();
+
+    /**
+     * @param name
+     *            The guarded service, for the thread names and the logs.
+     * @param percentile
+     *            The latency percentile after which the hedge is sent.
+     * @param minDelay
+     *            The shortest delay before the hedge, in milliseconds.
+     * @param maxDelay
+     *            The longest delay before the hedge, in milliseconds, used
+     *            until enough calls were made.
+     * @param interval
+     *            The time, in milliseconds, between two adjustments of the
+     *            delay.
+     * @param minSamples
+     *            The number of calls needed for an adjustment.
+     * @param maxRatePercent
+     *            The hedges allowed per 100 calls.
+     * @param maxConcurrentCalls
+     *            The threads running the requests.
+     */
+    public Hedger(String name, double percentile, int minDelay, int maxDelay, long interval, int minSamples,
+            int maxRatePercent, int maxConcurrentCalls) {
+        this.name = name;
+        this.delay = new AdaptiveTimeout(name + " hedge delay", percentile, 1, minDelay, maxDelay, interval,
+                minSamples);
+        this.budget = new RetryBudget(maxRatePercent, 0);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxConcurrentCalls, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "hedge-" + name + "-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Runs the call, hedging it if it is slow.
+     *
+     * @param attempt
+     *            Makes the request; called with 0 for the first request and 1
+     *            for the hedge.
+     */
+    public <T> T execute(IntFunction<T> attempt) {
+        this.calls.increment();
+        this.budget.onCall();
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        AtomicInteger winner = new AtomicInteger(-1);
+        try {
+            this.submit(0, attempt, first, pending, winner);
+        } catch (RejectedExecutionException e) {
+            return attempt.apply(0);
+        }
+        try {
+            try {
+                return first.get(this.delay.getTimeout(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (this.budget.tryRetry()) {
+                    pending.incrementAndGet();
+                    try {
+                        this.submit(1, attempt, first, pending, winner);
+                        this.issued.increment();
+                    } catch (RejectedExecutionException rejected) {
+                        pending.decrementAndGet();
+                    }
+                }
+            }
+            T result = first.get();
+            if (winner.get() == 1) {
+                this.won.increment();
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while waiting for " + this.name, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new ServiceException("Call to " + this.name + " failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return The calls made.
+     */
+    public long getCalls() {
+        return this.calls.sum();
+    }
+
+    /**
+     * @return The hedges sent.
+     */
+    public long getIssued() {
+        return this.issued.sum();
+    }
+
+    /**
+     * @return The hedges that answered before the first request.
+     */
+    public long getWon() {
+        return this.won.sum();
+    }
+
+    /**
+     * @return The hedges not sent because the rate cap was reached.
+     */
+    public long getCapped() {
+        return this.budget.getExhausted();
+    }
+
+    /**
+     * @return The current delay before a hedge, in milliseconds.
+     */
+    public int getDelay() {
+        return this.delay.getTimeout();
+    }
+
+    private <T> void submit(int index, IntFunction<T> attempt, CompletableFuture<T> first,
+            AtomicInteger pending, AtomicInteger winner) {
+        this.executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                T result = attempt.apply(index);
+                this.delay.record(System.nanoTime() - start);
+                if (winner.compareAndSet(-1, index)) {
+                    first.complete(result);
+                }
+            } catch (RuntimeException | Error e) {
+                if (pending.decrementAndGet() == 0) {
+                    // the last request standing failed
+                    first.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.example.spring.boot.rest.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with fixed millisecond buckets, cheap enough
+ * to be updated on every call. Percentiles are reported as the upper bound of
+ * the bucket they fall in, so they are exact to the bucket resolution only.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class LatencyHistogram {
+
+    /** The upper bounds of the buckets, in milliseconds. */
+    public static final long[] BOUNDS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BOUNDS.length && millis > BOUNDS[bucket]) {
+            bucket++;
+        }
+        this.buckets[bucket].increment();
+        this.count.increment();
+        this.totalNanos.add(nanos);
+        long max;
+        while (nanos > (max = this.maxNanos.get()) && !this.maxNanos.compareAndSet(max, nanos)) {
+            // retry until this value or a larger one is stored
+        }
+    }
+
+    public void recordMillis(long millis) {
+        this.recordNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public double getMeanMillis() {
+        long n = this.count.sum();
+        return (n == 0 ? 0 : this.totalNanos.sum() / (double) n / 1000000d);
+    }
+
+    public double getMaxMillis() {
+        return this.maxNanos.get() / 1000000d;
+    }
+
+    /**
+     * @param percentile
+     *            The percentile, between 0 and 100.
+     * @return The upper bound of the bucket holding the percentile, at most
+     *         the maximum.
+     */
+    public double getPercentileMillis(double percentile) {
+        long[] counts = this.getBucketCounts();
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100d);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(BOUNDS[i], this.getMaxMillis());
+            }
+        }
+        return this.getMaxMillis();
+    }
+
+    /**
+     * @return The number of values per bucket, where bucket <code>i</code>
+     *         holds the values up to <code>BOUNDS[i]</code> not held by a
+     *         lower bucket. The last entry counts the values beyond the last
+     *         bound.
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[this.buckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.buckets[i].sum();
+        }
+        return counts;
+    }
+
+}
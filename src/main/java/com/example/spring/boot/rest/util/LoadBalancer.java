@@ -0,0 +1,435 @@
+package com.example.spring.boot.rest.util;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Spreads the calls of a client over several endpoints of the same service.
+ * <p>
+ * An endpoint is picked either in turn (<code>roundRobin</code>), or out of
+ * two drawn at random as the one with fewer calls in flight
+ * (<code>leastOutstanding</code>) or with the lower peak EWMA latency times
+ * the calls in flight (<code>peakEwma</code>). The peak EWMA jumps to a
+ * latency above it at once and decays towards the lower ones over
+ * <code>decayTime</code> milliseconds, so an endpoint that slows down is
+ * avoided at once and taken back gradually.
+ * </p>
+ * <p>
+ * The outcomes of the last <code>windowSize</code> calls of each endpoint are
+ * kept; once at least <code>minimumCalls</code> are known and
+ * <code>failureRateThreshold</code> % of them failed, the endpoint is ejected
+ * for <code>ejectionTime</code> milliseconds, times the number of ejections in
+ * a row, up to 8. At most <code>maxEjectionPercent</code> % of the endpoints
+ * are ejected at once; if none is left, all of them are used.
+ * </p>
+ * <p>
+ * A {@link CircuitBreaker} of the same client must only open once ejection no
+ * longer helps: its <code>failureRateThreshold</code> must be above the share
+ * of the calls that the endpoints the balancer may eject can fail, else one
+ * failing endpoint out of two opens the breaker as it is ejected and cuts the
+ * client off from the healthy one. See {@link #checkBreaker(CircuitBreaker)}.
+ * </p>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class LoadBalancer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadBalancer.class);
+
+    private static final int MAX_EJECTION_FACTOR = 8;
+
+    // cost of an endpoint without latency yet that has calls in flight, as in Finagle
+    private static final double PENALTY = Long.MAX_VALUE >> 16;
+
+    public enum Policy {
+        ROUND_ROBIN, LEAST_OUTSTANDING, PEAK_EWMA;
+
+        /**
+         * @param value
+         *            <code>roundRobin</code>, <code>leastOutstanding</code> or
+         *            <code>peakEwma</code>, blank for the default
+         *            <code>roundRobin</code>.
+         */
+        public static Policy fromProperty(String value) {
+            if (StringUtils.isBlank(value) || "roundRobin".equalsIgnoreCase(value.trim())) {
+                return ROUND_ROBIN;
+            }
+            if ("leastOutstanding".equalsIgnoreCase(value.trim())) {
+                return LEAST_OUTSTANDING;
+            }
+            if ("peakEwma".equalsIgnoreCase(value.trim())) {
+                return PEAK_EWMA;
+            }
+            throw new IllegalArgumentException("Unknown load balancing policy " + value
+                    + ", expected roundRobin, leastOutstanding or peakEwma");
+        }
+    }
+
+    private final String name;
+
+    private final List<Endpoint> endpoints;
+
+    private final Policy policy;
+
+    private final int windowSize;
+
+    private final int minimumCalls;
+
+    private final int failureRateThreshold;
+
+    private final long ejectionNanos;
+
+    private final int maxEjected;
+
+    private final double decayNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param name
+     *            The service, for the logs.
+     * @param uris
+     *            The endpoints of the service.
+     * @param windowSize
+     *            The number of last calls of an endpoint its failure rate is
+     *            computed over.
+     * @param minimumCalls
+     *            The number of calls needed before the rate is evaluated.
+     * @param failureRateThreshold
+     *            The percentage of failed calls that ejects an endpoint.
+     * @param ejectionTime
+     *            The time, in milliseconds, of a first ejection.
+     * @param maxEjectionPercent
+     *            The percentage of the endpoints that may be ejected at once.
+     * @param decayTime
+     *            The time, in milliseconds, over which the peak EWMA latency
+     *            forgets a peak.
+     */
+    public LoadBalancer(String name, List<URI> uris, Policy policy, int windowSize, int minimumCalls,
+            int failureRateThreshold, long ejectionTime, int maxEjectionPercent, long decayTime) {
+        if (uris.isEmpty()) {
+            throw new IllegalArgumentException("No endpoint to balance " + name + " over");
+        }
+        this.name = name;
+        List<Endpoint> list = new ArrayList<>();
+        for (URI uri : uris) {
+            list.add(new Endpoint(uri, Math.max(windowSize, 1)));
+        }
+        this.endpoints = Collections.unmodifiableList(list);
+        this.policy = policy;
+        this.windowSize = Math.max(windowSize, 1);
+        this.minimumCalls = Math.max(Math.min(minimumCalls, this.windowSize), 1);
+        this.failureRateThreshold = failureRateThreshold;
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(ejectionTime);
+        this.maxEjected = list.size() * maxEjectionPercent / 100;
+        this.decayNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(decayTime), 1);
+    }
+
+    /**
+     * Runs the call against the endpoint picked for it and records its
+     * outcome.
+     *
+     * @param call
+     *            Makes the request to the endpoint it is given.
+     * @param failure
+     *            Tells whether an exception of the call counts against the
+     *            endpoint; errors always do.
+     */
+    public <T> T execute(Function<URI, T> call, Predicate<RuntimeException> failure) {
+        Endpoint endpoint = this.choose();
+        long start = System.nanoTime();
+        try {
+            T result = call.apply(endpoint.uri);
+            this.onResult(endpoint, System.nanoTime() - start, false);
+            return result;
+        } catch (RuntimeException e) {
+            this.onResult(endpoint, System.nanoTime() - start, failure.test(e));
+            throw e;
+        } catch (Error e) {
+            this.onResult(endpoint, System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Picks the endpoint of the next call and counts the call in flight on
+     * it, until its {@link #onResult(Endpoint, long, boolean)}.
+     */
+    public Endpoint choose() {
+        long now = System.nanoTime();
+        List<Endpoint> candidates = new ArrayList<>(this.endpoints.size());
+        for (Endpoint endpoint : this.endpoints) {
+            if (endpoint.isAvailable(now)) {
+                candidates.add(endpoint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // every endpoint is ejected: better try them than fail every call
+            candidates = this.endpoints;
+        }
+        Endpoint chosen;
+        if (candidates.size() == 1) {
+            chosen = candidates.get(0);
+        } else if (this.policy == Policy.ROUND_ROBIN) {
+            chosen = candidates.get(Math.floorMod(this.next.getAndIncrement(), candidates.size()));
+        } else {
+            // the power of two choices: the better of two random endpoints
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(candidates.size());
+            int second = random.nextInt(candidates.size() - 1);
+            Endpoint a = candidates.get(first);
+            Endpoint b = candidates.get(second >= first ? second + 1 : second);
+            chosen = (this.load(a, now) <= this.load(b, now) ? a : b);
+        }
+        chosen.outstanding.incrementAndGet();
+        return chosen;
+    }
+
+    /**
+     * Records the outcome of a call made to an endpoint given by
+     * {@link #choose()}.
+     */
+    public void onResult(Endpoint endpoint, long nanos, boolean failed) {
+        endpoint.outstanding.decrementAndGet();
+        endpoint.calls.increment();
+        if (failed) {
+            endpoint.failures.increment();
+        }
+        synchronized (endpoint) {
+            endpoint.observe(nanos, System.nanoTime(), this.decayNanos);
+            if (endpoint.ejectedUntil != 0) {
+                // ejected: its outcomes count again once it is taken back
+                return;
+            }
+            endpoint.record(failed);
+            if (endpoint.recorded < this.minimumCalls
+                    || endpoint.failed * 100 < endpoint.recorded * this.failureRateThreshold) {
+                if (endpoint.recorded >= this.minimumCalls) {
+                    endpoint.ejectionsInRow = 0;
+                }
+                return;
+            }
+        }
+        this.eject(endpoint);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Policy getPolicy() {
+        return this.policy;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return this.endpoints;
+    }
+
+    /**
+     * @return The number of endpoints not ejected.
+     */
+    public int getAvailable() {
+        long now = System.nanoTime();
+        int available = 0;
+        for (Endpoint endpoint : this.endpoints) {
+            if (endpoint.isAvailable(now)) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * @return The percentage of the calls that the endpoints that may be
+     *         ejected at once take while they are in use.
+     */
+    public int getEjectablePercent() {
+        return this.maxEjected * 100 / this.endpoints.size();
+    }
+
+    /**
+     * Warns if the breaker of the client may open on the failures of
+     * endpoints before the balancer ejects them.
+     *
+     * @param circuitBreaker
+     *            The breaker guarding the balanced calls.
+     */
+    public void checkBreaker(CircuitBreaker circuitBreaker) {
+        if (this.maxEjected > 0 && circuitBreaker.getFailureRateThreshold() <= this.getEjectablePercent()) {
+            LOG.warn("The breaker of {} opens at {} % of failed calls, which endpoints the balancer may eject "
+                    + "can reach: raise its failureRateThreshold above {} %.", this.name,
+                    circuitBreaker.getFailureRateThreshold(), this.getEjectablePercent());
+        }
+    }
+
+    private double load(Endpoint endpoint, long now) {
+        int outstanding = endpoint.outstanding.get();
+        if (this.policy == Policy.LEAST_OUTSTANDING) {
+            return outstanding;
+        }
+        double cost = endpoint.getCost(now, this.decayNanos);
+        return (cost == 0 && outstanding > 0 ? PENALTY : cost) * (outstanding + 1);
+    }
+
+    private synchronized void eject(Endpoint endpoint) {
+        long now = System.nanoTime();
+        int ejected = 0;
+        for (Endpoint other : this.endpoints) {
+            if (!other.isAvailable(now)) {
+                ejected++;
+            }
+        }
+        if (ejected >= this.maxEjected) {
+            return;
+        }
+        synchronized (endpoint) {
+            if (endpoint.ejectedUntil != 0) {
+                return;
+            }
+            endpoint.ejectionsInRow = Math.min(endpoint.ejectionsInRow + 1, MAX_EJECTION_FACTOR);
+            long duration = this.ejectionNanos * endpoint.ejectionsInRow;
+            endpoint.ejectedUntil = now + Math.max(duration, 1);
+            endpoint.ejections.increment();
+            LOG.warn("Endpoint {} of {} ejected for {} ms: {} of its last {} calls failed.", endpoint.uri, this.name,
+                    TimeUnit.NANOSECONDS.toMillis(duration), endpoint.failed, endpoint.recorded);
+            endpoint.clear();
+        }
+    }
+
+    /**
+     * An endpoint with its load and health.
+     */
+    public static class Endpoint {
+
+        private final URI uri;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder ejections = new LongAdder();
+
+        // outcomes of the last calls since the endpoint was last taken back, a ring buffer
+        private final boolean[] window;
+
+        private int next;
+
+        private int recorded;
+
+        private int failed;
+
+        private int ejectionsInRow;
+
+        // 0 while the endpoint is in use
+        private volatile long ejectedUntil;
+
+        private double cost;
+
+        private long stamp = System.nanoTime();
+
+        Endpoint(URI uri, int windowSize) {
+            this.uri = uri;
+            this.window = new boolean[windowSize];
+        }
+
+        public URI getUri() {
+            return this.uri;
+        }
+
+        /**
+         * @return The calls in flight.
+         */
+        public int getOutstanding() {
+            return this.outstanding.get();
+        }
+
+        public long getCalls() {
+            return this.calls.sum();
+        }
+
+        public long getFailures() {
+            return this.failures.sum();
+        }
+
+        public long getEjections() {
+            return this.ejections.sum();
+        }
+
+        public boolean isEjected() {
+            return !this.isAvailable(System.nanoTime());
+        }
+
+        /**
+         * @return The peak EWMA latency as of the last call, in milliseconds.
+         */
+        public synchronized double getLatencyMillis() {
+            return this.cost / 1000000d;
+        }
+
+        boolean isAvailable(long now) {
+            long until = this.ejectedUntil;
+            if (until == 0) {
+                return true;
+            }
+            if (now - until < 0) {
+                return false;
+            }
+            synchronized (this) {
+                if (this.ejectedUntil != 0) {
+                    this.ejectedUntil = 0;
+                    LOG.info("Endpoint {} taken back after its ejection.", this.uri);
+                }
+            }
+            return true;
+        }
+
+        synchronized double getCost(long now, double decayNanos) {
+            return this.cost * Math.exp(-Math.max(now - this.stamp, 0) / decayNanos);
+        }
+
+        void observe(long nanos, long now, double decayNanos) {
+            double weight = Math.exp(-Math.max(now - this.stamp, 0) / decayNanos);
+            this.cost = (nanos > this.cost ? nanos : this.cost * weight + nanos * (1 - weight));
+            this.stamp = now;
+        }
+
+        void record(boolean failure) {
+            if (this.recorded == this.window.length) {
+                if (this.window[this.next]) {
+                    this.failed--;
+                }
+            } else {
+                this.recorded++;
+            }
+            this.window[this.next] = failure;
+            if (failure) {
+                this.failed++;
+            }
+            this.next = (this.next + 1) % this.window.length;
+        }
+
+        void clear() {
+            this.next = 0;
+            this.recorded = 0;
+            this.failed = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.example.spring.boot.rest.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A client instance held by a {@link ClientRegistry}, together with the HTTP
+ * transport resources it owns. The transport is closed when the client is
+ * removed or replaced in the registry, or when the registry itself is shut
+ * down.
+ *
+ * @param <T>
+ *            The client type.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class RegisteredClient<T> {
+
+    private static Logger LOG = LoggerFactory.getLogger(RegisteredClient.class);
+
+    private final String id;
+    private final T client;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final Closeable transport;
+    private final long createdAt = System.currentTimeMillis();
+
+    /**
+     * Registration for a client which does not own any pooled transport.
+     *
+     * @param id
+     *            The client ID.
+     * @param client
+     *            The client instance.
+     */
+    public RegisteredClient(String id, T client) {
+        this(id, client, null, null);
+    }
+
+    /**
+     * @param id
+     *            The client ID.
+     * @param client
+     *            The client instance.
+     * @param connectionManager
+     *            The connection pool of the client, or <code>null</code> if
+     *            the client is not pooled.
+     * @param transport
+     *            The resource to close when the client is discarded, usually
+     *            the HTTP client owning the connection manager. If
+     *            <code>null</code>, the connection manager is shut down
+     *            directly.
+     */
+    public RegisteredClient(String id, T client, PoolingHttpClientConnectionManager connectionManager,
+            Closeable transport) {
+        this.id = id;
+        this.client = client;
+        this.connectionManager = connectionManager;
+        this.transport = transport;
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public T getClient() {
+        return this.client;
+    }
+
+    public long getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public boolean isPooled() {
+        return this.connectionManager != null;
+    }
+
+    /**
+     * @return The totals of the connection pool, or <code>null</code> if the
+     *         client is not pooled.
+     */
+    public PoolStats getPoolStats() {
+        return (this.connectionManager == null ? null : this.connectionManager.getTotalStats());
+    }
+
+    /**
+     * @return The pool statistics per route the client has connected to. Empty
+     *         if the client is not pooled.
+     */
+    public Map<String, PoolStats> getRoutePoolStats() {
+        if (this.connectionManager == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, PoolStats> stats = new LinkedHashMap<>();
+        for (HttpRoute route : this.connectionManager.getRoutes()) {
+            stats.put(route.getTargetHost().toURI(), this.connectionManager.getStats(route));
+        }
+        return stats;
+    }
+
+    /**
+     * Releases the transport resources of the client. Requests still in flight
+     * on a pooled client will fail once their connection is closed.
+     */
+    void close() {
+        try {
+            if (this.transport != null) {
+                this.transport.close();
+            } else if (this.connectionManager != null) {
+                this.connectionManager.shutdown();
+            }
+        } catch (IOException ioEx) {
+            LOG.warn("Failed to close transport of client {}", this.id, ioEx);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RegisteredClient [id=" + id + ", pooled=" + isPooled() + ", poolStats=" + getPoolStats() + "]";
+    }
+
+}
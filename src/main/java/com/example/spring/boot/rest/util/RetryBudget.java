@@ -0,0 +1,111 @@
+package com.example.spring.boot.rest.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps retries at a share of the traffic, so that retrying cannot multiply
+ * the load on a service that is already failing. Over the last
+ * {@link #WINDOW_SECONDS} seconds, a retry is allowed while the retries stay
+ * below <code>percent</code> % of the calls, plus
+ * <code>minRetriesPerSecond</code> per second so that a quiet client can
+ * still retry.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class RetryBudget {
+
+    public static final int WINDOW_SECONDS = 10;
+
+    private final int percent;
+
+    private final int minRetries;
+
+    // calls and retries per second of the window, indexed by second modulo the window
+    private final long[] calls = new long[WINDOW_SECONDS];
+
+    private final long[] retries = new long[WINDOW_SECONDS];
+
+    private long currentSecond;
+
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * @param percent
+     *            The retries allowed per 100 calls.
+     * @param minRetriesPerSecond
+     *            The retries allowed whatever the traffic.
+     */
+    public RetryBudget(int percent, int minRetriesPerSecond) {
+        this.percent = percent;
+        this.minRetries = minRetriesPerSecond * WINDOW_SECONDS;
+        this.currentSecond = now();
+    }
+
+    /**
+     * Counts a first attempt.
+     */
+    public synchronized void onCall() {
+        this.calls[this.slot()]++;
+    }
+
+    /**
+     * Takes a retry from the budget.
+     *
+     * @return <code>false</code> if the budget is spent and the call must not
+     *         be retried.
+     */
+    public synchronized boolean tryRetry() {
+        int slot = this.slot();
+        long totalCalls = 0;
+        long totalRetries = 0;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            totalCalls += this.calls[i];
+            totalRetries += this.retries[i];
+        }
+        if ((totalRetries + 1) * 100 > totalCalls * this.percent + this.minRetries * 100L) {
+            this.exhausted.increment();
+            return false;
+        }
+        this.retries[slot]++;
+        return true;
+    }
+
+    /**
+     * @return The number of retries refused because the budget was spent.
+     */
+    public long getExhausted() {
+        return this.exhausted.sum();
+    }
+
+    /**
+     * @return The retries made over the window.
+     */
+    public synchronized long getRetries() {
+        this.slot();
+        long total = 0;
+        for (long retry : this.retries) {
+            total += retry;
+        }
+        return total;
+    }
+
+    private int slot() {
+        long second = now();
+        // clear the seconds that went by since the last call
+        for (long s = Math.max(this.currentSecond + 1, second - WINDOW_SECONDS + 1); s <= second; s++) {
+            int slot = (int) Math.floorMod(s, (long) WINDOW_SECONDS);
+            this.calls[slot] = 0;
+            this.retries[slot] = 0;
+        }
+        this.currentSecond = Math.max(this.currentSecond, second);
+        return (int) Math.floorMod(this.currentSecond, (long) WINDOW_SECONDS);
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.example.spring.boot.rest.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+import com.example.spring.boot.rest.exception.ServiceException;
+
+/**
+ * Runs at most one call per key at a time. A caller asking for a key whose
+ * call is still in flight waits for that call and gets its result, or its
+ * failure, instead of starting another one. Results are not kept once the
+ * call is over, so this is no cache: the next caller after the call completes
+ * starts a new one.
+ * <p>
+ * A caller waits at most <code>maxWait</code> milliseconds for the call of
+ * another one and then fails with {@link ErrorCode#CS_1015}, so a call that
+ * hangs holds only its own caller rather than every caller of its key. The
+ * call itself goes on and its key stays taken until it is over.
+ * </p>
+ * <p>
+ * If the call fails, its caller gets the exception as thrown and each waiter
+ * gets an exception of its own with that one as its cause, so that the stack
+ * traces and suppressed exceptions of the callers do not mix: a
+ * {@link FrameworkError} with the same message and details, or else a
+ * {@link ServiceException}.
+ * </p>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class SingleFlight<K, V> {
+
+    private final String name;
+
+    private final long maxWait;
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+
+    private final LongAdder shared = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * @param name
+     *            The coalesced call, for the error of a caller that waited too
+     *            long.
+     * @param maxWait
+     *            The time, in milliseconds, a caller waits for the call of
+     *            another one.
+     */
+    public SingleFlight(String name, long maxWait) {
+        this.name = name;
+        this.maxWait = maxWait;
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = this.calls.putIfAbsent(key, own);
+        if (inFlight != null) {
+            this.shared.increment();
+            return this.await(inFlight);
+        }
+        this.executed.increment();
+        try {
+            V result = call.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.calls.remove(key, own);
+        }
+    }
+
+    /**
+     * @return The number of calls actually run.
+     */
+    public long getExecuted() {
+        return this.executed.sum();
+    }
+
+    /**
+     * @return The number of callers served by the call of another caller.
+     */
+    public long getShared() {
+        return this.shared.sum();
+    }
+
+    /**
+     * @return The number of callers which gave up waiting for the call of
+     *         another caller.
+     */
+    public long getTimedOut() {
+        return this.timedOut.sum();
+    }
+
+    /**
+     * @return The number of calls in flight right now.
+     */
+    public int getInFlight() {
+        return this.calls.size();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get(this.maxWait, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            this.timedOut.increment();
+            throw new FrameworkError(ErrorCode.CS_1015.getValue(), new Object[] { this.name }, null, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while waiting for " + this.name, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FrameworkError) {
+                FrameworkError failure = (FrameworkError) e.getCause();
+                FrameworkError error = new FrameworkError(failure.getErrorMessage().getCode(), failure.getDetails(),
+                        failure);
+                error.setErrorMessage(failure.getErrorMessage());
+                error.setValidationMessages(failure.getValidationMessages());
+                throw error;
+            }
+            throw new ServiceException(this.name + " failed", e.getCause());
+        }
+    }
+
+}
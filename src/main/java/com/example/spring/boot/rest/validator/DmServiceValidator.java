@@ -16,7 +16,9 @@ import com.example.spring.boot.rest.exception.ErrorCode;
 import com.example.spring.boot.rest.exception.FrameworkError;
 import com.example.spring.boot.rest.exception.Message;
 import com.example.spring.boot.rest.types.EmpAddress;
+import com.example.spring.boot.rest.types.EmpBatchRequest;
 import com.example.spring.boot.rest.types.EmpConfigIdentifier;
+import com.example.spring.boot.rest.types.EmpPageRequest;
 
 /**
  * @author mlahariya
@@ -31,7 +33,7 @@ public class DmServiceValidator {
 
     /**
      * Validates the {@link DmService#queryEmpConfigs(EmpConfigIdentifier id)}
-     * operation.
+     * operation and its asynchronous variant.
      * 
      * @param errors
      *            A {@link Errors} object containing the errors to return to the
@@ -41,7 +43,7 @@ public class DmServiceValidator {
      *            client.
      */
 
-    @Pointcut("execution(* com.example.spring.boot.rest.service.DmServiceImpl.queryEmpConfigs(..)) && args(id,..))")
+    @Pointcut("execution(* com.example.spring.boot.rest.service.DmServiceImpl.queryEmpConfigs*(..)) && args(id,..))")
     public void validateQueryEmpConf(EmpConfigIdentifier id) {
 
     }
@@ -63,6 +65,41 @@ public class DmServiceValidator {
         checkAndThrowMessage(messageList);
     }
 
+    /**
+     * Validates the
+     * {@link DmService#queryEmpConfigsBatch(EmpBatchRequest batchRequest)}
+     * operation.
+     * 
+     * @param batchRequest
+     *            The <code>batchRequest</code> parameter passed in by the
+     *            client.
+     */
+
+    @Pointcut("execution(* com.example.spring.boot.rest.service.DmServiceImpl.queryEmpConfigsBatch(..)) && args(batchRequest,..))")
+    public void validateQueryEmpConfBatch(EmpBatchRequest batchRequest) {
+
+    }
+
+    @Before("validateQueryEmpConfBatch(batchRequest)")
+    public void validateQueryEmpConfigsBatch(EmpBatchRequest batchRequest) {
+
+        List<Message> messageList = new ArrayList<Message>();
+        if (batchRequest.getIds() == null || batchRequest.getIds().isEmpty()) {
+            LOGGER.debug("please provide the valid ids");
+            messageList.add(new Message(ErrorCode.CS_1005.getValue()));
+        }
+
+        else {
+            for (Integer id : batchRequest.getIds()) {
+                if (id == null || id <= 0) {
+                    messageList.add(new Message(ErrorCode.CS_1006.getValue()));
+                    break;
+                }
+            }
+        }
+        checkAndThrowMessage(messageList);
+    }
+
     /**
      * Validates the {@link DmService#selectAllEmpAllData(EmpAddress empAddr)}
      * operation.
@@ -92,6 +129,35 @@ public class DmServiceValidator {
         checkAndThrowMessage(messageList);
     }
 
+    /**
+     * Validates the
+     * {@link DmService#selectAllEmpAllDataPage(EmpPageRequest pageRequest)}
+     * operation.
+     * 
+     * @param pageRequest
+     *            The <code>pageRequest</code> parameter passed in by the
+     *            client.
+     */
+
+    @Pointcut("execution(* com.example.spring.boot.rest.service.DmServiceImpl.selectAllEmpAllDataPage(..)) && args(pageRequest,..))")
+    public void validateSelectAllEmpAllDataPg(EmpPageRequest pageRequest) {
+
+    }
+
+    @Before("validateSelectAllEmpAllDataPg(pageRequest)")
+    public void validateSelectAllEmpAllDataPage(EmpPageRequest pageRequest) {
+
+        List<Message> messageList = new ArrayList<Message>();
+        if (StringUtils.isBlank(pageRequest.getAddress())) {
+            messageList.add(new Message(ErrorCode.CS_1007.getValue()));
+        }
+
+        if (pageRequest.getPageSize() < 0) {
+            messageList.add(new Message(ErrorCode.CS_1006.getValue()));
+        }
+        checkAndThrowMessage(messageList);
+    }
+
     private void checkAndThrowMessage(List<Message> messageList) {
         if (!messageList.isEmpty()) {
             FrameworkError error = new FrameworkError(messageList.get(0).getCode(), messageList.get(0).getArgs(), null,
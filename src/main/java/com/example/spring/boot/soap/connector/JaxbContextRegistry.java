@@ -0,0 +1,94 @@
+package com.example.spring.boot.soap.connector;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.spring.boot.rest.exception.ServiceException;
+
+/**
+ * Holds one {@link JAXBContext} and one {@link PooledJaxb2Marshaller} per JAXB
+ * context path for the whole application. Building a context reflects over
+ * every bound class and takes far longer than any call, so the contexts
+ * listed under
+ *
+ * <pre>
+ * soap.jaxb.contextPaths=com.uhc.ubh.arithmatic.calculation,com.sample.soap.xml.dm
+ * </pre>
+ *
+ * are built at startup instead of on the first request. Other context paths
+ * are built on first use and kept as well.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@Component("jaxbContextRegistry")
+public class JaxbContextRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JaxbContextRegistry.class);
+
+    public static final String KEY_CONTEXT_PATHS = "soap.jaxb.contextPaths";
+
+    @Resource
+    private ServiceConfiguration serviceConfig;
+
+    private final Map<String, JAXBContext> contexts = new ConcurrentHashMap<>();
+
+    private final Map<String, PooledJaxb2Marshaller> marshallers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        List<String> contextPaths = this.serviceConfig.getStringList(KEY_CONTEXT_PATHS);
+        if (contextPaths == null) {
+            return;
+        }
+        for (String contextPath : contextPaths) {
+            long start = System.currentTimeMillis();
+            this.getMarshaller(contextPath.trim());
+            LOG.info("JAXB context {} ready in {} ms.", contextPath.trim(), System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * @param contextPath
+     *            The colon separated packages of the context.
+     */
+    public JAXBContext getContext(String contextPath) {
+        return this.contexts.computeIfAbsent(contextPath, JaxbContextRegistry::newContext);
+    }
+
+    /**
+     * @return The shared marshaller of the context, which keeps a JAXB
+     *         marshaller and unmarshaller per thread.
+     */
+    public PooledJaxb2Marshaller getMarshaller(String contextPath) {
+        return this.marshallers.computeIfAbsent(contextPath, path -> {
+            PooledJaxb2Marshaller marshaller = new PooledJaxb2Marshaller(this, path);
+            try {
+                marshaller.afterPropertiesSet();
+            } catch (Exception e) {
+                throw new ServiceException("Could not initialize the marshaller of " + path, e);
+            }
+            return marshaller;
+        });
+    }
+
+    private static JAXBContext newContext(String contextPath) {
+        try {
+            return JAXBContext.newInstance(contextPath, JaxbContextRegistry.class.getClassLoader());
+        } catch (JAXBException e) {
+            throw new ServiceException("Could not create the JAXB context of " + contextPath, e);
+        }
+    }
+
+}
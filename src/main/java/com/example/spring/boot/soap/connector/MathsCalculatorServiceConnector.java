@@ -46,6 +46,11 @@ public class MathsCalculatorServiceConnector {
             System.out.println(appEx);
         }
 
+        catch (FrameworkError e) {
+            // rejected by the circuit breaker of the client
+            throw e;
+        }
+
         catch (SoapFaultException ex) {
             LOG.warn("Something bad happened!");
             LOG.warn("Error ", ex);
@@ -0,0 +1,69 @@
+package com.example.spring.boot.soap.connector;
+
+import java.net.URI;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.ws.transport.http.HttpComponentsMessageSender;
+
+/**
+ * An {@link HttpComponentsMessageSender} which keeps a reference to the
+ * connection pool of its {@link HttpClient}, so the pool can be inspected and
+ * closed by the {@link SoapClientFactory} that created it. Given a
+ * {@link SoapClientResilience} with an adaptive timeout, it sends each request
+ * with the current read timeout instead of the fixed one.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class PooledHttpMessageSender extends HttpComponentsMessageSender {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final RequestConfig requestConfig;
+
+    private SoapClientResilience resilience;
+
+    public PooledHttpMessageSender(HttpClient httpClient, PoolingHttpClientConnectionManager connectionManager) {
+        this(httpClient, connectionManager, RequestConfig.DEFAULT);
+    }
+
+    /**
+     * @param requestConfig
+     *            The default request configuration of the HTTP client, from
+     *            which the configuration with the adaptive timeout is
+     *            derived.
+     */
+    public PooledHttpMessageSender(HttpClient httpClient, PoolingHttpClientConnectionManager connectionManager,
+            RequestConfig requestConfig) {
+        super(httpClient);
+        this.connectionManager = connectionManager;
+        this.requestConfig = requestConfig;
+    }
+
+    public void setResilience(SoapClientResilience resilience) {
+        this.resilience = resilience;
+    }
+
+    @Override
+    protected HttpContext createContext(URI uri) {
+        HttpContext context = super.createContext(uri);
+        Integer readTimeout = (this.resilience == null ? null : this.resilience.getReadTimeout());
+        if (readTimeout == null) {
+            return context;
+        }
+        HttpClientContext clientContext = (context == null ? HttpClientContext.create()
+                : HttpClientContext.adapt(context));
+        clientContext.setRequestConfig(RequestConfig.copy(this.requestConfig).setSocketTimeout(readTimeout).build());
+        return clientContext;
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return this.connectionManager;
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.example.spring.boot.soap.connector;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.Source;
+
+import org.springframework.oxm.XmlMappingException;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.oxm.mime.MimeContainer;
+
+/**
+ * A {@link Jaxb2Marshaller} which takes its context from the
+ * {@link JaxbContextRegistry} and reuses one JAXB marshaller and unmarshaller
+ * per thread, where the plain {@link Jaxb2Marshaller} creates and configures
+ * new ones for every message.
+ * <p>
+ * JAXB marshallers are not thread-safe but may be used for any number of
+ * documents one after the other, which is what a thread does. MTOM is not
+ * supported, as it would leave attachment handlers set on the reused
+ * instances.
+ * <p>
+ * Elements which are declared in an <code>ObjectFactory</code> as well as on
+ * their class unmarshal to the class itself rather than to a
+ * {@link JAXBElement}, as the endpoint methods and clients expect.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class PooledJaxb2Marshaller extends Jaxb2Marshaller {
+
+    private final JaxbContextRegistry registry;
+
+    private final ThreadLocal<Marshaller> marshallers = ThreadLocal.withInitial(this::newMarshaller);
+
+    private final ThreadLocal<Unmarshaller> unmarshallers = ThreadLocal.withInitial(this::newUnmarshaller);
+
+    public PooledJaxb2Marshaller(JaxbContextRegistry registry, String contextPath) {
+        this.registry = registry;
+        setContextPath(contextPath);
+    }
+
+    @Override
+    public JAXBContext getJaxbContext() {
+        return this.registry.getContext(getContextPath());
+    }
+
+    @Override
+    public void setMtomEnabled(boolean mtomEnabled) {
+        if (mtomEnabled) {
+            throw new UnsupportedOperationException("MTOM is not supported by pooled marshallers");
+        }
+    }
+
+    @Override
+    public Object unmarshal(Source source, MimeContainer mimeContainer) throws XmlMappingException {
+        Object result = super.unmarshal(source, mimeContainer);
+        if (result instanceof JAXBElement) {
+            return ((JAXBElement<?>) result).getValue();
+        }
+        return result;
+    }
+
+    @Override
+    protected Marshaller createMarshaller() {
+        return this.marshallers.get();
+    }
+
+    @Override
+    protected Unmarshaller createUnmarshaller() {
+        return this.unmarshallers.get();
+    }
+
+    private Marshaller newMarshaller() {
+        return super.createMarshaller();
+    }
+
+    private Unmarshaller newUnmarshaller() {
+        return super.createUnmarshaller();
+    }
+
+}
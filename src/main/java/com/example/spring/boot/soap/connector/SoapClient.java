@@ -1,7 +1,11 @@
 package com.example.spring.boot.soap.connector;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.oxm.Marshaller;
@@ -10,6 +14,11 @@ import org.springframework.ws.client.core.WebServiceMessageCallback;
 import org.springframework.ws.client.core.WebServiceMessageExtractor;
 import org.springframework.ws.client.core.WebServiceTemplate;
 import org.springframework.ws.client.support.interceptor.ClientInterceptor;
+import org.springframework.ws.soap.client.SoapFaultClientException;
+import org.springframework.ws.support.MarshallingUtils;
+
+import com.example.spring.boot.rest.util.Hedger;
+import com.example.spring.boot.rest.util.LoadBalancer;
 
 /**
  * A simple wrapper around Spring WS's WebServiceTemplate to allow for easy
@@ -23,6 +32,16 @@ import org.springframework.ws.client.support.interceptor.ClientInterceptor;
 @Component
 public class SoapClient extends WebServiceTemplate {
 
+    private SoapResponseCache responseCache;
+
+    private SoapClientResilience resilience;
+
+    private Hedger hedger;
+
+    private LoadBalancer loadBalancer;
+
+    private Set<String> hedgedOperations = Collections.emptySet();
+
     public SoapClient() {
     };
 
@@ -54,11 +73,157 @@ public class SoapClient extends WebServiceTemplate {
         }
     }
 
+    /**
+     * Sends the request through the resilience layer of the client, if it has
+     * one. A request to the default URI goes to the endpoint picked by the
+     * load balancer of the client, if it has one, so each retry is balanced
+     * again. SOAP faults are answers of the endpoint; any other exception
+     * counts against it. The request is not known to be idempotent, so it is
+     * only retried if it did not reach the service.
+     */
     @Override
     public <T> T sendAndReceive(String uriString, WebServiceMessageCallback requestCallback,
             WebServiceMessageExtractor<T> responseExtractor) {
+        return this.sendAndReceive(uriString, requestCallback, responseExtractor, false, false);
+    }
+
+    private <T> T sendAndReceive(String uriString, WebServiceMessageCallback requestCallback,
+            WebServiceMessageExtractor<T> responseExtractor, boolean idempotent, boolean hedge) {
         // ServiceContext.put("REMOTE_SERVICE_URL", uriString);
-        return super.sendAndReceive(uriString, requestCallback, responseExtractor);
+        if (this.resilience == null) {
+            return this.exchange(uriString, requestCallback, responseExtractor);
+        }
+        return this.resilience.execute(() -> this.exchange(uriString, requestCallback, responseExtractor),
+                idempotent, hedge);
+    }
+
+    private <T> T exchange(String uriString, WebServiceMessageCallback requestCallback,
+            WebServiceMessageExtractor<T> responseExtractor) {
+        if (this.loadBalancer == null || !uriString.equals(getDefaultUri())) {
+            return super.sendAndReceive(uriString, requestCallback, responseExtractor);
+        }
+        return this.loadBalancer.execute(
+                endpoint -> super.sendAndReceive(endpoint.toString(), requestCallback, responseExtractor),
+                e -> !(e instanceof SoapFaultClientException));
+    }
+
+    /**
+     * Serves the operations configured in the response cache of the client
+     * from it, and hedges the hedged operations on a cache miss. Requests sent
+     * with a callback always go to the service, unhedged, as the callback may
+     * change the request.
+     */
+    @Override
+    public Object marshalSendAndReceive(String uri, Object requestPayload, WebServiceMessageCallback requestCallback) {
+        if (this.responseCache == null || requestCallback != null || !this.responseCache.isCached(requestPayload)) {
+            return this.send(uri, requestPayload, requestCallback);
+        }
+        return this.responseCache.get(uri, requestPayload, getMarshaller(),
+                () -> this.send(uri, requestPayload, null));
+    }
+
+    private Object send(String uri, Object requestPayload, WebServiceMessageCallback requestCallback) {
+        String operation = (requestPayload == null ? null : SoapResponseCache.operationOf(requestPayload));
+        boolean idempotent = (this.resilience != null && this.resilience.isIdempotent(operation));
+        if (this.hedger == null || requestCallback != null || !this.hedgedOperations.contains(operation)) {
+            return this.marshalSendAndReceive(uri, requestPayload, requestCallback, idempotent, false);
+        }
+        return this.hedger.execute(
+                attempt -> this.marshalSendAndReceive(uri, requestPayload, null, idempotent, attempt > 0));
+    }
+
+    /**
+     * Marshals the request and unmarshals the response as
+     * {@link WebServiceTemplate#marshalSendAndReceive(String, Object, WebServiceMessageCallback)}
+     * does, telling the resilience layer whether the operation is idempotent
+     * and whether the request is a hedge.
+     */
+    private Object marshalSendAndReceive(String uri, Object requestPayload, WebServiceMessageCallback requestCallback,
+            boolean idempotent, boolean hedge) {
+        return this.sendAndReceive(uri, request -> {
+            if (requestPayload != null) {
+                if (getMarshaller() == null) {
+                    throw new IllegalStateException(
+                            "No marshaller registered. Check configuration of WebServiceTemplate.");
+                }
+                MarshallingUtils.marshal(getMarshaller(), requestPayload, request);
+                if (requestCallback != null) {
+                    requestCallback.doWithMessage(request);
+                }
+            }
+        }, response -> {
+            if (getUnmarshaller() == null) {
+                throw new IllegalStateException(
+                        "No unmarshaller registered. Check configuration of WebServiceTemplate.");
+            }
+            return MarshallingUtils.unmarshal(getUnmarshaller(), response);
+        }, idempotent, hedge);
+    }
+
+    /**
+     * @return The response cache, or <code>null</code> if no operation of the
+     *         client is cached.
+     */
+    public SoapResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public void setResponseCache(SoapResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * @return The circuit breaker, retries and timeouts of the client, or
+     *         <code>null</code> for none.
+     */
+    public SoapClientResilience getResilience() {
+        return resilience;
+    }
+
+    public void setResilience(SoapClientResilience resilience) {
+        this.resilience = resilience;
+    }
+
+    /**
+     * @return The hedger of the hedged operations, or <code>null</code> if the
+     *         client does not hedge.
+     */
+    public Hedger getHedger() {
+        return hedger;
+    }
+
+    /**
+     * @return The local names of the request elements of the hedged
+     *         operations.
+     */
+    public Set<String> getHedgedOperations() {
+        return hedgedOperations;
+    }
+
+    /**
+     * Hedges the requests of the operations, which must be idempotent.
+     * 
+     * @param hedger
+     *            The hedger, or <code>null</code> to hedge nothing.
+     * @param operations
+     *            The local names of the request elements of the operations.
+     */
+    public void setHedger(Hedger hedger, Collection<String> operations) {
+        this.hedger = hedger;
+        this.hedgedOperations = (hedger == null ? Collections.emptySet()
+                : Collections.unmodifiableSet(new HashSet<>(operations)));
+    }
+
+    /**
+     * @return The load balancer of the requests to the default URI, or
+     *         <code>null</code> if they all go to it.
+     */
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    public void setLoadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
     }
 
     public List<ClientInterceptor> getInterceptorList() {
@@ -2,12 +2,17 @@ package com.example.spring.boot.soap.connector;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.ws.security.WSConstants;
 import org.springframework.ws.client.support.interceptor.ClientInterceptor;
 
+import com.example.spring.boot.rest.util.LoadBalancer;
+
 /**
  * A configuration object used by {@link SoapClientFactory} to create clients.
  * The {@link RefreshScope} annotation ensures that the configuration object
@@ -21,6 +26,51 @@ import org.springframework.ws.client.support.interceptor.ClientInterceptor;
  * soapclient.def.myClient.wss4j.username=myUser
  * soapclient.def.myClient.wss4j.password=aPassword
  * soapclient.def.myClient.wss4j.passwordType=1000
+ * soapclient.def.myClient.cache.sum.maximumSize=1000
+ * soapclient.def.myClient.cache.sum.expireAfterWrite=3600000
+ * soapclient.def.myClient.breaker.failureRateThreshold=80
+ * soapclient.def.myClient.retry.maxRetries=1
+ * soapclient.def.myClient.retry.budgetPercent=20
+ * soapclient.def.myClient.retry.minRetriesPerSecond=1
+ * soapclient.def.myClient.retry.backoff=50
+ * soapclient.def.myClient.retry.maxBackoff=1000
+ * soapclient.def.myClient.retry.idempotentOperations=sum
+ * soapclient.def.myClient.adaptiveTimeout.percentile=99
+ * soapclient.def.myClient.adaptiveTimeout.multiplier=2
+ * soapclient.def.myClient.adaptiveTimeout.min=500
+ * soapclient.def.myClient.hedge.operations=sum
+ * soapclient.def.myClient.hedge.percentile=95
+ * soapclient.def.myClient.hedge.maxRatePercent=10
+ * soapclient.def.myClient.endpoints=http://host1:8090/Service/1.0,http://host2:8090/Service/1.0
+ * soapclient.def.myClient.loadBalancer.policy=leastOutstanding
+ * soapclient.def.myClient.loadBalancer.failureRateThreshold=50
+ * soapclient.def.myClient.loadBalancer.ejectionTime=30000
+ * 
+ * Each cache.[operation] group turns on the {@link SoapResponseCache} for the
+ * operation; only list operations whose response depends on the request alone.
+ * 
+ * The breaker group turns on a circuit breaker with the settings of the REST
+ * clients, see {@link com.example.spring.boot.rest.connector.RestClientFactory}.
+ * Calls failing on I/O are retried up to retry.maxRetries times within the
+ * retry budget, after a jittered backoff; calls that may have reached the
+ * service, e.g. that timed out reading the answer, only for the operations
+ * listed in retry.idempotentOperations. The adaptiveTimeout group derives the
+ * read timeout from the observed latencies, with readTimeout as its upper
+ * bound. See {@link SoapClientResilience}.
+ * 
+ * The hedge group hedges the requests of hedge.operations, which must be
+ * idempotent, with the settings of the REST clients, see
+ * {@link com.example.spring.boot.rest.util.Hedger}.
+ * 
+ * The endpoints, a comma separated list, spread the requests sent to the
+ * default URI of the client over several endpoints with the loadBalancer
+ * settings of the REST clients, see
+ * {@link com.example.spring.boot.rest.util.LoadBalancer}. Without an endpoint,
+ * the first of them is the default URI. As for the REST clients, the breaker
+ * of a client with endpoints opens at 80 % of failed calls by default rather
+ * than 50 %, so that it only opens once ejecting the failing endpoints no
+ * longer helps; it counts a call once, after its retries, which go to the
+ * endpoint the balancer picks again.
  * 
  * @author mlahariya
  * @version 1.0, Jan 2017
@@ -51,6 +101,51 @@ public class SoapClientConfiguration {
     public static final String KEY_PROXY_PORT = "port";
     public static final String KEY_PROXY_USERNAME = "username";
     public static final String KEY_PROXY_PASSWORD = "password";
+    public static final String KEY_CACHE = "cache";
+    public static final String KEY_CACHE_MAXIMUM_SIZE = "maximumSize";
+    public static final String KEY_CACHE_EXPIRE_AFTER_WRITE = "expireAfterWrite";
+    public static final String KEY_BREAKER = "breaker";
+    public static final String KEY_BREAKER_ENABLED = "enabled";
+    public static final String KEY_BREAKER_WINDOW_SIZE = "windowSize";
+    public static final String KEY_BREAKER_MINIMUM_CALLS = "minimumCalls";
+    public static final String KEY_BREAKER_FAILURE_RATE_THRESHOLD = "failureRateThreshold";
+    public static final String KEY_BREAKER_SLOW_CALL_DURATION = "slowCallDuration";
+    public static final String KEY_BREAKER_SLOW_CALL_RATE_THRESHOLD = "slowCallRateThreshold";
+    public static final String KEY_BREAKER_OPEN_DURATION = "openDuration";
+    public static final String KEY_BREAKER_HALF_OPEN_CALLS = "halfOpenCalls";
+    public static final String KEY_RETRY = "retry";
+    public static final String KEY_RETRY_MAX_RETRIES = "maxRetries";
+    public static final String KEY_RETRY_BUDGET_PERCENT = "budgetPercent";
+    public static final String KEY_RETRY_MIN_RETRIES_PER_SECOND = "minRetriesPerSecond";
+    public static final String KEY_RETRY_BACKOFF = "backoff";
+    public static final String KEY_RETRY_MAX_BACKOFF = "maxBackoff";
+    public static final String KEY_RETRY_IDEMPOTENT_OPERATIONS = "idempotentOperations";
+    public static final String KEY_ADAPTIVE_TIMEOUT = "adaptiveTimeout";
+    public static final String KEY_ADAPTIVE_TIMEOUT_ENABLED = "enabled";
+    public static final String KEY_ADAPTIVE_TIMEOUT_PERCENTILE = "percentile";
+    public static final String KEY_ADAPTIVE_TIMEOUT_MULTIPLIER = "multiplier";
+    public static final String KEY_ADAPTIVE_TIMEOUT_MIN = "min";
+    public static final String KEY_ADAPTIVE_TIMEOUT_INTERVAL = "interval";
+    public static final String KEY_ADAPTIVE_TIMEOUT_MIN_SAMPLES = "minSamples";
+    public static final String KEY_ENDPOINTS = "endpoints";
+    public static final String KEY_LOAD_BALANCER = "loadBalancer";
+    public static final String KEY_LOAD_BALANCER_POLICY = "policy";
+    public static final String KEY_LOAD_BALANCER_WINDOW_SIZE = "windowSize";
+    public static final String KEY_LOAD_BALANCER_MINIMUM_CALLS = "minimumCalls";
+    public static final String KEY_LOAD_BALANCER_FAILURE_RATE_THRESHOLD = "failureRateThreshold";
+    public static final String KEY_LOAD_BALANCER_EJECTION_TIME = "ejectionTime";
+    public static final String KEY_LOAD_BALANCER_MAX_EJECTION_PERCENT = "maxEjectionPercent";
+    public static final String KEY_LOAD_BALANCER_DECAY_TIME = "decayTime";
+    public static final String KEY_HEDGE = "hedge";
+    public static final String KEY_HEDGE_ENABLED = "enabled";
+    public static final String KEY_HEDGE_OPERATIONS = "operations";
+    public static final String KEY_HEDGE_PERCENTILE = "percentile";
+    public static final String KEY_HEDGE_MIN_DELAY = "minDelay";
+    public static final String KEY_HEDGE_MAX_DELAY = "maxDelay";
+    public static final String KEY_HEDGE_MAX_RATE_PERCENT = "maxRatePercent";
+    public static final String KEY_HEDGE_INTERVAL = "interval";
+    public static final String KEY_HEDGE_MIN_SAMPLES = "minSamples";
+    public static final String KEY_HEDGE_MAX_CONCURRENT_CALLS = "maxConcurrentCalls";
 
     public static final int DEFAULT_CONNECT_TIMEOUT = 1000;
     public static final int DEFAULT_CONNECT_REQUEST_TIMEOUT = 1000;
@@ -61,6 +156,39 @@ public class SoapClientConfiguration {
     public static final int DEFAULT_POOL_IDLE_TIMEOUT = 10000;
     public static final String DEFAULT_WSS4J_ACTIONS = "UsernameToken Timestamp";
     public static final boolean DEFAULT_WSS4J_MUST_UNDERSTAND = false;
+    public static final long DEFAULT_CACHE_MAXIMUM_SIZE = 1000;
+    public static final long DEFAULT_CACHE_EXPIRE_AFTER_WRITE = 300000;
+    public static final int DEFAULT_BREAKER_WINDOW_SIZE = 20;
+    public static final int DEFAULT_BREAKER_MINIMUM_CALLS = 10;
+    public static final int DEFAULT_BREAKER_FAILURE_RATE_THRESHOLD = 50;
+    public static final int DEFAULT_BALANCED_BREAKER_FAILURE_RATE_THRESHOLD = 80;
+    public static final int DEFAULT_BREAKER_SLOW_CALL_DURATION = 2000;
+    public static final int DEFAULT_BREAKER_SLOW_CALL_RATE_THRESHOLD = 80;
+    public static final int DEFAULT_BREAKER_OPEN_DURATION = 10000;
+    public static final int DEFAULT_BREAKER_HALF_OPEN_CALLS = 3;
+    public static final int DEFAULT_RETRY_MAX_RETRIES = 1;
+    public static final int DEFAULT_RETRY_BUDGET_PERCENT = 20;
+    public static final int DEFAULT_RETRY_MIN_RETRIES_PER_SECOND = 1;
+    public static final int DEFAULT_RETRY_BACKOFF = 50;
+    public static final int DEFAULT_RETRY_MAX_BACKOFF = 1000;
+    public static final double DEFAULT_ADAPTIVE_TIMEOUT_PERCENTILE = 99;
+    public static final double DEFAULT_ADAPTIVE_TIMEOUT_MULTIPLIER = 2;
+    public static final int DEFAULT_ADAPTIVE_TIMEOUT_MIN = 500;
+    public static final int DEFAULT_ADAPTIVE_TIMEOUT_INTERVAL = 10000;
+    public static final int DEFAULT_ADAPTIVE_TIMEOUT_MIN_SAMPLES = 100;
+    public static final int DEFAULT_LOAD_BALANCER_WINDOW_SIZE = 20;
+    public static final int DEFAULT_LOAD_BALANCER_MINIMUM_CALLS = 5;
+    public static final int DEFAULT_LOAD_BALANCER_FAILURE_RATE_THRESHOLD = 50;
+    public static final int DEFAULT_LOAD_BALANCER_EJECTION_TIME = 30000;
+    public static final int DEFAULT_LOAD_BALANCER_MAX_EJECTION_PERCENT = 50;
+    public static final int DEFAULT_LOAD_BALANCER_DECAY_TIME = 10000;
+    public static final double DEFAULT_HEDGE_PERCENTILE = 95;
+    public static final int DEFAULT_HEDGE_MIN_DELAY = 10;
+    public static final int DEFAULT_HEDGE_MAX_DELAY = 1000;
+    public static final int DEFAULT_HEDGE_MAX_RATE_PERCENT = 10;
+    public static final int DEFAULT_HEDGE_INTERVAL = 10000;
+    public static final int DEFAULT_HEDGE_MIN_SAMPLES = 100;
+    public static final int DEFAULT_HEDGE_MAX_CONCURRENT_CALLS = 20;
 
     private String propertyPrefix = CONFIG_PREFIX;
 
@@ -71,6 +199,7 @@ public class SoapClientConfiguration {
     private Integer connectRequestTimeout;
     private Integer readTimeout;
     private String endpoint;
+    private List<String> endpoints = new ArrayList<>();
     private boolean disableCookies;
 
     private String marshallerBeanName;
@@ -93,6 +222,23 @@ public class SoapClientConfiguration {
     private Integer poolMaxRouteConnections;
     private Integer poolIdleTimout;
 
+    private Map<String, CacheSettings> cacheSettings = new LinkedHashMap<>();
+
+    private BreakerSettings breakerSettings;
+
+    private RetrySettings retrySettings = new RetrySettings(DEFAULT_RETRY_MAX_RETRIES, DEFAULT_RETRY_BUDGET_PERCENT,
+            DEFAULT_RETRY_MIN_RETRIES_PER_SECOND, DEFAULT_RETRY_BACKOFF, DEFAULT_RETRY_MAX_BACKOFF,
+            Collections.emptyList());
+
+    private AdaptiveTimeoutSettings adaptiveTimeoutSettings;
+
+    private HedgeSettings hedgeSettings;
+
+    private LoadBalancerSettings loadBalancerSettings = new LoadBalancerSettings(LoadBalancer.Policy.ROUND_ROBIN,
+            DEFAULT_LOAD_BALANCER_WINDOW_SIZE, DEFAULT_LOAD_BALANCER_MINIMUM_CALLS,
+            DEFAULT_LOAD_BALANCER_FAILURE_RATE_THRESHOLD, DEFAULT_LOAD_BALANCER_EJECTION_TIME,
+            DEFAULT_LOAD_BALANCER_MAX_EJECTION_PERCENT, DEFAULT_LOAD_BALANCER_DECAY_TIME);
+
     /**
      * Creates a default configuration.
      */
@@ -137,6 +283,14 @@ public class SoapClientConfiguration {
         this.marshallerClassName = this.determineStringValue(propGroup, KEY_MARSHALLER_CLASSNAME,
                 this.marshallerClassName, null);
         this.endpoint = this.determineStringValue(propGroup, KEY_ENDPOINT, this.endpoint, null);
+        if (propGroup != null && propGroup.contains(KEY_ENDPOINTS)) {
+            this.endpoints = new ArrayList<>();
+            for (String uri : propGroup.getStringList(KEY_ENDPOINTS)) {
+                if (StringUtils.isNotBlank(uri)) {
+                    this.endpoints.add(uri.trim());
+                }
+            }
+        }
         this.disableCookies = this.determineBooleanValue(propGroup, KEY_DISABLE_COOKIES, this.disableCookies,
                 DEFAULT_DISABLE_COOKIES);
 
@@ -174,6 +328,96 @@ public class SoapClientConfiguration {
         this.poolIdleTimout = this.determineIntegerValue(poolProps, KEY_POOL_IDLE_TIMEOUT, this.poolIdleTimout,
                 DEFAULT_POOL_IDLE_TIMEOUT);
 
+        ServiceConfigurationGroup cacheProps = (propGroup == null ? null : propGroup.breakOut(KEY_CACHE));
+        if (cacheProps != null) {
+            for (Map.Entry<String, ServiceConfigurationGroup> operation : cacheProps.breakDownToMap().entrySet()) {
+                ServiceConfigurationGroup operationProps = operation.getValue();
+                this.cacheSettings.put(operation.getKey(), new CacheSettings(
+                        operationProps.getLong(KEY_CACHE_MAXIMUM_SIZE, DEFAULT_CACHE_MAXIMUM_SIZE),
+                        operationProps.getLong(KEY_CACHE_EXPIRE_AFTER_WRITE, DEFAULT_CACHE_EXPIRE_AFTER_WRITE)));
+            }
+        }
+
+        ServiceConfigurationGroup breakerProps = (propGroup == null ? null : propGroup.breakOut(KEY_BREAKER));
+        if (breakerProps != null) {
+            this.breakerSettings = (!breakerProps.getBoolean(KEY_BREAKER_ENABLED, true) ? null : new BreakerSettings(
+                    breakerProps.getInteger(KEY_BREAKER_WINDOW_SIZE, DEFAULT_BREAKER_WINDOW_SIZE),
+                    breakerProps.getInteger(KEY_BREAKER_MINIMUM_CALLS, DEFAULT_BREAKER_MINIMUM_CALLS),
+                    breakerProps.getInteger(KEY_BREAKER_FAILURE_RATE_THRESHOLD,
+                            this.endpoints.isEmpty() ? DEFAULT_BREAKER_FAILURE_RATE_THRESHOLD
+                                    : DEFAULT_BALANCED_BREAKER_FAILURE_RATE_THRESHOLD),
+                    breakerProps.getInteger(KEY_BREAKER_SLOW_CALL_DURATION, DEFAULT_BREAKER_SLOW_CALL_DURATION),
+                    breakerProps.getInteger(KEY_BREAKER_SLOW_CALL_RATE_THRESHOLD,
+                            DEFAULT_BREAKER_SLOW_CALL_RATE_THRESHOLD),
+                    breakerProps.getInteger(KEY_BREAKER_OPEN_DURATION, DEFAULT_BREAKER_OPEN_DURATION),
+                    breakerProps.getInteger(KEY_BREAKER_HALF_OPEN_CALLS, DEFAULT_BREAKER_HALF_OPEN_CALLS)));
+        }
+
+        ServiceConfigurationGroup retryProps = (propGroup == null ? null : propGroup.breakOut(KEY_RETRY));
+        if (retryProps != null) {
+            this.retrySettings = new RetrySettings(
+                    retryProps.getInteger(KEY_RETRY_MAX_RETRIES, DEFAULT_RETRY_MAX_RETRIES),
+                    retryProps.getInteger(KEY_RETRY_BUDGET_PERCENT, DEFAULT_RETRY_BUDGET_PERCENT),
+                    retryProps.getInteger(KEY_RETRY_MIN_RETRIES_PER_SECOND, DEFAULT_RETRY_MIN_RETRIES_PER_SECOND),
+                    retryProps.getInteger(KEY_RETRY_BACKOFF, DEFAULT_RETRY_BACKOFF),
+                    retryProps.getInteger(KEY_RETRY_MAX_BACKOFF, DEFAULT_RETRY_MAX_BACKOFF),
+                    this.operationList(retryProps, KEY_RETRY_IDEMPOTENT_OPERATIONS));
+        }
+
+        ServiceConfigurationGroup timeoutProps = (propGroup == null ? null
+                : propGroup.breakOut(KEY_ADAPTIVE_TIMEOUT));
+        if (timeoutProps != null) {
+            this.adaptiveTimeoutSettings = (!timeoutProps.getBoolean(KEY_ADAPTIVE_TIMEOUT_ENABLED, true) ? null
+                    : new AdaptiveTimeoutSettings(
+                            timeoutProps.getDouble(KEY_ADAPTIVE_TIMEOUT_PERCENTILE,
+                                    DEFAULT_ADAPTIVE_TIMEOUT_PERCENTILE),
+                            timeoutProps.getDouble(KEY_ADAPTIVE_TIMEOUT_MULTIPLIER,
+                                    DEFAULT_ADAPTIVE_TIMEOUT_MULTIPLIER),
+                            timeoutProps.getInteger(KEY_ADAPTIVE_TIMEOUT_MIN, DEFAULT_ADAPTIVE_TIMEOUT_MIN),
+                            timeoutProps.getInteger(KEY_ADAPTIVE_TIMEOUT_INTERVAL, DEFAULT_ADAPTIVE_TIMEOUT_INTERVAL),
+                            timeoutProps.getInteger(KEY_ADAPTIVE_TIMEOUT_MIN_SAMPLES,
+                                    DEFAULT_ADAPTIVE_TIMEOUT_MIN_SAMPLES)));
+        }
+
+        ServiceConfigurationGroup balancerProps = (propGroup == null ? null : propGroup.breakOut(KEY_LOAD_BALANCER));
+        if (balancerProps != null) {
+            this.loadBalancerSettings = new LoadBalancerSettings(
+                    LoadBalancer.Policy.fromProperty(balancerProps.getString(KEY_LOAD_BALANCER_POLICY)),
+                    balancerProps.getInteger(KEY_LOAD_BALANCER_WINDOW_SIZE, DEFAULT_LOAD_BALANCER_WINDOW_SIZE),
+                    balancerProps.getInteger(KEY_LOAD_BALANCER_MINIMUM_CALLS, DEFAULT_LOAD_BALANCER_MINIMUM_CALLS),
+                    balancerProps.getInteger(KEY_LOAD_BALANCER_FAILURE_RATE_THRESHOLD,
+                            DEFAULT_LOAD_BALANCER_FAILURE_RATE_THRESHOLD),
+                    balancerProps.getInteger(KEY_LOAD_BALANCER_EJECTION_TIME, DEFAULT_LOAD_BALANCER_EJECTION_TIME),
+                    balancerProps.getInteger(KEY_LOAD_BALANCER_MAX_EJECTION_PERCENT,
+                            DEFAULT_LOAD_BALANCER_MAX_EJECTION_PERCENT),
+                    balancerProps.getInteger(KEY_LOAD_BALANCER_DECAY_TIME, DEFAULT_LOAD_BALANCER_DECAY_TIME));
+        }
+
+        ServiceConfigurationGroup hedgeProps = (propGroup == null ? null : propGroup.breakOut(KEY_HEDGE));
+        if (hedgeProps != null) {
+            List<String> operations = this.operationList(hedgeProps, KEY_HEDGE_OPERATIONS);
+            this.hedgeSettings = (!hedgeProps.getBoolean(KEY_HEDGE_ENABLED, true) || operations.isEmpty() ? null
+                    : new HedgeSettings(operations,
+                            hedgeProps.getDouble(KEY_HEDGE_PERCENTILE, DEFAULT_HEDGE_PERCENTILE),
+                            hedgeProps.getInteger(KEY_HEDGE_MIN_DELAY, DEFAULT_HEDGE_MIN_DELAY),
+                            hedgeProps.getInteger(KEY_HEDGE_MAX_DELAY, DEFAULT_HEDGE_MAX_DELAY),
+                            hedgeProps.getInteger(KEY_HEDGE_MAX_RATE_PERCENT, DEFAULT_HEDGE_MAX_RATE_PERCENT),
+                            hedgeProps.getInteger(KEY_HEDGE_INTERVAL, DEFAULT_HEDGE_INTERVAL),
+                            hedgeProps.getInteger(KEY_HEDGE_MIN_SAMPLES, DEFAULT_HEDGE_MIN_SAMPLES),
+                            hedgeProps.getInteger(KEY_HEDGE_MAX_CONCURRENT_CALLS,
+                                    DEFAULT_HEDGE_MAX_CONCURRENT_CALLS)));
+        }
+
+    }
+
+    private List<String> operationList(ServiceConfigurationGroup propGroup, String propName) {
+        List<String> operations = new ArrayList<>();
+        for (String operation : propGroup.getStringList(propName)) {
+            if (StringUtils.isNotBlank(operation)) {
+                operations.add(operation.trim());
+            }
+        }
+        return operations;
     }
 
     private Integer determineIntegerValue(ServiceConfigurationGroup propGroup, String propName, Integer currentValue,
@@ -238,6 +482,19 @@ public class SoapClientConfiguration {
         this.endpoint = uri;
     }
 
+    /**
+     * @return The endpoints the requests to the default URI are spread over,
+     *         empty if they all go to the default URI.
+     */
+    public List<String> getEndpoints() {
+        return Collections.unmodifiableList(this.endpoints);
+    }
+
+    public SoapClientConfiguration setEndpoints(List<String> uris) {
+        this.endpoints = new ArrayList<>(uris);
+        return this;
+    }
+
     /**
      * Default is <code>false</code>.
      * 
@@ -322,6 +579,76 @@ public class SoapClientConfiguration {
         return this.wss4jMustUnderstand;
     }
 
+    /**
+     * @return The cached operations, by the local name of their request
+     *         element; empty if nothing is cached.
+     */
+    public Map<String, CacheSettings> getCacheSettings() {
+        return Collections.unmodifiableMap(this.cacheSettings);
+    }
+
+    public SoapClientConfiguration addCacheSettings(String operation, long maximumSize, long expireAfterWrite) {
+        this.cacheSettings.put(operation, new CacheSettings(maximumSize, expireAfterWrite));
+        return this;
+    }
+
+    /**
+     * @return The circuit breaker settings, or <code>null</code> if the
+     *         client has no breaker.
+     */
+    public BreakerSettings getBreakerSettings() {
+        return this.breakerSettings;
+    }
+
+    public SoapClientConfiguration setBreakerSettings(BreakerSettings breakerSettings) {
+        this.breakerSettings = breakerSettings;
+        return this;
+    }
+
+    public RetrySettings getRetrySettings() {
+        return this.retrySettings;
+    }
+
+    public SoapClientConfiguration setRetrySettings(RetrySettings retrySettings) {
+        this.retrySettings = retrySettings;
+        return this;
+    }
+
+    /**
+     * @return The adaptive timeout settings, or <code>null</code> if the read
+     *         timeout of the client is fixed.
+     */
+    public AdaptiveTimeoutSettings getAdaptiveTimeoutSettings() {
+        return this.adaptiveTimeoutSettings;
+    }
+
+    public SoapClientConfiguration setAdaptiveTimeoutSettings(AdaptiveTimeoutSettings adaptiveTimeoutSettings) {
+        this.adaptiveTimeoutSettings = adaptiveTimeoutSettings;
+        return this;
+    }
+
+    public LoadBalancerSettings getLoadBalancerSettings() {
+        return this.loadBalancerSettings;
+    }
+
+    public SoapClientConfiguration setLoadBalancerSettings(LoadBalancerSettings loadBalancerSettings) {
+        this.loadBalancerSettings = loadBalancerSettings;
+        return this;
+    }
+
+    /**
+     * @return The hedge settings, or <code>null</code> if no operation of the
+     *         client is hedged.
+     */
+    public HedgeSettings getHedgeSettings() {
+        return this.hedgeSettings;
+    }
+
+    public SoapClientConfiguration setHedgeSettings(HedgeSettings hedgeSettings) {
+        this.hedgeSettings = hedgeSettings;
+        return this;
+    }
+
     /**
      * <p>
      * <strong>Note:</strong>
@@ -379,4 +706,310 @@ public class SoapClientConfiguration {
         return this;
     }
 
+    /**
+     * The size and age limits of the response cache of one operation.
+     */
+    public static class CacheSettings {
+
+        private final long maximumSize;
+        private final long expireAfterWrite;
+
+        public CacheSettings(long maximumSize, long expireAfterWrite) {
+            this.maximumSize = maximumSize;
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public long getMaximumSize() {
+            return this.maximumSize;
+        }
+
+        /**
+         * @return The time to keep a response, in milliseconds.
+         */
+        public long getExpireAfterWrite() {
+            return this.expireAfterWrite;
+        }
+
+    }
+
+    /**
+     * The thresholds of the circuit breaker, see
+     * {@link com.example.spring.boot.rest.util.CircuitBreaker}.
+     */
+    public static class BreakerSettings {
+
+        private final int windowSize;
+        private final int minimumCalls;
+        private final int failureRateThreshold;
+        private final int slowCallDuration;
+        private final int slowCallRateThreshold;
+        private final int openDuration;
+        private final int halfOpenCalls;
+
+        public BreakerSettings(int windowSize, int minimumCalls, int failureRateThreshold, int slowCallDuration,
+                int slowCallRateThreshold, int openDuration, int halfOpenCalls) {
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            this.failureRateThreshold = failureRateThreshold;
+            this.slowCallDuration = slowCallDuration;
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            this.openDuration = openDuration;
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        public int getWindowSize() {
+            return this.windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return this.minimumCalls;
+        }
+
+        public int getFailureRateThreshold() {
+            return this.failureRateThreshold;
+        }
+
+        public int getSlowCallDuration() {
+            return this.slowCallDuration;
+        }
+
+        public int getSlowCallRateThreshold() {
+            return this.slowCallRateThreshold;
+        }
+
+        public int getOpenDuration() {
+            return this.openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return this.halfOpenCalls;
+        }
+
+    }
+
+    /**
+     * How calls failing on I/O are retried.
+     */
+    public static class RetrySettings {
+
+        private final int maxRetries;
+        private final int budgetPercent;
+        private final int minRetriesPerSecond;
+        private final int backoff;
+        private final int maxBackoff;
+        private final List<String> idempotentOperations;
+
+        public RetrySettings(int maxRetries, int budgetPercent, int minRetriesPerSecond, int backoff,
+                int maxBackoff, List<String> idempotentOperations) {
+            this.maxRetries = maxRetries;
+            this.budgetPercent = budgetPercent;
+            this.minRetriesPerSecond = minRetriesPerSecond;
+            this.backoff = backoff;
+            this.maxBackoff = maxBackoff;
+            this.idempotentOperations = Collections.unmodifiableList(new ArrayList<>(idempotentOperations));
+        }
+
+        /**
+         * @return The retries of one call at most; 0 turns retries off.
+         */
+        public int getMaxRetries() {
+            return this.maxRetries;
+        }
+
+        /**
+         * @return The retries allowed per 100 calls.
+         */
+        public int getBudgetPercent() {
+            return this.budgetPercent;
+        }
+
+        public int getMinRetriesPerSecond() {
+            return this.minRetriesPerSecond;
+        }
+
+        /**
+         * @return The backoff before the first retry, in milliseconds,
+         *         doubled for each further one.
+         */
+        public int getBackoff() {
+            return this.backoff;
+        }
+
+        public int getMaxBackoff() {
+            return this.maxBackoff;
+        }
+
+        /**
+         * @return The local names of the request elements of the operations
+         *         that are also retried after the request may have reached
+         *         the service.
+         */
+        public List<String> getIdempotentOperations() {
+            return this.idempotentOperations;
+        }
+
+    }
+
+    /**
+     * How the read timeout follows the observed latencies, see
+     * {@link com.example.spring.boot.rest.util.AdaptiveTimeout}.
+     */
+    public static class AdaptiveTimeoutSettings {
+
+        private final double percentile;
+        private final double multiplier;
+        private final int min;
+        private final int interval;
+        private final int minSamples;
+
+        public AdaptiveTimeoutSettings(double percentile, double multiplier, int min, int interval, int minSamples) {
+            this.percentile = percentile;
+            this.multiplier = multiplier;
+            this.min = min;
+            this.interval = interval;
+            this.minSamples = minSamples;
+        }
+
+        public double getPercentile() {
+            return this.percentile;
+        }
+
+        public double getMultiplier() {
+            return this.multiplier;
+        }
+
+        public int getMin() {
+            return this.min;
+        }
+
+        public int getInterval() {
+            return this.interval;
+        }
+
+        public int getMinSamples() {
+            return this.minSamples;
+        }
+
+    }
+
+    /**
+     * How the requests are spread over the endpoints, see
+     * {@link LoadBalancer}.
+     */
+    public static class LoadBalancerSettings {
+
+        private final LoadBalancer.Policy policy;
+        private final int windowSize;
+        private final int minimumCalls;
+        private final int failureRateThreshold;
+        private final int ejectionTime;
+        private final int maxEjectionPercent;
+        private final int decayTime;
+
+        public LoadBalancerSettings(LoadBalancer.Policy policy, int windowSize, int minimumCalls,
+                int failureRateThreshold, int ejectionTime, int maxEjectionPercent, int decayTime) {
+            this.policy = policy;
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            this.failureRateThreshold = failureRateThreshold;
+            this.ejectionTime = ejectionTime;
+            this.maxEjectionPercent = maxEjectionPercent;
+            this.decayTime = decayTime;
+        }
+
+        public LoadBalancer.Policy getPolicy() {
+            return this.policy;
+        }
+
+        public int getWindowSize() {
+            return this.windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return this.minimumCalls;
+        }
+
+        public int getFailureRateThreshold() {
+            return this.failureRateThreshold;
+        }
+
+        public int getEjectionTime() {
+            return this.ejectionTime;
+        }
+
+        public int getMaxEjectionPercent() {
+            return this.maxEjectionPercent;
+        }
+
+        public int getDecayTime() {
+            return this.decayTime;
+        }
+
+    }
+
+    /**
+     * Which operations are hedged and how, see
+     * {@link com.example.spring.boot.rest.util.Hedger}.
+     */
+    public static class HedgeSettings {
+
+        private final List<String> operations;
+        private final double percentile;
+        private final int minDelay;
+        private final int maxDelay;
+        private final int maxRatePercent;
+        private final int interval;
+        private final int minSamples;
+        private final int maxConcurrentCalls;
+
+        public HedgeSettings(List<String> operations, double percentile, int minDelay, int maxDelay,
+                int maxRatePercent, int interval, int minSamples, int maxConcurrentCalls) {
+            this.operations = Collections.unmodifiableList(new ArrayList<>(operations));
+            this.percentile = percentile;
+            this.minDelay = minDelay;
+            this.maxDelay = maxDelay;
+            this.maxRatePercent = maxRatePercent;
+            this.interval = interval;
+            this.minSamples = minSamples;
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        /**
+         * @return The local names of the request elements of the hedged
+         *         operations.
+         */
+        public List<String> getOperations() {
+            return this.operations;
+        }
+
+        public double getPercentile() {
+            return this.percentile;
+        }
+
+        public int getMinDelay() {
+            return this.minDelay;
+        }
+
+        public int getMaxDelay() {
+            return this.maxDelay;
+        }
+
+        public int getMaxRatePercent() {
+            return this.maxRatePercent;
+        }
+
+        public int getInterval() {
+            return this.interval;
+        }
+
+        public int getMinSamples() {
+            return this.minSamples;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return this.maxConcurrentCalls;
+        }
+
+    }
+
 }
@@ -1,24 +1,27 @@
 package com.example.spring.boot.soap.connector;
 
+import java.io.Closeable;
+import java.net.URI;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponseInterceptor;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
-import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.slf4j.Logger;
@@ -33,9 +36,16 @@ import org.springframework.stereotype.Component;
 import org.springframework.ws.client.support.interceptor.ClientInterceptor;
 import org.springframework.ws.soap.security.AbstractWsSecurityInterceptor;
 import org.springframework.ws.soap.security.wss4j.Wss4jSecurityInterceptor;
+import org.springframework.ws.transport.WebServiceMessageSender;
 import org.springframework.ws.transport.http.HttpComponentsMessageSender;
 
 import com.example.spring.boot.rest.exception.ServiceException;
+import com.example.spring.boot.rest.util.AdaptiveTimeout;
+import com.example.spring.boot.rest.util.CircuitBreaker;
+import com.example.spring.boot.rest.util.ClientRegistry;
+import com.example.spring.boot.rest.util.Hedger;
+import com.example.spring.boot.rest.util.LoadBalancer;
+import com.example.spring.boot.rest.util.RegisteredClient;
 
 /**
  * This is the Base SOAP client factory. This factory creates and stores SOAP
@@ -45,6 +55,19 @@ import com.example.spring.boot.rest.exception.ServiceException;
  * the client creation process does an application context scan for interceptors
  * to use. This will also ensure that a properties refresh event will trigger
  * new clients to be created with any new values.
+ * <p>
+ * Clients are kept in a {@link ClientRegistry}: concurrent first lookups of the
+ * same ID build a single client, and the connection pools of clients that are
+ * refreshed, removed, or left over at context shutdown are closed.
+ * </p>
+ * <p>
+ * The HTTP client itself does not retry: every client gets a
+ * {@link SoapClientResilience} which retries within a budget and, if
+ * configured, adds a circuit breaker and an adaptive read timeout. Clients
+ * with <code>hedge</code> properties also get a {@link Hedger} for the
+ * operations listed there, and clients with <code>endpoints</code> a
+ * {@link LoadBalancer} over them.
+ * </p>
  * 
  * @author mlahariya
  * @version 1.0, Jan 2017
@@ -61,7 +84,7 @@ public class SoapClientFactory {
     @Resource
     private ApplicationContext appContext;
 
-    private Map<String, SoapClient> clientMap = new HashMap<>();
+    private final ClientRegistry<SoapClient> clientRegistry = new ClientRegistry<>();
 
     /**
      * Creates and stores a SOAP client. If a client with a specific ID was
@@ -74,10 +97,44 @@ public class SoapClientFactory {
      * @return
      */
     public SoapClient getClient(String id) {
-        if (!this.clientMap.containsKey(id)) {
-            this.clientMap.put(id, this.createClient(id));
-        }
-        return this.clientMap.get(id);
+        return this.clientRegistry.get(id, this::createClient);
+    }
+
+    /**
+     * Recreates a SOAP client from the current property values and closes the
+     * connection pool of the client it replaces.
+     * 
+     * @param id
+     *            The ID of the client to recreate.
+     * @return The new client.
+     */
+    public SoapClient refreshClient(String id) {
+        return this.clientRegistry.replace(this.createClient(id));
+    }
+
+    /**
+     * Removes a SOAP client and closes its connection pool.
+     * 
+     * @param id
+     *            The ID of the client to remove.
+     * @return <code>true</code> if the client existed.
+     */
+    public boolean removeClient(String id) {
+        return this.clientRegistry.remove(id);
+    }
+
+    /**
+     * @return The live clients created by this factory, by ID, with their
+     *         connection pool statistics.
+     */
+    public Map<String, RegisteredClient<SoapClient>> getClients() {
+        return this.clientRegistry.getClients();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        LOG.info("Closing {} SOAP client(s).", this.clientRegistry.getClients().size());
+        this.clientRegistry.closeAll();
     }
 
     /**
@@ -86,9 +143,10 @@ public class SoapClientFactory {
      * @param id
      *            The ID of the client to create, used to retrieve the
      *            properties that define the client's functionality.
-     * @return A fully initialized client.
+     * @return A fully initialized client, registered with the transport
+     *         resources it owns.
      */
-    protected SoapClient createClient(String id) {
+    protected RegisteredClient<SoapClient> createClient(String id) {
         Map<String, SoapClientConfiguration> configMap = this.getConfigurations();
         SoapClientConfiguration config = configMap.get(id);
         if (config == null) {
@@ -101,11 +159,37 @@ public class SoapClientFactory {
         ServiceConfigurationGroup propGrp = serviceConfig.getStringGroup(prefix + id);
         config.setProperties(propGrp);
         String defaultUri = config.getEndpoint();
+        if (StringUtils.isBlank(defaultUri) && !config.getEndpoints().isEmpty()) {
+            defaultUri = config.getEndpoints().get(0);
+        }
         SoapClient newClient = new SoapClient();
         if (StringUtils.isNotBlank(defaultUri)) {
             newClient.setDefaultUri(defaultUri);
         }
-        return this.initializeClient(newClient, config);
+        newClient = this.initializeClient(newClient, config);
+        SoapClientResilience resilience = this.createResilience(id, config);
+        newClient.setResilience(resilience);
+        if (!config.getEndpoints().isEmpty()) {
+            newClient.setLoadBalancer(this.createLoadBalancer(id, config));
+            if (resilience.getCircuitBreaker() != null) {
+                newClient.getLoadBalancer().checkBreaker(resilience.getCircuitBreaker());
+            }
+            LOG.info("SOAP client {}: balancing {} over {}", id, newClient.getDefaultUri(), config.getEndpoints());
+        }
+        SoapClientConfiguration.HedgeSettings hedge = config.getHedgeSettings();
+        if (hedge != null) {
+            newClient.setHedger(this.createHedger(id, hedge), hedge.getOperations());
+            LOG.info("SOAP client {}: hedging {}", id, hedge.getOperations());
+        }
+        for (WebServiceMessageSender messageSender : newClient.getMessageSenders()) {
+            if (messageSender instanceof PooledHttpMessageSender) {
+                PooledHttpMessageSender pooledSender = (PooledHttpMessageSender) messageSender;
+                pooledSender.setResilience(resilience);
+                return new RegisteredClient<>(id, newClient, pooledSender.getConnectionManager(),
+                        (Closeable) pooledSender.getHttpClient());
+            }
+        }
+        return new RegisteredClient<>(id, newClient);
     }
 
     /**
@@ -137,19 +221,103 @@ public class SoapClientFactory {
             requestConfigBuilder.setCookieSpec(CookieSpecs.IGNORE_COOKIES);
         }
 
-        HttpClientBuilder builder = HttpClientBuilder.create().setDefaultRequestConfig(requestConfigBuilder.build())
-                .addInterceptorFirst(new HttpComponentsMessageSender.RemoveSoapHeadersInterceptor());
-        builder.setRetryHandler(new DefaultHttpRequestRetryHandler(1, true));
+        RequestConfig requestConfig = requestConfigBuilder.build();
+
+        // retries are made by the resilience layer, within its budget
+        HttpClientBuilder builder = HttpClientBuilder.create().setDefaultRequestConfig(requestConfig)
+                .addInterceptorFirst(new HttpComponentsMessageSender.RemoveSoapHeadersInterceptor())
+                .addInterceptorLast(this.bufferResponses()).disableAutomaticRetries();
         this.addProxy(builder, config);
-        this.addPooling(builder, config);
+        PoolingHttpClientConnectionManager connectionManager = this.addPooling(builder, config);
 
-        HttpComponentsMessageSender messageSender = new HttpComponentsMessageSender();
-        messageSender.setHttpClient(builder.build());
-        client.setMessageSender(messageSender);
+        client.setMessageSender(new PooledHttpMessageSender(builder.build(), connectionManager, requestConfig));
+
+        if (!config.getCacheSettings().isEmpty()) {
+            client.setResponseCache(new SoapResponseCache(config.getCacheSettings()));
+            LOG.info("Caching the responses of {} for {}.", config.getCacheSettings().keySet(),
+                    client.getDefaultUri());
+        }
 
         return client;
     }
 
+    /**
+     * Reads the whole response before it is handed to the message factory, so
+     * that a read timeout fails the exchange as an I/O error, which is
+     * retried, rather than in the middle of parsing. The SAAJ parsers of the
+     * JDK are pooled and not given back when a parse fails, so timeouts while
+     * parsing would eventually block every SOAP message of the application.
+     * 
+     * @return The response interceptor.
+     */
+    protected HttpResponseInterceptor bufferResponses() {
+        return (response, context) -> {
+            if (response.getEntity() != null) {
+                response.setEntity(new BufferedHttpEntity(response.getEntity()));
+            }
+        };
+    }
+
+    /**
+     * Override to change the circuit breaker, retries and timeouts of
+     * factory-made clients.
+     * 
+     * @param id
+     *            The ID of the client.
+     * @param config
+     *            The client configuration.
+     * @return The resilience layer of the client.
+     */
+    protected SoapClientResilience createResilience(String id, SoapClientConfiguration config) {
+        SoapClientConfiguration.BreakerSettings breaker = config.getBreakerSettings();
+        CircuitBreaker circuitBreaker = (breaker == null ? null : new CircuitBreaker(id, breaker.getWindowSize(),
+                breaker.getMinimumCalls(), breaker.getFailureRateThreshold(), breaker.getSlowCallDuration(),
+                breaker.getSlowCallRateThreshold(), breaker.getOpenDuration(), breaker.getHalfOpenCalls()));
+        SoapClientConfiguration.AdaptiveTimeoutSettings timeout = config.getAdaptiveTimeoutSettings();
+        AdaptiveTimeout adaptiveTimeout = (timeout == null ? null : new AdaptiveTimeout(id, timeout.getPercentile(),
+                timeout.getMultiplier(), timeout.getMin(), config.getReadTimeout(), timeout.getInterval(),
+                timeout.getMinSamples()));
+        LOG.info("SOAP client {}: breaker={}, maxRetries={}, adaptiveTimeout={}", id, circuitBreaker != null,
+                config.getRetrySettings().getMaxRetries(), adaptiveTimeout != null);
+        return new SoapClientResilience(id, circuitBreaker, config.getRetrySettings(), adaptiveTimeout);
+    }
+
+    /**
+     * Override to change the load balancing of factory-made clients with
+     * <code>endpoints</code>.
+     * 
+     * @param id
+     *            The ID of the client.
+     * @param config
+     *            The client configuration.
+     * @return A new load balancer.
+     */
+    protected LoadBalancer createLoadBalancer(String id, SoapClientConfiguration config) {
+        List<URI> endpoints = new ArrayList<>();
+        for (String endpoint : config.getEndpoints()) {
+            endpoints.add(URI.create(endpoint));
+        }
+        SoapClientConfiguration.LoadBalancerSettings balancer = config.getLoadBalancerSettings();
+        return new LoadBalancer(id, endpoints, balancer.getPolicy(), balancer.getWindowSize(),
+                balancer.getMinimumCalls(), balancer.getFailureRateThreshold(), balancer.getEjectionTime(),
+                balancer.getMaxEjectionPercent(), balancer.getDecayTime());
+    }
+
+    /**
+     * Override to change the hedging of factory-made clients with
+     * <code>hedge</code> properties.
+     * 
+     * @param id
+     *            The ID of the client.
+     * @param hedge
+     *            The hedge settings of the client.
+     * @return A new hedger.
+     */
+    protected Hedger createHedger(String id, SoapClientConfiguration.HedgeSettings hedge) {
+        return new Hedger(id, hedge.getPercentile(), hedge.getMinDelay(), hedge.getMaxDelay(), hedge.getInterval(),
+                hedge.getMinSamples(), hedge.getMaxRatePercent(), hedge.getMaxConcurrentCalls());
+    }
+
     /**
      * Override to change what marshaller is added to factory-made clients.
      * Default behaviour is to check the configuration for the fully qualified
@@ -306,16 +474,22 @@ public class SoapClientFactory {
     }
 
     /**
+     * Adds a connection pool to the client. Expired connections and
+     * connections idle for longer than the configured idle timeout are evicted
+     * by a background thread which stops when the client is closed.
      * 
      * @param builder
      * @param config
+     * @return The connection pool of the client.
      */
-    protected void addPooling(HttpClientBuilder builder, SoapClientConfiguration config) {
+    protected PoolingHttpClientConnectionManager addPooling(HttpClientBuilder builder, SoapClientConfiguration config) {
         PoolingHttpClientConnectionManager clientManager = new PoolingHttpClientConnectionManager();
         clientManager.setDefaultMaxPerRoute(config.getPoolMaxRouteConnections());
         clientManager.setMaxTotal(config.getPoolMaxTotalConnections());
-        clientManager.closeIdleConnections(config.getPoolIdleTimout(), TimeUnit.MILLISECONDS);
         builder.setConnectionManager(clientManager);
+        builder.evictExpiredConnections().evictIdleConnections((long) config.getPoolIdleTimout(),
+                TimeUnit.MILLISECONDS);
+        return clientManager;
     }
 
     /**
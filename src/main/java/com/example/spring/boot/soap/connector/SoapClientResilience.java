@@ -0,0 +1,244 @@
+package com.example.spring.boot.soap.connector;
+
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ws.client.WebServiceIOException;
+import org.springframework.ws.client.WebServiceTransportException;
+import org.springframework.ws.soap.client.SoapFaultClientException;
+
+import com.example.spring.boot.rest.util.AdaptiveTimeout;
+import com.example.spring.boot.rest.util.CircuitBreaker;
+import com.example.spring.boot.rest.util.RetryBudget;
+
+/**
+ * Guards the exchanges of a {@link SoapClient} with the service:
+ * <ul>
+ * <li>an optional {@link CircuitBreaker} fails them at once while the service
+ * keeps failing or answering slowly;</li>
+ * <li>an exchange failing on I/O is retried up to <code>maxRetries</code>
+ * times, after a backoff drawn at random below
+ * <code>backoff * 2^(retry - 1)</code> (capped at <code>maxBackoff</code>) so
+ * that callers failing together do not retry together, and only while the
+ * {@link RetryBudget} allows;</li>
+ * <li>an optional {@link AdaptiveTimeout} learns the read timeout from the
+ * observed latencies, applied by the {@link PooledHttpMessageSender}.</li>
+ * </ul>
+ * As with the retry handler of the HTTP client it replaces, an exchange is
+ * only retried if the request cannot have reached the service, i.e. the
+ * connection was refused or not made in time, unless the operation is one of
+ * the <code>idempotentOperations</code>: a read timeout, a reset connection or
+ * an HTTP error may come after the service processed the request.
+ * <p>
+ * The adaptive timeout is fed the exchanges that got an answer and those that
+ * timed out; failures to connect say nothing about the latency of the service.
+ * </p>
+ * SOAP faults are answers of the service: they are neither retried nor
+ * counted as failures by the breaker.
+ * <p>
+ * The breaker counts a call once, by the outcome and latency of its last
+ * exchange: a retry goes to the endpoint the load balancer of the client
+ * picks again, so a call that failed on an endpoint being ejected and then
+ * succeeded on another does not count as failed.
+ * </p>
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class SoapClientResilience {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SoapClientResilience.class);
+
+    private final String name;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final RetryBudget retryBudget;
+
+    private final int maxRetries;
+
+    private final int backoff;
+
+    private final int maxBackoff;
+
+    private final AdaptiveTimeout adaptiveTimeout;
+
+    private final Set<String> idempotentOperations;
+
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * @param circuitBreaker
+     *            The breaker, or <code>null</code> for none.
+     * @param adaptiveTimeout
+     *            The timeout, or <code>null</code> for the fixed read timeout
+     *            of the client.
+     */
+    public SoapClientResilience(String name, CircuitBreaker circuitBreaker,
+            SoapClientConfiguration.RetrySettings retrySettings, AdaptiveTimeout adaptiveTimeout) {
+        this.name = name;
+        this.circuitBreaker = circuitBreaker;
+        this.maxRetries = Math.max(retrySettings.getMaxRetries(), 0);
+        this.retryBudget = new RetryBudget(retrySettings.getBudgetPercent(), retrySettings.getMinRetriesPerSecond());
+        this.backoff = retrySettings.getBackoff();
+        this.maxBackoff = retrySettings.getMaxBackoff();
+        this.adaptiveTimeout = adaptiveTimeout;
+        this.idempotentOperations = Collections.unmodifiableSet(
+                new HashSet<>(retrySettings.getIdempotentOperations()));
+    }
+
+    /**
+     * Runs the exchange, retrying it if allowed.
+     *
+     * @param idempotent
+     *            <code>true</code> if the exchange may be retried although
+     *            the service may have processed the request.
+     * @param hedge
+     *            <code>true</code> for the hedge of a request already sent,
+     *            which the retry budget does not count as another call.
+     * @throws com.example.spring.boot.rest.exception.FrameworkError
+     *             If the breaker is open.
+     */
+    public <T> T execute(Supplier<T> exchange, boolean idempotent, boolean hedge) {
+        if (!hedge) {
+            this.retryBudget.onCall();
+        }
+        long permission = (this.circuitBreaker == null ? 0 : this.circuitBreaker.acquirePermission());
+        for (int retry = 0;; retry++) {
+            long start = System.nanoTime();
+            try {
+                T result = exchange.get();
+                this.onResult(permission, System.nanoTime() - start, null, true);
+                return result;
+            } catch (SoapFaultClientException e) {
+                this.onResult(permission, System.nanoTime() - start, null, true);
+                throw e;
+            } catch (RuntimeException | Error e) {
+                long nanos = System.nanoTime() - start;
+                boolean last = (!(e instanceof WebServiceIOException) || !(idempotent || isNotSent(e))
+                        || retry >= this.maxRetries || !this.retryBudget.tryRetry() || !this.backOff(retry + 1));
+                this.onResult(permission, nanos, e, last);
+                if (last) {
+                    throw e;
+                }
+                this.retries.increment();
+                LOG.debug("Retrying the call to {} after: {}", this.name, e.toString());
+            }
+        }
+    }
+
+    /**
+     * @param operation
+     *            The local name of the request element.
+     * @return <code>true</code> if the operation is retried after a timeout.
+     */
+    public boolean isIdempotent(String operation) {
+        return this.idempotentOperations.contains(operation);
+    }
+
+    /**
+     * @return The read timeout to apply to the next exchange, or
+     *         <code>null</code> for the fixed read timeout of the client.
+     */
+    public Integer getReadTimeout() {
+        return (this.adaptiveTimeout == null ? null : this.adaptiveTimeout.getTimeout());
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    public RetryBudget getRetryBudget() {
+        return this.retryBudget;
+    }
+
+    public AdaptiveTimeout getAdaptiveTimeout() {
+        return this.adaptiveTimeout;
+    }
+
+    /**
+     * @return The number of retries made.
+     */
+    public long getRetries() {
+        return this.retries.sum();
+    }
+
+    /**
+     * @param failure
+     *            The exception of the exchange, <code>null</code> if it got an
+     *            answer.
+     * @param last
+     *            <code>false</code> if the exchange is retried, which the
+     *            breaker does not count.
+     */
+    private void onResult(long permission, long nanos, Throwable failure, boolean last) {
+        if (this.circuitBreaker != null && last) {
+            this.circuitBreaker.onResult(permission, nanos, failure != null);
+        }
+        if (this.adaptiveTimeout != null && (failure == null || failure instanceof WebServiceTransportException
+                || isTimeout(failure))) {
+            this.adaptiveTimeout.record(nanos);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the exchange failed before the request was
+     *         sent.
+     */
+    static boolean isNotSent(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException
+                    || cause instanceof NoRouteToHostException || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return <code>true</code> if the exchange timed out waiting for the
+     *         answer.
+     */
+    static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectTimeoutException) {
+                return false;
+            }
+            if (cause instanceof InterruptedIOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return <code>false</code> if interrupted while waiting.
+     */
+    private boolean backOff(int retry) {
+        long ceiling = Math.min(this.maxBackoff, (long) this.backoff << Math.min(retry - 1, 30));
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.example.spring.boot.soap.connector;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.oxm.Marshaller;
+
+import com.example.spring.boot.rest.exception.ServiceException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Memoises the responses of the idempotent operations of a {@link SoapClient}.
+ * An operation is named by the root element of its request payload, e.g.
+ * <code>sum</code>, and is cached only if configured under
+ * <code>soapclient.def.&lt;id&gt;.cache.&lt;operation&gt;.*</code>:
+ *
+ * <pre>
+ * soapclient.def.mathscalculatorservice.cache.sum.maximumSize=1000
+ * soapclient.def.mathscalculatorservice.cache.sum.expireAfterWrite=3600000
+ * </pre>
+ *
+ * Responses are keyed by the endpoint and the marshalled request, so equal
+ * requests hit the same entry whatever object they were built from.
+ * Concurrent misses of one request send it once. Faults and other failures
+ * are not cached. Cached responses are shared between callers and must be
+ * treated as read-only.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class SoapResponseCache {
+
+    private final Map<String, Cache<String, Object>> caches = new LinkedHashMap<>();
+
+    /**
+     * @param operations
+     *            The cached operations, by the local name of their request
+     *            element.
+     */
+    public SoapResponseCache(Map<String, SoapClientConfiguration.CacheSettings> operations) {
+        operations.forEach((operation, settings) -> this.caches.put(operation, CacheBuilder.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getExpireAfterWrite(), TimeUnit.MILLISECONDS).recordStats().build()));
+    }
+
+    /**
+     * @return <code>true</code> if the responses to the payload are cached.
+     */
+    public boolean isCached(Object requestPayload) {
+        return this.caches.containsKey(operationOf(requestPayload));
+    }
+
+    /**
+     * Returns the cached response to the request, or sends it.
+     *
+     * @param marshaller
+     *            The marshaller of the client, to build the key.
+     * @param send
+     *            Sends the request and returns the response.
+     */
+    public Object get(String uri, Object requestPayload, Marshaller marshaller, Supplier<Object> send) {
+        Cache<String, Object> cache = this.caches.get(operationOf(requestPayload));
+        if (cache == null) {
+            return send.get();
+        }
+        String key = uri + '\n' + marshal(marshaller, requestPayload);
+        try {
+            return cache.get(key, () -> {
+                Object response = send.get();
+                if (response == null) {
+                    // nothing to cache, let the caller see the empty response
+                    throw new EmptyResponse();
+                }
+                return response;
+            });
+        } catch (UncheckedExecutionException | ExecutionError | ExecutionException e) {
+            if (e.getCause() instanceof EmptyResponse) {
+                return null;
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new ServiceException("SOAP response cache failed for " + uri, e);
+        }
+    }
+
+    /**
+     * Drops all cached responses.
+     */
+    public void invalidateAll() {
+        this.caches.values().forEach(Cache::invalidateAll);
+    }
+
+    /**
+     * @return The statistics of every cached operation.
+     */
+    public Map<String, CacheStats> getStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        this.caches.forEach((operation, cache) -> stats.put(operation, cache.stats()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * @return The number of cached responses per operation.
+     */
+    public Map<String, Long> getSizes() {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        this.caches.forEach((operation, cache) -> sizes.put(operation, cache.size()));
+        return Collections.unmodifiableMap(sizes);
+    }
+
+    /**
+     * @return The local name of the request element of the payload.
+     */
+    static String operationOf(Object requestPayload) {
+        if (requestPayload instanceof JAXBElement) {
+            return ((JAXBElement<?>) requestPayload).getName().getLocalPart();
+        }
+        XmlRootElement root = requestPayload.getClass().getAnnotation(XmlRootElement.class);
+        if (root != null && !"##default".equals(root.name())) {
+            return root.name();
+        }
+        return StringUtils.uncapitalize(requestPayload.getClass().getSimpleName());
+    }
+
+    private static String marshal(Marshaller marshaller, Object requestPayload) {
+        StringWriter writer = new StringWriter();
+        try {
+            marshaller.marshal(requestPayload, new StreamResult(writer));
+        } catch (IOException e) {
+            throw new ServiceException("Could not marshal the request to build its cache key.", e);
+        }
+        return writer.toString();
+    }
+
+    @SuppressWarnings("serial")
+    private static class EmptyResponse extends RuntimeException {
+
+        EmptyResponse() {
+            super(null, null, false, false);
+        }
+
+    }
+
+}
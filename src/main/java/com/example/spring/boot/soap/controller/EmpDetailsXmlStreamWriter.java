@@ -0,0 +1,106 @@
+package com.example.spring.boot.soap.controller;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+import com.example.spring.boot.rest.types.EmpDetails;
+
+/**
+ * Writes a SOAP response listing employees, such as
+ * <code>selectAllEmpAllDataResponse</code>, with a StAX writer, one
+ * <code>return</code> element per employee as they are handed over. The output
+ * is the same as marshalling the JAXB response object, without building the
+ * object graph first.
+ * <p>
+ * The StAX writer is only obtained, and the response element only started,
+ * when the first employee arrives, so a request failing before that can
+ * still be answered with a fault.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class EmpDetailsXmlStreamWriter implements Consumer<EmpDetails> {
+
+    public static final String NAMESPACE_URI = "http://dm.xml.soap.sample.com/";
+
+    private static final String PREFIX = "ns2";
+
+    private final Supplier<XMLStreamWriter> writerSupplier;
+
+    private final String responseElement;
+
+    private XMLStreamWriter writer;
+
+    /**
+     * @param writerSupplier
+     *            Supplies the writer to write the response to.
+     * @param responseElement
+     *            The local name of the response element.
+     */
+    public EmpDetailsXmlStreamWriter(Supplier<XMLStreamWriter> writerSupplier, String responseElement) {
+        this.writerSupplier = writerSupplier;
+        this.responseElement = responseElement;
+    }
+
+    @Override
+    public void accept(EmpDetails empDetails) {
+        try {
+            this.start();
+            this.writer.writeStartElement("return");
+            writeElement("address", empDetails.getAddress());
+            writeElement("city", empDetails.getCity());
+            writeElement("email", empDetails.getEmail());
+            writeElement("firstName", empDetails.getFirstName());
+            writeElement("id", Integer.toString(empDetails.getId()));
+            writeElement("lastName", empDetails.getLastName());
+            writeElement("mobile", empDetails.getMobile());
+            this.writer.writeEndElement();
+        } catch (XMLStreamException xsEx) {
+            throw this.writeError(xsEx);
+        }
+    }
+
+    /**
+     * Ends the response element, writing an empty response if no employee was
+     * handed over. Only to be called once all employees have been written
+     * successfully.
+     */
+    public void finish() {
+        try {
+            this.start();
+            this.writer.writeEndElement();
+            this.writer.flush();
+        } catch (XMLStreamException xsEx) {
+            throw this.writeError(xsEx);
+        }
+    }
+
+    private void start() throws XMLStreamException {
+        if (this.writer == null) {
+            this.writer = this.writerSupplier.get();
+            this.writer.setPrefix(PREFIX, NAMESPACE_URI);
+            this.writer.writeStartElement(PREFIX, this.responseElement, NAMESPACE_URI);
+            this.writer.writeNamespace(PREFIX, NAMESPACE_URI);
+        }
+    }
+
+    private void writeElement(String localName, String value) throws XMLStreamException {
+        // JAXB leaves out null fields
+        if (value != null) {
+            this.writer.writeStartElement(localName);
+            this.writer.writeCharacters(value);
+            this.writer.writeEndElement();
+        }
+    }
+
+    private FrameworkError writeError(XMLStreamException xsEx) {
+        return new FrameworkError(ErrorCode.CS_1016.getValue(), new Object[] { this.responseElement }, null, xsEx);
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.example.spring.boot.soap.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.server.endpoint.adapter.DefaultMethodEndpointAdapter;
+import org.springframework.ws.server.endpoint.adapter.method.MarshallingPayloadMethodProcessor;
+import org.springframework.ws.server.endpoint.adapter.method.MethodArgumentResolver;
+import org.springframework.ws.server.endpoint.adapter.method.MethodReturnValueHandler;
+
+import com.example.spring.boot.soap.connector.JaxbContextRegistry;
+import com.example.spring.boot.soap.connector.PooledJaxb2Marshaller;
+import com.example.spring.boot.soap.connector.ServiceConfiguration;
+
+/**
+ * Lets the endpoints read their JAXB request payloads and write their
+ * responses with the shared {@link PooledJaxb2Marshaller} of
+ * <code>soap.jaxb.endpointContextPath</code>. Out of the box Spring WS
+ * creates a new JAXB marshaller or unmarshaller for every payload.
+ * <p>
+ * The marshalling processor is put in front of the default ones, which Spring
+ * WS would otherwise ask first; payload types outside the context path are
+ * still handled by the defaults.
+ *
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+@Component
+public class EndpointMarshallingConfigurer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EndpointMarshallingConfigurer.class);
+
+    public static final String KEY_ENDPOINT_CONTEXT_PATH = "soap.jaxb.endpointContextPath";
+
+    @Autowired
+    private DefaultMethodEndpointAdapter defaultMethodEndpointAdapter;
+
+    @Resource(name = "jaxbContextRegistry")
+    private JaxbContextRegistry jaxbContextRegistry;
+
+    @Resource
+    private ServiceConfiguration serviceConfig;
+
+    @PostConstruct
+    public void init() {
+        String contextPath = this.serviceConfig.getString(KEY_ENDPOINT_CONTEXT_PATH);
+        if (StringUtils.isBlank(contextPath)) {
+            return;
+        }
+        PooledJaxb2Marshaller marshaller = this.jaxbContextRegistry.getMarshaller(contextPath);
+        MarshallingPayloadMethodProcessor processor = new MarshallingPayloadMethodProcessor(marshaller, marshaller);
+
+        List<MethodArgumentResolver> resolvers = new ArrayList<>(
+                this.defaultMethodEndpointAdapter.getMethodArgumentResolvers());
+        resolvers.add(0, processor);
+        this.defaultMethodEndpointAdapter.setMethodArgumentResolvers(resolvers);
+
+        List<MethodReturnValueHandler> handlers = new ArrayList<>(
+                this.defaultMethodEndpointAdapter.getMethodReturnValueHandlers());
+        handlers.add(0, processor);
+        this.defaultMethodEndpointAdapter.setMethodReturnValueHandlers(handlers);
+        LOG.info("SOAP endpoint payloads of {} use the pooled marshaller.", contextPath);
+    }
+
+}
@@ -2,21 +2,41 @@ package com.example.spring.boot.soap.controller;
 
 import java.util.List;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.Result;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.ws.WebServiceMessage;
 import org.springframework.ws.context.MessageContext;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
 import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
+import org.springframework.ws.stream.StreamingPayload;
+import org.springframework.ws.stream.StreamingWebServiceMessage;
 
 import com.example.spring.boot.rest.service.DmServiceInterface;
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+import com.example.spring.boot.rest.types.EmpAddress;
+import com.example.spring.boot.rest.types.EmpConfigResult;
 import com.example.spring.boot.rest.types.EmpDetails;
+import com.example.spring.boot.soap.connector.ServiceConfiguration;
 import com.sample.soap.xml.dm.QueryEmpConfigs;
+import com.sample.soap.xml.dm.QueryEmpConfigsBatch;
+import com.sample.soap.xml.dm.QueryEmpConfigsBatchResponse;
 import com.sample.soap.xml.dm.QueryEmpConfigsResponse;
 import com.sample.soap.xml.dm.SelectAllEmpAllData;
+import com.sample.soap.xml.dm.SelectAllEmpAllDataPage;
+import com.sample.soap.xml.dm.SelectAllEmpAllDataPageResponse;
 import com.sample.soap.xml.dm.SelectAllEmpAllDataResponse;
 
 /**
@@ -32,9 +52,33 @@ public class SpringBootExternalSoapServiceController {
 
     private static final Logger logger = LoggerFactory.getLogger(SpringBootExternalSoapServiceController.class);
 
+    private static final String SELECT_ALL_EMP_ALL_DATA_RESPONSE = "selectAllEmpAllDataResponse";
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    public static final String KEY_STREAMING = "dm.soap.streaming.enabled";
+
     @Autowired
     private DmServiceInterface dmService;
 
+    @Resource
+    private ServiceConfiguration serviceConfig;
+
+    private boolean streaming;
+
+    @PostConstruct
+    public void init() {
+        this.streaming = this.serviceConfig.getBoolean(KEY_STREAMING, false);
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
     /**
      * This method is use to consume soap request and internally calling
      * business processing for the queryEmpConfigs operation
@@ -61,9 +105,45 @@ public class SpringBootExternalSoapServiceController {
         return SpringBootExternalSoapServiceResponseMapper.mapQueryEmpConfigsSoapResponse(restImplResponse);
     }
 
+    /**
+     * This method is use to consume soap request and internally calling
+     * business processing for the queryEmpConfigsBatch operation
+     * 
+     * @param QueryEmpConfigsBatch
+     * @param MessageContext
+     * @return QueryEmpConfigsBatchResponse
+     */
+
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "queryEmpConfigsBatch")
+    @ResponsePayload
+    public QueryEmpConfigsBatchResponse queryEmpConfigsBatch(@RequestPayload QueryEmpConfigsBatch queryEmpConfigsBatch,
+            MessageContext messageContext) throws Exception {
+
+        logger.info("SOAP Request Received Of queryEmpConfigsBatch " + queryEmpConfigsBatch);
+
+        List<EmpConfigResult> restImplResponse = dmService.queryEmpConfigsBatch(SpringBootExternalSoapServiceRequestMapper
+                .mapQueryEmpConfigsBatchSoapRequest(queryEmpConfigsBatch));
+
+        if (logger.isDebugEnabled())
+            logger.debug("Returning Response for queryEmpConfigsBatch");
+
+        return SpringBootExternalSoapServiceResponseMapper.mapQueryEmpConfigsBatchSoapResponse(restImplResponse);
+    }
+
     /**
      * This method is use to consume soap request and internally calling
      * business processing for the selectAllEmpAllData operation
+     * <p>
+     * With <code>dm.soap.streaming.enabled=true</code> the employees are
+     * written into the response payload while they are read from the
+     * database and <code>null</code> is returned, as the response has
+     * already been written. If the response is a
+     * {@link StreamingWebServiceMessage}, as with
+     * <code>dm.soap.messageFactory=axiom</code>, the employees are only read
+     * when the response is sent and go straight to the connection, so the
+     * response takes no memory whatever its size. As with the REST stream, a
+     * failed lookup or one finding no employees then cuts the response short
+     * instead of returning a fault.
      * 
      * @param SelectAllEmpAllData
      * @param MessageContext
@@ -77,6 +157,18 @@ public class SpringBootExternalSoapServiceController {
 
         logger.info("SOAP Request Received Of selectAllEmpAddrData " + selectAllEmpAllData);
 
+        if (this.streaming && messageContext != null) {
+            EmpAddress empAddr = SpringBootExternalSoapServiceRequestMapper
+                    .mapSelectAllEmpAllDataSoapRequest(selectAllEmpAllData);
+            WebServiceMessage response = messageContext.getResponse();
+            if (response instanceof StreamingWebServiceMessage) {
+                ((StreamingWebServiceMessage) response).setStreamingPayload(new SelectAllEmpAllDataPayload(empAddr));
+            } else {
+                this.streamSelectAllEmpAllData(empAddr, messageContext);
+            }
+            return null;
+        }
+
         List<EmpDetails> restImplResponse = dmService.selectAllEmpAllData(SpringBootExternalSoapServiceRequestMapper
                 .mapSelectAllEmpAllDataSoapRequest(selectAllEmpAllData));
 
@@ -87,4 +179,82 @@ public class SpringBootExternalSoapServiceController {
 
     }
 
+    /**
+     * This method is use to consume soap request and internally calling
+     * business processing for the selectAllEmpAllDataPage operation
+     * 
+     * @param SelectAllEmpAllDataPage
+     * @param MessageContext
+     * @return SelectAllEmpAllDataPageResponse
+     */
+
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "selectAllEmpAllDataPage")
+    @ResponsePayload
+    public SelectAllEmpAllDataPageResponse selectAllEmpAllDataPage(
+            @RequestPayload SelectAllEmpAllDataPage selectAllEmpAllDataPage, MessageContext messageContext)
+            throws Exception {
+
+        logger.info("SOAP Request Received Of selectAllEmpAllDataPage " + selectAllEmpAllDataPage);
+
+        com.example.spring.boot.rest.types.EmpDetailsPage restImplResponse = dmService
+                .selectAllEmpAllDataPage(SpringBootExternalSoapServiceRequestMapper
+                        .mapSelectAllEmpAllDataPageSoapRequest(selectAllEmpAllDataPage));
+
+        if (logger.isDebugEnabled())
+            logger.debug("Returning Response for selectAllEmpAllDataPage");
+
+        return SpringBootExternalSoapServiceResponseMapper.mapSelectAllEmpAllDataPageSoapResponse(restImplResponse);
+    }
+
+    private void streamSelectAllEmpAllData(EmpAddress empAddr, MessageContext messageContext) {
+
+        EmpDetailsXmlStreamWriter writer = new EmpDetailsXmlStreamWriter(
+                () -> createXmlStreamWriter(messageContext.getResponse().getPayloadResult()),
+                SELECT_ALL_EMP_ALL_DATA_RESPONSE);
+        int rowCount = dmService.streamAllEmpAllData(empAddr, writer);
+        writer.finish();
+
+        if (logger.isDebugEnabled())
+            logger.debug("Streamed " + rowCount + " employees for selectAllEmpAllData");
+    }
+
+    /**
+     * The selectAllEmpAllData response, read from the database while the
+     * response message is written out.
+     */
+    private class SelectAllEmpAllDataPayload implements StreamingPayload {
+
+        private final EmpAddress empAddr;
+
+        SelectAllEmpAllDataPayload(EmpAddress empAddr) {
+            this.empAddr = empAddr;
+        }
+
+        @Override
+        public QName getName() {
+            return new QName(NAMESPACE_URI, SELECT_ALL_EMP_ALL_DATA_RESPONSE);
+        }
+
+        @Override
+        public void writeTo(XMLStreamWriter streamWriter) throws XMLStreamException {
+            EmpDetailsXmlStreamWriter writer = new EmpDetailsXmlStreamWriter(() -> streamWriter,
+                    SELECT_ALL_EMP_ALL_DATA_RESPONSE);
+            int rowCount = dmService.streamAllEmpAllData(this.empAddr, writer);
+            writer.finish();
+
+            if (logger.isDebugEnabled())
+                logger.debug("Streamed " + rowCount + " employees for selectAllEmpAllData");
+        }
+
+    }
+
+    private static XMLStreamWriter createXmlStreamWriter(Result result) {
+        try {
+            return XML_OUTPUT_FACTORY.createXMLStreamWriter(result);
+        } catch (XMLStreamException xsEx) {
+            throw new FrameworkError(ErrorCode.CS_1016.getValue(), new Object[] { SELECT_ALL_EMP_ALL_DATA_RESPONSE },
+                    null, xsEx);
+        }
+    }
+
 }
@@ -22,6 +22,19 @@ public class SpringBootExternalSoapServiceRequestMapper {
 
     }
 
+    public static com.example.spring.boot.rest.types.EmpBatchRequest mapQueryEmpConfigsBatchSoapRequest(
+            com.sample.soap.xml.dm.QueryEmpConfigsBatch soapQueryEmpConfigsBatch) {
+
+        com.example.spring.boot.rest.types.EmpBatchRequest restEmpBatchRequest = new com.example.spring.boot.rest.types.EmpBatchRequest();
+        com.sample.soap.xml.dm.EmpBatchRequest soapEmpBatchRequest = soapQueryEmpConfigsBatch.getArg0();
+
+        if (null != soapEmpBatchRequest) {
+            restEmpBatchRequest.getIds().addAll(soapEmpBatchRequest.getIds());
+        }
+        return restEmpBatchRequest;
+
+    }
+
     public static com.example.spring.boot.rest.types.EmpAddress mapSelectAllEmpAllDataSoapRequest(
             com.sample.soap.xml.dm.SelectAllEmpAllData soapSelectAllEmpAllData) {
 
@@ -35,4 +48,19 @@ public class SpringBootExternalSoapServiceRequestMapper {
         return restEmpAddress;
     }
 
+    public static com.example.spring.boot.rest.types.EmpPageRequest mapSelectAllEmpAllDataPageSoapRequest(
+            com.sample.soap.xml.dm.SelectAllEmpAllDataPage soapSelectAllEmpAllDataPage) {
+
+        com.example.spring.boot.rest.types.EmpPageRequest restEmpPageRequest = new com.example.spring.boot.rest.types.EmpPageRequest();
+        com.sample.soap.xml.dm.EmpPageRequest soapEmpPageRequest = soapSelectAllEmpAllDataPage.getArg0();
+
+        if (null != soapEmpPageRequest) {
+            restEmpPageRequest.setAddress(soapEmpPageRequest.getAddress());
+            restEmpPageRequest.setPageSize(soapEmpPageRequest.getPageSize());
+            restEmpPageRequest.setContinuationToken(soapEmpPageRequest.getContinuationToken());
+        }
+
+        return restEmpPageRequest;
+    }
+
 }
@@ -4,6 +4,9 @@ import java.util.List;
 
 /**
  * This is the mapper class which converts rest response to soap response.
+ * <p>
+ * The employees are shared by both, so they are put into the SOAP response
+ * as they are rather than copied.
  * 
  * @author mlahariya
  * @version 1.0, Jan 2017
@@ -15,43 +18,60 @@ public class SpringBootExternalSoapServiceResponseMapper {
             com.example.spring.boot.rest.types.EmpDetails restEmpDetails) {
 
         com.sample.soap.xml.dm.QueryEmpConfigsResponse queryEmpConfigsSoapResponse = new com.sample.soap.xml.dm.QueryEmpConfigsResponse();
-        com.sample.soap.xml.dm.EmpDetails soapEmpDetails = new com.sample.soap.xml.dm.EmpDetails();
 
-        if (null != restEmpDetails) {
-            setDetails(soapEmpDetails, restEmpDetails);
-        }
-        queryEmpConfigsSoapResponse.setReturn(soapEmpDetails);
+        queryEmpConfigsSoapResponse.setReturn(null != restEmpDetails ? restEmpDetails
+                : new com.example.spring.boot.rest.types.EmpDetails());
 
         return queryEmpConfigsSoapResponse;
     }
 
+    public static com.sample.soap.xml.dm.QueryEmpConfigsBatchResponse mapQueryEmpConfigsBatchSoapResponse(
+            List<com.example.spring.boot.rest.types.EmpConfigResult> restEmpConfigResults) {
+
+        com.sample.soap.xml.dm.QueryEmpConfigsBatchResponse queryEmpConfigsBatchSoapResponse = new com.sample.soap.xml.dm.QueryEmpConfigsBatchResponse();
+        com.sample.soap.xml.dm.EmpConfigResult soapEmpConfigResult = null;
+
+        if (restEmpConfigResults != null) {
+
+            for (com.example.spring.boot.rest.types.EmpConfigResult restEmpConfigResult : restEmpConfigResults) {
+                soapEmpConfigResult = new com.sample.soap.xml.dm.EmpConfigResult();
+                soapEmpConfigResult.setId(restEmpConfigResult.getId());
+                soapEmpConfigResult.setFound(restEmpConfigResult.isFound());
+                soapEmpConfigResult.setEmpDetails(restEmpConfigResult.getEmpDetails());
+                queryEmpConfigsBatchSoapResponse.getReturn().add(soapEmpConfigResult);
+            }
+        }
+
+        return queryEmpConfigsBatchSoapResponse;
+    }
+
     public static com.sample.soap.xml.dm.SelectAllEmpAllDataResponse mapSelectAllEmpAllDataSoapResponse(
             List<com.example.spring.boot.rest.types.EmpDetails> restEmpDetailsList) {
 
         com.sample.soap.xml.dm.SelectAllEmpAllDataResponse soapSelectAllEmpAllDataResponse = new com.sample.soap.xml.dm.SelectAllEmpAllDataResponse();
-        com.sample.soap.xml.dm.EmpDetails soapEmpDetails = null;
 
         if (restEmpDetailsList != null && !restEmpDetailsList.isEmpty()) {
-
-            for (com.example.spring.boot.rest.types.EmpDetails restEmpDetails : restEmpDetailsList) {
-                soapEmpDetails = new com.sample.soap.xml.dm.EmpDetails();
-                setDetails(soapEmpDetails, restEmpDetails);
-                soapSelectAllEmpAllDataResponse.getReturn().add(soapEmpDetails);
-            }
+            soapSelectAllEmpAllDataResponse.getReturn().addAll(restEmpDetailsList);
         }
 
         return soapSelectAllEmpAllDataResponse;
     }
 
-    private static void setDetails(com.sample.soap.xml.dm.EmpDetails soapEmpDetails,
-            com.example.spring.boot.rest.types.EmpDetails restEmpDetails) {
-        soapEmpDetails.setId(restEmpDetails.getId());
-        soapEmpDetails.setFirstName(restEmpDetails.getFirstName());
-        soapEmpDetails.setLastName(restEmpDetails.getLastName());
-        soapEmpDetails.setAddress(restEmpDetails.getAddress());
-        soapEmpDetails.setCity(restEmpDetails.getCity());
-        soapEmpDetails.setEmail(restEmpDetails.getEmail());
-        soapEmpDetails.setMobile(restEmpDetails.getMobile());
+    public static com.sample.soap.xml.dm.SelectAllEmpAllDataPageResponse mapSelectAllEmpAllDataPageSoapResponse(
+            com.example.spring.boot.rest.types.EmpDetailsPage restEmpDetailsPage) {
+
+        com.sample.soap.xml.dm.SelectAllEmpAllDataPageResponse soapSelectAllEmpAllDataPageResponse = new com.sample.soap.xml.dm.SelectAllEmpAllDataPageResponse();
+        com.sample.soap.xml.dm.EmpDetailsPage soapEmpDetailsPage = new com.sample.soap.xml.dm.EmpDetailsPage();
+
+        if (null != restEmpDetailsPage) {
+            if (restEmpDetailsPage.getEmpDetails() != null) {
+                soapEmpDetailsPage.getEmpDetails().addAll(restEmpDetailsPage.getEmpDetails());
+            }
+            soapEmpDetailsPage.setContinuationToken(restEmpDetailsPage.getContinuationToken());
+        }
+        soapSelectAllEmpAllDataPageResponse.setReturn(soapEmpDetailsPage);
+
+        return soapSelectAllEmpAllDataPageResponse;
     }
 
 }
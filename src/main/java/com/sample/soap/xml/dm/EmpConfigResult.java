@@ -0,0 +1,100 @@
+package com.sample.soap.xml.dm;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+import com.example.spring.boot.rest.types.EmpDetails;
+
+/**
+ * <p>Java class for empConfigResult complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>
+ * &lt;complexType name="empConfigResult">
+ *   &lt;complexContent>
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       &lt;sequence>
+ *         &lt;element name="id" type="{http://www.w3.org/2001/XMLSchema}int"/>
+ *         &lt;element name="found" type="{http://www.w3.org/2001/XMLSchema}boolean"/>
+ *         &lt;element name="empDetails" type="{http://dm.xml.soap.sample.com/}empDetails" minOccurs="0"/>
+ *       &lt;/sequence>
+ *     &lt;/restriction>
+ *   &lt;/complexContent>
+ * &lt;/complexType>
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "empConfigResult", propOrder = {
+    "id",
+    "found",
+    "empDetails"
+})
+@XmlRootElement(name = "empConfigResult")
+public class EmpConfigResult {
+
+    protected int id;
+    protected boolean found;
+    protected EmpDetails empDetails;
+
+    /**
+     * Gets the value of the id property.
+     * 
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the value of the id property.
+     * 
+     */
+    public void setId(int value) {
+        this.id = value;
+    }
+
+    /**
+     * Gets the value of the found property.
+     * 
+     */
+    public boolean isFound() {
+        return found;
+    }
+
+    /**
+     * Sets the value of the found property.
+     * 
+     */
+    public void setFound(boolean value) {
+        this.found = value;
+    }
+
+    /**
+     * Gets the value of the empDetails property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link EmpDetails }
+     *     
+     */
+    public EmpDetails getEmpDetails() {
+        return empDetails;
+    }
+
+    /**
+     * Sets the value of the empDetails property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link EmpDetails }
+     *     
+     */
+    public void setEmpDetails(EmpDetails value) {
+        this.empDetails = value;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.sample.soap.xml.dm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+import com.example.spring.boot.rest.types.EmpDetails;
+
+/**
+ * <p>Java class for empDetailsPage complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>
+ * &lt;complexType name="empDetailsPage">
+ *   &lt;complexContent>
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       &lt;sequence>
+ *         &lt;element name="empDetails" type="{http://dm.xml.soap.sample.com/}empDetails" maxOccurs="unbounded" minOccurs="0"/>
+ *         &lt;element name="continuationToken" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
+ *       &lt;/sequence>
+ *     &lt;/restriction>
+ *   &lt;/complexContent>
+ * &lt;/complexType>
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "empDetailsPage", propOrder = {
+    "empDetails",
+    "continuationToken"
+})
+@XmlRootElement(name = "empDetailsPage")
+public class EmpDetailsPage {
+
+    protected List<EmpDetails> empDetails;
+    protected String continuationToken;
+
+    /**
+     * Gets the value of the empDetails property.
+     * 
+     * <p>
+     * This accessor method returns a reference to the live list,
+     * not a snapshot. Therefore any modification you make to the
+     * returned list will be present inside the JAXB object.
+     * This is why there is not a <CODE>set</CODE> method for the empDetails property.
+     * 
+     * <p>
+     * Objects of the following type(s) are allowed in the list
+     * {@link EmpDetails }
+     * 
+     * 
+     */
+    public List<EmpDetails> getEmpDetails() {
+        if (empDetails == null) {
+            empDetails = new ArrayList<EmpDetails>();
+        }
+        return this.empDetails;
+    }
+
+    /**
+     * Gets the value of the continuationToken property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * Sets the value of the continuationToken property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setContinuationToken(String value) {
+        this.continuationToken = value;
+    }
+
+}
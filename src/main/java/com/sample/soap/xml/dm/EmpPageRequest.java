@@ -0,0 +1,106 @@
+package com.sample.soap.xml.dm;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * <p>Java class for empPageRequest complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>
+ * &lt;complexType name="empPageRequest">
+ *   &lt;complexContent>
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       &lt;sequence>
+ *         &lt;element name="address" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
+ *         &lt;element name="pageSize" type="{http://www.w3.org/2001/XMLSchema}int"/>
+ *         &lt;element name="continuationToken" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
+ *       &lt;/sequence>
+ *     &lt;/restriction>
+ *   &lt;/complexContent>
+ * &lt;/complexType>
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "empPageRequest", propOrder = {
+    "address",
+    "pageSize",
+    "continuationToken"
+})
+@XmlRootElement(name = "empPageRequest")
+public class EmpPageRequest {
+
+    protected String address;
+    protected int pageSize;
+    protected String continuationToken;
+
+    /**
+     * Gets the value of the address property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Sets the value of the address property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setAddress(String value) {
+        this.address = value;
+    }
+
+    /**
+     * Gets the value of the pageSize property.
+     * 
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Sets the value of the pageSize property.
+     * 
+     */
+    public void setPageSize(int value) {
+        this.pageSize = value;
+    }
+
+    /**
+     * Gets the value of the continuationToken property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * Sets the value of the continuationToken property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setContinuationToken(String value) {
+        this.continuationToken = value;
+    }
+
+}
@@ -9,6 +9,8 @@ import javax.xml.bind.annotation.XmlSeeAlso;
 import javax.xml.ws.RequestWrapper;
 import javax.xml.ws.ResponseWrapper;
 
+import com.example.spring.boot.rest.types.EmpDetails;
+
 /**
  * This class was generated by the JAX-WS RI. JAX-WS RI 2.2.9-b130926.1035
  * Generated source version: 2.2
@@ -21,7 +23,7 @@ public interface MathsDbService {
     /**
      * 
      * @param arg0
-     * @return returns java.util.List<com.sample.soap.xml.dm.EmpDetails>
+     * @return returns java.util.List<com.example.spring.boot.rest.types.EmpDetails>
      */
     @WebMethod
     @WebResult(targetNamespace = "")
@@ -32,7 +34,18 @@ public interface MathsDbService {
     /**
      * 
      * @param arg0
-     * @return returns com.sample.soap.xml.dm.EmpDetails
+     * @return returns com.sample.soap.xml.dm.EmpDetailsPage
+     */
+    @WebMethod
+    @WebResult(targetNamespace = "")
+    @RequestWrapper(localName = "selectAllEmpAllDataPage", targetNamespace = "http://dm.xml.soap.sample.com/", className = "com.sample.soap.xml.dm.SelectAllEmpAllDataPage")
+    @ResponseWrapper(localName = "selectAllEmpAllDataPageResponse", targetNamespace = "http://dm.xml.soap.sample.com/", className = "com.sample.soap.xml.dm.SelectAllEmpAllDataPageResponse")
+    public EmpDetailsPage selectAllEmpAllDataPage(@WebParam(name = "arg0", targetNamespace = "") EmpPageRequest arg0);
+
+    /**
+     * 
+     * @param arg0
+     * @return returns com.example.spring.boot.rest.types.EmpDetails
      */
     @WebMethod
     @WebResult(targetNamespace = "")
@@ -40,4 +53,15 @@ public interface MathsDbService {
     @ResponseWrapper(localName = "queryEmpConfigsResponse", targetNamespace = "http://dm.xml.soap.sample.com/", className = "com.sample.soap.xml.dm.QueryEmpConfigsResponse")
     public EmpDetails queryEmpConfigs(@WebParam(name = "arg0", targetNamespace = "") EmpConfigIdentifier arg0);
 
+    /**
+     * 
+     * @param arg0
+     * @return returns java.util.List<com.sample.soap.xml.dm.EmpConfigResult>
+     */
+    @WebMethod
+    @WebResult(targetNamespace = "")
+    @RequestWrapper(localName = "queryEmpConfigsBatch", targetNamespace = "http://dm.xml.soap.sample.com/", className = "com.sample.soap.xml.dm.QueryEmpConfigsBatch")
+    @ResponseWrapper(localName = "queryEmpConfigsBatchResponse", targetNamespace = "http://dm.xml.soap.sample.com/", className = "com.sample.soap.xml.dm.QueryEmpConfigsBatchResponse")
+    public List<EmpConfigResult> queryEmpConfigsBatch(@WebParam(name = "arg0", targetNamespace = "") EmpBatchRequest arg0);
+
 }
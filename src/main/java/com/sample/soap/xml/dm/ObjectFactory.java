@@ -23,8 +23,16 @@ public class ObjectFactory {
             "selectAllEmpAllDataResponse");
     private final static QName _SelectAllEmpAllData_QNAME = new QName("http://dm.xml.soap.sample.com/",
             "selectAllEmpAllData");
+    private final static QName _SelectAllEmpAllDataPageResponse_QNAME = new QName("http://dm.xml.soap.sample.com/",
+            "selectAllEmpAllDataPageResponse");
+    private final static QName _SelectAllEmpAllDataPage_QNAME = new QName("http://dm.xml.soap.sample.com/",
+            "selectAllEmpAllDataPage");
     private final static QName _QueryEmpConfigsResponse_QNAME = new QName("http://dm.xml.soap.sample.com/",
             "queryEmpConfigsResponse");
+    private final static QName _QueryEmpConfigsBatchResponse_QNAME = new QName("http://dm.xml.soap.sample.com/",
+            "queryEmpConfigsBatchResponse");
+    private final static QName _QueryEmpConfigsBatch_QNAME = new QName("http://dm.xml.soap.sample.com/",
+            "queryEmpConfigsBatch");
     private final static QName _QueryEmpConfigs_QNAME = new QName("http://dm.xml.soap.sample.com/", "queryEmpConfigs");
 
     /**
@@ -59,6 +67,22 @@ public class ObjectFactory {
         return new SelectAllEmpAllData();
     }
 
+    /**
+     * Create an instance of {@link SelectAllEmpAllDataPageResponse }
+     * 
+     */
+    public SelectAllEmpAllDataPageResponse createSelectAllEmpAllDataPageResponse() {
+        return new SelectAllEmpAllDataPageResponse();
+    }
+
+    /**
+     * Create an instance of {@link SelectAllEmpAllDataPage }
+     * 
+     */
+    public SelectAllEmpAllDataPage createSelectAllEmpAllDataPage() {
+        return new SelectAllEmpAllDataPage();
+    }
+
     /**
      * Create an instance of {@link QueryEmpConfigs }
      * 
@@ -68,19 +92,43 @@ public class ObjectFactory {
     }
 
     /**
-     * Create an instance of {@link EmpConfigIdentifier }
+     * Create an instance of {@link QueryEmpConfigsBatchResponse }
      * 
      */
-    public EmpConfigIdentifier createEmpConfigIdentifier() {
-        return new EmpConfigIdentifier();
+    public QueryEmpConfigsBatchResponse createQueryEmpConfigsBatchResponse() {
+        return new QueryEmpConfigsBatchResponse();
     }
 
     /**
-     * Create an instance of {@link EmpDetails }
+     * Create an instance of {@link QueryEmpConfigsBatch }
      * 
      */
-    public EmpDetails createEmpDetails() {
-        return new EmpDetails();
+    public QueryEmpConfigsBatch createQueryEmpConfigsBatch() {
+        return new QueryEmpConfigsBatch();
+    }
+
+    /**
+     * Create an instance of {@link EmpBatchRequest }
+     * 
+     */
+    public EmpBatchRequest createEmpBatchRequest() {
+        return new EmpBatchRequest();
+    }
+
+    /**
+     * Create an instance of {@link EmpConfigResult }
+     * 
+     */
+    public EmpConfigResult createEmpConfigResult() {
+        return new EmpConfigResult();
+    }
+
+    /**
+     * Create an instance of {@link EmpConfigIdentifier }
+     * 
+     */
+    public EmpConfigIdentifier createEmpConfigIdentifier() {
+        return new EmpConfigIdentifier();
     }
 
     /**
@@ -91,6 +139,22 @@ public class ObjectFactory {
         return new EmpAddress();
     }
 
+    /**
+     * Create an instance of {@link EmpPageRequest }
+     * 
+     */
+    public EmpPageRequest createEmpPageRequest() {
+        return new EmpPageRequest();
+    }
+
+    /**
+     * Create an instance of {@link EmpDetailsPage }
+     * 
+     */
+    public EmpDetailsPage createEmpDetailsPage() {
+        return new EmpDetailsPage();
+    }
+
     /**
      * Create an instance of {@link JAXBElement }{@code <}
      * {@link SelectAllEmpAllDataResponse }{@code >}
@@ -112,6 +176,29 @@ public class ObjectFactory {
         return new JAXBElement<SelectAllEmpAllData>(_SelectAllEmpAllData_QNAME, SelectAllEmpAllData.class, null, value);
     }
 
+    /**
+     * Create an instance of {@link JAXBElement }{@code <}
+     * {@link SelectAllEmpAllDataPageResponse }{@code >}
+     * 
+     */
+    @XmlElementDecl(namespace = "http://dm.xml.soap.sample.com/", name = "selectAllEmpAllDataPageResponse")
+    public JAXBElement<SelectAllEmpAllDataPageResponse> createSelectAllEmpAllDataPageResponse(
+            SelectAllEmpAllDataPageResponse value) {
+        return new JAXBElement<SelectAllEmpAllDataPageResponse>(_SelectAllEmpAllDataPageResponse_QNAME,
+                SelectAllEmpAllDataPageResponse.class, null, value);
+    }
+
+    /**
+     * Create an instance of {@link JAXBElement }{@code <}
+     * {@link SelectAllEmpAllDataPage }{@code >}
+     * 
+     */
+    @XmlElementDecl(namespace = "http://dm.xml.soap.sample.com/", name = "selectAllEmpAllDataPage")
+    public JAXBElement<SelectAllEmpAllDataPage> createSelectAllEmpAllDataPage(SelectAllEmpAllDataPage value) {
+        return new JAXBElement<SelectAllEmpAllDataPage>(_SelectAllEmpAllDataPage_QNAME,
+                SelectAllEmpAllDataPage.class, null, value);
+    }
+
     /**
      * Create an instance of {@link JAXBElement }{@code <}
      * {@link QueryEmpConfigsResponse }{@code >}
@@ -133,4 +220,27 @@ public class ObjectFactory {
         return new JAXBElement<QueryEmpConfigs>(_QueryEmpConfigs_QNAME, QueryEmpConfigs.class, null, value);
     }
 
+    /**
+     * Create an instance of {@link JAXBElement }{@code <}
+     * {@link QueryEmpConfigsBatchResponse }{@code >}
+     * 
+     */
+    @XmlElementDecl(namespace = "http://dm.xml.soap.sample.com/", name = "queryEmpConfigsBatchResponse")
+    public JAXBElement<QueryEmpConfigsBatchResponse> createQueryEmpConfigsBatchResponse(
+            QueryEmpConfigsBatchResponse value) {
+        return new JAXBElement<QueryEmpConfigsBatchResponse>(_QueryEmpConfigsBatchResponse_QNAME,
+                QueryEmpConfigsBatchResponse.class, null, value);
+    }
+
+    /**
+     * Create an instance of {@link JAXBElement }{@code <}
+     * {@link QueryEmpConfigsBatch }{@code >}
+     * 
+     */
+    @XmlElementDecl(namespace = "http://dm.xml.soap.sample.com/", name = "queryEmpConfigsBatch")
+    public JAXBElement<QueryEmpConfigsBatch> createQueryEmpConfigsBatch(QueryEmpConfigsBatch value) {
+        return new JAXBElement<QueryEmpConfigsBatch>(_QueryEmpConfigsBatch_QNAME, QueryEmpConfigsBatch.class, null,
+                value);
+    }
+
 }
@@ -0,0 +1,60 @@
+package com.sample.soap.xml.dm;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * <p>Java class for queryEmpConfigsBatch complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>
+ * &lt;complexType name="queryEmpConfigsBatch">
+ *   &lt;complexContent>
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       &lt;sequence>
+ *         &lt;element name="arg0" type="{http://dm.xml.soap.sample.com/}empBatchRequest" minOccurs="0"/>
+ *       &lt;/sequence>
+ *     &lt;/restriction>
+ *   &lt;/complexContent>
+ * &lt;/complexType>
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "queryEmpConfigsBatch", propOrder = {
+    "arg0"
+})
+@XmlRootElement(name = "queryEmpConfigsBatch")
+public class QueryEmpConfigsBatch {
+
+    protected EmpBatchRequest arg0;
+
+    /**
+     * Gets the value of the arg0 property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link EmpBatchRequest }
+     *     
+     */
+    public EmpBatchRequest getArg0() {
+        return arg0;
+    }
+
+    /**
+     * Sets the value of the arg0 property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link EmpBatchRequest }
+     *     
+     */
+    public void setArg0(EmpBatchRequest value) {
+        this.arg0 = value;
+    }
+
+}
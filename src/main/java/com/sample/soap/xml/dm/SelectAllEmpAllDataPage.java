@@ -0,0 +1,60 @@
+package com.sample.soap.xml.dm;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * <p>Java class for selectAllEmpAllDataPage complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>
+ * &lt;complexType name="selectAllEmpAllDataPage">
+ *   &lt;complexContent>
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       &lt;sequence>
+ *         &lt;element name="arg0" type="{http://dm.xml.soap.sample.com/}empPageRequest" minOccurs="0"/>
+ *       &lt;/sequence>
+ *     &lt;/restriction>
+ *   &lt;/complexContent>
+ * &lt;/complexType>
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "selectAllEmpAllDataPage", propOrder = {
+    "arg0"
+})
+@XmlRootElement(name = "selectAllEmpAllDataPage")
+public class SelectAllEmpAllDataPage {
+
+    protected EmpPageRequest arg0;
+
+    /**
+     * Gets the value of the arg0 property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link EmpPageRequest }
+     *     
+     */
+    public EmpPageRequest getArg0() {
+        return arg0;
+    }
+
+    /**
+     * Sets the value of the arg0 property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link EmpPageRequest }
+     *     
+     */
+    public void setArg0(EmpPageRequest value) {
+        this.arg0 = value;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.sample.soap.xml.dm;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * <p>Java class for selectAllEmpAllDataPageResponse complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>
+ * &lt;complexType name="selectAllEmpAllDataPageResponse">
+ *   &lt;complexContent>
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       &lt;sequence>
+ *         &lt;element name="return" type="{http://dm.xml.soap.sample.com/}empDetailsPage" minOccurs="0"/>
+ *       &lt;/sequence>
+ *     &lt;/restriction>
+ *   &lt;/complexContent>
+ * &lt;/complexType>
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "selectAllEmpAllDataPageResponse", propOrder = {
+    "_return"
+})
+@XmlRootElement(name = "selectAllEmpAllDataPageResponse")
+public class SelectAllEmpAllDataPageResponse {
+
+    @XmlElement(name = "return")
+    protected EmpDetailsPage _return;
+
+    /**
+     * Gets the value of the return property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link EmpDetailsPage }
+     *     
+     */
+    public EmpDetailsPage getReturn() {
+        return _return;
+    }
+
+    /**
+     * Sets the value of the return property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link EmpDetailsPage }
+     *     
+     */
+    public void setReturn(EmpDetailsPage value) {
+        this._return = value;
+    }
+
+}
@@ -9,6 +9,8 @@ import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import com.example.spring.boot.rest.types.EmpDetails;
+
 /**
  * <p>Java class for selectAllEmpAllDataResponse complex type.
  * 
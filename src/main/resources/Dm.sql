@@ -57,4 +57,8 @@ mysql> select * from employee;
 +----+-----------+----------+---------+------+--------------+-----------+
 6 rows in set (0.00 sec)
 
+mysql> CREATE INDEX employee_address ON employee (Address, ID);
+Query OK, 0 rows affected (0.08 sec)
+Records: 0  Duplicates: 0  Warnings: 0
+
 mysql>
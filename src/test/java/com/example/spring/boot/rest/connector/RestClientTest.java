@@ -0,0 +1,71 @@
+package com.example.spring.boot.rest.connector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+import com.example.spring.boot.rest.util.Bulkhead;
+import com.example.spring.boot.rest.util.CircuitBreaker;
+import com.example.spring.boot.rest.util.CircuitBreaker.State;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class RestClientTest {
+
+    @Test
+    public void testGuardedRecordsOutcomeInBreaker() {
+
+        RestClient restClient = newRestClient(new CircuitBreaker("customer", 2, 2, 50, 1000, 100, 60000, 1),
+                new Bulkhead("customer", 1, 0));
+
+        assertEquals("answer", restClient.guarded(() -> "answer"));
+        try {
+            restClient.guarded(() -> {
+                throw new IllegalStateException("connection refused");
+            });
+            fail("The failure of the call is not passed on");
+        } catch (IllegalStateException e) {
+            assertEquals(State.OPEN, restClient.getCircuitBreaker().getState());
+        }
+        assertEquals(1, restClient.getBulkhead().getAvailable());
+    }
+
+    @Test
+    public void testGuardedGivesBackProbeWhenBulkheadFull() {
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("customer", 1, 1, 50, 1000, 100, 0, 1);
+        circuitBreaker.onResult(circuitBreaker.acquirePermission(), TimeUnit.MILLISECONDS.toNanos(1), true);
+        Bulkhead bulkhead = new Bulkhead("customer", 1, 0);
+        RestClient restClient = newRestClient(circuitBreaker, bulkhead);
+
+        bulkhead.acquire();
+        try {
+            restClient.guarded(() -> "answer");
+            fail("The bulkhead lets the call through");
+        } catch (FrameworkError e) {
+            assertEquals(ErrorCode.CS_1020.getValue(), e.getErrorMessage().getCode());
+        }
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        bulkhead.release();
+
+        // the only probe was given back, so it is let through now
+        assertEquals("answer", restClient.guarded(() -> "answer"));
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+    }
+
+    private static RestClient newRestClient(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        RestClient restClient = new RestClient();
+        restClient.setCircuitBreaker(circuitBreaker);
+        restClient.setBulkhead(bulkhead);
+        return restClient;
+    }
+
+}
@@ -1,24 +1,41 @@
 package com.example.spring.boot.rest.controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
 import com.example.spring.boot.rest.service.DmServiceInterface;
 import com.example.spring.boot.rest.types.EmpAddress;
+import com.example.spring.boot.rest.types.EmpBatchRequest;
 import com.example.spring.boot.rest.types.EmpConfigIdentifier;
+import com.example.spring.boot.rest.types.EmpConfigResult;
 import com.example.spring.boot.rest.types.EmpDetails;
+import com.example.spring.boot.rest.types.EmpDetailsPage;
+import com.example.spring.boot.rest.types.EmpPageRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * @author mlahariya
@@ -34,6 +51,9 @@ public class SpringBootExternalRestServiceControllerTest {
     @Mock
     private DmServiceInterface dmService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @SuppressWarnings("static-access")
     @Test
     public void testGetEmpConfiguration() {
@@ -71,6 +91,116 @@ public class SpringBootExternalRestServiceControllerTest {
 
     }
 
+    @Test
+    public void testGetEmpConfigurations() {
+
+        EmpBatchRequest batchRequest = new EmpBatchRequest();
+        batchRequest.setIds(Arrays.asList(1, 99));
+
+        List<EmpConfigResult> valueList = new ArrayList<EmpConfigResult>();
+        valueList.add(new EmpConfigResult(1, getEmpDetails()));
+        valueList.add(new EmpConfigResult(99, null));
+
+        Mockito.when(dmService.queryEmpConfigsBatch(batchRequest)).thenReturn(valueList);
+
+        ResponseEntity<List<EmpConfigResult>> response = dmRestServiceController.getEmpConfigurations(batchRequest);
+        assertEquals("200", response.getStatusCode().toString());
+        assertEquals(2, response.getBody().size());
+        assertTrue(response.getBody().get(0).isFound());
+        assertEquals("Manu", response.getBody().get(0).getEmpDetails().getFirstName());
+        assertFalse(response.getBody().get(1).isFound());
+        assertEquals(99, response.getBody().get(1).getId());
+
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetEmpConfigurationAsync() {
+
+        EmpConfigIdentifier empConfigIdentifier = new EmpConfigIdentifier();
+        empConfigIdentifier.setId(1);
+
+        EmpDetails empDetails = getEmpDetails();
+
+        Mockito.when(dmService.queryEmpConfigsAsync(empConfigIdentifier)).thenReturn(
+                CompletableFuture.completedFuture(empDetails));
+
+        DeferredResult<ResponseEntity<EmpDetails>> response = dmRestServiceController
+                .getEmpConfigurationAsync(empConfigIdentifier);
+        assertTrue("DeferredResult is set", response.hasResult());
+        ResponseEntity<EmpDetails> entity = (ResponseEntity<EmpDetails>) response.getResult();
+        assertEquals("200", entity.getStatusCode().toString());
+        assertSame(empDetails, entity.getBody());
+
+    }
+
+    @Test
+    public void testGetAllEmpByAddressAsyncFailure() {
+
+        EmpAddress empAddr = new EmpAddress();
+        empAddr.setAddress("Sec49");
+
+        FrameworkError error = new FrameworkError(ErrorCode.CS_1002.getValue(), null, null, null);
+        CompletableFuture<List<EmpDetails>> failed = new CompletableFuture<List<EmpDetails>>();
+        failed.completeExceptionally(error);
+
+        Mockito.when(dmService.selectAllEmpAllDataAsync(empAddr)).thenReturn(failed);
+
+        DeferredResult<ResponseEntity<List<EmpDetails>>> response = dmRestServiceController
+                .getAllEmpByAddressAsync(empAddr);
+        assertTrue("DeferredResult is set", response.hasResult());
+        assertSame(error, response.getResult());
+
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testStreamAllEmpByAddress() throws Exception {
+
+        EmpAddress empAddr = new EmpAddress();
+        empAddr.setAddress("Sec49");
+
+        Mockito.when(dmService.streamAllEmpAllData(Mockito.eq(empAddr), Mockito.any(Consumer.class))).thenAnswer(
+                invocation -> {
+                    Consumer<EmpDetails> consumer = (Consumer<EmpDetails>) invocation.getArguments()[1];
+                    consumer.accept(getEmpDetails());
+                    consumer.accept(getEmpDetails());
+                    return 2;
+                });
+
+        ResponseEntity<StreamingResponseBody> response = dmRestServiceController.streamAllEmpByAddress(empAddr);
+        assertEquals("200", response.getStatusCode().toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        EmpDetails[] empDetails = objectMapper.readValue(out.toByteArray(), EmpDetails[].class);
+        assertEquals(2, empDetails.length);
+        assertEquals("Manu", empDetails[1].getFirstName());
+
+    }
+
+    @Test
+    public void testGetEmpPageByAddress() {
+
+        EmpPageRequest pageRequest = new EmpPageRequest();
+        pageRequest.setAddress("Sec49");
+        pageRequest.setPageSize(1);
+
+        List<EmpDetails> valueList = new ArrayList<EmpDetails>();
+        valueList.add(getEmpDetails());
+        EmpDetailsPage page = new EmpDetailsPage();
+        page.setEmpDetails(valueList);
+        page.setContinuationToken("MTox");
+
+        Mockito.when(dmService.selectAllEmpAllDataPage(pageRequest)).thenReturn(page);
+
+        ResponseEntity<EmpDetailsPage> response = dmRestServiceController.getEmpPageByAddress(pageRequest);
+        assertEquals("200", response.getStatusCode().toString());
+        assertEquals(1, response.getBody().getEmpDetails().size());
+        assertEquals("MTox", response.getBody().getContinuationToken());
+
+    }
+
     private EmpDetails getEmpDetails() {
         EmpDetails empDetails = new EmpDetails();
         empDetails.setId(1);
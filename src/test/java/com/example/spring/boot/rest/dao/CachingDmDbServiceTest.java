@@ -0,0 +1,149 @@
+package com.example.spring.boot.rest.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+import com.example.spring.boot.rest.types.EmpAddress;
+import com.example.spring.boot.rest.types.EmpConfigIdentifier;
+import com.example.spring.boot.rest.types.EmpDetails;
+import com.example.spring.boot.soap.connector.ServiceConfiguration;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class CachingDmDbServiceTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private DmDbService database;
+
+    private CoalescingDmDbService coalescingDmDbService;
+
+    private CachingDmDbService cachingDmDbService;
+
+    @Before
+    public void setUp() {
+        ServiceConfiguration serviceConfig = new ServiceConfiguration(
+                new MockEnvironment().withProperty("dm.coalesce.maxWait", "50"));
+        this.database = Mockito.mock(DmDbService.class);
+
+        this.coalescingDmDbService = new CoalescingDmDbService();
+        this.coalescingDmDbService.setDmDbService(this.database);
+        ReflectionTestUtils.setField(this.coalescingDmDbService, "serviceConfig", serviceConfig);
+        this.coalescingDmDbService.init();
+
+        this.cachingDmDbService = new CachingDmDbService();
+        this.cachingDmDbService.setDmDbService(this.coalescingDmDbService);
+        ReflectionTestUtils.setField(this.cachingDmDbService, "serviceConfig", serviceConfig);
+        this.cachingDmDbService.init();
+    }
+
+    @After
+    public void tearDown() {
+        this.release.countDown();
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testMissWaitsAtMostMaxWaitForHungLookup() throws Exception {
+
+        EmpDetails empDetails = employee(1);
+        Mockito.when(this.database.queryEmpConfigs(Mockito.any(EmpConfigIdentifier.class))).thenAnswer(
+                invocation -> {
+                    this.release.await(5, TimeUnit.SECONDS);
+                    return empDetails;
+                });
+
+        Future<EmpDetails> hung = this.executor.submit(() -> this.cachingDmDbService.queryEmpConfigs(id(1)));
+        awaitInFlight(this.coalescingDmDbService.getEmployeeCalls()::getInFlight);
+        try {
+            this.cachingDmDbService.queryEmpConfigs(id(1));
+            fail("The miss waits for the hung lookup without a bound");
+        } catch (FrameworkError e) {
+            assertEquals(ErrorCode.CS_1015.getValue(), e.getErrorMessage().getCode());
+        }
+        assertEquals(1, this.coalescingDmDbService.getEmployeeCalls().getTimedOut());
+
+        this.release.countDown();
+        assertSame(empDetails, hung.get(5, TimeUnit.SECONDS));
+        // cached once the lookup is over
+        assertSame(empDetails, this.cachingDmDbService.queryEmpConfigs(id(1)));
+        Mockito.verify(this.database, Mockito.times(1)).queryEmpConfigs(Mockito.any(EmpConfigIdentifier.class));
+        assertEquals(1, this.cachingDmDbService.getStats().loadSuccessCount());
+        assertEquals(1, this.cachingDmDbService.getStats().loadExceptionCount());
+    }
+
+    @Test
+    public void testAddressMissWaitsAtMostMaxWaitForHungLookup() throws Exception {
+
+        List<EmpDetails> empDetailsList = Collections.singletonList(employee(2));
+        Mockito.when(this.database.selectAllEmpAllData(Mockito.any(EmpAddress.class))).thenAnswer(invocation -> {
+            this.release.await(5, TimeUnit.SECONDS);
+            return empDetailsList;
+        });
+
+        Future<List<EmpDetails>> hung = this.executor.submit(
+                () -> this.cachingDmDbService.selectAllEmpAllData(address("Main Street")));
+        awaitInFlight(this.coalescingDmDbService.getAddressCalls()::getInFlight);
+        try {
+            this.cachingDmDbService.selectAllEmpAllData(address("Main Street"));
+            fail("The miss waits for the hung lookup without a bound");
+        } catch (FrameworkError e) {
+            assertEquals(ErrorCode.CS_1015.getValue(), e.getErrorMessage().getCode());
+        }
+
+        this.release.countDown();
+        assertEquals(empDetailsList, hung.get(5, TimeUnit.SECONDS));
+        assertEquals(empDetailsList, this.cachingDmDbService.selectAllEmpAllData(address("Main Street")));
+        Mockito.verify(this.database, Mockito.times(1)).selectAllEmpAllData(Mockito.any(EmpAddress.class));
+    }
+
+    private static void awaitInFlight(IntSupplier inFlight) throws InterruptedException {
+        for (int i = 0; i < 500 && inFlight.getAsInt() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, inFlight.getAsInt());
+    }
+
+    private static EmpConfigIdentifier id(int id) {
+        EmpConfigIdentifier identifier = new EmpConfigIdentifier();
+        identifier.setId(id);
+        return identifier;
+    }
+
+    private static EmpAddress address(String address) {
+        EmpAddress empAddr = new EmpAddress();
+        empAddr.setAddress(address);
+        return empAddr;
+    }
+
+    private static EmpDetails employee(int id) {
+        EmpDetails empDetails = new EmpDetails();
+        empDetails.setId(id);
+        return empDetails;
+    }
+
+}
@@ -0,0 +1,231 @@
+package com.example.spring.boot.rest.db.connector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.example.spring.boot.rest.db.connector.DmReplicaRoutingDataSource.Routing;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class DmReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+
+    private DataSource replica0;
+
+    private DataSource replica1;
+
+    @Before
+    public void setUp() throws SQLException {
+        this.primary = dataSource("primary");
+        this.replica0 = dataSource("replica0");
+        this.replica1 = dataSource("replica1");
+    }
+
+    @Test
+    public void testRoundRobinTakesReplicasInTurn() throws SQLException {
+
+        DmReplicaRoutingDataSource readDataSource = this.newReadDataSource(Routing.ROUND_ROBIN);
+
+        assertEquals("replica0", readDataSource.getConnection().getCatalog());
+        assertEquals("replica1", readDataSource.getConnection().getCatalog());
+        assertEquals("replica0", readDataSource.getConnection().getCatalog());
+        assertEquals("replica1", readDataSource.getConnection().getCatalog());
+        Mockito.verify(this.primary, Mockito.never()).getConnection();
+    }
+
+    @Test
+    public void testLeastLoadedPicksReplicaWithFewestBorrowedConnections() throws SQLException {
+
+        DmReplicaRoutingDataSource readDataSource = this.newReadDataSource(Routing.LEAST_LOADED);
+
+        Connection first = readDataSource.getConnection();
+        assertEquals("replica0", first.getCatalog());
+        // replica0 still has its connection out
+        Connection second = readDataSource.getConnection();
+        assertEquals("replica1", second.getCatalog());
+        assertEquals(1, readDataSource.getReplicas().get(0).getInFlight());
+        assertEquals(1, readDataSource.getReplicas().get(1).getInFlight());
+
+        first.close();
+        assertEquals(0, readDataSource.getReplicas().get(0).getInFlight());
+        Connection third = readDataSource.getConnection();
+        assertEquals("replica0", third.getCatalog());
+        third.close();
+        // replica1's turn, but it has more connections out
+        assertEquals("replica0", readDataSource.getConnection().getCatalog());
+    }
+
+    @Test
+    public void testReplicaEjectedAfterConsecutiveFailures() throws SQLException {
+
+        Mockito.when(this.replica0.getConnection()).thenThrow(down("replica0"));
+        DmReplicaRoutingDataSource readDataSource = this.newReadDataSource(Routing.ROUND_ROBIN);
+
+        // replica0 first, failing over to replica1
+        assertEquals("replica1", readDataSource.getConnection().getCatalog());
+        assertTrue(readDataSource.getReplicas().get(0).isHealthy());
+        // replica1 first
+        assertEquals("replica1", readDataSource.getConnection().getCatalog());
+        // replica0 fails a second time in a row
+        assertEquals("replica1", readDataSource.getConnection().getCatalog());
+        assertFalse(readDataSource.getReplicas().get(0).isHealthy());
+
+        assertEquals("replica1", readDataSource.getConnection().getCatalog());
+        assertEquals("replica1", readDataSource.getConnection().getCatalog());
+        Mockito.verify(this.replica0, Mockito.times(2)).getConnection();
+        Mockito.verify(this.primary, Mockito.never()).getConnection();
+    }
+
+    @Test
+    public void testFallsBackToPrimaryWithoutHealthyReplica() throws SQLException {
+
+        Mockito.when(this.replica0.getConnection()).thenThrow(down("replica0"));
+        Mockito.when(this.replica1.getConnection()).thenThrow(down("replica1"));
+        DmReplicaRoutingDataSource readDataSource = this.newReadDataSource(Routing.ROUND_ROBIN);
+
+        assertEquals("primary", readDataSource.getConnection().getCatalog());
+        assertEquals("primary", readDataSource.getConnection().getCatalog());
+        assertFalse(readDataSource.getReplicas().get(0).isHealthy());
+        assertFalse(readDataSource.getReplicas().get(1).isHealthy());
+
+        assertEquals("primary", readDataSource.getConnection().getCatalog());
+        Mockito.verify(this.replica0, Mockito.times(2)).getConnection();
+        Mockito.verify(this.replica1, Mockito.times(2)).getConnection();
+    }
+
+    @Test
+    public void testEjectedReplicaTakenBackAfterGoodHealthCheck() throws SQLException {
+
+        Connection recovered = connection("replica0");
+        Mockito.when(this.replica0.getConnection()).thenThrow(down("replica0"))
+                .thenThrow(down("replica0")).thenReturn(recovered);
+        DmReplicaRoutingDataSource readDataSource = this.newReadDataSource(Routing.ROUND_ROBIN);
+
+        readDataSource.checkReplicas(1);
+        readDataSource.checkReplicas(1);
+        assertFalse(readDataSource.getReplicas().get(0).isHealthy());
+        assertEquals("replica1", readDataSource.getConnection().getCatalog());
+        assertEquals("replica1", readDataSource.getConnection().getCatalog());
+
+        readDataSource.checkReplicas(1);
+        assertTrue(readDataSource.getReplicas().get(0).isHealthy());
+        Mockito.verify(recovered).close();
+
+        // the check consumed the recovered connection; the next ones come from the pool again
+        Connection pooled = connection("replica0");
+        Mockito.when(this.replica0.getConnection()).thenReturn(pooled);
+        assertEquals("replica0", readDataSource.getConnection().getCatalog());
+    }
+
+    @Test
+    public void testInvalidConnectionsEjectReplica() throws SQLException {
+
+        Connection invalid = connection("replica1");
+        Mockito.when(invalid.isValid(Mockito.anyInt())).thenReturn(false);
+        Mockito.when(this.replica1.getConnection()).thenReturn(invalid);
+        DmReplicaRoutingDataSource readDataSource = this.newReadDataSource(Routing.ROUND_ROBIN);
+
+        readDataSource.checkReplicas(1);
+        assertTrue(readDataSource.getReplicas().get(1).isHealthy());
+        readDataSource.checkReplicas(1);
+        assertFalse(readDataSource.getReplicas().get(1).isHealthy());
+        assertTrue(readDataSource.getReplicas().get(0).isHealthy());
+    }
+
+    @Test
+    public void testSaturatedPoolNotEjected() throws SQLException {
+
+        Mockito.when(this.replica0.getConnection()).thenThrow(busy("dm-replica-0", null));
+        DmReplicaRoutingDataSource readDataSource = this.newReadDataSource(Routing.ROUND_ROBIN);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica1", readDataSource.getConnection().getCatalog());
+            readDataSource.checkReplicas(1);
+        }
+        assertTrue(readDataSource.getReplicas().get(0).isHealthy());
+        Mockito.verify(this.primary, Mockito.never()).getConnection();
+    }
+
+    @Test
+    public void testPoolTimeoutAfterFailuresToConnectEjectsReplica() throws SQLException {
+
+        Mockito.when(this.replica0.getConnection()).thenThrow(busy("dm-replica-0", down("replica0")));
+        DmReplicaRoutingDataSource readDataSource = this.newReadDataSource(Routing.ROUND_ROBIN);
+
+        readDataSource.checkReplicas(1);
+        readDataSource.checkReplicas(1);
+        assertFalse(readDataSource.getReplicas().get(0).isHealthy());
+    }
+
+    @Test
+    public void testOnlyConnectionErrorsAreReplicaFailures() {
+
+        assertTrue(DmReplicaRoutingDataSource.isConnectionFailure(down("replica0")));
+        assertTrue(DmReplicaRoutingDataSource.isConnectionFailure(busy("dm-replica-0", down("replica0"))));
+        assertTrue(DmReplicaRoutingDataSource.isConnectionFailure(
+                new SQLException("wrapped", down("replica0"))));
+        assertFalse(DmReplicaRoutingDataSource.isConnectionFailure(busy("dm-replica-0", null)));
+        assertFalse(DmReplicaRoutingDataSource.isConnectionFailure(new SQLException("syntax error", "42000")));
+    }
+
+    @Test(expected = SQLFeatureNotSupportedException.class)
+    public void testGetConnectionWithCredentialsNotSupported() throws SQLException {
+
+        this.newReadDataSource(Routing.ROUND_ROBIN).getConnection("user", "password");
+    }
+
+    private DmReplicaRoutingDataSource newReadDataSource(Routing routing) {
+        DmReplicaRoutingDataSource readDataSource = new DmReplicaRoutingDataSource("dm", this.primary, routing, 2);
+        readDataSource.addReplica("dm-replica-0", this.replica0);
+        readDataSource.addReplica("dm-replica-1", this.replica1);
+        return readDataSource;
+    }
+
+    /**
+     * @return The failure to connect to a replica that is down.
+     */
+    private static SQLException down(String name) {
+        return new SQLException(name + " is down", "08001");
+    }
+
+    /**
+     * @return The timeout of a replica pool, as HikariCP throws it: with the
+     *         last failure to connect as its cause, if any.
+     */
+    private static SQLException busy(String poolName, SQLException lastFailure) {
+        return new SQLTransientConnectionException(
+                poolName + " - Connection is not available, request timed out after 500ms.",
+                lastFailure == null ? null : lastFailure.getSQLState(), lastFailure);
+    }
+
+    private static DataSource dataSource(String name) throws SQLException {
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Connection connection = connection(name);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static Connection connection(String name) throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.getCatalog()).thenReturn(name);
+        Mockito.when(connection.isValid(Mockito.anyInt())).thenReturn(true);
+        return connection;
+    }
+
+}
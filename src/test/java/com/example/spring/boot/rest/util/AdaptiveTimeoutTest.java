@@ -0,0 +1,73 @@
+package com.example.spring.boot.rest.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class AdaptiveTimeoutTest {
+
+    @Test
+    public void testMaxUntilEnoughSamples() {
+
+        AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout("calculator", 99, 2, 50, 5000, 0, 10);
+        assertEquals(5000, adaptiveTimeout.getTimeout());
+
+        record(adaptiveTimeout, 9, 100);
+        assertEquals(5000, adaptiveTimeout.getTimeout());
+        assertEquals(9, adaptiveTimeout.getHistogram().getCount());
+
+        record(adaptiveTimeout, 1, 100);
+        // p99 of 100 ms, twice
+        assertEquals(200, adaptiveTimeout.getTimeout());
+        assertEquals(0, adaptiveTimeout.getHistogram().getCount());
+    }
+
+    @Test
+    public void testTimeoutKeptBetweenMinAndMax() {
+
+        AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout("calculator", 99, 2, 50, 1000, 0, 10);
+
+        record(adaptiveTimeout, 10, 1);
+        assertEquals(50, adaptiveTimeout.getTimeout());
+
+        record(adaptiveTimeout, 10, 2500);
+        assertEquals(1000, adaptiveTimeout.getTimeout());
+    }
+
+    @Test
+    public void testTimeoutsGrowTimeoutAgain() {
+
+        AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout("calculator", 90, 2, 10, 5000, 0, 10);
+        record(adaptiveTimeout, 10, 5);
+        assertEquals(10, adaptiveTimeout.getTimeout());
+
+        // 2 of 10 calls time out, more than the 10 % the percentile allows
+        record(adaptiveTimeout, 8, 5);
+        record(adaptiveTimeout, 2, adaptiveTimeout.getTimeout());
+        assertEquals(20, adaptiveTimeout.getTimeout());
+    }
+
+    @Test
+    public void testAdjustedOncePerInterval() {
+
+        AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout("calculator", 99, 2, 50, 5000, 60000, 10);
+
+        record(adaptiveTimeout, 100, 100);
+        assertEquals(5000, adaptiveTimeout.getTimeout());
+        assertEquals(100, adaptiveTimeout.getHistogram().getCount());
+    }
+
+    private static void record(AdaptiveTimeout adaptiveTimeout, int calls, long millis) {
+        for (int i = 0; i < calls; i++) {
+            adaptiveTimeout.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.example.spring.boot.rest.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class BulkheadTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testRejectsBeyondMaxConcurrentCalls() {
+
+        Bulkhead bulkhead = new Bulkhead("customer", 2, 0);
+
+        bulkhead.acquire();
+        bulkhead.acquire();
+        assertEquals(0, bulkhead.getAvailable());
+        assertRejected(bulkhead);
+        assertEquals(1, bulkhead.getRejectedCalls());
+
+        bulkhead.release();
+        assertEquals("answer", bulkhead.execute(() -> "answer"));
+        assertEquals(1, bulkhead.getAvailable());
+    }
+
+    @Test
+    public void testWaitingCallTakesFreedPlace() throws Exception {
+
+        Bulkhead bulkhead = new Bulkhead("customer", 1, 5000);
+        bulkhead.acquire();
+
+        Future<String> waiting = this.executor.submit(() -> bulkhead.execute(() -> "answer"));
+        Thread.sleep(50);
+        assertFalse(waiting.isDone());
+        bulkhead.release();
+
+        assertEquals("answer", waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(1, bulkhead.getAvailable());
+        assertEquals(0, bulkhead.getRejectedCalls());
+    }
+
+    @Test
+    public void testWaitingCallRejectedAfterMaxWait() {
+
+        Bulkhead bulkhead = new Bulkhead("customer", 1, 50);
+        bulkhead.acquire();
+
+        long start = System.nanoTime();
+        assertRejected(bulkhead);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void testPlaceFreedWhenCallFails() {
+
+        Bulkhead bulkhead = new Bulkhead("customer", 1, 0);
+
+        try {
+            bulkhead.execute(() -> {
+                throw new IllegalStateException("connection refused");
+            });
+            fail("The failure of the call is not passed on");
+        } catch (IllegalStateException e) {
+            assertEquals(1, bulkhead.getAvailable());
+        }
+    }
+
+    private static void assertRejected(Bulkhead bulkhead) {
+        try {
+            bulkhead.execute(() -> "answer");
+            fail("The bulkhead lets the call through");
+        } catch (FrameworkError e) {
+            assertEquals(ErrorCode.CS_1020.getValue(), e.getErrorMessage().getCode());
+        }
+    }
+
+}
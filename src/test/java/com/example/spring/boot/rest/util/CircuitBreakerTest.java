@@ -0,0 +1,183 @@
+package com.example.spring.boot.rest.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+import com.example.spring.boot.rest.util.CircuitBreaker.State;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    @Test
+    public void testOpensAtFailureRateThreshold() {
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("customer", 4, 4, 50, 1000, 100, 60000, 2);
+
+        record(circuitBreaker, FAST, false);
+        record(circuitBreaker, FAST, true);
+        record(circuitBreaker, FAST, true);
+        // 2 of 3 failed, but fewer than minimumCalls are known
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertEquals(-1f, circuitBreaker.getFailureRate(), 0f);
+
+        record(circuitBreaker, FAST, false);
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        assertEquals(1, circuitBreaker.getTransitions(State.OPEN));
+        assertEquals(0, circuitBreaker.getBufferedCalls());
+
+        assertNotPermitted(circuitBreaker);
+        assertEquals(1, circuitBreaker.getNotPermittedCalls());
+    }
+
+    @Test
+    public void testOpensAtSlowCallRateThreshold() {
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("customer", 2, 2, 50, 1000, 100, 60000, 1);
+
+        record(circuitBreaker, SLOW, false);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        record(circuitBreaker, SLOW, false);
+        assertEquals(State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testOldestCallsLeaveWindow() {
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("customer", 4, 4, 50, 1000, 100, 60000, 2);
+
+        record(circuitBreaker, FAST, true);
+        for (int i = 0; i < 6; i++) {
+            record(circuitBreaker, FAST, false);
+        }
+        assertEquals(4, circuitBreaker.getBufferedCalls());
+        assertEquals(0f, circuitBreaker.getFailureRate(), 0f);
+        record(circuitBreaker, FAST, true);
+        assertEquals(25f, circuitBreaker.getFailureRate(), 0f);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenClosesAfterGoodProbes() {
+
+        CircuitBreaker circuitBreaker = openBreaker(2);
+
+        long first = circuitBreaker.acquirePermission();
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        long second = circuitBreaker.acquirePermission();
+        // only halfOpenCalls probes are let through
+        assertNotPermitted(circuitBreaker);
+
+        circuitBreaker.onResult(first, FAST, false);
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onResult(second, FAST, false);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertEquals(1, circuitBreaker.getTransitions(State.HALF_OPEN));
+        assertEquals(1, circuitBreaker.getTransitions(State.CLOSED));
+    }
+
+    @Test
+    public void testHalfOpenReopensAfterFailedProbe() {
+
+        CircuitBreaker circuitBreaker = openBreaker(2);
+
+        long first = circuitBreaker.acquirePermission();
+        long second = circuitBreaker.acquirePermission();
+        circuitBreaker.onResult(first, FAST, false);
+        circuitBreaker.onResult(second, FAST, true);
+
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        assertEquals(2, circuitBreaker.getTransitions(State.OPEN));
+    }
+
+    @Test
+    public void testResultOfEarlierStateIgnored() {
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("customer", 2, 2, 50, 1000, 100, 0, 1);
+        long stale = circuitBreaker.acquirePermission();
+        record(circuitBreaker, FAST, true);
+        record(circuitBreaker, FAST, true);
+        assertEquals(State.OPEN, circuitBreaker.getState());
+
+        long probe = circuitBreaker.acquirePermission();
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        // the call let through while closed ends during the probe
+        circuitBreaker.onResult(stale, SLOW, true);
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getBufferedCalls());
+
+        circuitBreaker.onResult(probe, FAST, false);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        // and is not recorded against the closed breaker either
+        circuitBreaker.onResult(stale, FAST, true);
+        assertEquals(0, circuitBreaker.getBufferedCalls());
+    }
+
+    @Test
+    public void testReleasedPermissionLetsAnotherProbeThrough() {
+
+        CircuitBreaker circuitBreaker = openBreaker(1);
+
+        long probe = circuitBreaker.acquirePermission();
+        assertNotPermitted(circuitBreaker);
+        circuitBreaker.releasePermission(probe);
+
+        probe = circuitBreaker.acquirePermission();
+        circuitBreaker.onResult(probe, FAST, false);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testExecuteRecordsFailure() {
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("customer", 1, 1, 50, 1000, 100, 60000, 1);
+
+        try {
+            circuitBreaker.execute(() -> {
+                throw new IllegalStateException("connection refused");
+            });
+            fail("The failure of the call is not passed on");
+        } catch (IllegalStateException e) {
+            assertEquals(State.OPEN, circuitBreaker.getState());
+        }
+        assertNotPermitted(circuitBreaker);
+    }
+
+    /**
+     * @return A breaker just opened, which lets probes through at once.
+     */
+    private static CircuitBreaker openBreaker(int halfOpenCalls) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("customer", 2, 2, 50, 1000, 100, 0, halfOpenCalls);
+        record(circuitBreaker, FAST, true);
+        record(circuitBreaker, FAST, true);
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        return circuitBreaker;
+    }
+
+    private static void record(CircuitBreaker circuitBreaker, long nanos, boolean failed) {
+        circuitBreaker.onResult(circuitBreaker.acquirePermission(), nanos, failed);
+    }
+
+    private static void assertNotPermitted(CircuitBreaker circuitBreaker) {
+        try {
+            circuitBreaker.acquirePermission();
+            fail("The breaker lets the call through");
+        } catch (FrameworkError e) {
+            assertEquals(ErrorCode.CS_1019.getValue(), e.getErrorMessage().getCode());
+        }
+    }
+
+}
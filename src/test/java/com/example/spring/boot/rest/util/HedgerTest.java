@@ -0,0 +1,188 @@
+package com.example.spring.boot.rest.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class HedgerTest {
+
+    @Test
+    public void testFastCallNotHedged() {
+
+        Hedger hedger = newHedger(100);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertEquals("first", hedger.execute(attempt -> {
+            attempts.incrementAndGet();
+            return "first";
+        }));
+        assertEquals(1, attempts.get());
+        assertEquals(1, hedger.getCalls());
+        assertEquals(0, hedger.getIssued());
+    }
+
+    @Test
+    public void testHedgeWinsOverSlowRequest() throws InterruptedException {
+
+        Hedger hedger = newHedger(100);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch loserDone = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        assertEquals("hedge", hedger.execute(attempt -> {
+            if (attempt == 1) {
+                return "hedge";
+            }
+            interrupted.set(!await(release));
+            loserDone.countDown();
+            return "first";
+        }));
+        assertEquals(1, hedger.getIssued());
+        assertEquals(1, hedger.getWon());
+
+        // the slow request is left to finish
+        release.countDown();
+        assertTrue(loserDone.await(5, TimeUnit.SECONDS));
+        assertFalse(interrupted.get());
+    }
+
+    @Test
+    public void testFirstRequestWinsOverHedge() throws InterruptedException {
+
+        Hedger hedger = newHedger(100);
+        CountDownLatch hedgeSent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch loserDone = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        assertEquals("first", hedger.execute(attempt -> {
+            if (attempt == 0) {
+                await(hedgeSent);
+                return "first";
+            }
+            hedgeSent.countDown();
+            interrupted.set(!await(release));
+            loserDone.countDown();
+            return "hedge";
+        }));
+        assertEquals(1, hedger.getIssued());
+        assertEquals(0, hedger.getWon());
+
+        release.countDown();
+        assertTrue(loserDone.await(5, TimeUnit.SECONDS));
+        assertFalse(interrupted.get());
+    }
+
+    @Test
+    public void testFailsOnlyIfBothRequestsFail() {
+
+        Hedger hedger = newHedger(100);
+        IllegalStateException firstFailure = new IllegalStateException("first failed");
+        IllegalStateException hedgeFailure = new IllegalStateException("hedge failed");
+        CountDownLatch hedgeSent = new CountDownLatch(1);
+
+        try {
+            hedger.execute(attempt -> {
+                if (attempt == 1) {
+                    hedgeSent.countDown();
+                    throw hedgeFailure;
+                }
+                await(hedgeSent);
+                throw firstFailure;
+            });
+            fail("The failure of both requests is not passed on");
+        } catch (IllegalStateException e) {
+            // the failure of whichever request failed last
+            assertTrue(e == firstFailure || e == hedgeFailure);
+        }
+
+        CountDownLatch firstFailed = new CountDownLatch(1);
+        assertEquals("hedge", hedger.execute(attempt -> {
+            if (attempt == 0) {
+                await(firstFailed);
+                throw firstFailure;
+            }
+            firstFailed.countDown();
+            return "hedge";
+        }));
+    }
+
+    @Test
+    public void testFailureBeforeDelayNotHedged() {
+
+        Hedger hedger = newHedger(100);
+        IllegalStateException failure = new IllegalStateException("connection refused");
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            hedger.execute(attempt -> {
+                attempts.incrementAndGet();
+                throw failure;
+            });
+            fail("The failure is not passed on");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedger.getIssued());
+    }
+
+    @Test
+    public void testHedgesCappedByRate() {
+
+        Hedger hedger = newHedger(0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertEquals("first", hedger.execute(attempt -> {
+            attempts.incrementAndGet();
+            sleep(100);
+            return "first";
+        }));
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedger.getIssued());
+        assertEquals(1, hedger.getCapped());
+    }
+
+    /**
+     * @return A hedger sending the hedge after 20 ms.
+     */
+    private static Hedger newHedger(int maxRatePercent) {
+        return new Hedger("customer", 95, 20, 20, 60000, 100, maxRatePercent, 4);
+    }
+
+    /**
+     * @return <code>false</code> if interrupted while waiting.
+     */
+    private static boolean await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
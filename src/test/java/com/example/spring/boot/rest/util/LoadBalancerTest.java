@@ -0,0 +1,192 @@
+package com.example.spring.boot.rest.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class LoadBalancerTest {
+
+    private static final List<URI> URIS = Arrays.asList(URI.create("http://host1/service/"),
+            URI.create("http://host2/service/"));
+
+    @Test
+    public void testPolicyFromProperty() {
+
+        assertEquals(LoadBalancer.Policy.ROUND_ROBIN, LoadBalancer.Policy.fromProperty(null));
+        assertEquals(LoadBalancer.Policy.ROUND_ROBIN, LoadBalancer.Policy.fromProperty("roundRobin"));
+        assertEquals(LoadBalancer.Policy.LEAST_OUTSTANDING, LoadBalancer.Policy.fromProperty("leastOutstanding"));
+        assertEquals(LoadBalancer.Policy.PEAK_EWMA, LoadBalancer.Policy.fromProperty(" PeakEwma "));
+        try {
+            LoadBalancer.Policy.fromProperty("random");
+            fail("An unknown policy is accepted");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("random"));
+        }
+    }
+
+    @Test
+    public void testRoundRobinTakesEndpointsInTurn() {
+
+        LoadBalancer loadBalancer = newLoadBalancer(LoadBalancer.Policy.ROUND_ROBIN, URIS, 60000, 50);
+        List<LoadBalancer.Endpoint> endpoints = loadBalancer.getEndpoints();
+
+        for (int i = 0; i < 4; i++) {
+            assertSame(endpoints.get(i % 2), succeed(loadBalancer));
+        }
+    }
+
+    @Test
+    public void testLeastOutstandingPicksEndpointWithFewerCallsInFlight() {
+
+        LoadBalancer loadBalancer = newLoadBalancer(LoadBalancer.Policy.LEAST_OUTSTANDING, URIS, 60000, 50);
+        List<LoadBalancer.Endpoint> endpoints = loadBalancer.getEndpoints();
+
+        // calls left in flight: each goes to the endpoint with fewer of them
+        for (int i = 1; i <= 3; i++) {
+            loadBalancer.choose();
+            loadBalancer.choose();
+            assertEquals(i, endpoints.get(0).getOutstanding());
+            assertEquals(i, endpoints.get(1).getOutstanding());
+        }
+    }
+
+    @Test
+    public void testPeakEwmaPicksFasterEndpoint() {
+
+        LoadBalancer loadBalancer = newLoadBalancer(LoadBalancer.Policy.PEAK_EWMA, URIS, 60000, 50);
+        LoadBalancer.Endpoint slow = loadBalancer.getEndpoints().get(0);
+        LoadBalancer.Endpoint fast = loadBalancer.getEndpoints().get(1);
+
+        for (int i = 0; i < 10; i++) {
+            LoadBalancer.Endpoint endpoint = loadBalancer.choose();
+            loadBalancer.onResult(endpoint, TimeUnit.MILLISECONDS.toNanos(endpoint == slow ? 100 : 1), false);
+        }
+        assertTrue(slow.getCalls() > 0);
+        for (int i = 0; i < 5; i++) {
+            LoadBalancer.Endpoint endpoint = loadBalancer.choose();
+            assertSame(fast, endpoint);
+            loadBalancer.onResult(endpoint, TimeUnit.MILLISECONDS.toNanos(1), false);
+        }
+    }
+
+    @Test
+    public void testFailingEndpointEjected() {
+
+        LoadBalancer loadBalancer = newLoadBalancer(LoadBalancer.Policy.ROUND_ROBIN, URIS, 60000, 50);
+        LoadBalancer.Endpoint failing = loadBalancer.getEndpoints().get(0);
+        LoadBalancer.Endpoint healthy = loadBalancer.getEndpoints().get(1);
+
+        callFailing(loadBalancer, failing, 4);
+        assertTrue(failing.isEjected());
+        assertEquals(1, failing.getEjections());
+        assertEquals(2, failing.getFailures());
+        assertEquals(1, loadBalancer.getAvailable());
+
+        for (int i = 0; i < 4; i++) {
+            assertSame(healthy, succeed(loadBalancer));
+        }
+        assertFalse(healthy.isEjected());
+    }
+
+    @Test
+    public void testEjectionCappedByMaxEjectionPercent() {
+
+        LoadBalancer loadBalancer = newLoadBalancer(LoadBalancer.Policy.ROUND_ROBIN, URIS, 60000, 50);
+        assertEquals(50, loadBalancer.getEjectablePercent());
+
+        // both endpoints fail, but only one of the two may be ejected
+        callFailing(loadBalancer, null, 8);
+        assertEquals(1, loadBalancer.getAvailable());
+        assertEquals(1, loadBalancer.getEndpoints().get(0).getEjections()
+                + loadBalancer.getEndpoints().get(1).getEjections());
+
+        LoadBalancer noEjection = newLoadBalancer(LoadBalancer.Policy.ROUND_ROBIN, URIS, 60000, 0);
+        callFailing(noEjection, null, 8);
+        assertEquals(2, noEjection.getAvailable());
+
+        LoadBalancer threeEndpoints = newLoadBalancer(LoadBalancer.Policy.ROUND_ROBIN, Arrays.asList(URIS.get(0),
+                URIS.get(1), URI.create("http://host3/service/")), 60000, 50);
+        assertEquals(33, threeEndpoints.getEjectablePercent());
+    }
+
+    @Test
+    public void testAllEndpointsUsedOnceAllEjected() {
+
+        LoadBalancer loadBalancer = newLoadBalancer(LoadBalancer.Policy.ROUND_ROBIN, URIS, 60000, 100);
+
+        callFailing(loadBalancer, null, 4);
+        assertEquals(0, loadBalancer.getAvailable());
+        assertNotNull(succeed(loadBalancer));
+    }
+
+    @Test
+    public void testEndpointTakenBackAfterEjectionTime() throws InterruptedException {
+
+        LoadBalancer loadBalancer = newLoadBalancer(LoadBalancer.Policy.ROUND_ROBIN, URIS, 50, 50);
+        LoadBalancer.Endpoint failing = loadBalancer.getEndpoints().get(0);
+
+        callFailing(loadBalancer, failing, 4);
+        assertTrue(failing.isEjected());
+
+        Thread.sleep(100);
+        assertFalse(failing.isEjected());
+        assertEquals(2, loadBalancer.getAvailable());
+
+        // failing again as soon as it is back, it is ejected again, for longer
+        callFailing(loadBalancer, failing, 4);
+        assertTrue(failing.isEjected());
+        assertEquals(2, failing.getEjections());
+        Thread.sleep(60);
+        assertTrue(failing.isEjected());
+    }
+
+    /**
+     * @return A load balancer ejecting an endpoint once 1 of its last 2 calls
+     *         failed.
+     */
+    private static LoadBalancer newLoadBalancer(LoadBalancer.Policy policy, List<URI> uris, long ejectionTime,
+            int maxEjectionPercent) {
+        return new LoadBalancer("customer", uris, policy, 4, 2, 50, ejectionTime, maxEjectionPercent, 10000);
+    }
+
+    private static LoadBalancer.Endpoint succeed(LoadBalancer loadBalancer) {
+        LoadBalancer.Endpoint endpoint = loadBalancer.choose();
+        loadBalancer.onResult(endpoint, TimeUnit.MILLISECONDS.toNanos(1), false);
+        return endpoint;
+    }
+
+    /**
+     * Makes calls that fail on the endpoint, or on every endpoint if
+     * <code>null</code>.
+     */
+    private static void callFailing(LoadBalancer loadBalancer, LoadBalancer.Endpoint failing, int calls) {
+        for (int i = 0; i < calls; i++) {
+            try {
+                loadBalancer.execute(uri -> {
+                    if (failing == null || failing.getUri().equals(uri)) {
+                        throw new IllegalStateException("Connection refused");
+                    }
+                    return uri;
+                }, e -> true);
+            } catch (IllegalStateException e) {
+                // counted against the endpoint
+            }
+        }
+    }
+
+}
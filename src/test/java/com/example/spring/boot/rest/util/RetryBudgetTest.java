@@ -0,0 +1,61 @@
+package com.example.spring.boot.rest.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class RetryBudgetTest {
+
+    @Test
+    public void testRetriesCappedAtShareOfCalls() {
+
+        RetryBudget retryBudget = new RetryBudget(20, 0);
+        for (int i = 0; i < 10; i++) {
+            retryBudget.onCall();
+        }
+
+        assertTrue(retryBudget.tryRetry());
+        assertTrue(retryBudget.tryRetry());
+        assertFalse(retryBudget.tryRetry());
+        assertEquals(2, retryBudget.getRetries());
+        assertEquals(1, retryBudget.getExhausted());
+
+        // more calls make room for more retries
+        for (int i = 0; i < 5; i++) {
+            retryBudget.onCall();
+        }
+        assertTrue(retryBudget.tryRetry());
+        assertFalse(retryBudget.tryRetry());
+    }
+
+    @Test
+    public void testMinRetriesAllowedWithoutCalls() {
+
+        RetryBudget retryBudget = new RetryBudget(20, 1);
+
+        for (int i = 0; i < RetryBudget.WINDOW_SECONDS; i++) {
+            assertTrue(retryBudget.tryRetry());
+        }
+        assertFalse(retryBudget.tryRetry());
+        assertEquals(RetryBudget.WINDOW_SECONDS, retryBudget.getRetries());
+    }
+
+    @Test
+    public void testNoRetryWithEmptyBudget() {
+
+        RetryBudget retryBudget = new RetryBudget(0, 0);
+        retryBudget.onCall();
+
+        assertFalse(retryBudget.tryRetry());
+        assertEquals(0, retryBudget.getRetries());
+        assertEquals(1, retryBudget.getExhausted());
+    }
+
+}
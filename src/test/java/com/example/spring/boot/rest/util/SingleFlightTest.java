@@ -0,0 +1,203 @@
+package com.example.spring.boot.rest.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.example.spring.boot.rest.exception.ErrorCode;
+import com.example.spring.boot.rest.exception.FrameworkError;
+import com.example.spring.boot.rest.exception.ServiceException;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallersShareResult() throws Exception {
+
+        SingleFlight<Integer, Object> singleFlight = new SingleFlight<>("lookup", 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<Object> leader = this.executor.submit(() -> singleFlight.execute(1, () -> {
+            calls.incrementAndGet();
+            await(release);
+            return result;
+        }));
+        awaitInFlight(singleFlight, 1);
+        Future<Object> waiter = this.executor.submit(() -> singleFlight.execute(1, () -> {
+            calls.incrementAndGet();
+            return new Object();
+        }));
+        awaitShared(singleFlight, 1);
+        release.countDown();
+
+        assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        assertSame(result, waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getExecuted());
+        assertEquals(1, singleFlight.getShared());
+    }
+
+    @Test
+    public void testConcurrentCallersShareFailure() throws Exception {
+
+        SingleFlight<Integer, Object> singleFlight = new SingleFlight<>("lookup", 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        FrameworkError failure = new FrameworkError(ErrorCode.CS_1001.getValue());
+
+        Future<Object> leader = this.executor.submit(() -> singleFlight.execute(1, () -> {
+            await(release);
+            throw failure;
+        }));
+        awaitInFlight(singleFlight, 1);
+        Future<Object> waiter = this.executor.submit(() -> singleFlight.execute(1, Object::new));
+        awaitShared(singleFlight, 1);
+        release.countDown();
+
+        try {
+            leader.get(5, TimeUnit.SECONDS);
+            fail("The failure of the call is not passed on");
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+        try {
+            waiter.get(5, TimeUnit.SECONDS);
+            fail("The failure of the call is not passed on");
+        } catch (ExecutionException e) {
+            // an error of its own, with the same code
+            FrameworkError error = (FrameworkError) e.getCause();
+            assertNotSame(failure, error);
+            assertSame(failure, error.getCause());
+            assertEquals(ErrorCode.CS_1001.getValue(), error.getErrorMessage().getCode());
+        }
+        assertEquals(1, singleFlight.getExecuted());
+    }
+
+    @Test
+    public void testWaiterGetsOwnExceptionForUnexpectedFailure() throws Exception {
+
+        SingleFlight<Integer, Object> singleFlight = new SingleFlight<>("lookup", 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("query failed");
+
+        Future<Object> leader = this.executor.submit(() -> singleFlight.execute(1, () -> {
+            await(release);
+            throw failure;
+        }));
+        awaitInFlight(singleFlight, 1);
+        Future<Object> waiter = this.executor.submit(() -> singleFlight.execute(1, Object::new));
+        awaitShared(singleFlight, 1);
+        release.countDown();
+
+        try {
+            leader.get(5, TimeUnit.SECONDS);
+            fail("The failure of the call is not passed on");
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+        try {
+            waiter.get(5, TimeUnit.SECONDS);
+            fail("The failure of the call is not passed on");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ServiceException);
+            assertSame(failure, e.getCause().getCause());
+        }
+    }
+
+    @Test
+    public void testKeyRemovedAfterCompletion() {
+
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("lookup", 5000);
+
+        assertEquals("first", singleFlight.execute(1, () -> "first"));
+        assertEquals(0, singleFlight.getInFlight());
+        assertEquals("second", singleFlight.execute(1, () -> "second"));
+
+        try {
+            singleFlight.execute(1, () -> {
+                throw new IllegalStateException("query failed");
+            });
+            fail("The failure of the call is not passed on");
+        } catch (IllegalStateException e) {
+            assertEquals(0, singleFlight.getInFlight());
+        }
+        assertEquals("third", singleFlight.execute(1, () -> "third"));
+        assertEquals(4, singleFlight.getExecuted());
+        assertEquals(0, singleFlight.getShared());
+    }
+
+    @Test
+    public void testWaiterGivesUpAfterMaxWait() throws Exception {
+
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("lookup", 50);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = this.executor.submit(() -> singleFlight.execute(1, () -> {
+            await(release);
+            return "late";
+        }));
+        awaitInFlight(singleFlight, 1);
+
+        try {
+            singleFlight.execute(1, () -> "own");
+            fail("The waiter does not give up");
+        } catch (FrameworkError e) {
+            assertEquals(ErrorCode.CS_1015.getValue(), e.getErrorMessage().getCode());
+        }
+        assertEquals(1, singleFlight.getTimedOut());
+        // the hung call keeps its key until it is over
+        assertEquals(1, singleFlight.getInFlight());
+
+        release.countDown();
+        assertEquals("late", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitInFlight(SingleFlight<?, ?> singleFlight, int inFlight) throws InterruptedException {
+        for (int i = 0; i < 500 && singleFlight.getInFlight() < inFlight; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(inFlight, singleFlight.getInFlight());
+    }
+
+    private static void awaitShared(SingleFlight<?, ?> singleFlight, long shared) throws InterruptedException {
+        for (int i = 0; i < 500 && singleFlight.getShared() < shared; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(shared, singleFlight.getShared());
+    }
+
+}
@@ -0,0 +1,227 @@
+package com.example.spring.boot.soap.connector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.ws.client.WebServiceIOException;
+import org.springframework.ws.client.WebServiceTransportException;
+import org.springframework.ws.soap.client.SoapFaultClientException;
+
+import com.example.spring.boot.rest.util.AdaptiveTimeout;
+import com.example.spring.boot.rest.util.CircuitBreaker;
+
+/**
+ * @author mlahariya
+ * @version 1.0, Jan 2017
+ */
+
+public class SoapClientResilienceTest {
+
+    private static final SoapClientConfiguration.RetrySettings RETRY_SETTINGS =
+            new SoapClientConfiguration.RetrySettings(2, 100, 10, 0, 0, Arrays.asList("sum"));
+
+    @Test
+    public void testRefusedConnectionRetried() {
+
+        SoapClientResilience resilience = new SoapClientResilience("calculator", null, RETRY_SETTINGS, null);
+        Exchange exchange = new Exchange(refused(), "answer");
+
+        assertEquals("answer", resilience.execute(exchange, false, false));
+        assertEquals(2, exchange.calls.get());
+        assertEquals(1, resilience.getRetries());
+    }
+
+    @Test
+    public void testReadTimeoutRetriedForIdempotentOperationOnly() {
+
+        SoapClientResilience resilience = new SoapClientResilience("calculator", null, RETRY_SETTINGS, null);
+
+        Exchange notIdempotent = new Exchange(readTimeout(), "answer");
+        try {
+            resilience.execute(notIdempotent, false, false);
+            fail("The read timeout is retried");
+        } catch (WebServiceIOException e) {
+            assertEquals(1, notIdempotent.calls.get());
+        }
+        Exchange idempotent = new Exchange(readTimeout(), "answer");
+        assertEquals("answer", resilience.execute(idempotent, true, false));
+        assertEquals(2, idempotent.calls.get());
+
+        assertTrue(resilience.isIdempotent("sum"));
+        assertFalse(resilience.isIdempotent("divide"));
+    }
+
+    @Test
+    public void testHttpErrorRetriedForIdempotentOperationOnly() {
+
+        SoapClientResilience resilience = new SoapClientResilience("calculator", null, RETRY_SETTINGS, null);
+        WebServiceTransportException unavailable = new WebServiceTransportException("Service Unavailable [503]");
+
+        Exchange exchange = new Exchange(unavailable, "answer");
+        try {
+            resilience.execute(exchange, false, false);
+            fail("The HTTP error is retried");
+        } catch (WebServiceTransportException e) {
+            assertSame(unavailable, e);
+        }
+        assertEquals("answer", resilience.execute(new Exchange(unavailable, "answer"), true, false));
+    }
+
+    @Test
+    public void testRetriesStopAtMaxRetries() {
+
+        SoapClientResilience resilience = new SoapClientResilience("calculator", null, RETRY_SETTINGS, null);
+        Exchange exchange = new Exchange(refused(), refused(), refused(), "answer");
+
+        try {
+            resilience.execute(exchange, true, false);
+            fail("The call is retried more than maxRetries times");
+        } catch (WebServiceIOException e) {
+            assertEquals(3, exchange.calls.get());
+        }
+    }
+
+    @Test
+    public void testRetriesStopWhenBudgetSpent() {
+
+        SoapClientResilience resilience = new SoapClientResilience("calculator", null,
+                new SoapClientConfiguration.RetrySettings(2, 0, 0, 0, 0, Collections.emptyList()), null);
+        Exchange exchange = new Exchange(refused(), "answer");
+
+        try {
+            resilience.execute(exchange, true, false);
+            fail("The call is retried beyond the budget");
+        } catch (WebServiceIOException e) {
+            assertEquals(1, exchange.calls.get());
+            assertEquals(1, resilience.getRetryBudget().getExhausted());
+        }
+    }
+
+    @Test
+    public void testHedgeNotCountedAsCall() {
+
+        SoapClientResilience resilience = new SoapClientResilience("calculator", null,
+                new SoapClientConfiguration.RetrySettings(2, 100, 0, 0, 0, Collections.emptyList()), null);
+
+        // no call was counted, so there is no budget to retry the hedge
+        Exchange hedge = new Exchange(refused(), "answer");
+        try {
+            resilience.execute(hedge, true, true);
+            fail("The hedge is retried beyond the budget");
+        } catch (WebServiceIOException e) {
+            assertEquals(1, hedge.calls.get());
+        }
+        Exchange request = new Exchange(refused(), "answer");
+        assertEquals("answer", resilience.execute(request, true, false));
+        assertEquals(2, request.calls.get());
+    }
+
+    @Test
+    public void testSoapFaultNeitherRetriedNorCountedAsFailure() {
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("calculator", 1, 1, 50, 10000, 100, 60000, 1);
+        SoapClientResilience resilience = new SoapClientResilience("calculator", circuitBreaker, RETRY_SETTINGS,
+                null);
+        SoapFaultClientException fault = Mockito.mock(SoapFaultClientException.class);
+        Exchange exchange = new Exchange(fault, "answer");
+
+        try {
+            resilience.execute(exchange, true, false);
+            fail("The fault is not passed on");
+        } catch (SoapFaultClientException e) {
+            assertEquals(1, exchange.calls.get());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testBreakerCountsCallOnceAfterRetries() {
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("calculator", 2, 1, 50, 10000, 100, 60000, 1);
+        SoapClientResilience resilience = new SoapClientResilience("calculator", circuitBreaker, RETRY_SETTINGS,
+                null);
+
+        // failed on one endpoint, answered by another on the retry
+        assertEquals("answer", resilience.execute(new Exchange(refused(), "answer"), false, false));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(1, circuitBreaker.getBufferedCalls());
+        assertEquals(0, circuitBreaker.getFailureRate(), 0);
+
+        executeFailing(resilience, readTimeout());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testAdaptiveTimeoutFedAnswersAndTimeoutsOnly() {
+
+        AdaptiveTimeout adaptiveTimeout = Mockito.mock(AdaptiveTimeout.class);
+        SoapClientResilience resilience = new SoapClientResilience("calculator", null,
+                new SoapClientConfiguration.RetrySettings(0, 100, 10, 0, 0, Collections.emptyList()),
+                adaptiveTimeout);
+
+        resilience.execute(new Exchange("answer"), false, false);
+        executeFailing(resilience, refused());
+        executeFailing(resilience, new WebServiceIOException("pool", new ConnectionPoolTimeoutException("pool")));
+        Mockito.verify(adaptiveTimeout, Mockito.times(1)).record(Mockito.anyLong());
+
+        executeFailing(resilience, readTimeout());
+        executeFailing(resilience, new WebServiceTransportException("Internal Server Error [500]"));
+        executeFailing(resilience, Mockito.mock(SoapFaultClientException.class));
+        Mockito.verify(adaptiveTimeout, Mockito.times(4)).record(Mockito.anyLong());
+    }
+
+    private static void executeFailing(SoapClientResilience resilience, RuntimeException failure) {
+        try {
+            resilience.execute(new Exchange(failure), false, false);
+            fail("The failure is not passed on");
+        } catch (RuntimeException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    private static WebServiceIOException refused() {
+        return new WebServiceIOException("I/O error: Connection refused", new ConnectException("Connection refused"));
+    }
+
+    private static WebServiceIOException readTimeout() {
+        return new WebServiceIOException("I/O error: Read timed out", new SocketTimeoutException("Read timed out"));
+    }
+
+    /**
+     * Throws or returns its outcomes in turn, one per call.
+     */
+    private static class Exchange implements Supplier<Object> {
+
+        private final Object[] outcomes;
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        Exchange(Object... outcomes) {
+            this.outcomes = outcomes;
+        }
+
+        @Override
+        public Object get() {
+            Object outcome = this.outcomes[Math.min(this.calls.getAndIncrement(), this.outcomes.length - 1)];
+            if (outcome instanceof RuntimeException) {
+                throw (RuntimeException) outcome;
+            }
+            return outcome;
+        }
+
+    }
+
+}
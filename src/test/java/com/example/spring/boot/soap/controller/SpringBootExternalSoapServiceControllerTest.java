@@ -1,10 +1,18 @@
 package com.example.spring.boot.soap.controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+
+import javax.xml.bind.JAXB;
+import javax.xml.soap.MessageFactory;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -12,15 +20,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.ws.context.DefaultMessageContext;
 import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.axiom.AxiomSoapMessageFactory;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
 
 import com.example.spring.boot.rest.service.DmServiceInterface;
 import com.example.spring.boot.rest.types.EmpDetails;
 import com.sample.soap.xml.dm.EmpAddress;
+import com.sample.soap.xml.dm.EmpBatchRequest;
 import com.sample.soap.xml.dm.EmpConfigIdentifier;
+import com.sample.soap.xml.dm.EmpPageRequest;
 import com.sample.soap.xml.dm.QueryEmpConfigs;
+import com.sample.soap.xml.dm.QueryEmpConfigsBatch;
+import com.sample.soap.xml.dm.QueryEmpConfigsBatchResponse;
 import com.sample.soap.xml.dm.QueryEmpConfigsResponse;
 import com.sample.soap.xml.dm.SelectAllEmpAllData;
+import com.sample.soap.xml.dm.SelectAllEmpAllDataPage;
+import com.sample.soap.xml.dm.SelectAllEmpAllDataPageResponse;
 import com.sample.soap.xml.dm.SelectAllEmpAllDataResponse;
 
 /**
@@ -62,6 +79,34 @@ public class SpringBootExternalSoapServiceControllerTest {
 
     }
 
+    @Test
+    public void testQueryEmpConfigsBatch() throws Exception {
+
+        MessageContext messageContext = null;
+
+        QueryEmpConfigsBatch queryEmpConfigsBatch = new QueryEmpConfigsBatch();
+        EmpBatchRequest empBatchRequest = new EmpBatchRequest();
+        empBatchRequest.getIds().add(1);
+        empBatchRequest.getIds().add(99);
+        queryEmpConfigsBatch.setArg0(empBatchRequest);
+
+        List<com.example.spring.boot.rest.types.EmpConfigResult> valueList = new ArrayList<com.example.spring.boot.rest.types.EmpConfigResult>();
+        valueList.add(new com.example.spring.boot.rest.types.EmpConfigResult(1, getRestEmpDetails()));
+        valueList.add(new com.example.spring.boot.rest.types.EmpConfigResult(99, null));
+
+        Mockito.when(
+                dmService.queryEmpConfigsBatch(Mockito.any(com.example.spring.boot.rest.types.EmpBatchRequest.class)))
+                .thenReturn(valueList);
+
+        QueryEmpConfigsBatchResponse response = dmSoapServiceController.queryEmpConfigsBatch(queryEmpConfigsBatch,
+                messageContext);
+        assertNotNull(response);
+        assertEquals(2, response.getReturn().size());
+        assertEquals("Manu", response.getReturn().get(0).getEmpDetails().getFirstName());
+        assertFalse(response.getReturn().get(1).isFound());
+        assertNull(response.getReturn().get(1).getEmpDetails());
+    }
+
     @Test
     public void testSelectAllEmpAllData() throws Exception {
 
@@ -88,6 +133,106 @@ public class SpringBootExternalSoapServiceControllerTest {
         assertEquals(response.getReturn().size(), 1);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSelectAllEmpAllDataStreaming() throws Exception {
+
+        SaajSoapMessageFactory messageFactory = new SaajSoapMessageFactory(MessageFactory.newInstance());
+        MessageContext messageContext = new DefaultMessageContext(messageFactory);
+
+        SelectAllEmpAllData selectAllEmpAllData = new SelectAllEmpAllData();
+        EmpAddress empAddress = new EmpAddress();
+        empAddress.setAddress("Sec49");
+        selectAllEmpAllData.setArg0(empAddress);
+
+        Mockito.when(
+                dmService.streamAllEmpAllData(Mockito.any(com.example.spring.boot.rest.types.EmpAddress.class),
+                        Mockito.any(Consumer.class))).thenAnswer(invocation -> {
+            ((Consumer<EmpDetails>) invocation.getArguments()[1]).accept(getRestEmpDetails());
+            return 1;
+        });
+
+        dmSoapServiceController.setStreaming(true);
+        assertNull(dmSoapServiceController.selectAllEmpAllData(selectAllEmpAllData, messageContext));
+
+        SelectAllEmpAllDataResponse response = JAXB.unmarshal(messageContext.getResponse().getPayloadSource(),
+                SelectAllEmpAllDataResponse.class);
+        assertEquals(1, response.getReturn().size());
+        assertEquals("Manu", response.getReturn().get(0).getFirstName());
+        assertEquals("Sec49", response.getReturn().get(0).getAddress());
+        assertEquals(1, response.getReturn().get(0).getId());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSelectAllEmpAllDataStreamingAxiom() throws Exception {
+
+        AxiomSoapMessageFactory messageFactory = new AxiomSoapMessageFactory();
+        messageFactory.setPayloadCaching(false);
+        messageFactory.afterPropertiesSet();
+        MessageContext messageContext = new DefaultMessageContext(messageFactory);
+
+        SelectAllEmpAllData selectAllEmpAllData = new SelectAllEmpAllData();
+        EmpAddress empAddress = new EmpAddress();
+        empAddress.setAddress("Sec49");
+        selectAllEmpAllData.setArg0(empAddress);
+
+        Mockito.when(
+                dmService.streamAllEmpAllData(Mockito.any(com.example.spring.boot.rest.types.EmpAddress.class),
+                        Mockito.any(Consumer.class))).thenAnswer(invocation -> {
+            ((Consumer<EmpDetails>) invocation.getArguments()[1]).accept(getRestEmpDetails());
+            return 1;
+        });
+
+        dmSoapServiceController.setStreaming(true);
+        assertNull(dmSoapServiceController.selectAllEmpAllData(selectAllEmpAllData, messageContext));
+        Mockito.verify(dmService, Mockito.never()).streamAllEmpAllData(
+                Mockito.any(com.example.spring.boot.rest.types.EmpAddress.class), Mockito.any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        messageContext.getResponse().writeTo(out);
+        Mockito.verify(dmService).streamAllEmpAllData(
+                Mockito.any(com.example.spring.boot.rest.types.EmpAddress.class), Mockito.any(Consumer.class));
+
+        SaajSoapMessageFactory saajMessageFactory = new SaajSoapMessageFactory(MessageFactory.newInstance());
+        SelectAllEmpAllDataResponse response = JAXB.unmarshal(saajMessageFactory
+                .createWebServiceMessage(new ByteArrayInputStream(out.toByteArray())).getPayloadSource(),
+                SelectAllEmpAllDataResponse.class);
+        assertEquals(1, response.getReturn().size());
+        assertEquals("Manu", response.getReturn().get(0).getFirstName());
+        assertEquals("Sec49", response.getReturn().get(0).getAddress());
+    }
+
+    @Test
+    public void testSelectAllEmpAllDataPage() throws Exception {
+
+        MessageContext messageContext = null;
+
+        SelectAllEmpAllDataPage selectAllEmpAllDataPage = new SelectAllEmpAllDataPage();
+        EmpPageRequest empPageRequest = new EmpPageRequest();
+        empPageRequest.setAddress("Sec49");
+        empPageRequest.setPageSize(1);
+        selectAllEmpAllDataPage.setArg0(empPageRequest);
+
+        com.example.spring.boot.rest.types.EmpDetailsPage restEmpDetailsPage = new com.example.spring.boot.rest.types.EmpDetailsPage();
+        List<EmpDetails> valueList = new ArrayList<EmpDetails>();
+        valueList.add(getRestEmpDetails());
+        restEmpDetailsPage.setEmpDetails(valueList);
+        restEmpDetailsPage.setContinuationToken("MTox");
+
+        Mockito.when(
+                dmService.selectAllEmpAllDataPage(Mockito.any(com.example.spring.boot.rest.types.EmpPageRequest.class)))
+                .thenReturn(restEmpDetailsPage);
+
+        SelectAllEmpAllDataPageResponse response = dmSoapServiceController.selectAllEmpAllDataPage(
+                selectAllEmpAllDataPage, messageContext);
+        assertNotNull(response);
+        assertNotNull(response.getReturn());
+        assertEquals(1, response.getReturn().getEmpDetails().size());
+        assertEquals("Manu", response.getReturn().getEmpDetails().get(0).getFirstName());
+        assertEquals("MTox", response.getReturn().getContinuationToken());
+    }
+
     private com.example.spring.boot.rest.types.EmpDetails getRestEmpDetails() {
         com.example.spring.boot.rest.types.EmpDetails restEmpDetails = new com.example.spring.boot.rest.types.EmpDetails();
         restEmpDetails.setId(1);